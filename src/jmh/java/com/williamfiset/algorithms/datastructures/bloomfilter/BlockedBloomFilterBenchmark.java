@@ -0,0 +1,90 @@
+/**
+ * Measures the time per probe of the {@link BlockedBloomFilter} for keys which are in the filter,
+ * keys which are not, and batches of keys checked through containsAll. Once the filter outgrows
+ * the processor caches every probe costs roughly one cache miss, which is what the larger size
+ * is meant to show.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=BlockedBloomFilterBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockedBloomFilterBenchmark {
+
+  // Number of queries per invocation, a power of two so the index can be masked.
+  private static final int QUERIES = 1 << 16;
+
+  @Param({"1000000", "50000000"})
+  public int size;
+
+  @Param({"0.01", "0.001"})
+  public double falsePositiveRate;
+
+  private BlockedBloomFilter filter;
+  private long[] present, absent;
+  private boolean[] results;
+  private int index;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xB100F);
+    filter = new BlockedBloomFilter(size, falsePositiveRate);
+    present = new long[QUERIES];
+    for (int i = 0; i < size; i++) {
+      long hash = random.nextLong();
+      filter.add(hash);
+      if (i < QUERIES) present[i] = hash;
+    }
+    absent = new long[QUERIES];
+    for (int i = 0; i < QUERIES; i++) absent[i] = random.nextLong();
+    results = new boolean[QUERIES];
+  }
+
+  @Benchmark
+  public boolean containsPresent() {
+    index = (index + 1) & (QUERIES - 1);
+    return filter.contains(present[index]);
+  }
+
+  @Benchmark
+  public boolean containsAbsent() {
+    index = (index + 1) & (QUERIES - 1);
+    return filter.contains(absent[index]);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int containsAllPresent() {
+    return filter.containsAll(present, results);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int containsAllAbsent() {
+    return filter.containsAll(absent, results);
+  }
+}
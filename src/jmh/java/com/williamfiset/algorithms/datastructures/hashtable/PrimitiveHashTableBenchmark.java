@@ -0,0 +1,154 @@
+/**
+ * Compares the throughput of the primitive specialized maps ({@link IntIntMap}, {@link
+ * LongLongMap} and {@link LongObjectMap}) against the generic open addressing hash tables using
+ * the same probing strategy, and against java.util.HashMap.
+ *
+ * <p>The 'build' benchmarks insert every key into a fresh table and then look each one up, so the
+ * allocation rate reported by the GC profiler includes all the boxing and resizing garbage. The
+ * 'get' benchmarks only perform lookups on a table built during setup.
+ *
+ * <p>For the retained memory footprint of each table see the hashtable Benchmark program under
+ * src/test.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=PrimitiveHashTableBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveHashTableBenchmark {
+
+  @Param({"LINEAR", "QUADRATIC", "DOUBLE_HASHING"})
+  public ProbingStrategy probing;
+
+  @Param({"10000", "1000000"})
+  public int size;
+
+  private int[] keys;
+  private DoubleHashingTestObject[] doubleHashKeys;
+
+  private HashTableOpenAddressingBase<Object, Integer> genericTable;
+  private IntIntMap intIntMap;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xC0FFEE);
+    keys = new int[size];
+    doubleHashKeys = new DoubleHashingTestObject[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = random.nextInt();
+      doubleHashKeys[i] = new DoubleHashingTestObject(keys[i]);
+    }
+    genericTable = newFilledGenericTable();
+    intIntMap = newFilledIntIntMap();
+  }
+
+  @SuppressWarnings("unchecked")
+  private HashTableOpenAddressingBase<Object, Integer> newGenericTable() {
+    switch (probing) {
+      case LINEAR:
+        return new HashTableLinearProbing<>();
+      case QUADRATIC:
+        return new HashTableQuadraticProbing<>();
+      default:
+        // Double hashing needs keys which provide a secondary hash.
+        return (HashTableOpenAddressingBase) new HashTableDoubleHashing<>();
+    }
+  }
+
+  private Object genericKey(int i) {
+    return probing == ProbingStrategy.DOUBLE_HASHING ? doubleHashKeys[i] : (Object) keys[i];
+  }
+
+  private HashTableOpenAddressingBase<Object, Integer> newFilledGenericTable() {
+    HashTableOpenAddressingBase<Object, Integer> table = newGenericTable();
+    for (int i = 0; i < size; i++) table.put(genericKey(i), i);
+    return table;
+  }
+
+  private IntIntMap newFilledIntIntMap() {
+    IntIntMap map = new IntIntMap(probing);
+    for (int i = 0; i < size; i++) map.put(keys[i], i);
+    return map;
+  }
+
+  @Benchmark
+  public long buildGeneric() {
+    HashTableOpenAddressingBase<Object, Integer> table = newFilledGenericTable();
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += table.get(genericKey(i));
+    return sum;
+  }
+
+  @Benchmark
+  public long buildIntIntMap() {
+    IntIntMap map = newFilledIntIntMap();
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += map.get(keys[i]);
+    return sum;
+  }
+
+  @Benchmark
+  public long buildLongLongMap() {
+    LongLongMap map = new LongLongMap(probing);
+    for (int i = 0; i < size; i++) map.put(keys[i], i);
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += map.get(keys[i]);
+    return sum;
+  }
+
+  @Benchmark
+  public long buildLongObjectMap() {
+    LongObjectMap<int[]> map = new LongObjectMap<>(probing);
+    for (int i = 0; i < size; i++) map.put(keys[i], keys);
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += map.get(keys[i]).length;
+    return sum;
+  }
+
+  @Benchmark
+  public long buildJavaHashMap() {
+    HashMap<Integer, Integer> map = new HashMap<>();
+    for (int i = 0; i < size; i++) map.put(keys[i], i);
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += map.get(keys[i]);
+    return sum;
+  }
+
+  @Benchmark
+  public long getGeneric() {
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += genericTable.get(genericKey(i));
+    return sum;
+  }
+
+  @Benchmark
+  public long getIntIntMap() {
+    long sum = 0;
+    for (int i = 0; i < size; i++) sum += intIntMap.get(keys[i]);
+    return sum;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Compares the generic {@link MinIndexedDHeap} holding boxed Doubles with the primitive {@link
+ * MinIndexedDoubleDHeap} as the priority queue of Dijkstra's algorithm, for heap degrees 2, 4 and
+ * 8 on a sparse graph (few decrease key operations, the heap is mostly polled) and on a dense graph
+ * (many decrease key operations per poll).
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=IndexedDHeapBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.priorityqueue;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexedDHeapBenchmark {
+
+  @Param({"2", "4", "8"})
+  public int degree;
+
+  // sparse: 200,000 nodes with 5 random edges each.
+  // dense: 2,000 nodes with 500 random edges each.
+  @Param({"sparse", "dense"})
+  public String graph;
+
+  private CsrGraph g;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xDEA9);
+    int n = graph.equals("sparse") ? 200_000 : 2_000;
+    int edgesPerNode = graph.equals("sparse") ? 5 : 500;
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, n * edgesPerNode);
+    for (int u = 0; u < n; u++) {
+      for (int i = 0; i < edgesPerNode; i++) {
+        builder.addEdge(u, random.nextInt(n), 1 + random.nextInt(1000));
+      }
+    }
+    g = builder.build();
+  }
+
+  @Benchmark
+  public double[] boxedHeap() {
+    int n = g.numNodes();
+    int[] offsets = g.offsets(), targets = g.targets();
+    double[] weights = g.weights();
+    double[] dist = new double[n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    dist[0] = 0;
+
+    MinIndexedDHeap<Double> ipq = new MinIndexedDHeap<>(degree, n);
+    ipq.insert(0, 0.0);
+    while (!ipq.isEmpty()) {
+      int u = ipq.pollMinKeyIndex();
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int v = targets[e];
+        double newDist = dist[u] + weights[e];
+        if (newDist < dist[v]) {
+          dist[v] = newDist;
+          if (!ipq.contains(v)) ipq.insert(v, newDist);
+          else ipq.decrease(v, newDist);
+        }
+      }
+    }
+    return dist;
+  }
+
+  @Benchmark
+  public double[] primitiveHeap() {
+    int n = g.numNodes();
+    int[] offsets = g.offsets(), targets = g.targets();
+    double[] weights = g.weights();
+    double[] dist = new double[n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    dist[0] = 0;
+
+    MinIndexedDoubleDHeap ipq = new MinIndexedDoubleDHeap(degree, n);
+    ipq.insert(0, 0.0);
+    while (!ipq.isEmpty()) {
+      int u = ipq.pollMinKeyIndex();
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int v = targets[e];
+        double newDist = dist[u] + weights[e];
+        if (newDist < dist[v]) {
+          dist[v] = newDist;
+          if (!ipq.contains(v)) ipq.insert(v, newDist);
+          else ipq.decrease(v, newDist);
+        }
+      }
+    }
+    return dist;
+  }
+}
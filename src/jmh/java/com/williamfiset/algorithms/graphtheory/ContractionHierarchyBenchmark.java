@@ -0,0 +1,100 @@
+/**
+ * Measures random point-to-point queries on a road-like graph answered by Dijkstra, bidirectional
+ * ALT and contraction hierarchies, with and without unpacking the path. The graph is a grid of
+ * local roads with a faster arterial road on every 8th row and column and a highway on every
+ * 40th, and 20% of the local roads missing. The hierarchy is built once in the setup.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=ContractionHierarchyBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ContractionHierarchyBenchmark {
+
+  private static final int QUERIES = 100;
+
+  @Param({"500"})
+  public int side;
+
+  private DijkstrasShortestPathCsr dijkstra;
+  private BidirectionalShortestPathCsr alt;
+  private ContractionHierarchy ch;
+  private int[] starts, ends;
+
+  @Setup
+  public void setup() {
+    CsrGraph g =
+        new GraphGenerator.GridGenerator(side, side).roadLike().weights(1, 2).seed(4).toCsrGraph();
+    int n = g.numNodes();
+    Random random = new Random(0xC4);
+
+    dijkstra = new DijkstrasShortestPathCsr(g);
+    alt = new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.landmarks(g, 16));
+    ch = ContractionHierarchy.build(g);
+
+    starts = new int[QUERIES];
+    ends = new int[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      starts[i] = random.nextInt(n);
+      ends[i] = random.nextInt(n);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double dijkstra() {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += dijkstra.dijkstra(starts[i], ends[i]);
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double bidirectionalAlt() {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += alt.shortestPath(starts[i], ends[i]);
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double contractionHierarchy() {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += ch.shortestPath(starts[i], ends[i]);
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int contractionHierarchyWithPath() {
+    int sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += ch.reconstructPath(starts[i], ends[i]).length;
+    return sum;
+  }
+}
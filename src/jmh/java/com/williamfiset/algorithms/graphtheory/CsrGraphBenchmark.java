@@ -0,0 +1,121 @@
+/**
+ * Compares the traversal throughput of the adjacency list solvers with their {@link CsrGraph}
+ * counterparts on the same random graph: BFS, Tarjan's SCC, Dijkstra's and Kahn's algorithm. Each
+ * invocation runs a solver over the whole graph. The memory used by the two representations is
+ * measured by CsrGraphMemoryBenchmark in the test sources.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=CsrGraphBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.Utils;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The recursive list based Tarjan solver needs a deep stack on large random graphs.
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class CsrGraphBenchmark {
+
+  @Param({"100000", "1000000"})
+  public int nodes;
+
+  @Param({"8"})
+  public int averageDegree;
+
+  private List<List<Integer>> unweightedList;
+  private List<List<BreadthFirstSearchAdjacencyListIterative.Edge>> bfsList;
+  private DijkstrasShortestPathAdjacencyListWithDHeap dijkstraList;
+  private List<List<Integer>> dagList;
+  private CsrGraph graph, dag;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xC5A);
+    int edges = nodes * averageDegree;
+    unweightedList = Utils.createEmptyAdjacencyList(nodes);
+    bfsList = BreadthFirstSearchAdjacencyListIterative.createEmptyGraph(nodes);
+    dijkstraList = new DijkstrasShortestPathAdjacencyListWithDHeap(nodes);
+    dagList = Utils.createEmptyAdjacencyList(nodes);
+    CsrGraph.Builder builder = new CsrGraph.Builder(nodes, edges);
+    CsrGraph.Builder dagBuilder = new CsrGraph.Builder(nodes, edges);
+
+    for (int i = 0; i < edges; i++) {
+      int u = random.nextInt(nodes), v = random.nextInt(nodes), cost = 1 + random.nextInt(100);
+      Utils.addDirectedEdge(unweightedList, u, v);
+      BreadthFirstSearchAdjacencyListIterative.addDirectedEdge(bfsList, u, v, cost);
+      dijkstraList.addEdge(u, v, cost);
+      builder.addEdge(u, v, (long) cost);
+
+      // Orienting every edge from the smaller to the larger node makes the graph acyclic.
+      if (u != v) {
+        Utils.addDirectedEdge(dagList, Math.min(u, v), Math.max(u, v));
+        dagBuilder.addEdge(Math.min(u, v), Math.max(u, v));
+      }
+    }
+    graph = builder.build();
+    dag = dagBuilder.build();
+  }
+
+  @Benchmark
+  public List<Integer> bfsAdjacencyList() {
+    return new BreadthFirstSearchAdjacencyListIterative(bfsList).reconstructPath(0, nodes - 1);
+  }
+
+  @Benchmark
+  public int[] bfsCsr() {
+    return new BreadthFirstSearchCsr(graph).bfs(0);
+  }
+
+  @Benchmark
+  public int tarjanAdjacencyList() {
+    return new TarjanSccSolverAdjacencyList(unweightedList).sccCount();
+  }
+
+  @Benchmark
+  public int tarjanCsr() {
+    return new TarjanSccSolverCsr(graph).sccCount();
+  }
+
+  // An end node of -1 is never reached, so the whole graph is explored.
+  @Benchmark
+  public double dijkstraAdjacencyList() {
+    return dijkstraList.dijkstra(0, -1);
+  }
+
+  @Benchmark
+  public double[] dijkstraCsr() {
+    return new DijkstrasShortestPathCsr(graph).dijkstra(0);
+  }
+
+  @Benchmark
+  public int[] kahnsAdjacencyList() {
+    return new Kahns().kahns(dagList);
+  }
+
+  @Benchmark
+  public int[] kahnsCsr() {
+    return new KahnsCsr().kahns(dag);
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Measures how one-to-all shortest paths with delta-stepping scale from 1 to N threads, against
+ * the sequential Dijkstra on the same CSR graph. Two generated graphs with about a million edges
+ * are used: a random graph with uniform weights in [0, 1) (low diameter, a lot of parallelism per
+ * bucket) and a grid with weights in [1, 2) (high diameter, little parallelism per bucket).
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=DeltaSteppingBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class DeltaSteppingBenchmark {
+
+  @Param({"random", "grid"})
+  public String graph;
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private DijkstrasShortestPathCsr dijkstra;
+  private DeltaSteppingCsr deltaStepping;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setup() {
+    CsrGraph g =
+        graph.equals("random")
+            ? GraphGenerator.ErdosRenyiGenerator.gnm(125_000, 1_000_000).weights(0, 1).toCsrGraph()
+            : new GraphGenerator.GridGenerator(500, 500).weights(1, 2).toCsrGraph();
+    dijkstra = new DijkstrasShortestPathCsr(g);
+    deltaStepping = new DeltaSteppingCsr(g);
+    pool = new ForkJoinPool(threads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  // The sequential baseline, it does not depend on the number of threads.
+  @Benchmark
+  public double[] dijkstra() {
+    return dijkstra.dijkstra(0);
+  }
+
+  @Benchmark
+  public double[] deltaStepping() {
+    return deltaStepping.shortestPaths(0, pool);
+  }
+}
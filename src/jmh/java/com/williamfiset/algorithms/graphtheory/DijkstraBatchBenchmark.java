@@ -0,0 +1,117 @@
+/**
+ * Measures the throughput of many point-to-point shortest path queries against a static graph:
+ * calling {@link DijkstrasShortestPathAdjacencyListWithDHeap#dijkstra(int, int)} in a loop, which
+ * allocates its arrays and heap for every query, versus the batch API which reuses the memory of
+ * each worker, on one and on all the available threads.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=DijkstraBatchBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBatchBenchmark {
+
+  private static final int QUERIES = 1000;
+
+  // Queries on a grid, like on a road network, only explore the nodes near the start and
+  // end nodes when they are close, which is where reallocating per query hurts the most.
+  @Param({"316"})
+  public int side;
+
+  // The largest distance (in grid steps) between the start and end of a query.
+  @Param({"10", "100"})
+  public int queryRadius;
+
+  private DijkstrasShortestPathAdjacencyListWithDHeap solver;
+  private int[] starts, ends;
+  private ExecutorService singleThread, allThreads;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xD1);
+    int n = side * side;
+    solver = new DijkstrasShortestPathAdjacencyListWithDHeap(n);
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int u = r * side + c;
+        if (c + 1 < side) addUndirectedEdge(u, u + 1, 1 + random.nextInt(10));
+        if (r + 1 < side) addUndirectedEdge(u, u + side, 1 + random.nextInt(10));
+      }
+    }
+
+    starts = new int[QUERIES];
+    ends = new int[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      int r = random.nextInt(side), c = random.nextInt(side);
+      int r2 = clamp(r + random.nextInt(2 * queryRadius + 1) - queryRadius);
+      int c2 = clamp(c + random.nextInt(2 * queryRadius + 1) - queryRadius);
+      starts[i] = r * side + c;
+      ends[i] = r2 * side + c2;
+    }
+
+    singleThread = Executors.newFixedThreadPool(1);
+    allThreads = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  @TearDown
+  public void tearDown() {
+    singleThread.shutdown();
+    allThreads.shutdown();
+  }
+
+  private void addUndirectedEdge(int u, int v, int cost) {
+    solver.addEdge(u, v, cost);
+    solver.addEdge(v, u, cost);
+  }
+
+  private int clamp(int i) {
+    return Math.max(0, Math.min(side - 1, i));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double singleQueries() {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += solver.dijkstra(starts[i], ends[i]);
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double[] batchSingleThread() {
+    return solver.dijkstra(starts, ends, singleThread);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double[] batchAllThreads() {
+    return solver.dijkstra(starts, ends, allThreads);
+  }
+}
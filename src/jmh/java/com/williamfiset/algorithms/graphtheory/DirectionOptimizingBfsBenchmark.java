@@ -0,0 +1,94 @@
+/**
+ * Measures BFS on an undirected R-MAT (Kronecker) graph with the Graph500 parameters (a = 0.57, b
+ * = c = 0.19, 16 edges per node), comparing the sequential top-down {@link BreadthFirstSearchCsr}
+ * with the direction-optimizing BFS on 1 to N threads. Searches start from random nodes of the
+ * giant component.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=DirectionOptimizingBfsBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class DirectionOptimizingBfsBenchmark {
+
+  private static final int SEARCHES = 8;
+
+  @Param({"18"})
+  public int scale;
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private BreadthFirstSearchCsr topDown;
+  private DirectionOptimizingBfsCsr directionOptimizing;
+  private ForkJoinPool pool;
+  private int[] starts;
+
+  @Setup
+  public void setup() {
+    CsrGraph g = new GraphGenerator.RMatGenerator(scale, 16).undirected(true).seed(5).toCsrGraph();
+    int n = g.numNodes();
+    Random random = new Random(0xBF5);
+    topDown = new BreadthFirstSearchCsr(g);
+    directionOptimizing = new DirectionOptimizingBfsCsr(g);
+    pool = new ForkJoinPool(threads);
+
+    // Pick starting nodes with many edges so the searches cover the giant component.
+    starts = new int[SEARCHES];
+    for (int i = 0; i < SEARCHES; i++) {
+      int s = random.nextInt(n);
+      while (g.outDegree(s) < 4) s = random.nextInt(n);
+      starts[i] = s;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  // The sequential baseline, it does not depend on the number of threads.
+  @Benchmark
+  @OperationsPerInvocation(SEARCHES)
+  public int topDown() {
+    int sum = 0;
+    for (int s : starts) sum += topDown.bfs(s)[0];
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SEARCHES)
+  public int directionOptimizing() {
+    int sum = 0;
+    for (int s : starts) sum += directionOptimizing.bfs(s, pool)[0];
+    return sum;
+  }
+}
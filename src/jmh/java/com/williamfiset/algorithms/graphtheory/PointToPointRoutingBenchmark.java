@@ -0,0 +1,109 @@
+/**
+ * Measures random point-to-point queries on a road-like grid graph (nodes at integer coordinates,
+ * edge costs between 1 and 2 times their length) answered by one sided Dijkstra with early exit,
+ * bidirectional Dijkstra, bidirectional A* with the Euclidean heuristic and bidirectional ALT with
+ * 16 landmarks.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=PointToPointRoutingBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointToPointRoutingBenchmark {
+
+  private static final int QUERIES = 100;
+
+  @Param({"500"})
+  public int side;
+
+  private DijkstrasShortestPathCsr dijkstra;
+  private BidirectionalShortestPathCsr bidirectional, astar, alt;
+  private int[] starts, ends;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0xA57A2);
+    int n = side * side;
+    double[] x = new double[n], y = new double[n];
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, 4 * n);
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int u = r * side + c;
+        x[u] = c;
+        y[u] = r;
+        if (c + 1 < side) builder.addUndirectedEdge(u, u + 1, 1 + random.nextDouble());
+        if (r + 1 < side) builder.addUndirectedEdge(u, u + side, 1 + random.nextDouble());
+      }
+    }
+    CsrGraph g = builder.build();
+
+    dijkstra = new DijkstrasShortestPathCsr(g);
+    bidirectional = new BidirectionalShortestPathCsr(g);
+    astar = new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.euclidean(x, y, 1));
+    alt = new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.landmarks(g, 16));
+
+    starts = new int[QUERIES];
+    ends = new int[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      starts[i] = random.nextInt(n);
+      ends[i] = random.nextInt(n);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double dijkstra() {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += dijkstra.dijkstra(starts[i], ends[i]);
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double bidirectionalDijkstra() {
+    return run(bidirectional);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double bidirectionalAStarEuclidean() {
+    return run(astar);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public double bidirectionalAlt() {
+    return run(alt);
+  }
+
+  private double run(BidirectionalShortestPathCsr solver) {
+    double sum = 0;
+    for (int i = 0; i < QUERIES; i++) sum += solver.shortestPath(starts[i], ends[i]);
+    return sum;
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Compares the weighted assignment solvers on random sparse instances: n workers each able to do
+ * 20 of n tasks at a random integer cost in [0, 1000000), with a perfect matching hidden among the
+ * edges so every instance is feasible. The auction solver takes the edges as a {@link CsrGraph},
+ * the Hungarian solver takes the full n x n matrix with the missing edges costing more than any
+ * perfect matching of the edges present, since it only works on dense matrices. Both find the
+ * same optimal cost. The bitmask DP of {@link
+ * com.williamfiset.algorithms.dp.MinimumWeightPerfectMatching} cannot solve more than about 20
+ * nodes, so it is left out.
+ *
+ * <p>A solve takes from milliseconds to tens of seconds, so every invocation is timed on its own.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=AssignmentBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class AssignmentBenchmark {
+
+  private static final int EDGES_PER_WORKER = 20, MAX_COST = 1000000;
+
+  @Param({"1000", "5000", "10000"})
+  public int n;
+
+  @Param({"Hungarian", "Auction"})
+  public String solver;
+
+  private CsrGraph graph;
+  private double[][] matrix;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(0xA55);
+    int[] hidden = new int[n];
+    for (int i = 0; i < n; i++) hidden[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1), tmp = hidden[i];
+      hidden[i] = hidden[j];
+      hidden[j] = tmp;
+    }
+
+    boolean dense = solver.equals("Hungarian");
+    CsrGraph.Builder builder = new CsrGraph.Builder(2 * n, n * EDGES_PER_WORKER);
+    if (dense) {
+      matrix = new double[n][n];
+      for (double[] row : matrix) Arrays.fill(row, (double) n * MAX_COST);
+    }
+    for (int u = 0; u < n; u++) {
+      for (int k = 0; k < EDGES_PER_WORKER; k++) {
+        int v = k == 0 ? hidden[u] : random.nextInt(n);
+        double cost = random.nextInt(MAX_COST);
+        if (dense) matrix[u][v] = Math.min(matrix[u][v], cost);
+        else builder.addEdge(u, n + v, cost);
+      }
+    }
+    if (!dense) graph = builder.build();
+  }
+
+  @Benchmark
+  public double minWeightCost() {
+    switch (solver) {
+      case "Hungarian":
+        return new MinimumWeightBipartiteMatchingHungarian(matrix).getMinWeightCost();
+      case "Auction":
+        return new MinimumWeightBipartiteMatchingAuctionCsr(graph, n).getMinWeightCost();
+      default:
+        throw new IllegalArgumentException("Unknown solver: " + solver);
+    }
+  }
+}
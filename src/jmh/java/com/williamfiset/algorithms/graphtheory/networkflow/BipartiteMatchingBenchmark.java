@@ -0,0 +1,107 @@
+/**
+ * Compares the maximum cardinality bipartite matching solvers on random assignment graphs: n left
+ * nodes with 1 to 40 edges each (about 20n edges) to n right nodes, where the right nodes are
+ * drawn with a skewed distribution so a few of them are wanted by many left nodes and the greedy
+ * matching leaves a lot to fix.
+ *
+ * <p>Every invocation is timed on its own, since the augmenting path solver already takes about
+ * half a minute on 50K left nodes and grows quadratically. Run the Hopcroft-Karp solvers on 2M
+ * left nodes (about 40M edges) with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=BipartiteMatchingBenchmark -PjmhArgs="-p n=2000000 -p
+ * solver=HopcroftKarp,HopcroftKarpGreedy,HopcroftKarpParallelGreedy"
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=BipartiteMatchingBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.graphtheory.networkflow.MaximumCardinalityBipartiteMatchingHopcroftKarpCsr.Initialization;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx8g", "-Xss512m"})
+public class BipartiteMatchingBenchmark {
+
+  @Param({"10000", "50000"})
+  public int n;
+
+  @Param({
+    "AugmentingPath",
+    "HopcroftKarp",
+    "HopcroftKarpGreedy",
+    "HopcroftKarpParallelGreedy"
+  })
+  public String solver;
+
+  private CsrGraph graph;
+  private List<List<Integer>> adjacencyList;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    Random random = new Random(0xB1);
+    CsrGraph.Builder builder = new CsrGraph.Builder(2 * n, 21 * n);
+    for (int u = 0; u < n; u++) {
+      for (int i = 1 + random.nextInt(40); i > 0; i--) {
+        double x = random.nextDouble();
+        builder.addEdge(u, n + (int) (n * x * x));
+      }
+    }
+    graph = builder.build();
+
+    if (solver.equals("AugmentingPath")) {
+      int[] offsets = graph.offsets(), targets = graph.targets();
+      adjacencyList = new ArrayList<>();
+      for (int u = 0; u < 2 * n; u++) {
+        List<Integer> edges = new ArrayList<>();
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) edges.add(targets[e]);
+        adjacencyList.add(edges);
+      }
+    }
+  }
+
+  @Benchmark
+  public int maxMatching() {
+    switch (solver) {
+      case "AugmentingPath":
+        return MaximumCardinalityBipartiteMatchingAugmentingPathAdjacencyList.mcbm(
+            adjacencyList, n, n);
+      case "HopcroftKarp":
+        return hopcroftKarp(Initialization.NONE);
+      case "HopcroftKarpGreedy":
+        return hopcroftKarp(Initialization.GREEDY);
+      case "HopcroftKarpParallelGreedy":
+        return hopcroftKarp(Initialization.PARALLEL_GREEDY);
+      default:
+        throw new IllegalArgumentException("Unknown solver: " + solver);
+    }
+  }
+
+  private int hopcroftKarp(Initialization initialization) {
+    return new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(graph, n, n, initialization)
+        .getMaxMatching();
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Measures finding the max flow again after changing the capacities of a few random edges, with
+ * {@link IncrementalMaxFlowSolverBase#resolve()} against solving the changed network from scratch
+ * with {@link Dinics}. The networks are those of {@link MaxFlowBenchmark}; every invocation changes
+ * 'changes' edges to a capacity between 0 and twice their original capacity, so the network keeps
+ * drifting from one invocation to the next like it does in a scheduler.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=IncrementalMaxFlowBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-Xss512m"})
+public class IncrementalMaxFlowBenchmark {
+
+  @Param({"assignment", "grid", "rmat"})
+  public String network;
+
+  @Param({"1", "10", "100", "1000"})
+  public int changes;
+
+  private MaxFlowBenchmark.FlowNetwork flowNetwork;
+  private long[] originalCapacity;
+  private Dinics solver;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    flowNetwork = MaxFlowBenchmark.FlowNetwork.generate(network);
+    originalCapacity = flowNetwork.capacity.clone();
+    solver = new Dinics(flowNetwork.n, flowNetwork.s, flowNetwork.t);
+    flowNetwork.addEdgesTo(solver);
+    solver.getMaxFlow();
+    random = new Random(0x1C);
+  }
+
+  @Benchmark
+  public long resolve() {
+    for (int i = 0; i < changes; i++) {
+      int edge = random.nextInt(flowNetwork.m);
+      solver.updateCapacity(edge, changeCapacity(edge));
+    }
+    return solver.resolve();
+  }
+
+  @Benchmark
+  public long solveFromScratch() {
+    for (int i = 0; i < changes; i++) changeCapacity(random.nextInt(flowNetwork.m));
+    Dinics fromScratch = new Dinics(flowNetwork.n, flowNetwork.s, flowNetwork.t);
+    flowNetwork.addEdgesTo(fromScratch);
+    return fromScratch.getMaxFlow();
+  }
+
+  private long changeCapacity(int edge) {
+    long capacity = (long) (random.nextDouble() * (2 * originalCapacity[edge] + 1));
+    return flowNetwork.capacity[edge] = capacity;
+  }
+}
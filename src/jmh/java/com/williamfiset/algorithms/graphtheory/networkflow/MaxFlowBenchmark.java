@@ -0,0 +1,165 @@
+/**
+ * Compares the max flow solvers on generated flow networks:
+ *
+ * <p>- assignment: a dense bipartite network, 400 workers each able to do 20% of 400 tasks, with
+ * small integer capacities on the source and sink edges, like the assignment problems solved by
+ * the scheduler.
+ *
+ * <p>- grid: a road-like grid with capacities in [1, 100] times the road speed (3 on arterials, 8
+ * on highways) from one corner to the opposite one, long augmenting paths and a small min cut.
+ *
+ * <p>- rmat: an R-MAT graph with capacities in [1, 100] between its two largest hubs, many short
+ * paths with very different capacities.
+ *
+ * <p>The edges are generated once. For maxFlow, a new solver is created and filled before each
+ * invocation, outside the measured time, since a solver only solves once. buildAndMaxFlow also
+ * measures adding the edges, which allocates two objects per edge in the solvers using lists of
+ * edges; compare the gc.alloc.rate.norm and gc.time results of the gc profiler.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=MaxFlowBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The DFS based solvers recurse once per node of an augmenting path.
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-Xss512m"})
+public class MaxFlowBenchmark {
+
+  @Param({"assignment", "grid", "rmat"})
+  public String network;
+
+  @Param({"Dinics", "EdmondsKarp", "CapacityScaling", "PushRelabelFifo", "PushRelabelHighestLabel"})
+  public String solver;
+
+  private FlowNetwork flowNetwork;
+  private NetworkFlowSolverBase instance;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    flowNetwork = FlowNetwork.generate(network);
+  }
+
+  @Setup(Level.Invocation)
+  public void createSolver() {
+    instance = createSolver(solver, flowNetwork.n, flowNetwork.s, flowNetwork.t);
+    flowNetwork.addEdgesTo(instance);
+  }
+
+  @Benchmark
+  public long maxFlow() {
+    return instance.getMaxFlow();
+  }
+
+  @Benchmark
+  public long buildAndMaxFlow() {
+    NetworkFlowSolverBase instance =
+        createSolver(solver, flowNetwork.n, flowNetwork.s, flowNetwork.t);
+    flowNetwork.addEdgesTo(instance);
+    return instance.getMaxFlow();
+  }
+
+  static NetworkFlowSolverBase createSolver(String name, int n, int s, int t) {
+    switch (name) {
+      case "Dinics":
+        return new Dinics(n, s, t);
+      case "EdmondsKarp":
+        return new EdmondsKarpAdjacencyList(n, s, t);
+      case "CapacityScaling":
+        return new CapacityScalingSolverAdjacencyList(n, s, t);
+      case "PushRelabelFifo":
+        return new PushRelabelSolverAdjacencyList(
+            n, s, t, PushRelabelSolverAdjacencyList.Selection.FIFO);
+      case "PushRelabelHighestLabel":
+        return new PushRelabelSolverAdjacencyList(n, s, t);
+      default:
+        throw new IllegalArgumentException("Unknown solver: " + name);
+    }
+  }
+
+  // The edges of a generated flow network, kept as arrays so solvers can be refilled quickly.
+  static class FlowNetwork {
+    int n, s, t, m;
+    int[] from = new int[1024], to = new int[1024];
+    long[] capacity = new long[1024];
+
+    static FlowNetwork generate(String name) {
+      FlowNetwork network = new FlowNetwork();
+      switch (name) {
+        case "assignment":
+          network.assignment(400, 400, 0.2, new Random(0xF10));
+          break;
+        case "grid":
+          GraphGenerator.GridGenerator grid = new GraphGenerator.GridGenerator(150, 150);
+          network.fill(grid.roadLike().capacities(1, 100).seed(1), 0, 150 * 150 - 1);
+          break;
+        case "rmat":
+          network.fill(new GraphGenerator.RMatGenerator(14, 8).capacities(1, 100).seed(2), 0, 1);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown network: " + name);
+      }
+      return network;
+    }
+
+    void fill(GraphGenerator.EdgeGenerator<?> generator, int s, int t) {
+      this.n = generator.numNodes();
+      this.s = s;
+      this.t = t;
+      generator.generate((u, v, w) -> add(u, v, (long) w));
+    }
+
+    // Workers 0 to workers - 1 and tasks after them, then the source and the sink.
+    void assignment(int workers, int tasks, double p, Random random) {
+      n = workers + tasks + 2;
+      s = n - 2;
+      t = n - 1;
+      for (int w = 0; w < workers; w++) add(s, w, 1 + random.nextInt(4));
+      for (int k = 0; k < tasks; k++) add(workers + k, t, 1 + random.nextInt(4));
+      for (int w = 0; w < workers; w++) {
+        for (int k = 0; k < tasks; k++) {
+          if (random.nextDouble() < p) add(w, workers + k, 1 + random.nextInt(2));
+        }
+      }
+    }
+
+    void add(int u, int v, long c) {
+      if (m == from.length) {
+        from = Arrays.copyOf(from, 2 * m);
+        to = Arrays.copyOf(to, 2 * m);
+        capacity = Arrays.copyOf(capacity, 2 * m);
+      }
+      from[m] = u;
+      to[m] = v;
+      capacity[m++] = c;
+    }
+
+    void addEdgesTo(NetworkFlowSolverBase solver) {
+      for (int i = 0; i < m; i++) solver.addEdge(from[i], to[i], capacity[i]);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Compares the min cost max flow solvers on transport networks: factories with a random supply
+ * linked to the source, stores with a random demand linked to the sink, and every store linked to
+ * 'links' random factories by an edge costing the distance between them on a 1000 x 1000 map.
+ *
+ * <p>- small: 20 factories, 500 stores, 4 links per store (about 2.5K edges)
+ *
+ * <p>- medium: 50 factories, 1000 stores, 10 links per store (about 11K edges)
+ *
+ * <p>- large: 200 factories, 5000 stores, 20 links per store (about 105K edges)
+ *
+ * <p>- huge: 2000 factories, 50000 stores, 20 links per store (about 1M edges)
+ *
+ * <p>A solve takes from milliseconds to minutes, so every invocation is timed on its own.
+ * Bellman-Ford already takes over a minute on the medium network, so only Johnson's and cost
+ * scaling run by default.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=MinCostFlowBenchmark
+ *
+ * <p>Compare all three solvers on the small network, or cost scaling on 1M edges, with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=MinCostFlowBenchmark -PjmhArgs="-p network=small -p
+ * solver=BellmanFord,Johnsons,CostScaling"
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=MinCostFlowBenchmark -PjmhArgs="-p network=huge -p
+ * solver=CostScaling"
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-Xss512m"})
+public class MinCostFlowBenchmark {
+
+  @Param({"small", "medium", "large"})
+  public String network;
+
+  @Param({"Johnsons", "CostScaling"})
+  public String solver;
+
+  private int n, s, t, m;
+  private int[] from, to;
+  private long[] capacity, cost;
+  private NetworkFlowSolverBase instance;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    switch (network) {
+      case "small":
+        transport(20, 500, 4, new Random(0xC05));
+        break;
+      case "medium":
+        transport(50, 1000, 10, new Random(0xC05));
+        break;
+      case "large":
+        transport(200, 5000, 20, new Random(0xC05));
+        break;
+      case "huge":
+        transport(2000, 50000, 20, new Random(0xC05));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown network: " + network);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void createSolver() {
+    switch (solver) {
+      case "BellmanFord":
+        instance = new MinCostMaxFlowWithBellmanFord(n, s, t);
+        break;
+      case "Johnsons":
+        instance = new MinCostMaxFlowJohnsons(n, s, t);
+        break;
+      case "CostScaling":
+        instance = new MinCostMaxFlowCostScaling(n, s, t);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown solver: " + solver);
+    }
+    for (int i = 0; i < m; i++) instance.addEdge(from[i], to[i], capacity[i], cost[i]);
+  }
+
+  @Benchmark
+  public long minCostMaxFlow() {
+    instance.getMaxFlow();
+    return instance.getMinCost();
+  }
+
+  // Factories 0 to factories - 1 and stores after them, then the source and the sink.
+  private void transport(int factories, int stores, int links, Random random) {
+    n = factories + stores + 2;
+    s = n - 2;
+    t = n - 1;
+    m = factories + stores + stores * links;
+    from = new int[m];
+    to = new int[m];
+    capacity = new long[m];
+    cost = new long[m];
+
+    int[] x = new int[factories + stores], y = new int[factories + stores];
+    for (int i = 0; i < factories + stores; i++) {
+      x[i] = random.nextInt(1000);
+      y[i] = random.nextInt(1000);
+    }
+    int k = 0;
+    for (int f = 0; f < factories; f++) {
+      add(k++, s, f, 100 + random.nextInt(100) * (long) stores / factories, 0);
+    }
+    for (int i = 0; i < stores; i++) add(k++, factories + i, t, 10 + random.nextInt(90), 0);
+    for (int i = 0; i < stores; i++) {
+      for (int l = 0; l < links; l++) {
+        int f = random.nextInt(factories), store = factories + i;
+        long distance = 1 + Math.round(Math.hypot(x[f] - x[store], y[f] - y[store]));
+        add(k++, f, store, 100, distance);
+      }
+    }
+  }
+
+  private void add(int k, int u, int v, long c, long w) {
+    from[k] = u;
+    to[k] = v;
+    capacity[k] = c;
+    cost[k] = w;
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Measures the throughput of the O(n^2) {@link InplaceSort} implementations. These use smaller
+ * input sizes than {@link SortingBenchmark} but otherwise share the same inputs and methodology.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=QuadraticSortingBenchmark
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuadraticSortingBenchmark {
+
+  @Param({"BUBBLE_SORT", "INSERTION_SORT", "SELECTION_SORT"})
+  public SortingAlgorithm algorithm;
+
+  @Param({"RANDOM", "NEARLY_SORTED", "DUPLICATE_HEAVY", "SKEWED"})
+  public SortingInputs.Distribution distribution;
+
+  @Param({"1000", "10000", "100000"})
+  public int size;
+
+  private InplaceSort sorter;
+  private int[] input, work;
+
+  @Setup
+  public void setup() {
+    sorter = algorithm.getSortingAlgorithm();
+    input = SortingInputs.generate(distribution, size, 0xC0FFEE);
+    work = new int[size];
+  }
+
+  @Benchmark
+  public int[] sort() {
+    System.arraycopy(input, 0, work, 0, size);
+    sorter.sort(work);
+    return work;
+  }
+}
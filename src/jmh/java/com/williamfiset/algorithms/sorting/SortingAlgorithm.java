@@ -0,0 +1,33 @@
+/**
+ * All the {@link InplaceSort} implementations which can be selected from a benchmark through a
+ * JMH {@code @Param}.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+public enum SortingAlgorithm {
+  BUBBLE_SORT(new BubbleSort()),
+  BUCKET_SORT(new BucketSort()),
+  COUNTING_SORT(new CountingSort()),
+  HEAP_SORT(new Heapsort()),
+  INSERTION_SORT(new InsertionSort()),
+  LSD_RADIX_SORT(new LsdRadixSort()),
+  MERGE_SORT(new MergeSort()),
+  PARALLEL_MERGE_SORT(new ParallelMergeSort()),
+  PARALLEL_QUICK_SORT3(new ParallelQuickSort3()),
+  QUICK_SORT(new QuickSort()),
+  QUICK_SORT3(new QuickSort3()),
+  RADIX_SORT(new RadixSort()),
+  SELECTION_SORT(new SelectionSort());
+
+  private final InplaceSort algorithm;
+
+  SortingAlgorithm(InplaceSort algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  public InplaceSort getSortingAlgorithm() {
+    return algorithm;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Measures the throughput of the sub-quadratic {@link InplaceSort} implementations over a range of
+ * input sizes and distributions. The quadratic sorts live in {@link QuadraticSortingBenchmark}
+ * since they cannot finish on the larger inputs used here.
+ *
+ * <p>Each invocation copies a pre-generated input into a pre-allocated work array before sorting
+ * it. The copy costs the same for every algorithm and allocates nothing, so the allocation rate
+ * reported by the GC profiler is entirely due to the sort itself.
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=SortingBenchmark
+ *
+ * <p>The 100M element inputs need a large heap, for example:
+ *
+ * <p>$ ./gradlew jmh -PjmhInclude=SortingBenchmark -PjmhArgs="-p size=100000000 -jvmArgs -Xmx16g"
+ *
+ * <p>Note that QUICK_SORT picks the first element as its pivot, so it recurses n levels deep on
+ * NEARLY_SORTED inputs and is expected to fail with a StackOverflowError on large sizes.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortingBenchmark {
+
+  @Param({
+    "BUCKET_SORT",
+    "COUNTING_SORT",
+    "HEAP_SORT",
+    "LSD_RADIX_SORT",
+    "MERGE_SORT",
+    "PARALLEL_MERGE_SORT",
+    "PARALLEL_QUICK_SORT3",
+    "QUICK_SORT",
+    "QUICK_SORT3",
+    "RADIX_SORT"
+  })
+  public SortingAlgorithm algorithm;
+
+  @Param({"RANDOM", "NEARLY_SORTED", "DUPLICATE_HEAVY", "SKEWED"})
+  public SortingInputs.Distribution distribution;
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  private InplaceSort sorter;
+  private int[] input, work;
+
+  @Setup
+  public void setup() {
+    sorter = algorithm.getSortingAlgorithm();
+    input = SortingInputs.generate(distribution, size, 0xC0FFEE);
+    work = new int[size];
+  }
+
+  @Benchmark
+  public int[] sort() {
+    System.arraycopy(input, 0, work, 0, size);
+    sorter.sort(work);
+    return work;
+  }
+}
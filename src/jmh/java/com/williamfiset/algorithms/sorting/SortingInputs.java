@@ -0,0 +1,72 @@
+/**
+ * Input generators shared by the sorting benchmarks. Every distribution produces values in the
+ * range [0, n) so that the non-comparison sorts (counting sort, radix sort, bucket sort) can be
+ * benchmarked on exactly the same inputs as the comparison sorts.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.Random;
+
+public final class SortingInputs {
+
+  private SortingInputs() {}
+
+  public enum Distribution {
+    // Uniformly random values.
+    RANDOM {
+      @Override
+      void fill(int[] ar, Random random) {
+        for (int i = 0; i < ar.length; i++) ar[i] = random.nextInt(ar.length);
+      }
+    },
+
+    // Sorted values where ~1% of the positions have been swapped at random.
+    NEARLY_SORTED {
+      @Override
+      void fill(int[] ar, Random random) {
+        for (int i = 0; i < ar.length; i++) ar[i] = i;
+        for (int k = 0; k < ar.length / 100; k++) {
+          swap(ar, random.nextInt(ar.length), random.nextInt(ar.length));
+        }
+      }
+    },
+
+    // Only a handful of distinct values, so almost every element is a duplicate.
+    DUPLICATE_HEAVY {
+      @Override
+      void fill(int[] ar, Random random) {
+        int distinct = Math.min(16, ar.length);
+        for (int i = 0; i < ar.length; i++) ar[i] = random.nextInt(distinct);
+      }
+    },
+
+    // Power law distributed values, most of which cluster close to zero.
+    SKEWED {
+      @Override
+      void fill(int[] ar, Random random) {
+        for (int i = 0; i < ar.length; i++) {
+          double r = random.nextDouble();
+          ar[i] = (int) (ar.length * r * r * r * r);
+        }
+      }
+    };
+
+    abstract void fill(int[] ar, Random random);
+  }
+
+  // Generates an array of size n following the given distribution. The same seed
+  // always produces the same array so results are comparable between runs.
+  static int[] generate(Distribution distribution, int n, long seed) {
+    int[] ar = new int[n];
+    distribution.fill(ar, new Random(seed));
+    return ar;
+  }
+
+  private static void swap(int[] ar, int i, int j) {
+    int tmp = ar[i];
+    ar[i] = ar[j];
+    ar[j] = tmp;
+  }
+}
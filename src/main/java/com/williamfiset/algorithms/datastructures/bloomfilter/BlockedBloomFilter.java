@@ -0,0 +1,267 @@
+/**
+ * A blocked (cache friendly) bloom filter over 64 bit hash values. The bit array is split into
+ * blocks of 512 bits (eight longs, the size of a typical cache line) and all k bits of a key are
+ * set inside a single block which is picked by the hash. A query therefore touches one block of
+ * memory instead of k random cache lines like in a standard bloom filter.
+ *
+ * <p>The price of blocking is a slightly higher false positive rate for the same number of bits,
+ * since keys do not spread evenly over the blocks. The constructor takes that into account: it
+ * models the number of keys per block as a Poisson distribution and picks the number of bits and
+ * hash functions which reach the requested false positive rate with the fewest bits per key.
+ *
+ * <p>The hashes passed in are remixed before use, so raw long keys and weak hash functions work
+ * just as well as strong 64 bit hashes. Queries are safe to run from multiple threads as long as
+ * no thread is adding keys at the same time.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+public class BlockedBloomFilter {
+
+  // Each block holds 2^9 = 512 bits in 8 consecutive longs.
+  static final int BLOCK_BITS = 512;
+  static final int BIT_INDEX_SHIFT = 32 - 9;
+  static final int LONGS_PER_BLOCK_SHIFT = 3;
+
+  // Using more hash functions than this only pays off for extremely low false positive
+  // rates, where the blocked layout is a poor fit anyway.
+  static final int MAX_HASHES = 24;
+
+  // A long[] can hold at most Integer.MAX_VALUE - 8 elements on most JVMs.
+  static final int MAX_BLOCKS = (Integer.MAX_VALUE - 8) >> LONGS_PER_BLOCK_SHIFT;
+
+  // The bit positions inside a block come from the top 9 bits of the lower half of the
+  // hash, which is multiplied by this odd constant to get the next position. Deriving the
+  // positions from all 32 bits (rather than from two 9 bit values as in double hashing)
+  // keeps keys which share a block from also sharing all of their bit positions.
+  static final int BIT_MULTIPLIER = 0x9E3779B9;
+
+  private static final int MAGIC = 0x42424C46;
+  private static final int VERSION = 1;
+
+  private final int numBlocks, numHashes;
+  private final long[] bits;
+
+  // Creates a bloom filter sized to hold 'expectedInsertions' keys while keeping the
+  // probability of a false positive at or below 'falsePositiveRate'.
+  public BlockedBloomFilter(long expectedInsertions, double falsePositiveRate) {
+    this.numBlocks = optimalNumBlocks(expectedInsertions, falsePositiveRate);
+    this.numHashes = optimalNumHashes((double) Math.max(1, expectedInsertions) / numBlocks);
+    this.bits = new long[numBlocks << LONGS_PER_BLOCK_SHIFT];
+  }
+
+  private BlockedBloomFilter(int numBlocks, int numHashes, long[] bits) {
+    this.numBlocks = numBlocks;
+    this.numHashes = numHashes;
+    this.bits = bits;
+  }
+
+  // Returns the number of bits used by the filter.
+  public long getNumBits() {
+    return (long) numBlocks * BLOCK_BITS;
+  }
+
+  // Returns the number of bits set for every key.
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  // Adds a key, given by its hash value, to the bloom filter.
+  public void add(long hash) {
+    long h = mix(hash);
+    int block = blockOffset(h);
+    int x = (int) h;
+    for (int i = 0; i < numHashes; i++, x *= BIT_MULTIPLIER) {
+      int bit = x >>> BIT_INDEX_SHIFT;
+      bits[block + (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  // Checks if a key, given by its hash value, might be in the bloom filter. A return
+  // value of false means the key was definitely never added.
+  public boolean contains(long hash) {
+    long h = mix(hash);
+    int block = blockOffset(h);
+    int x = (int) h;
+    for (int i = 0; i < numHashes; i++, x *= BIT_MULTIPLIER) {
+      int bit = x >>> BIT_INDEX_SHIFT;
+      if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) return false;
+    }
+    return true;
+  }
+
+  // Adds all the keys, given by their hash values, to the bloom filter.
+  public void addAll(long[] hashes) {
+    for (long hash : hashes) add(hash);
+  }
+
+  // Returns true if every key in 'hashes' might be in the bloom filter.
+  public boolean containsAll(long[] hashes) {
+    for (long hash : hashes) if (!contains(hash)) return false;
+    return true;
+  }
+
+  // Checks every key in 'hashes' and stores in results[i] whether hashes[i] might be in
+  // the bloom filter. Returns how many of the keys might be in the filter.
+  //
+  // Unlike contains() the bits of a key are combined without branching. Nothing depends
+  // on the outcome of one key before the next key is probed, so the loads of consecutive
+  // keys can overlap instead of being separated by hard to predict early exits.
+  public int containsAll(long[] hashes, boolean[] results) {
+    if (results.length < hashes.length)
+      throw new IllegalArgumentException("results must be at least as long as hashes");
+
+    int count = 0;
+    for (int j = 0; j < hashes.length; j++) {
+      long h = mix(hashes[j]);
+      int block = blockOffset(h);
+      int x = (int) h;
+      long missing = 0;
+      for (int i = 0; i < numHashes; i++, x *= BIT_MULTIPLIER) {
+        int bit = x >>> BIT_INDEX_SHIFT;
+        missing |= ~bits[block + (bit >>> 6)] & (1L << bit);
+      }
+      results[j] = missing == 0;
+      if (missing == 0) count++;
+    }
+    return count;
+  }
+
+  // Returns the false positive rate expected once 'insertions' keys have been added.
+  public double expectedFalsePositiveRate(long insertions) {
+    return falsePositiveRate((double) insertions / numBlocks, numHashes);
+  }
+
+  // Writes the bloom filter to the output stream, it can be read back with readFrom().
+  public void writeTo(OutputStream out) throws IOException {
+    DataOutputStream dos = new DataOutputStream(out);
+    dos.writeInt(MAGIC);
+    dos.writeInt(VERSION);
+    dos.writeInt(numBlocks);
+    dos.writeInt(numHashes);
+
+    // Convert the longs in large chunks, writing them one at a time is much slower.
+    ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    for (int i = 0; i < bits.length; ) {
+      buffer.clear();
+      while (i < bits.length && buffer.remaining() >= Long.BYTES) buffer.putLong(bits[i++]);
+      dos.write(buffer.array(), 0, buffer.position());
+    }
+    dos.flush();
+  }
+
+  // Reads a bloom filter previously written with writeTo().
+  public static BlockedBloomFilter readFrom(InputStream in) throws IOException {
+    DataInputStream dis = new DataInputStream(in);
+    if (dis.readInt() != MAGIC) throw new IOException("Not a BlockedBloomFilter");
+    int version = dis.readInt();
+    if (version != VERSION) throw new IOException("Unsupported version: " + version);
+
+    int numBlocks = dis.readInt();
+    int numHashes = dis.readInt();
+    if (numBlocks <= 0 || numBlocks > MAX_BLOCKS || numHashes <= 0 || numHashes > MAX_HASHES)
+      throw new IOException("Corrupt BlockedBloomFilter header");
+
+    long[] bits = new long[numBlocks << LONGS_PER_BLOCK_SHIFT];
+    byte[] chunk = new byte[1 << 16];
+    ByteBuffer buffer = ByteBuffer.wrap(chunk);
+    for (int i = 0; i < bits.length; ) {
+      int longs = Math.min(bits.length - i, chunk.length / Long.BYTES);
+      dis.readFully(chunk, 0, longs * Long.BYTES);
+      buffer.clear();
+      for (int j = 0; j < longs; j++) bits[i++] = buffer.getLong();
+    }
+    return new BlockedBloomFilter(numBlocks, numHashes, bits);
+  }
+
+  // Finalizer of the 64 bit MurmurHash3, every input bit affects every output bit.
+  static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    return h ^ (h >>> 33);
+  }
+
+  // Maps the upper 32 bits of the hash to the index of the first long of a block. Taking
+  // the upper half of a 32x32 bit product avoids a division (Lemire's fast range reduction).
+  private int blockOffset(long h) {
+    return blockOffset(h, numBlocks);
+  }
+
+  static int blockOffset(long h, int numBlocks) {
+    return (int) (((h >>> 32) * numBlocks) >>> 32) << LONGS_PER_BLOCK_SHIFT;
+  }
+
+  // Returns the number of blocks needed to hold 'expectedInsertions' keys at the given
+  // false positive rate.
+  static int optimalNumBlocks(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions < 0)
+      throw new IllegalArgumentException("Illegal expectedInsertions: " + expectedInsertions);
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+      throw new IllegalArgumentException("Illegal falsePositiveRate: " + falsePositiveRate);
+
+    long n = Math.max(1, expectedInsertions);
+    double blocks = Math.ceil(n * optimalBitsPerKey(falsePositiveRate) / BLOCK_BITS);
+    if (blocks > MAX_BLOCKS)
+      throw new IllegalArgumentException(
+          "Too many bits needed for " + expectedInsertions + " keys at rate " + falsePositiveRate);
+    return (int) blocks;
+  }
+
+  // Finds the number of bits per key a blocked filter needs to reach the target false
+  // positive rate. Starts at the bits per key of a standard bloom filter, which is a lower
+  // bound, and grows it until the blocked false positive rate is low enough.
+  private static double optimalBitsPerKey(double falsePositiveRate) {
+    double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    while (true) {
+      double keysPerBlock = BLOCK_BITS / bitsPerKey;
+      int k = optimalNumHashes(keysPerBlock);
+      if (falsePositiveRate(keysPerBlock, k) <= falsePositiveRate) return bitsPerKey;
+      bitsPerKey *= 1.01;
+    }
+  }
+
+  // Finds the number of hash functions which minimizes the false positive rate.
+  static int optimalNumHashes(double keysPerBlock) {
+    int best = 1;
+    double bestRate = falsePositiveRate(keysPerBlock, 1);
+    for (int k = 2; k <= MAX_HASHES; k++) {
+      double rate = falsePositiveRate(keysPerBlock, k);
+      if (rate < bestRate) {
+        best = k;
+        bestRate = rate;
+      }
+    }
+    return best;
+  }
+
+  // The false positive rate of a blocked bloom filter when on average 'keysPerBlock' keys
+  // land in each block. The number of keys in a block follows a Poisson distribution, and a
+  // block holding i keys behaves like a standard bloom filter of 512 bits holding i keys.
+  static double falsePositiveRate(double keysPerBlock, int k) {
+    if (keysPerBlock == 0) return 0;
+    int limit = (int) (keysPerBlock + 10 * Math.sqrt(keysPerBlock) + 10);
+    double logProbability = -keysPerBlock, rate = 0;
+    for (int i = 0; i <= limit; i++) {
+      if (i > 0) logProbability += Math.log(keysPerBlock / i);
+      double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) k * i);
+      rate += Math.exp(logProbability) * Math.pow(bitSet, k);
+    }
+    return rate;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "BlockedBloomFilter(bits=%d, blocks=%d, hashes=%d)", getNumBits(), numBlocks, numHashes);
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * A thread safe version of the {@link BlockedBloomFilter}, for filters which are populated by many
+ * threads at once. The bits live in an AtomicLongArray and are set with compare-and-set, so no bit
+ * set by one thread can be lost to a concurrent update of the same word by another thread.
+ *
+ * <p>Queries only read the words of a block and never retry, which makes them wait-free. A key is
+ * guaranteed to be found by any query which starts after its add() has returned. Filters with the
+ * same shape (same number of bits and hash functions, which is the case for filters created with
+ * the same arguments) can be merged, so threads may also fill filters of their own and combine them
+ * afterwards.
+ *
+ * <p>The layout and the hashing are the same as the {@link BlockedBloomFilter}, see that class for
+ * the details on the sizing.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import static com.williamfiset.algorithms.datastructures.bloomfilter.BlockedBloomFilter.BIT_INDEX_SHIFT;
+import static com.williamfiset.algorithms.datastructures.bloomfilter.BlockedBloomFilter.BIT_MULTIPLIER;
+import static com.williamfiset.algorithms.datastructures.bloomfilter.BlockedBloomFilter.BLOCK_BITS;
+import static com.williamfiset.algorithms.datastructures.bloomfilter.BlockedBloomFilter.LONGS_PER_BLOCK_SHIFT;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ConcurrentBlockedBloomFilter {
+
+  private final int numBlocks, numHashes;
+  private final AtomicLongArray bits;
+
+  // Creates a bloom filter sized to hold 'expectedInsertions' keys while keeping the
+  // probability of a false positive at or below 'falsePositiveRate'.
+  public ConcurrentBlockedBloomFilter(long expectedInsertions, double falsePositiveRate) {
+    numBlocks = BlockedBloomFilter.optimalNumBlocks(expectedInsertions, falsePositiveRate);
+    numHashes =
+        BlockedBloomFilter.optimalNumHashes((double) Math.max(1, expectedInsertions) / numBlocks);
+    bits = new AtomicLongArray(numBlocks << LONGS_PER_BLOCK_SHIFT);
+  }
+
+  // Returns the number of bits used by the filter.
+  public long getNumBits() {
+    return (long) numBlocks * BLOCK_BITS;
+  }
+
+  // Returns the number of bits set for every key.
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  // Adds a key, given by its hash value, to the bloom filter. Safe to call from any
+  // number of threads at once.
+  public void add(long hash) {
+    long h = BlockedBloomFilter.mix(hash);
+    int block = BlockedBloomFilter.blockOffset(h, numBlocks);
+    int x = (int) h;
+    for (int i = 0; i < numHashes; i++, x *= BIT_MULTIPLIER) {
+      int bit = x >>> BIT_INDEX_SHIFT;
+      setBits(block + (bit >>> 6), 1L << bit);
+    }
+  }
+
+  // Checks if a key, given by its hash value, might be in the bloom filter. A return
+  // value of false means the key was not added before this call started.
+  public boolean contains(long hash) {
+    long h = BlockedBloomFilter.mix(hash);
+    int block = BlockedBloomFilter.blockOffset(h, numBlocks);
+    int x = (int) h;
+    for (int i = 0; i < numHashes; i++, x *= BIT_MULTIPLIER) {
+      int bit = x >>> BIT_INDEX_SHIFT;
+      if ((bits.get(block + (bit >>> 6)) & (1L << bit)) == 0) return false;
+    }
+    return true;
+  }
+
+  // Adds all the keys, given by their hash values, to the bloom filter.
+  public void addAll(long[] hashes) {
+    for (long hash : hashes) add(hash);
+  }
+
+  // Returns true if every key in 'hashes' might be in the bloom filter.
+  public boolean containsAll(long[] hashes) {
+    for (long hash : hashes) if (!contains(hash)) return false;
+    return true;
+  }
+
+  // Adds every key of the other filter to this one by OR-ing their bits together. Both
+  // filters must have the same shape. The other filter may keep changing during the merge,
+  // in which case only the keys it held when the merge started are guaranteed to be added.
+  public void merge(ConcurrentBlockedBloomFilter other) {
+    if (other.numBlocks != numBlocks || other.numHashes != numHashes)
+      throw new IllegalArgumentException("Cannot merge bloom filters of different shapes");
+    for (int i = 0; i < bits.length(); i++) setBits(i, other.bits.get(i));
+  }
+
+  // Atomically sets the bits of 'mask' in the i'th word. Reading first avoids writing to
+  // (and so invalidating the cache line of) words which already have all the bits set,
+  // which is the common case once the filter starts filling up.
+  private void setBits(int i, long mask) {
+    long word = bits.get(i);
+    while ((word & mask) != mask) {
+      if (bits.compareAndSet(i, word, word | mask)) return;
+      word = bits.get(i);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ConcurrentBlockedBloomFilter(bits=%d, blocks=%d, hashes=%d)",
+        getNumBits(), numBlocks, numHashes);
+  }
+}
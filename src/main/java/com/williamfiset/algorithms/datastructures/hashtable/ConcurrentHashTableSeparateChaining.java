@@ -0,0 +1,415 @@
+/**
+ * A thread safe version of {@link HashTableSeparateChaining}.
+ *
+ * <p>Writers lock a single stripe of buckets rather than the whole table: bucket i is guarded by
+ * lock i mod S, where S, the number of stripes, is a power of two. Readers never lock, they
+ * traverse the chains through volatile links and so always see a consistent (if possibly slightly
+ * stale) view of a bucket.
+ *
+ * <p>Resizing is incremental. Once the table grows past its threshold a new table twice the size is
+ * allocated and each subsequent write migrates a small, bounded number of buckets over to it. A
+ * migrated bucket is replaced by a forwarding node which redirects readers and writers to the new
+ * table. Because table capacities are powers of two of at least S, the keys of bucket i end up in
+ * buckets i and i + n of the new table, both of which are guarded by the same lock, so migrating a
+ * bucket only ever takes a single stripe lock and never stops the world.
+ *
+ * <p>The keys(), values() and iterator() methods return weakly consistent snapshots.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentHashTableSeparateChaining<K, V> implements Iterable<K> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final double DEFAULT_LOAD_FACTOR = 0.75;
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  // The number of buckets each write operation migrates while a resize is in progress.
+  private static final int MIGRATION_CHUNK = 16;
+
+  // Hash value of forwarding nodes. Regular hashes are always non-negative.
+  private static final int MOVED = -1;
+
+  private static class Node<K, V> {
+    final int hash;
+    final K key;
+    volatile V value;
+    volatile Node<K, V> next;
+
+    Node(int hash, K key, V value, Node<K, V> next) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  // Placed in a bucket of a table being resized once that bucket has been migrated.
+  private static class ForwardingNode<K, V> extends Node<K, V> {
+    final AtomicReferenceArray<Node<K, V>> nextTable;
+
+    ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+      super(MOVED, null, null, null);
+      this.nextTable = nextTable;
+    }
+  }
+
+  // The state of an in progress resize from oldTable to newTable.
+  private class Resize {
+    final AtomicReferenceArray<Node<K, V>> oldTable, newTable;
+    final ForwardingNode<K, V> forwardingNode;
+    final AtomicInteger nextBucket = new AtomicInteger(), migratedBuckets = new AtomicInteger();
+
+    Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+      this.oldTable = oldTable;
+      this.newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+      this.forwardingNode = new ForwardingNode<>(newTable);
+    }
+
+    // Migrates up to MIGRATION_CHUNK buckets which no other thread has claimed yet.
+    void help() {
+      final int n = oldTable.length();
+      int start = nextBucket.getAndAdd(MIGRATION_CHUNK);
+      if (start >= n) return;
+      int end = Math.min(n, start + MIGRATION_CHUNK);
+      for (int i = start; i < end; i++) migrate(i);
+      if (migratedBuckets.addAndGet(end - start) == n) finish();
+    }
+
+    // Splits the chain of bucket i into the buckets i and i + n of the new table. The
+    // old chain is copied rather than relinked so concurrent readers can keep using it.
+    private void migrate(int i) {
+      final int n = oldTable.length();
+      ReentrantLock lock = locks[i & stripeMask];
+      lock.lock();
+      try {
+        Node<K, V> lo = null, hi = null;
+        for (Node<K, V> e = oldTable.get(i); e != null; e = e.next) {
+          if ((e.hash & n) == 0) lo = new Node<>(e.hash, e.key, e.value, lo);
+          else hi = new Node<>(e.hash, e.key, e.value, hi);
+        }
+        newTable.set(i, lo);
+        newTable.set(i + n, hi);
+        oldTable.set(i, forwardingNode);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void finish() {
+      table = newTable;
+      threshold = (int) Math.min(Integer.MAX_VALUE, newTable.length() * loadFactor);
+      resize.set(null);
+    }
+  }
+
+  private final double loadFactor;
+  private final ReentrantLock[] locks;
+  private final int stripeMask;
+
+  // The number of keys in each stripe. Only modified while holding the stripe's lock.
+  private final AtomicIntegerArray stripeSizes;
+
+  private volatile AtomicReferenceArray<Node<K, V>> table;
+  private volatile int threshold;
+  private final AtomicReference<Resize> resize = new AtomicReference<>();
+  private final ReentrantLock resizeLock = new ReentrantLock();
+
+  public ConcurrentHashTableSeparateChaining() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  public ConcurrentHashTableSeparateChaining(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  public ConcurrentHashTableSeparateChaining(int capacity, double maxLoadFactor) {
+    this(capacity, maxLoadFactor, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  // Designated constructor. The concurrency level is the number of lock stripes, which
+  // bounds how many writers can modify the table at the same time.
+  public ConcurrentHashTableSeparateChaining(
+      int capacity, double maxLoadFactor, int concurrencyLevel) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity");
+    if (maxLoadFactor <= 0 || Double.isNaN(maxLoadFactor) || Double.isInfinite(maxLoadFactor))
+      throw new IllegalArgumentException("Illegal maxLoadFactor");
+    if (concurrencyLevel <= 0) throw new IllegalArgumentException("Illegal concurrencyLevel");
+
+    int stripes = tableSizeFor(concurrencyLevel);
+    this.loadFactor = maxLoadFactor;
+    this.stripeMask = stripes - 1;
+    this.locks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) locks[i] = new ReentrantLock();
+    this.stripeSizes = new AtomicIntegerArray(stripes);
+
+    int n = Math.max(stripes, tableSizeFor(Math.max(DEFAULT_CAPACITY, capacity)));
+    this.table = new AtomicReferenceArray<>(n);
+    this.threshold = (int) Math.min(Integer.MAX_VALUE, n * maxLoadFactor);
+  }
+
+  // Returns the smallest power of two greater than or equal to n.
+  private static int tableSizeFor(int n) {
+    if (n >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+    return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+  }
+
+  // Spreads the higher bits of the hash downwards since the bucket index only
+  // uses the low bits, and clears the sign bit which is reserved for MOVED.
+  private static int spread(int keyHash) {
+    return (keyHash ^ (keyHash >>> 16)) & 0x7FFFFFFF;
+  }
+
+  // Returns the number of elements currently inside the hash-table
+  public int size() {
+    long size = 0;
+    for (int i = 0; i < stripeSizes.length(); i++) size += stripeSizes.get(i);
+    return (int) Math.min(Integer.MAX_VALUE, size);
+  }
+
+  // Returns true/false depending on whether the hash-table is empty
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // Returns the current number of buckets (used mostly for testing)
+  public int getCapacity() {
+    return table.length();
+  }
+
+  public boolean containsKey(K key) {
+    return hasKey(key);
+  }
+
+  // Returns true/false depending on whether a key is in the hash table
+  public boolean hasKey(K key) {
+    return key != null && findNode(key) != null;
+  }
+
+  // Gets a key's values from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists, so watch out..
+  public V get(K key) {
+    if (key == null) return null;
+    Node<K, V> node = findNode(key);
+    return node == null ? null : node.value;
+  }
+
+  // Lock free lookup of the node holding the key.
+  private Node<K, V> findNode(K key) {
+    final int hash = spread(key.hashCode());
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> e = tab.get(hash & (tab.length() - 1));
+      if (e instanceof ForwardingNode) {
+        tab = ((ForwardingNode<K, V>) e).nextTable;
+        continue;
+      }
+      for (; e != null; e = e.next) if (e.hash == hash && e.key.equals(key)) return e;
+      return null;
+    }
+  }
+
+  // Insert, put and add all place a value in the hash-table
+  public V put(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V add(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V insert(K key, V value) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    final int hash = spread(key.hashCode());
+    final int stripe = hash & stripeMask;
+    boolean added = false;
+    V oldValue = null;
+
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    ReentrantLock lock = locks[stripe];
+    lock.lock();
+    try {
+      while (true) {
+        final int i = hash & (tab.length() - 1);
+        Node<K, V> head = tab.get(i);
+        // The bucket was migrated, since both tables use the same stripe for
+        // this key we can keep holding the lock while following the forward.
+        if (head instanceof ForwardingNode) {
+          tab = ((ForwardingNode<K, V>) head).nextTable;
+          continue;
+        }
+        Node<K, V> e = head;
+        while (e != null && !(e.hash == hash && e.key.equals(key))) e = e.next;
+        if (e != null) {
+          oldValue = e.value;
+          e.value = value;
+        } else {
+          tab.set(i, new Node<>(hash, key, value, head));
+          stripeSizes.set(stripe, stripeSizes.get(stripe) + 1);
+          added = true;
+        }
+        break;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // Only sum up every stripe once this stripe holds its share of the threshold, rounded up
+    // so that a small table with many stripes does not do it on every insertion.
+    int stripeThreshold = Math.max(1, (threshold - 1) / locks.length + 1);
+    if (added && stripeSizes.get(stripe) > stripeThreshold) maybeStartResize();
+    helpResize();
+    return oldValue;
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V remove(K key) {
+    if (key == null) return null;
+    final int hash = spread(key.hashCode());
+    final int stripe = hash & stripeMask;
+    V oldValue = null;
+
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    ReentrantLock lock = locks[stripe];
+    lock.lock();
+    try {
+      while (true) {
+        final int i = hash & (tab.length() - 1);
+        Node<K, V> head = tab.get(i);
+        if (head instanceof ForwardingNode) {
+          tab = ((ForwardingNode<K, V>) head).nextTable;
+          continue;
+        }
+        for (Node<K, V> e = head, prev = null; e != null; prev = e, e = e.next) {
+          if (e.hash == hash && e.key.equals(key)) {
+            oldValue = e.value;
+            if (prev == null) tab.set(i, e.next);
+            else prev.next = e.next;
+            stripeSizes.set(stripe, stripeSizes.get(stripe) - 1);
+            break;
+          }
+        }
+        break;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    helpResize();
+    return oldValue;
+  }
+
+  // Starts a resize if the table is over its threshold and no resize is in progress.
+  // If another thread is already starting one there is nothing left to do.
+  private void maybeStartResize() {
+    if (!resizeLock.tryLock()) return;
+    try {
+      // A finished resize publishes the new table and threshold before clearing
+      // the resize, so once we see no resize the table and threshold are current.
+      if (resize.get() != null || size() <= threshold) return;
+      AtomicReferenceArray<Node<K, V>> tab = table;
+      if (tab.length() < MAXIMUM_CAPACITY) resize.set(new Resize(tab));
+    } finally {
+      resizeLock.unlock();
+    }
+  }
+
+  // Migrates a few buckets if a resize is in progress.
+  private void helpResize() {
+    Resize r = resize.get();
+    if (r != null) r.help();
+  }
+
+  // Clears all the contents of the hash-table
+  public void clear() {
+    for (int i = 0; i < locks.length; i++) {
+      locks[i].lock();
+      try {
+        clearStripe(table, i);
+      } finally {
+        locks[i].unlock();
+      }
+    }
+  }
+
+  // Empties all the buckets of the stripe in the table, following forwarding nodes
+  // into the newer table. The caller must hold the stripe's lock.
+  private void clearStripe(AtomicReferenceArray<Node<K, V>> tab, int stripe) {
+    AtomicReferenceArray<Node<K, V>> nextTable = null;
+    for (int i = stripe; i < tab.length(); i += locks.length) {
+      Node<K, V> head = tab.get(i);
+      if (head instanceof ForwardingNode) {
+        nextTable = ((ForwardingNode<K, V>) head).nextTable;
+        continue;
+      }
+      int removed = 0;
+      for (Node<K, V> e = head; e != null; e = e.next) removed++;
+      tab.set(i, null);
+      stripeSizes.set(stripe, stripeSizes.get(stripe) - removed);
+    }
+    if (nextTable != null) clearStripe(nextTable, stripe);
+  }
+
+  // Returns the list of keys found within the hash table
+  public List<K> keys() {
+    List<K> keys = new ArrayList<>(size());
+    for (Node<K, V> e : nodes()) keys.add(e.key);
+    return keys;
+  }
+
+  // Returns the list of values found within the hash table
+  public List<V> values() {
+    List<V> values = new ArrayList<>(size());
+    for (Node<K, V> e : nodes()) values.add(e.value);
+    return values;
+  }
+
+  private List<Node<K, V>> nodes() {
+    List<Node<K, V>> nodes = new ArrayList<>(size());
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    for (int i = 0; i < tab.length(); i++) collectNodes(tab, i, nodes);
+    return nodes;
+  }
+
+  // Collects the nodes of bucket i, following forwarding nodes into newer tables.
+  private void collectNodes(AtomicReferenceArray<Node<K, V>> tab, int i, List<Node<K, V>> nodes) {
+    Node<K, V> head = tab.get(i);
+    if (head instanceof ForwardingNode) {
+      AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) head).nextTable;
+      collectNodes(next, i, nodes);
+      collectNodes(next, i + tab.length(), nodes);
+      return;
+    }
+    for (Node<K, V> e = head; e != null; e = e.next) nodes.add(e);
+  }
+
+  // Return an iterator over a snapshot of the keys in this map
+  @Override
+  public Iterator<K> iterator() {
+    return keys().iterator();
+  }
+
+  // Returns a string representation of this hash table
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{");
+    for (Node<K, V> e : nodes()) sb.append(e.key + " => " + e.value + ", ");
+    sb.append("}");
+    return sb.toString();
+  }
+}
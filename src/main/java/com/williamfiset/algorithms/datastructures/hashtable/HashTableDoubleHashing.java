@@ -5,10 +5,8 @@
  */
 package com.williamfiset.algorithms.datastructures.hashtable;
 
-import java.math.BigInteger;
-
 public class HashTableDoubleHashing<K extends SecondaryHash, V>
-    extends HashTableOpenAddressingBase<K, V> {
+    extends HashTableOpenAddressingIncrementalBase<K, V> {
 
   private int hash;
 
@@ -36,7 +34,7 @@ public class HashTableDoubleHashing<K extends SecondaryHash, V>
 
   @Override
   protected int probe(int x) {
-    return x * hash;
+    return (int) ProbingStrategy.DOUBLE_HASHING.probe(x, hash);
   }
 
   // Adjust the capacity until it is a prime number. The reason for
@@ -44,8 +42,6 @@ public class HashTableDoubleHashing<K extends SecondaryHash, V>
   // probing so that all the cells can be reached.
   @Override
   protected void adjustCapacity() {
-    while (!(new BigInteger(String.valueOf(capacity)).isProbablePrime(20))) {
-      capacity++;
-    }
+    capacity = ProbingStrategy.DOUBLE_HASHING.adjustCapacity(capacity);
   }
 }
@@ -174,7 +174,11 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
   public V insert(K key, V val) {
     if (key == null) throw new IllegalArgumentException("Null key");
     if (usedBuckets >= threshold) resizeTable();
+    return insertIntoTable(key, val);
+  }
 
+  // Inserts the key-value pair into the current table without checking the threshold.
+  protected V insertIntoTable(K key, V val) {
     setupProbing(key);
     final int offset = normalizeIndex(key.hashCode());
 
@@ -346,6 +350,27 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     }
   }
 
+  // Returns a histogram of probe lengths where entry x is the number of keys which are
+  // found on the x'th probe past their original hash position (so entry 0 counts the keys
+  // sitting in their home bucket). Deleted cells passed over along the way count as probes,
+  // which makes this useful to observe how tombstones lengthen the probe chains over time.
+  public int[] probeLengthHistogram() {
+    int[] lengths = new int[keyCount];
+    int n = 0, maxLength = 0;
+    for (int i = 0; i < capacity; i++) {
+      if (keys[i] == null || keys[i] == TOMBSTONE) continue;
+      setupProbing(keys[i]);
+      final int offset = normalizeIndex(keys[i].hashCode());
+      int x = 0, j = offset;
+      while (j != i) j = normalizeIndex(offset + probe(++x));
+      lengths[n++] = x;
+      maxLength = Math.max(maxLength, x);
+    }
+    int[] histogram = new int[maxLength + 1];
+    for (int i = 0; i < n; i++) histogram[lengths[i]]++;
+    return histogram;
+  }
+
   // Return a String view of this hash-table.
   @Override
   public String toString() {
@@ -0,0 +1,263 @@
+/**
+ * Base class for open addressing hashtables which can optionally resize incrementally, such as
+ * linear probing, quadratic probing and double hashing. When incremental resizing is enabled,
+ * growing the table no longer rehashes every key at once. Instead the old and new tables are kept
+ * side by side and each operation migrates a bounded number of buckets, so the worst case cost of
+ * a single operation stays constant at the expense of probing both tables while a migration is in
+ * progress.
+ *
+ * <p>Lookups in the old table rely on TOMBSTONE markers to keep the probe chains of the keys not
+ * migrated yet intact, so tables which move keys around on removal (such as Robin Hood hashing
+ * with backward shift deletion) extend {@link HashTableOpenAddressingBase} directly instead.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.Iterator;
+import java.util.List;
+
+@SuppressWarnings("unchecked")
+public abstract class HashTableOpenAddressingIncrementalBase<K, V>
+    extends HashTableOpenAddressingBase<K, V> {
+
+  // When incremental resizing is enabled the table that was full is kept in 'oldKeys'
+  // and 'oldValues' after a resize, and every operation moves at most 'migrationStep'
+  // of its buckets over to the new table, starting at 'migrationIndex'. Every key lives
+  // in exactly one of the two tables and 'keyCount' counts the keys of both.
+  private boolean incrementalResizing;
+  private K[] oldKeys;
+  private V[] oldValues;
+  private int oldCapacity, migrationIndex, migrationStep;
+
+  private static final int MIN_MIGRATION_STEP = 16;
+
+  protected HashTableOpenAddressingIncrementalBase() {
+    super();
+    setMigrationStep();
+  }
+
+  protected HashTableOpenAddressingIncrementalBase(int capacity) {
+    super(capacity);
+    setMigrationStep();
+  }
+
+  protected HashTableOpenAddressingIncrementalBase(int capacity, double loadFactor) {
+    super(capacity, loadFactor);
+    setMigrationStep();
+  }
+
+  // The old table must be fully migrated before the new table reaches its threshold.
+  // The new table is about twice as large, so each insertion gets loadFactor * capacity
+  // more buckets of room while the old table holds 'capacity' buckets to migrate. Moving
+  // 2 / loadFactor buckets per operation leaves a safety margin of a factor two.
+  private void setMigrationStep() {
+    migrationStep = (int) Math.max(MIN_MIGRATION_STEP, Math.ceil(2 / loadFactor));
+  }
+
+  // Enables or disables incremental resizing. Disabling it finishes any migration in progress.
+  public void setIncrementalResizing(boolean incrementalResizing) {
+    if (!incrementalResizing) finishMigration();
+    this.incrementalResizing = incrementalResizing;
+  }
+
+  public boolean isIncrementalResizing() {
+    return incrementalResizing;
+  }
+
+  // Returns true if an incremental resize is still moving keys out of the old table
+  public boolean isMigrating() {
+    return oldKeys != null;
+  }
+
+  @Override
+  public void clear() {
+    oldKeys = null;
+    oldValues = null;
+    super.clear();
+  }
+
+  @Override
+  public List<K> keys() {
+    finishMigration();
+    return super.keys();
+  }
+
+  @Override
+  public List<V> values() {
+    finishMigration();
+    return super.values();
+  }
+
+  @Override
+  protected void resizeTable() {
+    if (incrementalResizing) {
+      finishMigration();
+      startMigration();
+      return;
+    }
+    super.resizeTable();
+  }
+
+  // Allocates the larger table and sets the current one aside to be migrated incrementally.
+  private void startMigration() {
+    oldKeys = keys;
+    oldValues = values;
+    oldCapacity = capacity;
+    migrationIndex = 0;
+
+    increaseCapacity();
+    adjustCapacity();
+    threshold = (int) (capacity * loadFactor);
+
+    keys = (K[]) new Object[capacity];
+    values = (V[]) new Object[capacity];
+    usedBuckets = 0;
+  }
+
+  // Moves the next 'buckets' buckets of the old table into the new table, and drops the
+  // old table once all of them have been moved.
+  private void migrateBuckets(int buckets) {
+    if (oldKeys == null) return;
+
+    int end = (int) Math.min(oldCapacity, (long) migrationIndex + buckets);
+    for (; migrationIndex < end; migrationIndex++) {
+      K key = oldKeys[migrationIndex];
+      if (key == null || key == TOMBSTONE) continue;
+
+      // Leave a tombstone behind (rather than null) to keep the probe chains
+      // of the keys still waiting to be migrated intact.
+      V value = oldValues[migrationIndex];
+      oldKeys[migrationIndex] = TOMBSTONE;
+      oldValues[migrationIndex] = null;
+      keyCount--;
+      insertIntoTable(key, value);
+    }
+
+    if (migrationIndex == oldCapacity) {
+      oldKeys = null;
+      oldValues = null;
+    }
+  }
+
+  private void finishMigration() {
+    migrateBuckets(oldCapacity);
+  }
+
+  // Exchanges the current table with the table being migrated so that the probing
+  // functions, which depend on 'capacity', can be reused to search the old table.
+  private void swapTables() {
+    K[] keyTableTmp = keys;
+    keys = oldKeys;
+    oldKeys = keyTableTmp;
+
+    V[] valueTableTmp = values;
+    values = oldValues;
+    oldValues = valueTableTmp;
+
+    int capacityTmp = capacity;
+    capacity = oldCapacity;
+    oldCapacity = capacityTmp;
+  }
+
+  // Returns the index of the key inside the table being migrated, or -1 if it is not
+  // there. Unlike the lookups on the current table, entries are never relocated here
+  // since that could move them behind the migration index and lose them.
+  private int indexInOldTable(K key) {
+    swapTables();
+    try {
+      setupProbing(key);
+      final int offset = normalizeIndex(key.hashCode());
+      for (int i = offset, x = 1; ; i = normalizeIndex(offset + probe(x++))) {
+        if (keys[i] == null) return -1;
+        if (keys[i] != TOMBSTONE && keys[i].equals(key)) return i;
+      }
+    } finally {
+      swapTables();
+    }
+  }
+
+  // Removes the entry at index i of the old table and returns its value.
+  private V removeFromOldTable(int i) {
+    V oldValue = oldValues[i];
+    oldKeys[i] = TOMBSTONE;
+    oldValues[i] = null;
+    keyCount--;
+    return oldValue;
+  }
+
+  @Override
+  public V insert(K key, V val) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    if (usedBuckets >= threshold) resizeTable();
+
+    if (oldKeys != null) {
+      migrateBuckets(migrationStep);
+      int i = oldKeys == null ? -1 : indexInOldTable(key);
+      if (i != -1) {
+        // Move the key over to the new table with its updated value.
+        V oldValue = removeFromOldTable(i);
+        insertIntoTable(key, val);
+        return oldValue;
+      }
+    }
+
+    return insertIntoTable(key, val);
+  }
+
+  @Override
+  public boolean hasKey(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+
+    if (oldKeys != null) {
+      migrateBuckets(migrationStep);
+      if (oldKeys != null && indexInOldTable(key) != -1) return true;
+    }
+    return super.hasKey(key);
+  }
+
+  @Override
+  public V get(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+
+    if (oldKeys != null) {
+      migrateBuckets(migrationStep);
+      int i = oldKeys == null ? -1 : indexInOldTable(key);
+      if (i != -1) return oldValues[i];
+    }
+    return super.get(key);
+  }
+
+  @Override
+  public V remove(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+
+    if (oldKeys != null) {
+      migrateBuckets(migrationStep);
+      int i = oldKeys == null ? -1 : indexInOldTable(key);
+      if (i != -1) {
+        modificationCount++;
+        return removeFromOldTable(i);
+      }
+    }
+    return super.remove(key);
+  }
+
+  @Override
+  public int[] probeLengthHistogram() {
+    finishMigration();
+    return super.probeLengthHistogram();
+  }
+
+  @Override
+  public String toString() {
+    finishMigration();
+    return super.toString();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    finishMigration();
+    return super.iterator();
+  }
+}
@@ -13,7 +13,7 @@
  */
 package com.williamfiset.algorithms.datastructures.hashtable;
 
-public class HashTableQuadraticProbing<K, V> extends HashTableOpenAddressingBase<K, V> {
+public class HashTableQuadraticProbing<K, V> extends HashTableOpenAddressingIncrementalBase<K, V> {
 
   public HashTableQuadraticProbing() {
     super();
@@ -28,12 +28,6 @@ public class HashTableQuadraticProbing<K, V> extends HashTableOpenAddressingBase
     super(capacity, loadFactor);
   }
 
-  // Given a number this method finds the next
-  // power of two above this value.
-  private static int nextPowerOfTwo(int n) {
-    return Integer.highestOneBit(n) << 1;
-  }
-
   // No setup required for quadratic probing.
   @Override
   protected void setupProbing(K key) {}
@@ -41,20 +35,18 @@ public class HashTableQuadraticProbing<K, V> extends HashTableOpenAddressingBase
   @Override
   protected int probe(int x) {
     // Quadratic probing function (x^2+x)/2
-    return (x * x + x) >> 1;
+    return (int) ProbingStrategy.QUADRATIC.probe(x, 0);
   }
 
   // Increase the capacity of the hashtable to the next power of two.
   @Override
   protected void increaseCapacity() {
-    capacity = nextPowerOfTwo(capacity);
+    capacity = ProbingStrategy.QUADRATIC.increaseCapacity(capacity);
   }
 
   // Adjust the capacity of the hashtable to be a power of two.
   @Override
   protected void adjustCapacity() {
-    int pow2 = Integer.highestOneBit(capacity);
-    if (capacity == pow2) return;
-    increaseCapacity();
+    capacity = ProbingStrategy.QUADRATIC.adjustCapacity(capacity);
   }
 }
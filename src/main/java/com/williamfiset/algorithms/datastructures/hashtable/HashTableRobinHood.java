@@ -0,0 +1,192 @@
+/**
+ * An implementation of a hash-table using open addressing with Robin Hood hashing as a collision
+ * resolution method.
+ *
+ * <p>Robin Hood hashing is linear probing with a twist: when inserting, a key which has travelled
+ * further from its home bucket than the key occupying the current bucket takes that bucket, and
+ * the displaced key continues probing instead ("take from the rich, give to the poor"). This keeps
+ * the variance of the probe lengths small and lets unsuccessful lookups stop as soon as they reach
+ * a key closer to its home bucket than the key being searched for.
+ *
+ * <p>Removals use backward shift deletion: the keys following the removed one in the same cluster
+ * are shifted back one bucket. No TOMBSTONE markers are ever left behind, so probe chains do not
+ * degrade under a mix of insertions and removals.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+@SuppressWarnings("unchecked")
+public class HashTableRobinHood<K, V> extends HashTableOpenAddressingBase<K, V> {
+
+  // The probe length of the key stored in each bucket, i.e how many buckets
+  // away from its original hash position the key is.
+  private int[] probeLengths;
+
+  public HashTableRobinHood() {
+    super();
+    probeLengths = new int[capacity];
+  }
+
+  public HashTableRobinHood(int capacity) {
+    super(capacity);
+    probeLengths = new int[this.capacity];
+  }
+
+  // Designated constructor
+  public HashTableRobinHood(int capacity, double loadFactor) {
+    super(capacity, loadFactor);
+    probeLengths = new int[this.capacity];
+  }
+
+  // No setup required, Robin Hood hashing always probes the next bucket.
+  @Override
+  protected void setupProbing(K key) {}
+
+  @Override
+  protected int probe(int x) {
+    return x;
+  }
+
+  // Any capacity works since a probe step of 1 visits every bucket.
+  @Override
+  protected void adjustCapacity() {}
+
+  private int next(int i) {
+    return i + 1 == capacity ? 0 : i + 1;
+  }
+
+  // Finds the bucket containing the key, or returns -1 if the key does not exist.
+  private int indexOf(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    for (int i = normalizeIndex(key.hashCode()), length = 0; ; i = next(i), length++) {
+      // We hit an empty bucket or a key which is closer to its home than our key
+      // would be here. Had our key been inserted it would have taken this bucket.
+      if (keys[i] == null || probeLengths[i] < length) return -1;
+      if (probeLengths[i] == length && keys[i].equals(key)) return i;
+    }
+  }
+
+  // Place a key-value pair into the hash-table. If the value already
+  // exists inside the hash-table then the value is updated.
+  @Override
+  public V insert(K key, V val) {
+    int i = indexOf(key);
+    if (i != -1) {
+      V oldValue = values[i];
+      values[i] = val;
+      modificationCount++;
+      return oldValue;
+    }
+    if (usedBuckets >= threshold) resizeTable();
+    insertAbsent(key, val);
+    modificationCount++;
+    return null;
+  }
+
+  // Inserts a key which is known not to be in the table yet.
+  private void insertAbsent(K key, V val) {
+    int length = 0;
+    for (int i = normalizeIndex(key.hashCode()); ; i = next(i), length++) {
+      if (keys[i] == null) {
+        keys[i] = key;
+        values[i] = val;
+        probeLengths[i] = length;
+        usedBuckets++;
+        keyCount++;
+        return;
+      }
+      // The resident key is richer (closer to home) than the one we are carrying,
+      // so it gives up its bucket and we continue probing with it instead.
+      if (probeLengths[i] < length) {
+        K tmpKey = keys[i];
+        V tmpVal = values[i];
+        int tmpLength = probeLengths[i];
+        keys[i] = key;
+        values[i] = val;
+        probeLengths[i] = length;
+        key = tmpKey;
+        val = tmpVal;
+        length = tmpLength;
+      }
+    }
+  }
+
+  // Returns true/false on whether a given key exists within the hash-table
+  @Override
+  public boolean hasKey(K key) {
+    return indexOf(key) != -1;
+  }
+
+  // Get the value associated with the input key.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  @Override
+  public V get(K key) {
+    int i = indexOf(key);
+    return i == -1 ? null : values[i];
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  @Override
+  public V remove(K key) {
+    int i = indexOf(key);
+    if (i == -1) return null;
+    V oldValue = values[i];
+
+    // Shift the following keys of the cluster back by one bucket until we reach
+    // an empty bucket or a key which already sits in its home bucket.
+    for (int j = next(i); keys[j] != null && probeLengths[j] > 0; i = j, j = next(j)) {
+      keys[i] = keys[j];
+      values[i] = values[j];
+      probeLengths[i] = probeLengths[j] - 1;
+    }
+    keys[i] = null;
+    values[i] = null;
+    probeLengths[i] = 0;
+
+    keyCount--;
+    usedBuckets--;
+    modificationCount++;
+    return oldValue;
+  }
+
+  // Double the size of the hash-table
+  @Override
+  protected void resizeTable() {
+    increaseCapacity();
+    adjustCapacity();
+
+    threshold = (int) (capacity * loadFactor);
+
+    K[] oldKeyTable = keys;
+    V[] oldValueTable = values;
+    keys = (K[]) new Object[capacity];
+    values = (V[]) new Object[capacity];
+    probeLengths = new int[capacity];
+
+    // Reset the key count and buckets used since we are about to
+    // re-insert all the keys into the hash-table.
+    keyCount = usedBuckets = 0;
+
+    for (int i = 0; i < oldKeyTable.length; i++) {
+      if (oldKeyTable[i] != null) insertAbsent(oldKeyTable[i], oldValueTable[i]);
+    }
+  }
+
+  // The probe lengths are tracked for every bucket, so no probing is needed here.
+  @Override
+  public int[] probeLengthHistogram() {
+    int maxLength = 0;
+    for (int i = 0; i < capacity; i++) {
+      if (keys[i] != null) maxLength = Math.max(maxLength, probeLengths[i]);
+    }
+    int[] histogram = new int[maxLength + 1];
+    for (int i = 0; i < capacity; i++) {
+      if (keys[i] != null) histogram[probeLengths[i]]++;
+    }
+    return histogram;
+  }
+}
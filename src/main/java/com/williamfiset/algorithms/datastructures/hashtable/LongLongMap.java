@@ -0,0 +1,216 @@
+/**
+ * An open addressing hash map from long keys to long values which stores its entries in primitive
+ * arrays, so no key or value is ever boxed. The probing scheme (linear probing, quadratic probing
+ * or double hashing) is chosen when the map is created.
+ *
+ * <p>The key 0 marks empty buckets and Long.MIN_VALUE marks deleted buckets. Both can still be
+ * used as regular keys since their entries are kept outside of the table.
+ *
+ * <p>Methods which return a value return 0 when the key is absent, use {@link #containsKey(long)}
+ * or {@link #get(long, long)} to tell an absent key apart from a key mapped to 0.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.Arrays;
+
+public class LongLongMap extends PrimitiveHashTableBase {
+
+  private static final long EMPTY = 0L;
+  private static final long DELETED = Long.MIN_VALUE;
+
+  // These arrays store the key-value pairs.
+  private long[] keys, values;
+
+  // Entries for the keys which collide with the sentinel values.
+  private boolean hasEmptyKey, hasDeletedKey;
+  private long emptyKeyValue, deletedKeyValue;
+
+  public LongLongMap() {
+    this(ProbingStrategy.LINEAR);
+  }
+
+  public LongLongMap(ProbingStrategy probing) {
+    this(probing, DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public LongLongMap(ProbingStrategy probing, int capacity) {
+    this(probing, capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  // Designated constructor
+  public LongLongMap(ProbingStrategy probing, int capacity, double loadFactor) {
+    super(probing, capacity, loadFactor);
+    keys = new long[this.capacity];
+    values = new long[this.capacity];
+  }
+
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    hasEmptyKey = hasDeletedKey = false;
+    keyCount = usedBuckets = 0;
+  }
+
+  // Returns true/false on whether a given key exists within the map.
+  public boolean containsKey(long key) {
+    if (key == EMPTY) return hasEmptyKey;
+    if (key == DELETED) return hasDeletedKey;
+    return indexOf(key) != -1;
+  }
+
+  // Returns the value associated with the key or 0 if the key does not exist.
+  public long get(long key) {
+    return get(key, 0);
+  }
+
+  // Returns the value associated with the key or defaultValue if the key does not exist.
+  public long get(long key, long defaultValue) {
+    if (key == EMPTY) return hasEmptyKey ? emptyKeyValue : defaultValue;
+    if (key == DELETED) return hasDeletedKey ? deletedKeyValue : defaultValue;
+    int i = indexOf(key);
+    return i == -1 ? defaultValue : values[i];
+  }
+
+  // Place a key-value pair into the map. If the key already exists inside the
+  // map then the value is updated. Returns the previous value or 0 if there was none.
+  public long put(long key, long value) {
+    if (key == EMPTY) {
+      long oldValue = hasEmptyKey ? emptyKeyValue : 0;
+      if (!hasEmptyKey) keyCount++;
+      hasEmptyKey = true;
+      emptyKeyValue = value;
+      return oldValue;
+    }
+    if (key == DELETED) {
+      long oldValue = hasDeletedKey ? deletedKeyValue : 0;
+      if (!hasDeletedKey) keyCount++;
+      hasDeletedKey = true;
+      deletedKeyValue = value;
+      return oldValue;
+    }
+    if (usedBuckets >= threshold) resizeTable();
+
+    final int offset = normalizeIndex(hash(key));
+    final int h2 = secondaryHash(hash2(key));
+
+    for (int i = offset, j = -1, x = 1; ; i = probeIndex(offset, x++, h2)) {
+      long k = keys[i];
+
+      // The current slot was previously deleted, remember the first one seen so
+      // that a new key can reuse it once we know the key is not in the table.
+      if (k == DELETED) {
+        if (j == -1) j = i;
+
+        // Current cell is empty so the key does not exist and can be inserted.
+      } else if (k == EMPTY) {
+        if (j == -1) {
+          usedBuckets++;
+          j = i;
+        }
+        keyCount++;
+        keys[j] = key;
+        values[j] = value;
+        return 0;
+
+        // The key already exists in the map so update its value.
+      } else if (k == key) {
+        long oldValue = values[i];
+        values[i] = value;
+        return oldValue;
+      }
+    }
+  }
+
+  // Removes a key from the map and returns its value or 0 if the key does not exist.
+  public long remove(long key) {
+    if (key == EMPTY) {
+      if (!hasEmptyKey) return 0;
+      hasEmptyKey = false;
+      keyCount--;
+      return emptyKeyValue;
+    }
+    if (key == DELETED) {
+      if (!hasDeletedKey) return 0;
+      hasDeletedKey = false;
+      keyCount--;
+      return deletedKeyValue;
+    }
+    int i = indexOf(key);
+    if (i == -1) return 0;
+    keys[i] = DELETED;
+    keyCount--;
+    return values[i];
+  }
+
+  // Returns the keys found in the map
+  public long[] keys() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasEmptyKey) result[n++] = EMPTY;
+    if (hasDeletedKey) result[n++] = DELETED;
+    for (int i = 0; i < capacity; i++) if (isUsed(keys[i])) result[n++] = keys[i];
+    return result;
+  }
+
+  // Returns the values found in the map, in the same order as keys()
+  public long[] values() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasEmptyKey) result[n++] = emptyKeyValue;
+    if (hasDeletedKey) result[n++] = deletedKeyValue;
+    for (int i = 0; i < capacity; i++) if (isUsed(keys[i])) result[n++] = values[i];
+    return result;
+  }
+
+  // Finds the bucket containing the key, or returns -1 if the key does not exist.
+  private int indexOf(long key) {
+    final int offset = normalizeIndex(hash(key));
+    final int h2 = secondaryHash(hash2(key));
+
+    // Probe until we find our key or hit an empty bucket, skipping over deleted ones.
+    for (int i = offset, x = 1; ; i = probeIndex(offset, x++, h2)) {
+      long k = keys[i];
+      if (k == key) return i;
+      if (k == EMPTY) return -1;
+    }
+  }
+
+  // Rehashes every key into a new table. Deleted buckets are dropped in the process,
+  // so if most of the used buckets were deleted ones the capacity stays the same.
+  private void resizeTable() {
+    int tableKeys = keyCount - (hasEmptyKey ? 1 : 0) - (hasDeletedKey ? 1 : 0);
+    if (2 * tableKeys >= threshold) capacity = nextCapacity();
+    threshold = computeThreshold(capacity);
+
+    long[] oldKeys = keys, oldValues = values;
+    keys = new long[capacity];
+    values = new long[capacity];
+    usedBuckets = 0;
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (!isUsed(key)) continue;
+      final int offset = normalizeIndex(hash(key));
+      final int h2 = secondaryHash(hash2(key));
+      int j = offset;
+      for (int x = 1; keys[j] != EMPTY; ) j = probeIndex(offset, x++, h2);
+      keys[j] = key;
+      values[j] = oldValues[i];
+      usedBuckets++;
+    }
+  }
+
+  private static boolean isUsed(long key) {
+    return key != EMPTY && key != DELETED;
+  }
+
+  // Return a String view of this map.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    long[] k = keys(), v = values();
+    for (int i = 0; i < k.length; i++) sb.append(k[i]).append(" => ").append(v[i]).append(", ");
+    return sb.append("}").toString();
+  }
+}
@@ -0,0 +1,230 @@
+/**
+ * An open addressing hash map from long keys to object values which stores its keys in a primitive
+ * array, so no key is ever boxed. The probing scheme (linear probing, quadratic probing or double
+ * hashing) is chosen when the map is created.
+ *
+ * <p>The key 0 marks empty buckets and Long.MIN_VALUE marks deleted buckets. Both can still be
+ * used as regular keys since their entries are kept outside of the table.
+ *
+ * <p>Like the generic hash tables, methods which return a value return null when the key is absent
+ * and null values are allowed.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@SuppressWarnings("unchecked")
+public class LongObjectMap<V> extends PrimitiveHashTableBase {
+
+  private static final long EMPTY = 0L;
+  private static final long DELETED = Long.MIN_VALUE;
+
+  // These arrays store the key-value pairs.
+  private long[] keys;
+  private V[] values;
+
+  // Entries for the keys which collide with the sentinel values.
+  private boolean hasEmptyKey, hasDeletedKey;
+  private V emptyKeyValue, deletedKeyValue;
+
+  public LongObjectMap() {
+    this(ProbingStrategy.LINEAR);
+  }
+
+  public LongObjectMap(ProbingStrategy probing) {
+    this(probing, DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public LongObjectMap(ProbingStrategy probing, int capacity) {
+    this(probing, capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  // Designated constructor
+  public LongObjectMap(ProbingStrategy probing, int capacity, double loadFactor) {
+    super(probing, capacity, loadFactor);
+    keys = new long[this.capacity];
+    values = (V[]) new Object[this.capacity];
+  }
+
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    Arrays.fill(values, null);
+    emptyKeyValue = deletedKeyValue = null;
+    hasEmptyKey = hasDeletedKey = false;
+    keyCount = usedBuckets = 0;
+  }
+
+  // Returns true/false on whether a given key exists within the map.
+  public boolean containsKey(long key) {
+    if (key == EMPTY) return hasEmptyKey;
+    if (key == DELETED) return hasDeletedKey;
+    return indexOf(key) != -1;
+  }
+
+  // Get the value associated with the input key.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V get(long key) {
+    return get(key, null);
+  }
+
+  // Returns the value associated with the key or defaultValue if the key does not exist.
+  public V get(long key, V defaultValue) {
+    if (key == EMPTY) return hasEmptyKey ? emptyKeyValue : defaultValue;
+    if (key == DELETED) return hasDeletedKey ? deletedKeyValue : defaultValue;
+    int i = indexOf(key);
+    return i == -1 ? defaultValue : values[i];
+  }
+
+  // Place a key-value pair into the map. If the key already exists inside the
+  // map then the value is updated. Returns the previous value or null if there was none.
+  public V put(long key, V value) {
+    if (key == EMPTY) {
+      V oldValue = hasEmptyKey ? emptyKeyValue : null;
+      if (!hasEmptyKey) keyCount++;
+      hasEmptyKey = true;
+      emptyKeyValue = value;
+      return oldValue;
+    }
+    if (key == DELETED) {
+      V oldValue = hasDeletedKey ? deletedKeyValue : null;
+      if (!hasDeletedKey) keyCount++;
+      hasDeletedKey = true;
+      deletedKeyValue = value;
+      return oldValue;
+    }
+    if (usedBuckets >= threshold) resizeTable();
+
+    final int offset = normalizeIndex(hash(key));
+    final int h2 = secondaryHash(hash2(key));
+
+    for (int i = offset, j = -1, x = 1; ; i = probeIndex(offset, x++, h2)) {
+      long k = keys[i];
+
+      // The current slot was previously deleted, remember the first one seen so
+      // that a new key can reuse it once we know the key is not in the table.
+      if (k == DELETED) {
+        if (j == -1) j = i;
+
+        // Current cell is empty so the key does not exist and can be inserted.
+      } else if (k == EMPTY) {
+        if (j == -1) {
+          usedBuckets++;
+          j = i;
+        }
+        keyCount++;
+        keys[j] = key;
+        values[j] = value;
+        return null;
+
+        // The key already exists in the map so update its value.
+      } else if (k == key) {
+        V oldValue = values[i];
+        values[i] = value;
+        return oldValue;
+      }
+    }
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V remove(long key) {
+    V oldValue;
+    if (key == EMPTY) {
+      if (!hasEmptyKey) return null;
+      oldValue = emptyKeyValue;
+      hasEmptyKey = false;
+      emptyKeyValue = null;
+    } else if (key == DELETED) {
+      if (!hasDeletedKey) return null;
+      oldValue = deletedKeyValue;
+      hasDeletedKey = false;
+      deletedKeyValue = null;
+    } else {
+      int i = indexOf(key);
+      if (i == -1) return null;
+      oldValue = values[i];
+      keys[i] = DELETED;
+      values[i] = null;
+    }
+    keyCount--;
+    return oldValue;
+  }
+
+  // Returns the keys found in the map
+  public long[] keys() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasEmptyKey) result[n++] = EMPTY;
+    if (hasDeletedKey) result[n++] = DELETED;
+    for (int i = 0; i < capacity; i++) if (isUsed(keys[i])) result[n++] = keys[i];
+    return result;
+  }
+
+  // Returns a list of non-unique values found in the map, in the same order as keys()
+  public List<V> values() {
+    List<V> result = new ArrayList<>(keyCount);
+    if (hasEmptyKey) result.add(emptyKeyValue);
+    if (hasDeletedKey) result.add(deletedKeyValue);
+    for (int i = 0; i < capacity; i++) if (isUsed(keys[i])) result.add(values[i]);
+    return result;
+  }
+
+  // Finds the bucket containing the key, or returns -1 if the key does not exist.
+  private int indexOf(long key) {
+    final int offset = normalizeIndex(hash(key));
+    final int h2 = secondaryHash(hash2(key));
+
+    // Probe until we find our key or hit an empty bucket, skipping over deleted ones.
+    for (int i = offset, x = 1; ; i = probeIndex(offset, x++, h2)) {
+      long k = keys[i];
+      if (k == key) return i;
+      if (k == EMPTY) return -1;
+    }
+  }
+
+  // Rehashes every key into a new table. Deleted buckets are dropped in the process,
+  // so if most of the used buckets were deleted ones the capacity stays the same.
+  private void resizeTable() {
+    int tableKeys = keyCount - (hasEmptyKey ? 1 : 0) - (hasDeletedKey ? 1 : 0);
+    if (2 * tableKeys >= threshold) capacity = nextCapacity();
+    threshold = computeThreshold(capacity);
+
+    long[] oldKeys = keys;
+    V[] oldValues = values;
+    keys = new long[capacity];
+    values = (V[]) new Object[capacity];
+    usedBuckets = 0;
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (!isUsed(key)) continue;
+      final int offset = normalizeIndex(hash(key));
+      final int h2 = secondaryHash(hash2(key));
+      int j = offset;
+      for (int x = 1; keys[j] != EMPTY; ) j = probeIndex(offset, x++, h2);
+      keys[j] = key;
+      values[j] = oldValues[i];
+      usedBuckets++;
+    }
+  }
+
+  private static boolean isUsed(long key) {
+    return key != EMPTY && key != DELETED;
+  }
+
+  // Return a String view of this map.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    long[] k = keys();
+    List<V> v = values();
+    for (int i = 0; i < k.length; i++) sb.append(k[i]).append(" => ").append(v.get(i)).append(", ");
+    return sb.append("}").toString();
+  }
+}
@@ -0,0 +1,426 @@
+/**
+ * An off-heap linear probing hash map from long keys to long values which lives inside a memory
+ * mapped file. The map can be closed and later reopened by mapping the same file again, which
+ * takes constant time no matter how many entries it holds, and only the pages of the file which
+ * are actually touched are loaded into memory.
+ *
+ * <p>The probing follows {@link HashTableLinearProbing}: the x'th probe for a key lands on bucket
+ * (h(k) + LINEAR_CONSTANT * x) mod capacity and removed entries leave a tombstone behind which is
+ * reused by later insertions. Like {@link LongLongMap}, the key 0 marks empty buckets and
+ * Long.MIN_VALUE marks deleted buckets. Both can still be used as regular keys since their entries
+ * are kept in the file header. Unlike the in-memory tables, lookups never relocate entries so that
+ * reads do not dirty any pages.
+ *
+ * <p>File layout: a 64 byte header followed by 'capacity' fixed width records of 16 bytes each (an
+ * 8 byte key and an 8 byte value). A single MappedByteBuffer cannot be larger than 2GB, so the
+ * records are mapped in segments of 2^26 records (1GB) each. Growing the table rehashes all the
+ * entries into a new file next to the old one which then atomically replaces it.
+ *
+ * <p>Changes are written straight into the mapped pages and reach the file whenever the operating
+ * system writes them back, call {@link #force()} or {@link #close()} to write them out right away.
+ * This class is not thread safe.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedLongLongMap extends PrimitiveHashTableBase implements Closeable {
+
+  private static final long EMPTY = 0L;
+  private static final long DELETED = Long.MIN_VALUE;
+
+  // Header layout, all offsets are in bytes from the start of the file.
+  private static final int MAGIC = 0x4C504D4D;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 4;
+  private static final int CAPACITY_OFFSET = 8;
+  private static final int KEY_COUNT_OFFSET = 12;
+  private static final int USED_BUCKETS_OFFSET = 16;
+  private static final int FLAGS_OFFSET = 20;
+  private static final int LOAD_FACTOR_OFFSET = 24;
+  private static final int EMPTY_KEY_VALUE_OFFSET = 32;
+  private static final int DELETED_KEY_VALUE_OFFSET = 40;
+
+  // Bits of the flags field recording which sentinel slots are in use.
+  private static final int HAS_EMPTY_KEY = 1, HAS_DELETED_KEY = 2;
+
+  // Fixed so that files can be moved between machines, little endian being the
+  // native order of the common platforms.
+  private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  // Each record is a key followed by its value.
+  private static final int RECORD_BYTES = 16;
+  private static final int VALUE_OFFSET = 8;
+
+  // log2 of the number of records mapped by each segment.
+  static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+  private final Path file;
+  private final int segmentShift, segmentMask;
+  private MappedByteBuffer header;
+  private MappedByteBuffer[] segments;
+
+  // Entries for the keys which collide with the sentinel values.
+  private boolean hasEmptyKey, hasDeletedKey;
+  private long emptyKeyValue, deletedKeyValue;
+
+  private MappedLongLongMap(
+      Path file, int capacity, double loadFactor, int segmentShift, boolean create)
+      throws IOException {
+    super(ProbingStrategy.LINEAR, capacity, loadFactor);
+    this.file = file;
+    this.segmentShift = segmentShift;
+    this.segmentMask = (1 << segmentShift) - 1;
+
+    if (create) {
+      try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+        header = mapHeader(channel);
+        segments = mapSegments(channel, this.capacity);
+      }
+      writeHeader();
+    } else {
+      try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+        header = mapHeader(channel);
+        segments = mapSegments(channel, this.capacity);
+      }
+      keyCount = header.getInt(KEY_COUNT_OFFSET);
+      usedBuckets = header.getInt(USED_BUCKETS_OFFSET);
+      int flags = header.getInt(FLAGS_OFFSET);
+      hasEmptyKey = (flags & HAS_EMPTY_KEY) != 0;
+      hasDeletedKey = (flags & HAS_DELETED_KEY) != 0;
+      emptyKeyValue = header.getLong(EMPTY_KEY_VALUE_OFFSET);
+      deletedKeyValue = header.getLong(DELETED_KEY_VALUE_OFFSET);
+    }
+  }
+
+  // Creates a new empty map in the given file, replacing the file if it already exists.
+  public static MappedLongLongMap create(Path file) throws IOException {
+    return create(file, DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public static MappedLongLongMap create(Path file, int capacity, double loadFactor)
+      throws IOException {
+    return new MappedLongLongMap(file, capacity, loadFactor, DEFAULT_SEGMENT_SHIFT, true);
+  }
+
+  // Maps a file previously written by a MappedLongLongMap. No entry is read until it is used.
+  public static MappedLongLongMap open(Path file) throws IOException {
+    return open(file, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  // Smaller segments let the tests exercise the mapping of multiple segments.
+  static MappedLongLongMap create(Path file, int capacity, double loadFactor, int segmentShift)
+      throws IOException {
+    return new MappedLongLongMap(file, capacity, loadFactor, segmentShift, true);
+  }
+
+  static MappedLongLongMap open(Path file, int segmentShift) throws IOException {
+    long fileBytes = Files.size(file);
+    if (fileBytes < HEADER_BYTES) throw new IOException("Not a MappedLongLongMap file: " + file);
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) throw new IOException("Truncated header: " + file);
+      }
+    }
+    if (buffer.getInt(MAGIC_OFFSET) != MAGIC)
+      throw new IOException("Not a MappedLongLongMap file: " + file);
+    if (buffer.getInt(VERSION_OFFSET) != VERSION)
+      throw new IOException("Unsupported version: " + buffer.getInt(VERSION_OFFSET));
+
+    int capacity = buffer.getInt(CAPACITY_OFFSET);
+    double loadFactor = buffer.getDouble(LOAD_FACTOR_OFFSET);
+    if (fileBytes < HEADER_BYTES + (long) capacity * RECORD_BYTES)
+      throw new IOException("Truncated file: " + file);
+    return new MappedLongLongMap(file, capacity, loadFactor, segmentShift, false);
+  }
+
+  public void clear() {
+    for (int i = 0; i < capacity; i++) setKey(segments, i, EMPTY);
+    hasEmptyKey = hasDeletedKey = false;
+    keyCount = usedBuckets = 0;
+    writeHeader();
+  }
+
+  // Returns true/false on whether a given key exists within the map.
+  public boolean containsKey(long key) {
+    if (key == EMPTY) return hasEmptyKey;
+    if (key == DELETED) return hasDeletedKey;
+    return indexOf(key) != -1;
+  }
+
+  // Returns the value associated with the key or 0 if the key does not exist.
+  public long get(long key) {
+    return get(key, 0);
+  }
+
+  // Returns the value associated with the key or defaultValue if the key does not exist.
+  public long get(long key, long defaultValue) {
+    if (key == EMPTY) return hasEmptyKey ? emptyKeyValue : defaultValue;
+    if (key == DELETED) return hasDeletedKey ? deletedKeyValue : defaultValue;
+    int i = indexOf(key);
+    return i == -1 ? defaultValue : valueAt(segments, i);
+  }
+
+  // Place a key-value pair into the map. If the key already exists inside the
+  // map then the value is updated. Returns the previous value or 0 if there was none.
+  public long put(long key, long value) {
+    if (key == EMPTY) {
+      long oldValue = hasEmptyKey ? emptyKeyValue : 0;
+      if (!hasEmptyKey) keyCount++;
+      hasEmptyKey = true;
+      emptyKeyValue = value;
+      writeHeader();
+      return oldValue;
+    }
+    if (key == DELETED) {
+      long oldValue = hasDeletedKey ? deletedKeyValue : 0;
+      if (!hasDeletedKey) keyCount++;
+      hasDeletedKey = true;
+      deletedKeyValue = value;
+      writeHeader();
+      return oldValue;
+    }
+    if (usedBuckets >= threshold) resizeTable();
+
+    final int offset = normalizeIndex(hash(key));
+
+    for (int i = offset, j = -1, x = 1; ; i = probeIndex(offset, x++, 0)) {
+      long k = keyAt(segments, i);
+
+      // The current slot was previously deleted, remember the first one seen so
+      // that a new key can reuse it once we know the key is not in the table.
+      if (k == DELETED) {
+        if (j == -1) j = i;
+
+        // Current cell is empty so the key does not exist and can be inserted.
+      } else if (k == EMPTY) {
+        if (j == -1) {
+          usedBuckets++;
+          j = i;
+        }
+        keyCount++;
+        setValue(segments, j, value);
+        setKey(segments, j, key);
+        writeHeader();
+        return 0;
+
+        // The key already exists in the map so update its value.
+      } else if (k == key) {
+        long oldValue = valueAt(segments, i);
+        setValue(segments, i, value);
+        return oldValue;
+      }
+    }
+  }
+
+  // Removes a key from the map and returns its value or 0 if the key does not exist.
+  public long remove(long key) {
+    if (key == EMPTY) {
+      if (!hasEmptyKey) return 0;
+      hasEmptyKey = false;
+      keyCount--;
+      writeHeader();
+      return emptyKeyValue;
+    }
+    if (key == DELETED) {
+      if (!hasDeletedKey) return 0;
+      hasDeletedKey = false;
+      keyCount--;
+      writeHeader();
+      return deletedKeyValue;
+    }
+    int i = indexOf(key);
+    if (i == -1) return 0;
+    setKey(segments, i, DELETED);
+    keyCount--;
+    writeHeader();
+    return valueAt(segments, i);
+  }
+
+  // Returns the keys found in the map
+  public long[] keys() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasEmptyKey) result[n++] = EMPTY;
+    if (hasDeletedKey) result[n++] = DELETED;
+    for (int i = 0; i < capacity; i++) {
+      long key = keyAt(segments, i);
+      if (isUsed(key)) result[n++] = key;
+    }
+    return result;
+  }
+
+  // Returns the values found in the map, in the same order as keys()
+  public long[] values() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasEmptyKey) result[n++] = emptyKeyValue;
+    if (hasDeletedKey) result[n++] = deletedKeyValue;
+    for (int i = 0; i < capacity; i++) {
+      if (isUsed(keyAt(segments, i))) result[n++] = valueAt(segments, i);
+    }
+    return result;
+  }
+
+  // Returns the file backing this map.
+  public Path getFile() {
+    return file;
+  }
+
+  // Writes all changes made to the map out to the file.
+  public void force() {
+    for (MappedByteBuffer segment : segments) segment.force();
+    header.force();
+  }
+
+  // Writes all changes out to the file. The map must not be used after it has been closed,
+  // the mapping itself is released once the map is garbage collected.
+  @Override
+  public void close() {
+    force();
+  }
+
+  // Finds the bucket containing the key, or returns -1 if the key does not exist.
+  private int indexOf(long key) {
+    final int offset = normalizeIndex(hash(key));
+
+    // Probe until we find our key or hit an empty bucket, skipping over deleted ones.
+    for (int i = offset, x = 1; ; i = probeIndex(offset, x++, 0)) {
+      long k = keyAt(segments, i);
+      if (k == key) return i;
+      if (k == EMPTY) return -1;
+    }
+  }
+
+  // Rehashes every key into a new file which then replaces the current one. Deleted buckets
+  // are dropped in the process, so if most of the used buckets were deleted ones the capacity
+  // stays the same. The new file is only moved into place once it has been fully written, so
+  // the file always holds either the old or the new table.
+  private void resizeTable() {
+    int tableKeys = keyCount - (hasEmptyKey ? 1 : 0) - (hasDeletedKey ? 1 : 0);
+    int oldCapacity = capacity;
+    if (2 * tableKeys >= threshold) capacity = nextCapacity();
+    threshold = computeThreshold(capacity);
+
+    MappedByteBuffer[] oldSegments = segments;
+    Path resizeFile = file.resolveSibling(file.getFileName() + ".resize");
+    try {
+      try (FileChannel channel =
+          FileChannel.open(resizeFile, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+        header = mapHeader(channel);
+        segments = mapSegments(channel, capacity);
+      }
+      usedBuckets = 0;
+
+      for (int i = 0; i < oldCapacity; i++) {
+        long key = keyAt(oldSegments, i);
+        if (!isUsed(key)) continue;
+        final int offset = normalizeIndex(hash(key));
+        int j = offset;
+        for (int x = 1; keyAt(segments, j) != EMPTY; ) j = probeIndex(offset, x++, 0);
+        setKey(segments, j, key);
+        setValue(segments, j, valueAt(oldSegments, i));
+        usedBuckets++;
+      }
+      writeHeader();
+      force();
+
+      try {
+        Files.move(resizeFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(resizeFile, file, REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to resize " + file, e);
+    }
+  }
+
+  private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+    return (MappedByteBuffer) channel.map(READ_WRITE, 0, HEADER_BYTES).order(BYTE_ORDER);
+  }
+
+  // Maps the records of a table with the given capacity, one segment at a time.
+  private MappedByteBuffer[] mapSegments(FileChannel channel, int capacity) throws IOException {
+    long recordsPerSegment = 1L << segmentShift;
+    int n = (int) ((capacity + recordsPerSegment - 1) >> segmentShift);
+    MappedByteBuffer[] result = new MappedByteBuffer[n];
+    for (int s = 0; s < n; s++) {
+      long first = (long) s << segmentShift;
+      long records = Math.min(recordsPerSegment, capacity - first);
+      long position = HEADER_BYTES + first * RECORD_BYTES;
+      result[s] = channel.map(READ_WRITE, position, records * RECORD_BYTES);
+      result[s].order(BYTE_ORDER);
+    }
+    return result;
+  }
+
+  private void writeHeader() {
+    header.putInt(MAGIC_OFFSET, MAGIC);
+    header.putInt(VERSION_OFFSET, VERSION);
+    header.putInt(CAPACITY_OFFSET, capacity);
+    header.putInt(KEY_COUNT_OFFSET, keyCount);
+    header.putInt(USED_BUCKETS_OFFSET, usedBuckets);
+    int flags = (hasEmptyKey ? HAS_EMPTY_KEY : 0) | (hasDeletedKey ? HAS_DELETED_KEY : 0);
+    header.putInt(FLAGS_OFFSET, flags);
+    header.putDouble(LOAD_FACTOR_OFFSET, loadFactor);
+    header.putLong(EMPTY_KEY_VALUE_OFFSET, emptyKeyValue);
+    header.putLong(DELETED_KEY_VALUE_OFFSET, deletedKeyValue);
+  }
+
+  // Byte position of the i'th record inside its segment.
+  private int recordOffset(int i) {
+    return (i & segmentMask) * RECORD_BYTES;
+  }
+
+  private long keyAt(MappedByteBuffer[] segments, int i) {
+    return segments[i >>> segmentShift].getLong(recordOffset(i));
+  }
+
+  private long valueAt(MappedByteBuffer[] segments, int i) {
+    return segments[i >>> segmentShift].getLong(recordOffset(i) + VALUE_OFFSET);
+  }
+
+  private void setKey(MappedByteBuffer[] segments, int i, long key) {
+    segments[i >>> segmentShift].putLong(recordOffset(i), key);
+  }
+
+  private void setValue(MappedByteBuffer[] segments, int i, long value) {
+    segments[i >>> segmentShift].putLong(recordOffset(i) + VALUE_OFFSET, value);
+  }
+
+  private static boolean isUsed(long key) {
+    return key != EMPTY && key != DELETED;
+  }
+
+  // Return a String view of this map.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    long[] k = keys(), v = values();
+    for (int i = 0; i < k.length; i++) sb.append(k[i]).append(" => ").append(v[i]).append(", ");
+    return sb.append("}").toString();
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * Base class for the open addressing hash tables specialized for primitive keys ({@link
+ * IntIntMap}, {@link LongLongMap}, {@link LongObjectMap} and the file backed {@link
+ * MappedLongLongMap}). These store their keys and values directly in primitive arrays or buffers,
+ * so unlike {@link HashTableOpenAddressingBase} no key or value is ever boxed.
+ *
+ * <p>Since a primitive array cannot hold a null or a TOMBSTONE object, two key values are reserved
+ * as sentinels: an EMPTY key marking free buckets and a DELETED key marking removed entries. When
+ * a caller actually uses one of those two keys, its entry is stored outside of the table in one of
+ * two dedicated slots. This class only tracks the bookkeeping shared by all the maps, subclasses
+ * own the arrays and the sentinel slots.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+public abstract class PrimitiveHashTableBase {
+
+  protected final ProbingStrategy probing;
+  protected final double loadFactor;
+  protected int capacity, threshold;
+
+  // 'usedBuckets' counts the total number of used buckets inside the
+  // table (includes cells marked as deleted). While 'keyCount' tracks
+  // the number of unique keys currently inside the map, including keys
+  // stored in the sentinel slots.
+  protected int usedBuckets, keyCount;
+
+  protected static final int DEFAULT_CAPACITY = 7;
+  protected static final double DEFAULT_LOAD_FACTOR = 0.65;
+
+  // Designated constructor
+  protected PrimitiveHashTableBase(ProbingStrategy probing, int capacity, double loadFactor) {
+    if (probing == null) throw new IllegalArgumentException("Null probing strategy");
+    if (capacity <= 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+
+    // A primitive table never grows past its capacity while probing, so unlike
+    // the generic tables the load factor has to leave at least one bucket free.
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+
+    this.probing = probing;
+    this.loadFactor = loadFactor;
+    this.capacity = probing.adjustCapacity(Math.max(DEFAULT_CAPACITY, capacity));
+    this.threshold = computeThreshold(this.capacity);
+  }
+
+  // Returns the number of keys currently inside the map
+  public int size() {
+    return keyCount;
+  }
+
+  // Returns true/false depending on whether the map is empty
+  public boolean isEmpty() {
+    return keyCount == 0;
+  }
+
+  // Returns the capacity of the table (used mostly for testing)
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public ProbingStrategy getProbingStrategy() {
+    return probing;
+  }
+
+  // Computes the capacity of the table after the next resize.
+  protected final int nextCapacity() {
+    return probing.adjustCapacity(probing.increaseCapacity(capacity));
+  }
+
+  // The number of used buckets which triggers a resize. Capped so that at
+  // least one bucket is always free, otherwise lookups could probe forever.
+  protected final int computeThreshold(int capacity) {
+    return Math.min(capacity - 1, Math.max(1, (int) (capacity * loadFactor)));
+  }
+
+  // Converts a hash value to an index in the domain [0, capacity)
+  protected final int normalizeIndex(int keyHash) {
+    return (keyHash & 0x7FFFFFFF) % capacity;
+  }
+
+  // Returns the bucket of the x'th probe starting from the given offset.
+  protected final int probeIndex(int offset, int x, int secondaryHash) {
+    return (int) ((offset + probing.probe(x, secondaryHash)) % capacity);
+  }
+
+  // Computes the secondary hash for double hashing in the range [1, capacity).
+  // Other probing strategies ignore it, so we avoid computing it for them.
+  protected final int secondaryHash(int hash2) {
+    if (probing != ProbingStrategy.DOUBLE_HASHING) return 0;
+    int h = normalizeIndex(hash2);
+    return h == 0 ? 1 : h;
+  }
+
+  // Scrambles the bits of a key so that keys which only differ in their high
+  // bits (or which are sequential) spread out over the whole table.
+  protected static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  protected static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  // An independent hash used as the step size for double hashing.
+  protected static int hash2(int key) {
+    int h = key * 0x85EBCA6B;
+    return h ^ (h >>> 13);
+  }
+
+  protected static int hash2(long key) {
+    long h = (key ^ (key >>> 33)) * 0xC2B2AE3D27D4EB4FL;
+    return (int) (h ^ (h >>> 29));
+  }
+}
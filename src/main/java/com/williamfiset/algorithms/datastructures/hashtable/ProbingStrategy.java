@@ -0,0 +1,83 @@
+/**
+ * The open addressing probing schemes used by the hash tables in this package. Each strategy
+ * defines the probing function P(x) as well as the constraints it places on the capacity of the
+ * table so that every bucket can be reached by the probing sequence H(k) + P(x) mod capacity.
+ *
+ * <p>The generic tables ({@link HashTableLinearProbing}, {@link HashTableQuadraticProbing} and
+ * {@link HashTableDoubleHashing}) and the primitive specialized maps ({@link IntIntMap}, {@link
+ * LongLongMap} and {@link LongObjectMap}) all share these definitions.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.math.BigInteger;
+
+public enum ProbingStrategy {
+
+  // P(x) = LINEAR_CONSTANT * x, with GCD(capacity, LINEAR_CONSTANT) = 1.
+  LINEAR {
+    @Override
+    public long probe(long x, int secondaryHash) {
+      return LINEAR_CONSTANT * x;
+    }
+
+    @Override
+    public int adjustCapacity(int capacity) {
+      while (HashTableOpenAddressingBase.gcd(LINEAR_CONSTANT, capacity) != 1) capacity++;
+      return capacity;
+    }
+  },
+
+  // P(x) = (x^2 + x) / 2, with the capacity being a power of two.
+  QUADRATIC {
+    @Override
+    public long probe(long x, int secondaryHash) {
+      return (x * x + x) >> 1;
+    }
+
+    @Override
+    public int increaseCapacity(int capacity) {
+      return Integer.highestOneBit(capacity) << 1;
+    }
+
+    @Override
+    public int adjustCapacity(int capacity) {
+      int pow2 = Integer.highestOneBit(capacity);
+      if (capacity == pow2) return capacity;
+      return increaseCapacity(capacity);
+    }
+  },
+
+  // P(x) = x * H2(k), with the capacity being a prime number so that the
+  // GCD(H2(k), capacity) = 1 for any non-zero secondary hash.
+  DOUBLE_HASHING {
+    @Override
+    public long probe(long x, int secondaryHash) {
+      return x * secondaryHash;
+    }
+
+    @Override
+    public int adjustCapacity(int capacity) {
+      while (!(new BigInteger(String.valueOf(capacity)).isProbablePrime(20))) capacity++;
+      return capacity;
+    }
+  };
+
+  // This is the linear constant used in the linear probing, it can be
+  // any positive number. The table capacity will be adjusted so that
+  // the GCD(capacity, LINEAR_CONSTANT) = 1 so that all buckets can be probed.
+  static final int LINEAR_CONSTANT = 17;
+
+  // Returns the offset P(x) of the x'th probe from the original hash position.
+  // The secondary hash is only used by double hashing.
+  public abstract long probe(long x, int secondaryHash);
+
+  // Adjusts the capacity of the table so that the probing function can reach all buckets.
+  public abstract int adjustCapacity(int capacity);
+
+  // Returns the capacity the table should grow to (before it gets adjusted) when it is resized.
+  public int increaseCapacity(int capacity) {
+    return (2 * capacity) + 1;
+  }
+}
@@ -0,0 +1,219 @@
+/**
+ * An indexed min D-ary heap priority queue with primitive double values. It has the same API as
+ * {@link MinIndexedDHeap} but never boxes a value, so inserting and decreasing keys in tight loops
+ * (as in Dijkstra's algorithm) does not allocate.
+ *
+ * <p>The values are stored in heap order next to the key indexes rather than indexed by key, so
+ * that the D children compared when sinking an element sit next to each other in memory. Elements
+ * are moved into place with a "hole" instead of being swapped at every level.
+ *
+ * <p>As convention, I denote 'ki' as the index value in the domain [0, N) associated with a key k,
+ * therefore: ki = map[k]
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.datastructures.priorityqueue;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class MinIndexedDoubleDHeap {
+
+  // Current number of elements in the heap.
+  private int sz;
+
+  // Maximum number of elements in the heap.
+  private final int N;
+
+  // The degree of every node in the heap.
+  private final int D;
+
+  // The Position Map (pm) maps Key Indexes (ki) to their position in the heap,
+  // or -1 if the key is not in the heap.
+  private final int[] pm;
+
+  // The Inverse Map (im) stores the key index at every position of the heap,
+  // so that: pm[im[i]] = i
+  private final int[] im;
+
+  // The value of the element at every position of the heap.
+  private final double[] values;
+
+  // Initializes a D-ary heap with a maximum capacity of maxSize.
+  public MinIndexedDoubleDHeap(int degree, int maxSize) {
+    if (maxSize <= 0) throw new IllegalArgumentException("maxSize <= 0");
+
+    D = max(2, degree);
+    N = maxSize;
+
+    pm = new int[N];
+    im = new int[N];
+    values = new double[N];
+    Arrays.fill(pm, -1);
+  }
+
+  public int size() {
+    return sz;
+  }
+
+  public boolean isEmpty() {
+    return sz == 0;
+  }
+
+  public boolean contains(int ki) {
+    keyInBoundsOrThrow(ki);
+    return pm[ki] != -1;
+  }
+
+  public int peekMinKeyIndex() {
+    isNotEmptyOrThrow();
+    return im[0];
+  }
+
+  public int pollMinKeyIndex() {
+    int minki = peekMinKeyIndex();
+    removeAt(0);
+    return minki;
+  }
+
+  public double peekMinValue() {
+    isNotEmptyOrThrow();
+    return values[0];
+  }
+
+  public double pollMinValue() {
+    double minValue = peekMinValue();
+    removeAt(0);
+    return minValue;
+  }
+
+  public void insert(int ki, double value) {
+    if (contains(ki)) throw new IllegalArgumentException("index already exists; received: " + ki);
+    swim(sz++, ki, value);
+  }
+
+  public double valueOf(int ki) {
+    keyExistsOrThrow(ki);
+    return values[pm[ki]];
+  }
+
+  public double delete(int ki) {
+    keyExistsOrThrow(ki);
+    double value = values[pm[ki]];
+    removeAt(pm[ki]);
+    return value;
+  }
+
+  public double update(int ki, double value) {
+    keyExistsOrThrow(ki);
+    final int i = pm[ki];
+    double oldValue = values[i];
+    if (value < oldValue) swim(i, ki, value);
+    else sink(i, ki, value);
+    return oldValue;
+  }
+
+  // Strictly decreases the value associated with 'ki' to 'value'
+  public void decrease(int ki, double value) {
+    keyExistsOrThrow(ki);
+    if (value < values[pm[ki]]) swim(pm[ki], ki, value);
+  }
+
+  // Strictly increases the value associated with 'ki' to 'value'
+  public void increase(int ki, double value) {
+    keyExistsOrThrow(ki);
+    if (value > values[pm[ki]]) sink(pm[ki], ki, value);
+  }
+
+  // Removes all the elements, in time proportional to the number of elements.
+  public void clear() {
+    for (int i = 0; i < sz; i++) pm[im[i]] = -1;
+    sz = 0;
+  }
+
+  /* Helper functions */
+
+  // Removes the element at position i by moving the last element into its place.
+  private void removeAt(int i) {
+    pm[im[i]] = -1;
+    if (--sz == i) return;
+    int ki = im[sz];
+    double value = values[sz];
+    if (i > 0 && value < values[(i - 1) / D]) swim(i, ki, value);
+    else sink(i, ki, value);
+  }
+
+  // Moves the element (ki, value) up from position i, shifting larger parents down.
+  private void swim(int i, int ki, double value) {
+    while (i > 0) {
+      int p = (i - 1) / D;
+      if (values[p] <= value) break;
+      move(p, i);
+      i = p;
+    }
+    place(i, ki, value);
+  }
+
+  // Moves the element (ki, value) down from position i, shifting smaller children up.
+  private void sink(int i, int ki, double value) {
+    while (true) {
+      int from = i * D + 1;
+      if (from >= sz) break;
+      int to = min(sz, from + D), best = from;
+      for (int j = from + 1; j < to; j++) if (values[j] < values[best]) best = j;
+      if (values[best] >= value) break;
+      move(best, i);
+      i = best;
+    }
+    place(i, ki, value);
+  }
+
+  private void move(int from, int to) {
+    im[to] = im[from];
+    values[to] = values[from];
+    pm[im[to]] = to;
+  }
+
+  private void place(int i, int ki, double value) {
+    im[i] = ki;
+    values[i] = value;
+    pm[ki] = i;
+  }
+
+  @Override
+  public String toString() {
+    List<Integer> lst = new ArrayList<>(sz);
+    for (int i = 0; i < sz; i++) lst.add(im[i]);
+    return lst.toString();
+  }
+
+  /* Helper functions to make the code more readable. */
+
+  private void isNotEmptyOrThrow() {
+    if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+  }
+
+  private void keyExistsOrThrow(int ki) {
+    if (!contains(ki)) throw new NoSuchElementException("Index does not exist; received: " + ki);
+  }
+
+  private void keyInBoundsOrThrow(int ki) {
+    if (ki < 0 || ki >= N)
+      throw new IllegalArgumentException("Key index out of bounds; received: " + ki);
+  }
+
+  /* Test functions */
+
+  // Checks if this heap is a min heap. This method is used for testing
+  // purposes to validate the heap invariant.
+  public boolean isMinHeap() {
+    for (int i = 1; i < sz; i++) if (values[i] < values[(i - 1) / D]) return false;
+    for (int i = 0; i < sz; i++) if (pm[im[i]] != i) return false;
+    return true;
+  }
+}
@@ -3,6 +3,11 @@
  * given a distance matrix which gives the distance from each node to every other node, and you want
  * to pair up all the nodes to one another minimizing the overall cost.
  *
+ * <p>When the nodes are split into two groups (e.g. workers and tasks) and only pairs across the
+ * groups are allowed, this is the assignment problem, which {@link
+ * com.williamfiset.algorithms.graphtheory.networkflow.MinimumWeightBipartiteMatchingHungarian}
+ * solves in polynomial time for thousands of nodes.
+ *
  * <p>Time Complexity: O(n^2 * 2^n)
  *
  * @author William Fiset
@@ -0,0 +1,297 @@
+/**
+ * A point-to-point shortest path query engine on a {@link CsrGraph} which searches forwards from
+ * the start node and backwards from the end node at the same time, until the two searches meet.
+ * On road-like graphs each search only needs to cover a ball of about half the radius, which
+ * roughly halves the number of nodes explored compared to a one sided Dijkstra.
+ *
+ * <p>Without a heuristic this is bidirectional Dijkstra. Given a {@link Heuristic}, a lower bound
+ * on the distance between two nodes, it becomes bidirectional A*: both searches are steered
+ * towards each other using the average of the forward and backward estimates as a potential
+ * (Ikeda et al.), which keeps the reduced edge costs of both searches non-negative. Three
+ * heuristics are provided:
+ *
+ * <p>- {@link #euclidean}: straight line distance between nodes with planar coordinates.
+ *
+ * <p>- {@link #haversine}: great circle distance between nodes with latitudes and longitudes.
+ *
+ * <p>- {@link #landmarks}: ALT (A*, landmarks, triangle inequality). The distances to and from a
+ * few landmark nodes are precomputed, and the triangle inequality gives lower bounds for any pair
+ * of nodes. Works on any graph, no coordinates needed.
+ *
+ * <p>A heuristic must never overestimate the distance between two nodes and must be consistent
+ * (h(u, t) <= cost(u, v) + h(v, t) for every edge), otherwise the returned paths may not be the
+ * shortest. Edge weights must not be negative.
+ *
+ * <p>The arrays used by the searches are allocated once and reused by every query, so a query
+ * only costs time proportional to the part of the graph it explores. An instance must therefore
+ * not be used by multiple threads at once.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedDoubleDHeap;
+import com.williamfiset.algorithms.geometry.LongitudeLatitudeGeographicDistance;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+
+public class BidirectionalShortestPathCsr {
+
+  // A lower bound on the length of the shortest path between two nodes.
+  @FunctionalInterface
+  public interface Heuristic {
+    double estimate(int from, int to);
+  }
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private final int n;
+  private final Heuristic heuristic;
+
+  // The graph searched forwards from the start node and its transpose, searched
+  // backwards from the end node.
+  private final int[] offsets, targets, rOffsets, rTargets;
+  private final double[] weights, rWeights;
+
+  // Per node search state, only valid for the current query when the node's stamp for that
+  // direction matches 'stamp'. prev[v] is the next node on the path back to the start (or
+  // forward to the end for the backward search).
+  private final double[] distF, distR, potential;
+  private final int[] prevF, prevR, seenF, seenR, potentialSeen;
+  private final MinIndexedDoubleDHeap pqF, pqR;
+  private int stamp;
+
+  // The query being answered and its result.
+  private int start, end, meet, nodesSettled;
+  private double best;
+
+  // Creates a bidirectional Dijkstra engine.
+  public BidirectionalShortestPathCsr(CsrGraph graph) {
+    this(graph, null);
+  }
+
+  // Creates a bidirectional A* engine guided by 'heuristic', or a bidirectional Dijkstra
+  // engine if the heuristic is null.
+  public BidirectionalShortestPathCsr(CsrGraph graph, Heuristic heuristic) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    CsrGraph transpose = graph.transpose();
+    this.n = graph.numNodes();
+    this.heuristic = heuristic;
+    offsets = graph.offsets();
+    targets = graph.targets();
+    weights = graph.weights();
+    rOffsets = transpose.offsets();
+    rTargets = transpose.targets();
+    rWeights = transpose.weights();
+
+    distF = new double[n];
+    distR = new double[n];
+    potential = new double[n];
+    prevF = new int[n];
+    prevR = new int[n];
+    seenF = new int[n];
+    seenR = new int[n];
+    potentialSeen = new int[n];
+    int degree = Math.max(2, graph.numEdges() / Math.max(1, n));
+    pqF = new MinIndexedDoubleDHeap(degree, Math.max(1, n));
+    pqR = new MinIndexedDoubleDHeap(degree, Math.max(1, n));
+  }
+
+  // Returns the length of the shortest path from 'start' to 'end', or Double.POSITIVE_INFINITY
+  // if 'end' cannot be reached from 'start'.
+  public double shortestPath(int start, int end) {
+    search(start, end);
+    return best;
+  }
+
+  // Returns the nodes on the shortest path from 'start' to 'end' inclusive, or an empty
+  // array if 'end' cannot be reached from 'start'.
+  public int[] reconstructPath(int start, int end) {
+    search(start, end);
+    if (best == INF) return new int[0];
+
+    int forwardLength = 0, backwardLength = 0;
+    for (int at = meet; at != start; at = prevF[at]) forwardLength++;
+    for (int at = meet; at != end; at = prevR[at]) backwardLength++;
+
+    int[] path = new int[forwardLength + backwardLength + 1];
+    int i = forwardLength;
+    for (int at = meet; at != start; at = prevF[at]) path[i--] = at;
+    path[0] = start;
+    i = forwardLength;
+    for (int at = meet; at != end; at = prevR[at]) path[++i] = prevR[at];
+    return path;
+  }
+
+  // Returns the number of nodes settled by both searches during the last query, a measure
+  // of how much of the graph the query had to explore.
+  public int getNodesSettled() {
+    return nodesSettled;
+  }
+
+  private void search(int start, int end) {
+    nodeInBoundsOrThrow(start);
+    nodeInBoundsOrThrow(end);
+    nextStamp();
+    pqF.clear();
+    pqR.clear();
+    this.start = start;
+    this.end = end;
+    meet = start;
+    nodesSettled = 0;
+    best = start == end ? 0 : INF;
+    if (start == end) return;
+
+    label(start, 0, -1, true);
+    label(end, 0, -1, false);
+
+    // The keys of the forward search are distF(v) + p(v) and those of the backward search
+    // distR(v) - p(v), which is Dijkstra on the reduced edge costs cost(u, v) - p(u) + p(v).
+    // Any path which has not been found yet costs at least the sum of the smallest keys, so
+    // the search is done once that sum reaches the best path found so far.
+    while (!pqF.isEmpty() && !pqR.isEmpty()) {
+      double minF = pqF.peekMinValue(), minR = pqR.peekMinValue();
+      if (minF + minR >= best) break;
+      if (minF <= minR) settle(pqF.pollMinKeyIndex(), true);
+      else settle(pqR.pollMinKeyIndex(), false);
+    }
+  }
+
+  private void settle(int u, boolean forward) {
+    nodesSettled++;
+    int[] offs = forward ? offsets : rOffsets;
+    int[] tos = forward ? targets : rTargets;
+    double[] ws = forward ? weights : rWeights;
+    double d = forward ? distF[u] : distR[u];
+    for (int e = offs[u], stop = offs[u + 1]; e < stop; e++) {
+      label(tos[e], d + ws[e], u, forward);
+    }
+  }
+
+  // Updates the distance to v in one direction if 'dist' is an improvement, and checks
+  // whether the path through v beats the best path found so far.
+  private void label(int v, double dist, int prev, boolean forward) {
+    double[] ds = forward ? distF : distR, other = forward ? distR : distF;
+    int[] seen = forward ? seenF : seenR, otherSeen = forward ? seenR : seenF;
+    if (seen[v] == stamp && dist >= ds[v]) return;
+
+    seen[v] = stamp;
+    ds[v] = dist;
+    (forward ? prevF : prevR)[v] = prev;
+
+    // A node can be reached again with a shorter distance after being settled when the
+    // heuristic is slightly inconsistent due to rounding, in which case it is put back.
+    MinIndexedDoubleDHeap pq = forward ? pqF : pqR;
+    double key = forward ? dist + potential(v) : dist - potential(v);
+    if (pq.contains(v)) pq.decrease(v, key);
+    else pq.insert(v, key);
+
+    if (otherSeen[v] == stamp && dist + other[v] < best) {
+      best = dist + other[v];
+      meet = v;
+    }
+  }
+
+  // The average potential p(v) = (h(v, end) - h(start, v)) / 2, computed once per query
+  // for every node reached.
+  private double potential(int v) {
+    if (heuristic == null) return 0;
+    if (potentialSeen[v] != stamp) {
+      potentialSeen[v] = stamp;
+      potential[v] = (heuristic.estimate(v, end) - heuristic.estimate(start, v)) / 2;
+    }
+    return potential[v];
+  }
+
+  // Only when the stamp wraps around after 2^32 queries do the arrays need clearing.
+  private void nextStamp() {
+    if (++stamp == 0) {
+      Arrays.fill(seenF, 0);
+      Arrays.fill(seenR, 0);
+      Arrays.fill(potentialSeen, 0);
+      stamp = 1;
+    }
+  }
+
+  private void nodeInBoundsOrThrow(int node) {
+    if (node < 0 || node >= n) throw new IllegalArgumentException("Invalid node index: " + node);
+  }
+
+  /* Heuristics */
+
+  // The straight line distance between nodes at planar coordinates (x[i], y[i]), multiplied
+  // by 'costPerUnit'. Every edge must cost at least costPerUnit times its length.
+  public static Heuristic euclidean(double[] x, double[] y, double costPerUnit) {
+    if (x.length != y.length) throw new IllegalArgumentException("Coordinate arrays differ");
+    return (u, v) -> {
+      double dx = x[u] - x[v], dy = y[u] - y[v];
+      return costPerUnit * Math.sqrt(dx * dx + dy * dy);
+    };
+  }
+
+  // The great circle distance between nodes at latitude lat[i] and longitude lon[i] (in
+  // degrees) on a sphere of the given radius, for example 6371 for kilometers on Earth.
+  // Every edge must cost at least the great circle distance between its endpoints.
+  public static Heuristic haversine(double[] lat, double[] lon, double radius) {
+    if (lat.length != lon.length) throw new IllegalArgumentException("Coordinate arrays differ");
+    return (u, v) ->
+        radius * LongitudeLatitudeGeographicDistance.dist(lat[u], lon[u], lat[v], lon[v]);
+  }
+
+  // Picks 'count' landmarks spread over the graph (each new landmark is the node farthest
+  // away from the landmarks picked so far) and returns the ALT heuristic for them.
+  public static Heuristic landmarks(CsrGraph graph, int count) {
+    int n = graph.numNodes();
+    if (count <= 0) throw new IllegalArgumentException("count <= 0");
+
+    // Start from the node farthest away from node 0, a node on the edge of the graph.
+    DijkstrasShortestPathCsr solver = new DijkstrasShortestPathCsr(graph);
+    double[] closest = solver.dijkstra(0);
+    int[] landmarks = new int[Math.min(count, n)];
+    for (int i = 0; i < landmarks.length; i++) {
+      landmarks[i] = farthest(closest);
+      double[] dist = solver.dijkstra(landmarks[i]);
+      if (i == 0) closest = dist;
+      else for (int v = 0; v < n; v++) closest[v] = Math.min(closest[v], dist[v]);
+    }
+    return landmarks(graph, landmarks);
+  }
+
+  // The ALT heuristic for the given landmark nodes. For any landmark L the triangle
+  // inequality gives dist(u, v) >= dist(L, v) - dist(L, u) and dist(u, v) >= dist(u, L) -
+  // dist(v, L), the estimate is the largest of these bounds.
+  public static Heuristic landmarks(CsrGraph graph, int[] landmarks) {
+    int n = graph.numNodes(), k = landmarks.length;
+    DijkstrasShortestPathCsr forward = new DijkstrasShortestPathCsr(graph);
+    DijkstrasShortestPathCsr backward = new DijkstrasShortestPathCsr(graph.transpose());
+
+    // The distances of every node are stored next to each other, so that an estimate
+    // reads two contiguous runs of memory.
+    double[] from = new double[n * k], to = new double[n * k];
+    for (int i = 0; i < k; i++) {
+      double[] dFrom = forward.dijkstra(landmarks[i]), dTo = backward.dijkstra(landmarks[i]);
+      for (int v = 0; v < n; v++) {
+        from[v * k + i] = dFrom[v];
+        to[v * k + i] = dTo[v];
+      }
+    }
+
+    return (u, v) -> {
+      double bound = 0;
+      for (int i = 0, a = u * k, b = v * k; i < k; i++, a++, b++) {
+        // Landmarks which cannot reach (or be reached by) both nodes give no bound.
+        if (from[a] != INF && from[b] != INF) bound = Math.max(bound, from[b] - from[a]);
+        if (to[a] != INF && to[b] != INF) bound = Math.max(bound, to[a] - to[b]);
+      }
+      return bound;
+    };
+  }
+
+  private static int farthest(double[] dist) {
+    int best = 0;
+    for (int v = 1; v < dist.length; v++) {
+      if (dist[v] != INF && (dist[best] == INF || dist[v] > dist[best])) best = v;
+    }
+    return best;
+  }
+}
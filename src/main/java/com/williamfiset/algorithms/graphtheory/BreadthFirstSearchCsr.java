@@ -0,0 +1,68 @@
+/**
+ * An implementation of BFS on a {@link CsrGraph}. The queue is a plain int array since every node
+ * is enqueued at most once, and the edges of a node are read straight out of the CSR arrays.
+ *
+ * <p>Time Complexity: O(V + E)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BreadthFirstSearchCsr {
+
+  private final int n;
+  private final int[] offsets, targets;
+
+  // Outputs of the last search.
+  private int[] dist, prev;
+
+  public BreadthFirstSearchCsr(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    n = graph.numNodes();
+    offsets = graph.offsets();
+    targets = graph.targets();
+  }
+
+  // Runs a BFS from 'start' and returns the number of edges on the shortest path
+  // to every node, or -1 for the nodes which cannot be reached.
+  public int[] bfs(int start) {
+    dist = new int[n];
+    prev = new int[n];
+    Arrays.fill(dist, -1);
+    Arrays.fill(prev, -1);
+
+    int[] queue = new int[n];
+    int head = 0, tail = 0;
+    queue[tail++] = start;
+    dist[start] = 0;
+
+    while (head < tail) {
+      int at = queue[head++];
+      for (int e = offsets[at], end = offsets[at + 1]; e < end; e++) {
+        int to = targets[e];
+        if (dist[to] != -1) continue;
+        dist[to] = dist[at] + 1;
+        prev[to] = at;
+        queue[tail++] = to;
+      }
+    }
+    return dist;
+  }
+
+  // Reconstructs the path (of nodes) from 'start' to 'end' inclusive. If the
+  // nodes are not connected an empty list is returned.
+  public List<Integer> reconstructPath(int start, int end) {
+    bfs(start);
+    List<Integer> path = new ArrayList<>();
+    if (dist[end] == -1) return path;
+    for (int at = end; at != -1; at = prev[at]) path.add(at);
+    Collections.reverse(path);
+    return path;
+  }
+}
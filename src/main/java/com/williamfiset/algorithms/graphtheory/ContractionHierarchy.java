@@ -0,0 +1,844 @@
+/**
+ * Contraction hierarchies (Geisberger et al.) for fast point-to-point shortest path queries on
+ * large, static road-like graphs.
+ *
+ * <p>Preprocessing contracts the nodes one at a time in order of importance. Contracting a node
+ * removes it from the graph and adds a "shortcut" edge u -> w for every pair of neighbors whose
+ * only shortest path went through it, unless a local Dijkstra (the witness search) finds another
+ * path which is at least as short. Every node gets a rank (the order in which it was contracted)
+ * and the final hierarchy holds the original edges plus all the shortcuts.
+ *
+ * <p>Any shortest path can then be found going only "up" in rank from the start node and only
+ * "up" from the end node backwards, so a query is a bidirectional Dijkstra which never looks at
+ * lower ranked nodes. On road networks this settles a few hundred nodes instead of millions, and
+ * with stall-on-demand (skipping nodes which are provably reached faster from a higher ranked
+ * node) queries take well under a millisecond. Shortcuts remember the node they bypass, so paths
+ * are unpacked back into original edges.
+ *
+ * <p>The contraction order is picked with the usual priority of edge difference (shortcuts added
+ * minus edges removed), contracted neighbors and hierarchy depth. Preprocessing runs in rounds:
+ * every round contracts an independent set of nodes with a lower priority than all of their
+ * neighbors, and both the witness searches of a round and the priority updates after it run in
+ * parallel.
+ *
+ * <p>A hierarchy can be saved with {@link #writeTo} and loaded again with {@link #readFrom}, so
+ * the preprocessing only needs to run once per graph. Queries reuse memory allocated once, an
+ * instance must therefore not be queried by multiple threads at once.
+ *
+ * <p>Edge weights must not be negative.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedDoubleDHeap;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ContractionHierarchy {
+
+  private static final int MAGIC = 0x43484945;
+  private static final int VERSION = 1;
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private final int n;
+  private final int[] rank;
+
+  // The upward graph: the edges from every node u to higher ranked nodes, stored in CSR form
+  // and indexed by u. middle[e] is the node bypassed by a shortcut, or -1 for original edges.
+  private final int[] upOffsets, upTargets, upMiddle;
+  private final double[] upWeights;
+
+  // The downward graph reversed: the edges into every node v from higher ranked nodes, indexed
+  // by v, so that the backward search from the end node also only goes up.
+  private final int[] downOffsets, downSources, downMiddle;
+  private final double[] downWeights;
+
+  // Query state, only valid for the current query when the node's stamp matches 'stamp'.
+  // prev[v] is the previous node on the way up from the start (or from the end backwards).
+  private final double[] distF, distR;
+  private final int[] prevF, prevR, seenF, seenR;
+  private final MinIndexedDoubleDHeap pqF, pqR;
+  private int stamp, meet, nodesSettled;
+  private double best;
+
+  private ContractionHierarchy(
+      int n,
+      int[] rank,
+      int[] upOffsets,
+      int[] upTargets,
+      int[] upMiddle,
+      double[] upWeights,
+      int[] downOffsets,
+      int[] downSources,
+      int[] downMiddle,
+      double[] downWeights) {
+    this.n = n;
+    this.rank = rank;
+    this.upOffsets = upOffsets;
+    this.upTargets = upTargets;
+    this.upMiddle = upMiddle;
+    this.upWeights = upWeights;
+    this.downOffsets = downOffsets;
+    this.downSources = downSources;
+    this.downMiddle = downMiddle;
+    this.downWeights = downWeights;
+
+    distF = new double[n];
+    distR = new double[n];
+    prevF = new int[n];
+    prevR = new int[n];
+    seenF = new int[n];
+    seenR = new int[n];
+    pqF = new MinIndexedDoubleDHeap(4, Math.max(1, n));
+    pqR = new MinIndexedDoubleDHeap(4, Math.max(1, n));
+  }
+
+  /* Preprocessing */
+
+  // Builds the hierarchy using all the available processors.
+  public static ContractionHierarchy build(CsrGraph graph) {
+    return build(graph, Runtime.getRuntime().availableProcessors());
+  }
+
+  // Builds the hierarchy using a temporary pool of 'threads' threads.
+  public static ContractionHierarchy build(CsrGraph graph, int threads) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      return build(graph, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  // Builds the hierarchy running the witness searches on the given thread pool.
+  public static ContractionHierarchy build(CsrGraph graph, ExecutorService executor) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    return new Contractor(graph, executor).contract();
+  }
+
+  // Builds the hierarchy for a graph stored in the adjacency list format of {@link
+  // DijkstrasShortestPathAdjacencyList}, using a temporary pool of 'threads' threads.
+  public static ContractionHierarchy build(
+      List<List<DijkstrasShortestPathAdjacencyList.Edge>> graph, int threads) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    return build(CsrGraph.fromAdjacencyList(graph, edge -> edge.to, edge -> edge.cost), threads);
+  }
+
+  /* Queries */
+
+  public int numNodes() {
+    return n;
+  }
+
+  // Returns the number of edges in the hierarchy, original edges and shortcuts.
+  public int numEdges() {
+    return upTargets.length + downSources.length;
+  }
+
+  // Returns the number of shortcuts added by the preprocessing.
+  public int numShortcuts() {
+    int count = 0;
+    for (int m : upMiddle) if (m != -1) count++;
+    for (int m : downMiddle) if (m != -1) count++;
+    return count;
+  }
+
+  // Returns the position of node v in the contraction order, in [0, n).
+  public int getRank(int v) {
+    nodeInBoundsOrThrow(v);
+    return rank[v];
+  }
+
+  // Returns the length of the shortest path from 'start' to 'end', or Double.POSITIVE_INFINITY
+  // if 'end' cannot be reached from 'start'.
+  public double shortestPath(int start, int end) {
+    search(start, end);
+    return best;
+  }
+
+  // Returns the nodes on the shortest path from 'start' to 'end' inclusive, with all the
+  // shortcuts unpacked, or an empty array if 'end' cannot be reached from 'start'.
+  public int[] reconstructPath(int start, int end) {
+    search(start, end);
+    if (best == INF) return new int[0];
+
+    // The path through the hierarchy: up from the start to the meeting node, then down to the end.
+    IntList hierarchyPath = new IntList();
+    for (int at = meet; at != -1; at = prevF[at]) hierarchyPath.add(at);
+    hierarchyPath.reverse();
+    for (int at = prevR[meet]; at != -1; at = prevR[at]) hierarchyPath.add(at);
+
+    IntList path = new IntList();
+    path.add(start);
+    for (int i = 0; i + 1 < hierarchyPath.size; i++) {
+      unpack(hierarchyPath.values[i], hierarchyPath.values[i + 1], path);
+    }
+    return Arrays.copyOf(path.values, path.size);
+  }
+
+  // Returns the number of nodes settled by both searches during the last query.
+  public int getNodesSettled() {
+    return nodesSettled;
+  }
+
+  private void search(int start, int end) {
+    nodeInBoundsOrThrow(start);
+    nodeInBoundsOrThrow(end);
+    if (++stamp == 0) {
+      Arrays.fill(seenF, 0);
+      Arrays.fill(seenR, 0);
+      stamp = 1;
+    }
+    pqF.clear();
+    pqR.clear();
+    nodesSettled = 0;
+    meet = start;
+    best = start == end ? 0 : INF;
+    label(start, 0, -1, true);
+    label(end, 0, -1, false);
+
+    // Unlike plain bidirectional Dijkstra the searches cannot stop as soon as they meet, since
+    // the shortest path may meet at a higher ranked node. A direction is done once its smallest
+    // distance reaches the best path found, the query is done once both are.
+    while (!pqF.isEmpty() || !pqR.isEmpty()) {
+      boolean forward =
+          pqR.isEmpty() || (!pqF.isEmpty() && pqF.peekMinValue() <= pqR.peekMinValue());
+      MinIndexedDoubleDHeap pq = forward ? pqF : pqR;
+      if (pq.peekMinValue() >= best) {
+        pq.clear();
+        continue;
+      }
+      int u = pq.pollMinKeyIndex();
+      nodesSettled++;
+      if (forward) {
+        if (stalled(u, distF, seenF, downOffsets, downSources, downWeights)) continue;
+        for (int e = upOffsets[u], stop = upOffsets[u + 1]; e < stop; e++) {
+          label(upTargets[e], distF[u] + upWeights[e], u, true);
+        }
+      } else {
+        if (stalled(u, distR, seenR, upOffsets, upTargets, upWeights)) continue;
+        for (int e = downOffsets[u], stop = downOffsets[u + 1]; e < stop; e++) {
+          label(downSources[e], distR[u] + downWeights[e], u, false);
+        }
+      }
+    }
+  }
+
+  // Stall-on-demand: if a higher ranked node x already reached by the search has an edge
+  // down to u which makes u closer than its current distance, then u's distance is not a
+  // shortest path distance and nothing found by relaxing its edges can be on a shortest path.
+  private boolean stalled(int u, double[] dist, int[] seen, int[] offs, int[] nodes, double[] ws) {
+    for (int e = offs[u], stop = offs[u + 1]; e < stop; e++) {
+      int x = nodes[e];
+      if (seen[x] == stamp && dist[x] + ws[e] < dist[u]) return true;
+    }
+    return false;
+  }
+
+  private void label(int v, double dist, int prev, boolean forward) {
+    double[] ds = forward ? distF : distR, other = forward ? distR : distF;
+    int[] seen = forward ? seenF : seenR, otherSeen = forward ? seenR : seenF;
+    if (seen[v] == stamp && dist >= ds[v]) return;
+    seen[v] = stamp;
+    ds[v] = dist;
+    (forward ? prevF : prevR)[v] = prev;
+    MinIndexedDoubleDHeap pq = forward ? pqF : pqR;
+    if (pq.contains(v)) pq.decrease(v, dist);
+    else pq.insert(v, dist);
+    if (otherSeen[v] == stamp && dist + other[v] < best) {
+      best = dist + other[v];
+      meet = v;
+    }
+  }
+
+  // Appends the original path of the hierarchy edge u -> v to 'path', excluding u.
+  private void unpack(int u, int v, IntList path) {
+    int middle;
+    if (rank[u] < rank[v]) {
+      middle = upMiddle[findEdge(upOffsets, upTargets, upWeights, u, v)];
+    } else {
+      middle = downMiddle[findEdge(downOffsets, downSources, downWeights, v, u)];
+    }
+    if (middle == -1) {
+      path.add(v);
+    } else {
+      unpack(u, middle, path);
+      unpack(middle, v, path);
+    }
+  }
+
+  // Finds the cheapest edge between 'at' and 'other' in a CSR graph indexed by 'at'.
+  private static int findEdge(int[] offs, int[] nodes, double[] ws, int at, int other) {
+    int best = -1;
+    for (int e = offs[at], stop = offs[at + 1]; e < stop; e++) {
+      if (nodes[e] == other && (best == -1 || ws[e] < ws[best])) best = e;
+    }
+    return best;
+  }
+
+  private void nodeInBoundsOrThrow(int node) {
+    if (node < 0 || node >= n) throw new IllegalArgumentException("Invalid node index: " + node);
+  }
+
+  /* Persistence */
+
+  // Writes the hierarchy to the output stream, it can be read back with readFrom().
+  public void writeTo(OutputStream out) throws IOException {
+    DataOutputStream dos = new DataOutputStream(out);
+    dos.writeInt(MAGIC);
+    dos.writeInt(VERSION);
+    dos.writeInt(n);
+    dos.writeInt(upTargets.length);
+    dos.writeInt(downSources.length);
+
+    ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    for (int[] array : new int[][] {rank, upOffsets, upTargets, upMiddle}) {
+      writeInts(dos, array, buffer);
+    }
+    writeDoubles(dos, upWeights, buffer);
+    for (int[] array : new int[][] {downOffsets, downSources, downMiddle}) {
+      writeInts(dos, array, buffer);
+    }
+    writeDoubles(dos, downWeights, buffer);
+    dos.flush();
+  }
+
+  // Reads a hierarchy previously written with writeTo().
+  public static ContractionHierarchy readFrom(InputStream in) throws IOException {
+    DataInputStream dis = new DataInputStream(in);
+    if (dis.readInt() != MAGIC) throw new IOException("Not a ContractionHierarchy");
+    int version = dis.readInt();
+    if (version != VERSION) throw new IOException("Unsupported version: " + version);
+
+    int n = dis.readInt(), up = dis.readInt(), down = dis.readInt();
+    if (n < 0 || up < 0 || down < 0) throw new IOException("Corrupt ContractionHierarchy header");
+
+    ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    int[] rank = readInts(dis, n, buffer);
+    int[] upOffsets = readInts(dis, n + 1, buffer);
+    int[] upTargets = readInts(dis, up, buffer);
+    int[] upMiddle = readInts(dis, up, buffer);
+    double[] upWeights = readDoubles(dis, up, buffer);
+    int[] downOffsets = readInts(dis, n + 1, buffer);
+    int[] downSources = readInts(dis, down, buffer);
+    int[] downMiddle = readInts(dis, down, buffer);
+    double[] downWeights = readDoubles(dis, down, buffer);
+    if (upOffsets[n] != up || downOffsets[n] != down)
+      throw new IOException("Corrupt ContractionHierarchy offsets");
+
+    return new ContractionHierarchy(
+        n,
+        rank,
+        upOffsets,
+        upTargets,
+        upMiddle,
+        upWeights,
+        downOffsets,
+        downSources,
+        downMiddle,
+        downWeights);
+  }
+
+  // Arrays are converted in large chunks, writing the values one at a time is much slower.
+  private static void writeInts(DataOutputStream dos, int[] values, ByteBuffer buffer)
+      throws IOException {
+    for (int i = 0; i < values.length; ) {
+      buffer.clear();
+      while (i < values.length && buffer.remaining() >= Integer.BYTES) buffer.putInt(values[i++]);
+      dos.write(buffer.array(), 0, buffer.position());
+    }
+  }
+
+  private static void writeDoubles(DataOutputStream dos, double[] values, ByteBuffer buffer)
+      throws IOException {
+    for (int i = 0; i < values.length; ) {
+      buffer.clear();
+      while (i < values.length && buffer.remaining() >= Double.BYTES) {
+        buffer.putDouble(values[i++]);
+      }
+      dos.write(buffer.array(), 0, buffer.position());
+    }
+  }
+
+  private static int[] readInts(DataInputStream dis, int count, ByteBuffer buffer)
+      throws IOException {
+    int[] values = new int[count];
+    for (int i = 0; i < count; ) {
+      int chunk = Math.min(count - i, buffer.capacity() / Integer.BYTES);
+      dis.readFully(buffer.array(), 0, chunk * Integer.BYTES);
+      buffer.clear();
+      for (int j = 0; j < chunk; j++) values[i++] = buffer.getInt();
+    }
+    return values;
+  }
+
+  private static double[] readDoubles(DataInputStream dis, int count, ByteBuffer buffer)
+      throws IOException {
+    double[] values = new double[count];
+    for (int i = 0; i < count; ) {
+      int chunk = Math.min(count - i, buffer.capacity() / Double.BYTES);
+      dis.readFully(buffer.array(), 0, chunk * Double.BYTES);
+      buffer.clear();
+      for (int j = 0; j < chunk; j++) values[i++] = buffer.getDouble();
+    }
+    return values;
+  }
+
+  // A growable list of ints.
+  private static class IntList {
+    int[] values = new int[16];
+    int size;
+
+    void add(int value) {
+      if (size == values.length) values = Arrays.copyOf(values, 2 * size);
+      values[size++] = value;
+    }
+
+    void reverse() {
+      for (int i = 0, j = size - 1; i < j; i++, j--) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+      }
+    }
+  }
+
+  /**
+   * The preprocessing state: a mutable graph of the nodes not contracted yet, plus every edge
+   * (original or shortcut) ever added. Edges live in a single store and every node keeps the
+   * ids of its live outgoing and incoming edges. There is at most one edge between any ordered
+   * pair of nodes, a cheaper parallel edge or shortcut replaces the existing one.
+   */
+  private static class Contractor {
+
+    private static final byte ALIVE = 0, CONTRACTING = 1, CONTRACTED = 2;
+
+    // The witness searches give up after settling this many nodes and a shortcut gets added,
+    // which keeps the preprocessing fast at the price of a few unnecessary shortcuts.
+    private static final int SETTLE_LIMIT = 500;
+
+    // Parallel work is handed out in chunks of this many nodes.
+    private static final int CHUNK_SIZE = 64;
+
+    private final int n;
+    private final ExecutorService executor;
+    private final Queue<WitnessSearch> searches = new ConcurrentLinkedQueue<>();
+
+    // The edge store.
+    private int m;
+    private int[] from = new int[16], to = new int[16], middle = new int[16];
+    private double[] weight = new double[16];
+
+    // The ids of the live edges of every node. The targets and weights of the outgoing edges
+    // are also kept next to their ids, so the witness searches read consecutive memory rather
+    // than looking up every edge in the store.
+    private final int[][] out, in, outTo;
+    private final double[][] outWeight;
+    private final int[] outSize, inSize;
+
+    private final byte[] state;
+    private final int[] rank, priority, contractedNeighbors, level;
+
+    Contractor(CsrGraph graph, ExecutorService executor) {
+      this.n = graph.numNodes();
+      this.executor = executor;
+      out = new int[n][];
+      in = new int[n][];
+      outTo = new int[n][];
+      outWeight = new double[n][];
+      outSize = new int[n];
+      inSize = new int[n];
+      state = new byte[n];
+      rank = new int[n];
+      priority = new int[n];
+      contractedNeighbors = new int[n];
+      level = new int[n];
+      for (int u = 0; u < n; u++) {
+        out[u] = new int[Math.max(1, graph.outDegree(u))];
+        outTo[u] = new int[out[u].length];
+        outWeight[u] = new double[out[u].length];
+        in[u] = new int[2];
+      }
+
+      int[] offsets = graph.offsets(), targets = graph.targets();
+      double[] weights = graph.weights();
+      for (int u = 0; u < n; u++) {
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+          if (weights[e] < 0) throw new IllegalArgumentException("Negative edge weight: " + e);
+          if (targets[e] != u) addOrImprove(u, targets[e], weights[e], -1);
+        }
+      }
+    }
+
+    ContractionHierarchy contract() {
+      parallelFor(n, (search, v) -> priority[v] = computePriority(v, search));
+
+      int[] remaining = new int[n];
+      for (int v = 0; v < n; v++) remaining[v] = v;
+      int remainingCount = n, nextRank = 0;
+      boolean[] selected = new boolean[n];
+      int[] touched = new int[n], touchedStamp = new int[n];
+      int round = 0;
+
+      while (remainingCount > 0) {
+        round++;
+
+        // Pick the nodes with a lower priority than all of their neighbors. They are not
+        // adjacent to each other so they can all be contracted at the same time.
+        final int[] candidates = remaining;
+        parallelFor(remainingCount, (search, i) -> selected[i] = isLocalMinimum(candidates[i]));
+        int[] batch = new int[remainingCount];
+        int batchSize = 0, kept = 0;
+        for (int i = 0; i < remainingCount; i++) {
+          int v = remaining[i];
+          if (selected[i]) batch[batchSize++] = v;
+          else remaining[kept++] = v;
+        }
+        remainingCount = kept;
+
+        // Nodes contracted in the same round may each rely on a witness through the other, see
+        // findShortcuts() for how the witness searches deal with that.
+        for (int i = 0; i < batchSize; i++) state[batch[i]] = CONTRACTING;
+        final int[] nodes = batch;
+        final Shortcuts[] shortcuts = new Shortcuts[(batchSize + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        parallelFor(
+            batchSize,
+            (search, i) -> {
+              int chunk = i / CHUNK_SIZE;
+              if (shortcuts[chunk] == null) shortcuts[chunk] = new Shortcuts();
+              findShortcuts(nodes[i], search, shortcuts[chunk]);
+            });
+
+        for (int i = 0; i < batchSize; i++) {
+          state[batch[i]] = CONTRACTED;
+          rank[batch[i]] = nextRank++;
+        }
+        for (Shortcuts s : shortcuts) {
+          if (s == null) continue;
+          for (int i = 0; i < s.size; i++) addOrImprove(s.from[i], s.to[i], s.weight[i], s.via[i]);
+        }
+
+        // Drop the contracted nodes from the lists of their neighbors and update the
+        // priorities of the neighbors, which changed with the new shortcuts.
+        int touchedCount = 0;
+        for (int i = 0; i < batchSize; i++) {
+          int v = batch[i];
+          for (int j = 0; j < outSize[v] + inSize[v]; j++) {
+            int x = j < outSize[v] ? to[out[v][j]] : from[in[v][j - outSize[v]]];
+            if (state[x] != ALIVE) continue;
+            contractedNeighbors[x]++;
+            level[x] = Math.max(level[x], level[v] + 1);
+            if (touchedStamp[x] != round) {
+              touchedStamp[x] = round;
+              touched[touchedCount++] = x;
+            }
+          }
+          out[v] = in[v] = outTo[v] = null;
+          outWeight[v] = null;
+          outSize[v] = inSize[v] = 0;
+        }
+        for (int i = 0; i < touchedCount; i++) removeContractedEdges(touched[i]);
+        final int[] neighbors = touched;
+        parallelFor(
+            touchedCount,
+            (search, i) -> priority[neighbors[i]] = computePriority(neighbors[i], search));
+      }
+      return toHierarchy();
+    }
+
+    // Edge difference plus contracted neighbors plus depth, lower priorities get contracted
+    // first. Contracting nodes which add few shortcuts keeps the hierarchy small, the other two
+    // terms spread the contraction evenly over the graph.
+    private int computePriority(int v, WitnessSearch search) {
+      int edgeDifference = findShortcuts(v, search, null) - outSize[v] - inSize[v];
+      return 4 * edgeDifference + contractedNeighbors[v] + level[v];
+    }
+
+    private boolean isLocalMinimum(int v) {
+      for (int j = 0; j < outSize[v]; j++) if (before(outTo[v][j], v)) return false;
+      for (int j = 0; j < inSize[v]; j++) if (before(from[in[v][j]], v)) return false;
+      return true;
+    }
+
+    // Orders nodes by priority, breaking ties with a hash of the node index so that long
+    // runs of equal priority nodes (e.g. along a road) still get contracted in few rounds.
+    private boolean before(int a, int b) {
+      if (priority[a] != priority[b]) return priority[a] < priority[b];
+      int ha = hash(a), hb = hash(b);
+      return ha != hb ? ha < hb : a < b;
+    }
+
+    private static int hash(int v) {
+      v *= 0x9E3779B9;
+      return v ^ (v >>> 16);
+    }
+
+    // Finds the shortcuts needed to contract node v, adding them to 'shortcuts' when it is not
+    // null, and returns how many there are.
+    //
+    // A shortcut u -> w is not needed if there is a shorter path avoiding v, or one just as
+    // short which also avoids the other nodes contracted in this round. Take any shortest path
+    // with the fewest nodes of the round on it: none of them can have such a witness (replacing
+    // its part of the path would give a shorter path or one with fewer such nodes), so all of
+    // them get shortcuts and the path survives the round.
+    private int findShortcuts(int v, WitnessSearch search, Shortcuts shortcuts) {
+      double maxOut = 0;
+      for (int j = 0; j < outSize[v]; j++) maxOut = Math.max(maxOut, outWeight[v][j]);
+
+      int count = 0;
+      for (int i = 0; i < inSize[v]; i++) {
+        int e1 = in[v][i], u = from[e1];
+        if (state[u] != ALIVE) continue;
+        search.run(u, v, weight[e1] + maxOut);
+        for (int j = 0; j < outSize[v]; j++) {
+          int w = outTo[v][j];
+          if (w == u || state[w] != ALIVE) continue;
+          double via = weight[e1] + outWeight[v][j], witness = search.distance(w);
+          if (witness > via || (witness == via && search.throughContracting(w))) {
+            count++;
+            if (shortcuts != null) shortcuts.add(u, w, via, v);
+          }
+        }
+      }
+      return count;
+    }
+
+    // Adds the edge u -> v, or lowers the weight of the existing edge between them.
+    private void addOrImprove(int u, int v, double w, int via) {
+      for (int j = 0; j < outSize[u]; j++) {
+        if (outTo[u][j] == v) {
+          int e = out[u][j];
+          if (w < weight[e]) {
+            weight[e] = w;
+            outWeight[u][j] = w;
+            middle[e] = via;
+          }
+          return;
+        }
+      }
+      if (m == from.length) {
+        int capacity = 2 * m;
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        middle = Arrays.copyOf(middle, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+      }
+      from[m] = u;
+      to[m] = v;
+      weight[m] = w;
+      middle[m] = via;
+      if (outSize[u] == out[u].length) {
+        out[u] = Arrays.copyOf(out[u], 2 * outSize[u]);
+        outTo[u] = Arrays.copyOf(outTo[u], 2 * outSize[u]);
+        outWeight[u] = Arrays.copyOf(outWeight[u], 2 * outSize[u]);
+      }
+      out[u][outSize[u]] = m;
+      outTo[u][outSize[u]] = v;
+      outWeight[u][outSize[u]++] = w;
+      if (inSize[v] == in[v].length) in[v] = Arrays.copyOf(in[v], 2 * inSize[v]);
+      in[v][inSize[v]++] = m;
+      m++;
+    }
+
+    private void removeContractedEdges(int x) {
+      int kept = 0;
+      for (int j = 0; j < outSize[x]; j++) {
+        if (state[outTo[x][j]] != ALIVE) continue;
+        out[x][kept] = out[x][j];
+        outTo[x][kept] = outTo[x][j];
+        outWeight[x][kept++] = outWeight[x][j];
+      }
+      outSize[x] = kept;
+      kept = 0;
+      for (int j = 0; j < inSize[x]; j++) {
+        if (state[from[in[x][j]]] == ALIVE) in[x][kept++] = in[x][j];
+      }
+      inSize[x] = kept;
+    }
+
+    // Every edge goes up from its lower ranked end to its higher ranked end. Edges from u up
+    // to v are stored at u in the upward graph, edges from u down to v at v in the downward one.
+    private ContractionHierarchy toHierarchy() {
+      int[] upOffsets = new int[n + 1], downOffsets = new int[n + 1];
+      for (int e = 0; e < m; e++) {
+        if (rank[from[e]] < rank[to[e]]) upOffsets[from[e] + 1]++;
+        else downOffsets[to[e] + 1]++;
+      }
+      for (int v = 0; v < n; v++) {
+        upOffsets[v + 1] += upOffsets[v];
+        downOffsets[v + 1] += downOffsets[v];
+      }
+
+      int up = upOffsets[n], down = downOffsets[n];
+      int[] upTargets = new int[up], upMiddle = new int[up];
+      int[] downSources = new int[down], downMiddle = new int[down];
+      double[] upWeights = new double[up], downWeights = new double[down];
+      int[] nextUp = Arrays.copyOf(upOffsets, n), nextDown = Arrays.copyOf(downOffsets, n);
+      for (int e = 0; e < m; e++) {
+        if (rank[from[e]] < rank[to[e]]) {
+          int i = nextUp[from[e]]++;
+          upTargets[i] = to[e];
+          upMiddle[i] = middle[e];
+          upWeights[i] = weight[e];
+        } else {
+          int i = nextDown[to[e]]++;
+          downSources[i] = from[e];
+          downMiddle[i] = middle[e];
+          downWeights[i] = weight[e];
+        }
+      }
+      return new ContractionHierarchy(
+          n,
+          rank,
+          upOffsets,
+          upTargets,
+          upMiddle,
+          upWeights,
+          downOffsets,
+          downSources,
+          downMiddle,
+          downWeights);
+    }
+
+    private interface Task {
+      void run(WitnessSearch search, int i);
+    }
+
+    // Runs task(search, i) for every i in [0, count) on the executor, in chunks which each
+    // borrow a witness search for their duration.
+    private void parallelFor(int count, Task task) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int lo = 0; lo < count; lo += CHUNK_SIZE) {
+        final int lower = lo, upper = Math.min(count, lo + CHUNK_SIZE);
+        futures.add(
+            executor.submit(
+                () -> {
+                  WitnessSearch search = searches.poll();
+                  if (search == null) search = new WitnessSearch();
+                  try {
+                    for (int i = lower; i < upper; i++) task.run(search, i);
+                  } finally {
+                    searches.offer(search);
+                  }
+                }));
+      }
+      try {
+        for (Future<?> future : futures) future.get();
+      } catch (InterruptedException e) {
+        for (Future<?> future : futures) future.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while contracting the graph", e);
+      } catch (ExecutionException e) {
+        for (Future<?> future : futures) future.cancel(true);
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw new IllegalStateException(cause);
+      }
+    }
+
+    // A Dijkstra limited in distance and in the number of nodes settled, which looks for
+    // paths avoiding one node and all the contracted nodes. Among paths of equal length it
+    // prefers those which avoid the nodes being contracted in the current round. Reuses its
+    // memory between searches with stamps.
+    private class WitnessSearch {
+      final double[] dist = new double[n];
+      final int[] seen = new int[n];
+      final int[] target = new int[n];
+      final boolean[] dirty = new boolean[n];
+      final MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, Math.max(1, n));
+      int stamp;
+
+      // Searches from 'source' for paths avoiding v to the other neighbors v has edges to,
+      // stopping once all of them are settled or the distance exceeds 'limit'.
+      void run(int source, int v, double limit) {
+        if (++stamp == 0) {
+          Arrays.fill(seen, 0);
+          Arrays.fill(target, 0);
+          stamp = 1;
+        }
+        int targets = 0;
+        for (int j = 0; j < outSize[v]; j++) {
+          int w = outTo[v][j];
+          if (w != source && state[w] == ALIVE && target[w] != stamp) {
+            target[w] = stamp;
+            targets++;
+          }
+        }
+        pq.clear();
+        seen[source] = stamp;
+        dist[source] = 0;
+        dirty[source] = false;
+        pq.insert(source, 0.0);
+        for (int settled = 0; !pq.isEmpty() && settled < SETTLE_LIMIT; settled++) {
+          if (pq.peekMinValue() > limit) break;
+          int u = pq.pollMinKeyIndex();
+          if (target[u] == stamp && --targets == 0) break;
+          int[] tos = outTo[u];
+          double[] ws = outWeight[u];
+          for (int j = 0; j < outSize[u]; j++) {
+            int x = tos[j];
+            if (x == v || state[x] == CONTRACTED) continue;
+            double d = dist[u] + ws[j];
+            boolean throughContracting = dirty[u] || state[x] == CONTRACTING;
+            if (seen[x] != stamp || d < dist[x]) {
+              seen[x] = stamp;
+              dist[x] = d;
+              dirty[x] = throughContracting;
+              if (pq.contains(x)) pq.decrease(x, d);
+              else pq.insert(x, d);
+            } else if (d == dist[x] && !throughContracting) {
+              dirty[x] = false;
+            }
+          }
+        }
+      }
+
+      // The length of the shortest path to v found by the last search.
+      double distance(int v) {
+        return seen[v] == stamp ? dist[v] : INF;
+      }
+
+      // Whether the path to v found by the last search goes through a node being contracted.
+      boolean throughContracting(int v) {
+        return dirty[v];
+      }
+    }
+
+    // The shortcuts found by one chunk of the parallel witness searches.
+    private static class Shortcuts {
+      int size;
+      int[] from = new int[16], to = new int[16], via = new int[16];
+      double[] weight = new double[16];
+
+      void add(int u, int w, double length, int v) {
+        if (size == from.length) {
+          from = Arrays.copyOf(from, 2 * size);
+          to = Arrays.copyOf(to, 2 * size);
+          via = Arrays.copyOf(via, 2 * size);
+          weight = Arrays.copyOf(weight, 2 * size);
+        }
+        from[size] = u;
+        to[size] = w;
+        via[size] = v;
+        weight[size] = length;
+        size++;
+      }
+    }
+  }
+}
@@ -0,0 +1,325 @@
+/**
+ * A parallel single source shortest path solver on a {@link CsrGraph} using delta-stepping (Meyer
+ * and Sanders). Instead of settling one node at a time like Dijkstra's algorithm, nodes are kept
+ * in buckets of width delta by their tentative distance, and all the nodes of the lowest non-empty
+ * bucket are processed at once, in parallel:
+ *
+ * <p>- The light edges (weight <= delta) of the bucket's nodes are relaxed, which may put nodes
+ * back into the same bucket, until the bucket stays empty.
+ *
+ * <p>- Then the heavy edges (weight > delta) of every node removed from the bucket are relaxed
+ * once. They can only reach later buckets, so they never need to be relaxed again.
+ *
+ * <p>Distances are updated with compare-and-set, so threads relaxing edges into the same node at
+ * the same time never lose the smaller distance. A small delta does little redundant work but has
+ * many buckets with little parallelism each (delta -> 0 is Dijkstra's algorithm), a large delta
+ * exposes more parallelism but relaxes edges more often (delta -> infinity is Bellman-Ford). The
+ * default of (max weight) / (average degree) works well for random edge weights.
+ *
+ * <p>A relaxed edge never lands more than ceil(max weight / delta) buckets after the current one,
+ * so the buckets are kept in a cyclic array of ceil(max weight / delta) + 2 slots which is reused
+ * as the search moves on. A delta so small that this would take more than 2^20 slots is rejected.
+ *
+ * <p>The returned distances follow the other solvers: dist[v] is the length of the shortest path
+ * from the start node to v, or Double.POSITIVE_INFINITY if v cannot be reached. Edge weights must
+ * not be negative.
+ *
+ * <p>Time Complexity: O(V + E + L*log(V)) work for random graphs where L is the largest distance
+ * (Meyer and Sanders), done in O(L/delta) parallel phases.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DeltaSteppingCsr {
+
+  private static final long INF_BITS = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+  // Nodes are relaxed in parallel in chunks of this many nodes.
+  private static final int CHUNK_SIZE = 256;
+
+  // The largest number of bucket slots, which bounds how small delta can be.
+  private static final int MAX_BUCKETS = 1 << 20;
+
+  private final int n;
+  private final double delta;
+  private final int numBuckets;
+
+  // The graph with the edges of every node reordered so that the light edges come first:
+  // the edges of u are offsets[u] to offsets[u + 1] - 1, of which offsets[u] to
+  // heavyStart[u] - 1 are light.
+  private final int[] offsets, heavyStart, targets;
+  private final double[] weights;
+
+  // Creates a solver with the default delta of (max edge weight) / (average out degree).
+  public DeltaSteppingCsr(CsrGraph graph) {
+    this(graph, defaultDelta(graph));
+  }
+
+  // Creates a solver with the given bucket width. Throws an IllegalArgumentException if delta is
+  // so small compared to the largest edge weight that the buckets would not fit in 2^20 slots.
+  public DeltaSteppingCsr(CsrGraph graph, double delta) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    if (!(delta > 0)) throw new IllegalArgumentException("delta must be positive: " + delta);
+    this.n = graph.numNodes();
+    this.delta = delta;
+
+    int[] gTargets = graph.targets();
+    double[] gWeights = graph.weights();
+    offsets = graph.offsets();
+    heavyStart = new int[n];
+    targets = new int[gTargets.length];
+    weights = new double[gTargets.length];
+    double maxWeight = 0;
+    for (int u = 0; u < n; u++) {
+      int light = offsets[u], heavy = offsets[u + 1];
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        if (gWeights[e] < 0) throw new IllegalArgumentException("Negative edge weight: " + e);
+        // An infinite edge never improves a distance, so it never lands in a bucket.
+        if (gWeights[e] < Double.POSITIVE_INFINITY) maxWeight = Math.max(maxWeight, gWeights[e]);
+        int i = gWeights[e] <= delta ? light++ : --heavy;
+        targets[i] = gTargets[e];
+        weights[i] = gWeights[e];
+      }
+      heavyStart[u] = light;
+    }
+
+    // One more slot than the furthest bucket an edge can reach, plus one for rounding.
+    double slots = Math.ceil(maxWeight / delta) + 2;
+    if (slots > MAX_BUCKETS)
+      throw new IllegalArgumentException(
+          "delta " + delta + " is too small for edge weights up to " + maxWeight);
+    numBuckets = (int) slots;
+  }
+
+  // The default delta, (max edge weight) / (average out degree).
+  public static double defaultDelta(CsrGraph graph) {
+    double maxWeight = 0;
+    for (double w : graph.weights()) maxWeight = Math.max(maxWeight, w);
+    double averageDegree = (double) graph.numEdges() / Math.max(1, graph.numNodes());
+    double delta = maxWeight / Math.max(1, averageDegree);
+    return delta > 0 ? delta : 1;
+  }
+
+  public double getDelta() {
+    return delta;
+  }
+
+  // Finds the shortest path from 'start' to every node using the common ForkJoinPool.
+  public double[] shortestPaths(int start) {
+    return shortestPaths(start, ForkJoinPool.commonPool());
+  }
+
+  // Finds the shortest path from 'start' to every node using a temporary pool of 'threads'
+  // threads.
+  public double[] shortestPaths(int start, int threads) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return shortestPaths(start, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // Finds the shortest path from 'start' to every node, relaxing edges on the given pool.
+  public double[] shortestPaths(int start, ForkJoinPool pool) {
+    if (start < 0 || start >= n) throw new IllegalArgumentException("Invalid node index: " + start);
+    if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+    return new Run(pool).solve(start);
+  }
+
+  // The state of a single shortest path computation.
+  private class Run {
+
+    final ForkJoinPool pool;
+    final AtomicLongArray dist = new AtomicLongArray(n);
+
+    // Bucket i holds the nodes whose tentative distance was in [i * delta, (i + 1) * delta)
+    // when they were added, and is stored in slot i % numBuckets. While bucket i is processed
+    // every queued node is in one of the buckets i to i + numBuckets - 1, so each slot holds a
+    // single bucket. Nodes are only moved out of a bucket lazily: an entry is skipped unless the
+    // node is still queued in that slot (queuedBucket[v] == slot), -1 if it is not queued.
+    final IntList[] buckets = new IntList[numBuckets];
+    final int[] queuedBucket = new int[n];
+
+    // The nodes whose distance improved during a parallel step, possibly with duplicates.
+    int[] improved = new int[64];
+    final AtomicInteger improvedCount = new AtomicInteger();
+
+    // Stamps used to remove duplicates from the frontier and the nodes removed from a bucket.
+    final int[] frontierStamp = new int[n], removedStamp = new int[n];
+    int frontierRound, bucketRound;
+
+    Run(ForkJoinPool pool) {
+      this.pool = pool;
+      for (int i = 0; i < n; i++) dist.set(i, INF_BITS);
+      Arrays.fill(queuedBucket, -1);
+    }
+
+    double[] solve(int start) {
+      dist.set(start, Double.doubleToRawLongBits(0.0));
+      bucket(0).add(start);
+      queuedBucket[start] = 0;
+
+      IntList removed = new IntList(), frontier = new IntList(), spare = new IntList();
+      // The search is over once a whole cycle of slots is empty.
+      for (long i = 0, emptySlots = 0; emptySlots < numBuckets; i++) {
+        int slot = (int) (i % numBuckets);
+        if (buckets[slot] == null || buckets[slot].size == 0) {
+          emptySlots++;
+          continue;
+        }
+        emptySlots = 0;
+        bucketRound++;
+        removed.size = 0;
+
+        // Relax the light edges until no node falls back into the current bucket.
+        IntList current = buckets[slot];
+        while (current.size > 0) {
+          spare.size = 0;
+          buckets[slot] = spare;
+          spare = current;
+          frontierRound++;
+          frontier.size = 0;
+          for (int j = 0; j < current.size; j++) {
+            int v = current.values[j];
+            if (frontierStamp[v] == frontierRound || queuedBucket[v] != slot) continue;
+            frontierStamp[v] = frontierRound;
+            frontier.add(v);
+            if (removedStamp[v] != bucketRound) {
+              removedStamp[v] = bucketRound;
+              removed.add(v);
+            }
+          }
+          relaxAll(frontier, true, i);
+          current = buckets[slot];
+        }
+
+        // The nodes removed from the bucket are settled, which frees the slot for bucket
+        // i + numBuckets. Heavy edges always lead to later buckets, so they are relaxed only
+        // once per node.
+        for (int j = 0; j < removed.size; j++) queuedBucket[removed.values[j]] = -1;
+        relaxAll(removed, false, i);
+      }
+
+      double[] result = new double[n];
+      for (int v = 0; v < n; v++) result[v] = Double.longBitsToDouble(dist.get(v));
+      return result;
+    }
+
+    // Relaxes the light or heavy edges of all the given nodes in parallel, then puts every
+    // node whose distance improved into the bucket of its new distance. The bucket is never
+    // below 'minBucket' (the current bucket for light edges and the next one for heavy edges)
+    // even if rounding says otherwise, so no node is put back into a finished bucket, and never
+    // past the last bucket with a slot of its own.
+    void relaxAll(IntList nodes, boolean light, long current) {
+      if (nodes.size == 0) return;
+      long minBucket = light ? current : current + 1, maxBucket = current + numBuckets - 1;
+
+      // Every relaxed edge improves at most one node, so this many slots are always enough.
+      int edges = 0;
+      for (int j = 0; j < nodes.size; j++) {
+        int u = nodes.values[j];
+        edges += light ? heavyStart[u] - offsets[u] : offsets[u + 1] - heavyStart[u];
+      }
+      if (edges == 0) return;
+      if (improved.length < edges) improved = new int[Math.max(edges, 2 * improved.length)];
+      improvedCount.set(0);
+      pool.invoke(new Relax(nodes.values, 0, nodes.size, light));
+      for (int j = 0, count = improvedCount.get(); j < count; j++) {
+        int v = improved[j];
+        long b = Math.min(maxBucket, Math.max(minBucket, bucketOf(v)));
+        int slot = (int) (b % numBuckets);
+        if (queuedBucket[v] == slot && b != minBucket) continue;
+        queuedBucket[v] = slot;
+        bucket(slot).add(v);
+      }
+    }
+
+    long bucketOf(int v) {
+      return (long) (distance(v) / delta);
+    }
+
+    double distance(int v) {
+      return Double.longBitsToDouble(dist.get(v));
+    }
+
+    IntList bucket(int slot) {
+      if (buckets[slot] == null) buckets[slot] = new IntList();
+      return buckets[slot];
+    }
+
+    // Lowers the distance of v to 'newDist' if it is smaller. Non-negative doubles compare
+    // the same way as their bit patterns read as longs, so the bits can be compared directly.
+    boolean relax(int v, double newDist) {
+      long bits = Double.doubleToRawLongBits(newDist), current = dist.get(v);
+      while (bits < current) {
+        if (dist.compareAndSet(v, current, bits)) return true;
+        current = dist.get(v);
+      }
+      return false;
+    }
+
+    // Appends the nodes improved by one chunk into its own slice of the shared array.
+    void addImproved(IntList local) {
+      int at = improvedCount.getAndAdd(local.size);
+      System.arraycopy(local.values, 0, improved, at, local.size);
+    }
+
+    private class Relax extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      final int[] nodes;
+      final int lo, hi;
+      final boolean light;
+
+      Relax(int[] nodes, int lo, int hi, boolean light) {
+        this.nodes = nodes;
+        this.lo = lo;
+        this.hi = hi;
+        this.light = light;
+      }
+
+      @Override
+      protected void compute() {
+        if (hi - lo > CHUNK_SIZE) {
+          int mid = (lo + hi) >>> 1;
+          invokeAll(new Relax(nodes, lo, mid, light), new Relax(nodes, mid, hi, light));
+          return;
+        }
+        IntList local = new IntList();
+        for (int i = lo; i < hi; i++) {
+          int u = nodes[i];
+          double d = distance(u);
+          int from = light ? offsets[u] : heavyStart[u];
+          int to = light ? heavyStart[u] : offsets[u + 1];
+          for (int e = from; e < to; e++) {
+            if (relax(targets[e], d + weights[e])) local.add(targets[e]);
+          }
+        }
+        if (local.size > 0) addImproved(local);
+      }
+    }
+  }
+
+  private static final int[] EMPTY = new int[0];
+
+  // A growable list of ints. Empty lists share one array, since most buckets stay empty when
+  // delta is small.
+  private static class IntList {
+    int[] values = EMPTY;
+    int size;
+
+    void add(int value) {
+      if (size == values.length) values = Arrays.copyOf(values, Math.max(16, 2 * size));
+      values[size++] = value;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * An implementation of an iterative DFS on a {@link CsrGraph}. Instead of pushing every neighbor
+ * on the stack, the stack holds the nodes on the current path along with the next edge to explore
+ * for each of them, so it never holds more than n entries and the nodes are visited in the same
+ * order as with a recursive DFS.
+ *
+ * <p>Time Complexity: O(V + E)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+
+public class DepthFirstSearchCsr {
+
+  private final int n;
+  private final int[] offsets, targets;
+
+  public DepthFirstSearchCsr(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    n = graph.numNodes();
+    offsets = graph.offsets();
+    targets = graph.targets();
+  }
+
+  // Returns the nodes reachable from 'start' in the order a recursive DFS would visit them.
+  public int[] dfsOrder(int start) {
+    int[] order = new int[n];
+    int count = dfs(start, new boolean[n], order);
+    return Arrays.copyOf(order, count);
+  }
+
+  // Returns the number of nodes in the component of 'start'.
+  public int countReachable(int start) {
+    return dfs(start, new boolean[n], null);
+  }
+
+  private int dfs(int start, boolean[] visited, int[] order) {
+    int[] stack = new int[n], nextEdge = new int[n];
+    int top = 0, count = 0;
+
+    visited[start] = true;
+    if (order != null) order[count] = start;
+    count++;
+    stack[top] = start;
+    nextEdge[top++] = offsets[start];
+
+    while (top > 0) {
+      int at = stack[top - 1];
+      int e = nextEdge[top - 1];
+      if (e == offsets[at + 1]) {
+        top--;
+        continue;
+      }
+      nextEdge[top - 1] = e + 1;
+      int to = targets[e];
+      if (visited[to]) continue;
+      visited[to] = true;
+      if (order != null) order[count] = to;
+      count++;
+      stack[top] = to;
+      nextEdge[top++] = offsets[to];
+    }
+    return count;
+  }
+}
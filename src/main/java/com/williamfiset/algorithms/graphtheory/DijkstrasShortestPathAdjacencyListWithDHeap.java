@@ -8,13 +8,19 @@
 package com.williamfiset.algorithms.graphtheory;
 
 import static java.lang.Math.max;
-import static java.lang.Math.min;
 
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedDoubleDHeap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
 
 public class DijkstrasShortestPathAdjacencyListWithDHeap {
 
@@ -37,6 +43,13 @@ public class DijkstrasShortestPathAdjacencyListWithDHeap {
   private Integer[] prev;
   private List<List<Edge>> graph;
 
+  // Scratch space for the batch queries, kept between batches so that the arrays and
+  // heaps are only allocated once per worker.
+  private final Queue<QueryState> queryStates = new ConcurrentLinkedQueue<>();
+
+  // Number of queries or sources handed to a worker at a time.
+  private static final int BATCH_CHUNK_SIZE = 16;
+
   /**
    * Initialize the solver by providing the graph size and a starting node. Use the {@link #addEdge}
    * method to actually add edges to the graph.
@@ -63,6 +76,7 @@ public class DijkstrasShortestPathAdjacencyListWithDHeap {
    */
   public void addEdge(int from, int to, int cost) {
     edgeCount++;
+    queryStates.clear();
     graph.get(from).add(new Edge(to, cost));
   }
 
@@ -83,7 +97,7 @@ public class DijkstrasShortestPathAdjacencyListWithDHeap {
     // Keep an Indexed Priority Queue (ipq) of the next most promising node
     // to visit.
     int degree = edgeCount / n;
-    MinIndexedDHeap<Double> ipq = new MinIndexedDHeap<>(degree, n);
+    MinIndexedDoubleDHeap ipq = new MinIndexedDoubleDHeap(degree, n);
     ipq.insert(start, 0.0);
 
     // Maintain an array of the minimum distance to each node.
@@ -148,219 +162,160 @@ public class DijkstrasShortestPathAdjacencyListWithDHeap {
     return path;
   }
 
-  private static class MinIndexedDHeap<T extends Comparable<T>> {
-
-    // Current number of elements in the heap.
-    private int sz;
-
-    // Maximum number of elements in the heap.
-    private final int N;
-
-    // The degree of every node in the heap.
-    private final int D;
-
-    // Lookup arrays to track the child/parent indexes of each node.
-    private final int[] child, parent;
-
-    // The Position Map (pm) maps Key Indexes (ki) to where the position of that
-    // key is represented in the priority queue in the domain [0, sz).
-    public final int[] pm;
-
-    // The Inverse Map (im) stores the indexes of the keys in the range
-    // [0, sz) which make up the priority queue. It should be noted that
-    // 'im' and 'pm' are inverses of each other, so: pm[im[i]] = im[pm[i]] = i
-    public final int[] im;
+  /* Batch queries. */
 
-    // The values associated with the keys. It is very important  to note
-    // that this array is indexed by the key indexes (aka 'ki').
-    public final Object[] values;
-
-    // Initializes a D-ary heap with a maximum capacity of maxSize.
-    public MinIndexedDHeap(int degree, int maxSize) {
-      if (maxSize <= 0) throw new IllegalArgumentException("maxSize <= 0");
-
-      D = max(2, degree);
-      N = max(D + 1, maxSize);
-
-      im = new int[N];
-      pm = new int[N];
-      child = new int[N];
-      parent = new int[N];
-      values = new Object[N];
-
-      for (int i = 0; i < N; i++) {
-        parent[i] = (i - 1) / D;
-        child[i] = i * D + 1;
-        pm[i] = im[i] = -1;
-      }
-    }
-
-    public int size() {
-      return sz;
-    }
-
-    public boolean isEmpty() {
-      return sz == 0;
-    }
-
-    public boolean contains(int ki) {
-      keyInBoundsOrThrow(ki);
-      return pm[ki] != -1;
-    }
-
-    public int peekMinKeyIndex() {
-      isNotEmptyOrThrow();
-      return im[0];
-    }
-
-    public int pollMinKeyIndex() {
-      int minki = peekMinKeyIndex();
-      delete(minki);
-      return minki;
+  /**
+   * Answers a batch of independent shortest path queries on a thread pool, which is much faster
+   * than calling {@link #dijkstra} in a loop when there are many queries. The graph must not be
+   * modified while the queries run.
+   *
+   * @param starts - The starting node of every query.
+   * @param ends - The destination node of every query.
+   * @param executor - The thread pool to run the queries on.
+   * @return The length of the shortest path of every query, Double.POSITIVE_INFINITY if the end
+   *     node cannot be reached from the starting node.
+   */
+  public double[] dijkstra(int[] starts, int[] ends, ExecutorService executor) {
+    if (starts.length != ends.length)
+      throw new IllegalArgumentException("starts and ends must have the same length");
+    for (int i = 0; i < starts.length; i++) {
+      nodeInBoundsOrThrow(starts[i]);
+      nodeInBoundsOrThrow(ends[i]);
     }
+    double[] result = new double[starts.length];
+    runInParallel(starts.length, executor, (state, i) -> result[i] = state.run(starts[i], ends[i]));
+    return result;
+  }
 
-    @SuppressWarnings("unchecked")
-    public T peekMinValue() {
-      isNotEmptyOrThrow();
-      return (T) values[im[0]];
+  // Same as above, using a temporary pool of 'threads' threads.
+  public double[] dijkstra(int[] starts, int[] ends, int threads) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      return dijkstra(starts, ends, executor);
+    } finally {
+      executor.shutdown();
     }
+  }
 
-    public T pollMinValue() {
-      T minValue = peekMinValue();
-      delete(peekMinKeyIndex());
-      return minValue;
+  /**
+   * Computes the shortest path between every pair of nodes by running Dijkstra's from every node
+   * on a thread pool. dist[i][j] is set to the length of the shortest path from node i to node j,
+   * or Double.POSITIVE_INFINITY if there is none. The matrix is supplied by the caller so it can
+   * be reused between runs, it needs at least n rows of at least n columns.
+   */
+  public void allSourcesShortestPaths(double[][] dist, ExecutorService executor) {
+    if (dist.length < n) throw new IllegalArgumentException("dist needs at least n rows");
+    for (int i = 0; i < n; i++) {
+      if (dist[i] == null || dist[i].length < n)
+        throw new IllegalArgumentException("dist needs at least n columns");
     }
+    runInParallel(n, executor, (state, i) -> state.runAll(i, dist[i]));
+  }
 
-    public void insert(int ki, T value) {
-      if (contains(ki)) throw new IllegalArgumentException("index already exists; received: " + ki);
-      valueNotNullOrThrow(value);
-      pm[ki] = sz;
-      im[sz] = ki;
-      values[ki] = value;
-      swim(sz++);
+  // Same as above, using a temporary pool of 'threads' threads.
+  public void allSourcesShortestPaths(double[][] dist, int threads) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      allSourcesShortestPaths(dist, executor);
+    } finally {
+      executor.shutdown();
     }
+  }
 
-    @SuppressWarnings("unchecked")
-    public T valueOf(int ki) {
-      keyExistsOrThrow(ki);
-      return (T) values[ki];
+  // Runs task(state, i) for every i in [0, count) on the executor. The work is split into
+  // chunks and every chunk borrows a QueryState for its duration, so there are never more
+  // states than chunks running at the same time.
+  private void runInParallel(int count, ExecutorService executor, ObjIntConsumer<QueryState> task) {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int lo = 0; lo < count; lo += BATCH_CHUNK_SIZE) {
+      final int from = lo, to = Math.min(count, lo + BATCH_CHUNK_SIZE);
+      futures.add(
+          executor.submit(
+              () -> {
+                QueryState state = queryStates.poll();
+                if (state == null) state = new QueryState();
+                try {
+                  for (int i = from; i < to; i++) task.accept(state, i);
+                } finally {
+                  queryStates.offer(state);
+                }
+              }));
     }
-
-    @SuppressWarnings("unchecked")
-    public T delete(int ki) {
-      keyExistsOrThrow(ki);
-      final int i = pm[ki];
-      swap(i, --sz);
-      sink(i);
-      swim(i);
-      T value = (T) values[ki];
-      values[ki] = null;
-      pm[ki] = -1;
-      im[sz] = -1;
-      return value;
+    try {
+      for (Future<?> future : futures) future.get();
+    } catch (InterruptedException e) {
+      for (Future<?> future : futures) future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the queries", e);
+    } catch (ExecutionException e) {
+      for (Future<?> future : futures) future.cancel(true);
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IllegalStateException(cause);
     }
+  }
 
-    @SuppressWarnings("unchecked")
-    public T update(int ki, T value) {
-      keyExistsAndValueNotNullOrThrow(ki, value);
-      final int i = pm[ki];
-      T oldValue = (T) values[ki];
-      values[ki] = value;
-      sink(i);
-      swim(i);
-      return oldValue;
-    }
+  private void nodeInBoundsOrThrow(int node) {
+    if (node < 0 || node >= n) throw new IllegalArgumentException("Invalid node index: " + node);
+  }
 
-    // Strictly decreases the value associated with 'ki' to 'value'
-    public void decrease(int ki, T value) {
-      keyExistsAndValueNotNullOrThrow(ki, value);
-      if (less(value, values[ki])) {
-        values[ki] = value;
-        swim(pm[ki]);
-      }
+  // The memory a single query needs, owned by one worker at a time. Rather than clearing
+  // the arrays before every query (O(n) even for queries which only explore a few nodes),
+  // every query gets a new stamp and an entry of 'dist' only counts when its 'seen' stamp
+  // matches the current query. A node is visited when its 'visited' stamp matches.
+  private class QueryState {
+    final double[] dist = new double[n];
+    final int[] seen = new int[n], visited = new int[n];
+    final MinIndexedDoubleDHeap ipq = new MinIndexedDoubleDHeap(edgeCount / max(1, n), n);
+    int stamp;
+
+    // Returns the length of the shortest path from 'start' to 'end'.
+    double run(int start, int end) {
+      search(start, end);
+      return seen[end] == stamp ? dist[end] : Double.POSITIVE_INFINITY;
     }
 
-    // Strictly increases the value associated with 'ki' to 'value'
-    public void increase(int ki, T value) {
-      keyExistsAndValueNotNullOrThrow(ki, value);
-      if (less(values[ki], value)) {
-        values[ki] = value;
-        sink(pm[ki]);
-      }
+    // Writes the length of the shortest path from 'start' to every node into 'out'.
+    void runAll(int start, double[] out) {
+      search(start, -1);
+      for (int i = 0; i < n; i++) out[i] = seen[i] == stamp ? dist[i] : Double.POSITIVE_INFINITY;
     }
 
-    /* Helper functions */
-
-    private void sink(int i) {
-      for (int j = minChild(i); j != -1; ) {
-        swap(i, j);
-        i = j;
-        j = minChild(i);
+    private void search(int start, int end) {
+      nextStamp();
+      ipq.clear();
+      seen[start] = stamp;
+      dist[start] = 0;
+      ipq.insert(start, 0.0);
+
+      while (!ipq.isEmpty()) {
+        int nodeId = ipq.peekMinKeyIndex();
+        visited[nodeId] = stamp;
+        double minValue = ipq.pollMinValue();
+        if (minValue > dist[nodeId]) continue;
+
+        for (Edge edge : graph.get(nodeId)) {
+          if (visited[edge.to] == stamp) continue;
+          double newDist = dist[nodeId] + edge.cost;
+          if (seen[edge.to] != stamp || newDist < dist[edge.to]) {
+            seen[edge.to] = stamp;
+            dist[edge.to] = newDist;
+            if (!ipq.contains(edge.to)) ipq.insert(edge.to, newDist);
+            else ipq.decrease(edge.to, newDist);
+          }
+        }
+        if (nodeId == end) return;
       }
     }
 
-    private void swim(int i) {
-      while (less(i, parent[i])) {
-        swap(i, parent[i]);
-        i = parent[i];
+    // Only when the stamp wraps around after 2^32 queries do the arrays need clearing.
+    private void nextStamp() {
+      if (++stamp == 0) {
+        Arrays.fill(seen, 0);
+        Arrays.fill(visited, 0);
+        stamp = 1;
       }
     }
-
-    // From the parent node at index i find the minimum child below it
-    private int minChild(int i) {
-      int index = -1, from = child[i], to = min(sz, from + D);
-      for (int j = from; j < to; j++) if (less(j, i)) index = i = j;
-      return index;
-    }
-
-    private void swap(int i, int j) {
-      pm[im[j]] = i;
-      pm[im[i]] = j;
-      int tmp = im[i];
-      im[i] = im[j];
-      im[j] = tmp;
-    }
-
-    // Tests if the value of node i < node j
-    @SuppressWarnings("unchecked")
-    private boolean less(int i, int j) {
-      return ((Comparable<? super T>) values[im[i]]).compareTo((T) values[im[j]]) < 0;
-    }
-
-    @SuppressWarnings("unchecked")
-    private boolean less(Object obj1, Object obj2) {
-      return ((Comparable<? super T>) obj1).compareTo((T) obj2) < 0;
-    }
-
-    @Override
-    public String toString() {
-      List<Integer> lst = new ArrayList<>(sz);
-      for (int i = 0; i < sz; i++) lst.add(im[i]);
-      return lst.toString();
-    }
-
-    /* Helper functions to make the code more readable. */
-
-    private void isNotEmptyOrThrow() {
-      if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
-    }
-
-    private void keyExistsAndValueNotNullOrThrow(int ki, Object value) {
-      keyExistsOrThrow(ki);
-      valueNotNullOrThrow(value);
-    }
-
-    private void keyExistsOrThrow(int ki) {
-      if (!contains(ki)) throw new NoSuchElementException("Index does not exist; received: " + ki);
-    }
-
-    private void valueNotNullOrThrow(Object value) {
-      if (value == null) throw new IllegalArgumentException("value cannot be null");
-    }
-
-    private void keyInBoundsOrThrow(int ki) {
-      if (ki < 0 || ki >= N)
-        throw new IllegalArgumentException("Key index out of bounds; received: " + ki);
-    }
   }
 }
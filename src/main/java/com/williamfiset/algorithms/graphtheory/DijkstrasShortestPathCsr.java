@@ -0,0 +1,92 @@
+/**
+ * An implementation of Dijkstra's shortest path algorithm on a {@link CsrGraph}, using an indexed
+ * d-ary heap like {@link DijkstrasShortestPathAdjacencyListWithDHeap}. Edge weights are read as
+ * doubles, so graphs with long or no weights work too. Weights must not be negative.
+ *
+ * <p>Time Complexity: O(E*log_{E/V}(V))
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedDoubleDHeap;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DijkstrasShortestPathCsr {
+
+  private final int n;
+  private final int[] offsets, targets;
+  private final double[] weights;
+  private final int degree;
+
+  // Outputs of the last run.
+  private double[] dist;
+  private int[] prev;
+
+  public DijkstrasShortestPathCsr(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    n = graph.numNodes();
+    offsets = graph.offsets();
+    targets = graph.targets();
+    weights = graph.weights();
+    degree = Math.max(2, graph.numEdges() / Math.max(1, n));
+  }
+
+  // Finds the shortest path from 'start' to every node. Unreachable nodes have
+  // a distance of Double.POSITIVE_INFINITY.
+  public double[] dijkstra(int start) {
+    run(start, -1);
+    return dist;
+  }
+
+  // Finds the shortest path from 'start' to 'end', stopping as soon as 'end' is reached.
+  // Returns Double.POSITIVE_INFINITY if 'end' cannot be reached.
+  public double dijkstra(int start, int end) {
+    run(start, end);
+    return dist[end];
+  }
+
+  private void run(int start, int end) {
+    dist = new double[n];
+    prev = new int[n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    Arrays.fill(prev, -1);
+    dist[start] = 0;
+
+    boolean[] visited = new boolean[n];
+    MinIndexedDoubleDHeap ipq = new MinIndexedDoubleDHeap(degree, n);
+    ipq.insert(start, 0.0);
+
+    while (!ipq.isEmpty()) {
+      int at = ipq.pollMinKeyIndex();
+      visited[at] = true;
+      if (at == end) return;
+
+      for (int e = offsets[at], stop = offsets[at + 1]; e < stop; e++) {
+        int to = targets[e];
+        if (visited[to]) continue;
+        double newDist = dist[at] + weights[e];
+        if (newDist < dist[to]) {
+          dist[to] = newDist;
+          prev[to] = at;
+          if (ipq.contains(to)) ipq.decrease(to, newDist);
+          else ipq.insert(to, newDist);
+        }
+      }
+    }
+  }
+
+  // Reconstructs the shortest path (of nodes) from 'start' to 'end' inclusive. If the
+  // nodes are not connected an empty list is returned.
+  public List<Integer> reconstructPath(int start, int end) {
+    List<Integer> path = new ArrayList<>();
+    if (dijkstra(start, end) == Double.POSITIVE_INFINITY) return path;
+    for (int at = end; at != -1; at = prev[at]) path.add(at);
+    Collections.reverse(path);
+    return path;
+  }
+}
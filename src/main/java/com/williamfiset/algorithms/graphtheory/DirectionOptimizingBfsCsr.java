@@ -0,0 +1,344 @@
+/**
+ * A parallel direction-optimizing BFS (Beamer, Asanovic and Patterson) on a {@link CsrGraph}. Each
+ * level of the search is expanded in one of two ways:
+ *
+ * <p>- Top-down: every node of the frontier checks its outgoing edges for unvisited nodes, like a
+ * regular BFS. This is cheap while the frontier is small.
+ *
+ * <p>- Bottom-up: every unvisited node checks its incoming edges for a parent in the frontier and
+ * stops at the first one found. On low diameter graphs (power-law and small-world graphs) a few
+ * middle levels hold most of the nodes, and bottom-up skips most of their edges.
+ *
+ * <p>The search switches to bottom-up when the frontier has more outgoing edges than 1/ALPHA of
+ * the edges left to check from the unvisited nodes, and back to top-down once the frontier is
+ * shrinking and holds less than 1/BETA of the nodes. The frontier is a list of nodes in top-down
+ * steps and a bitset in bottom-up steps. The visited set is a bitset claimed with
+ * compare-and-set, and each task collects the nodes it discovers in its own local queue before
+ * they are appended to the next frontier.
+ *
+ * <p>The returned distances are the same as {@link BreadthFirstSearchCsr}. The parents always form
+ * a shortest path tree, but when a node has several parents in the previous level any of them may
+ * be picked.
+ *
+ * <p>Time Complexity: O(V + E), usually checking far fewer than E edges on low diameter graphs.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DirectionOptimizingBfsCsr {
+
+  // The switching thresholds suggested by Beamer et al.
+  private static final int ALPHA = 14, BETA = 24;
+
+  // Top-down steps split the frontier into chunks of this many nodes, bottom-up steps split the
+  // nodes into chunks of this many bitset words.
+  private static final int NODE_CHUNK = 256, WORD_CHUNK = 16;
+
+  private final int n, words;
+  private final int[] offsets, targets;
+  private final int[] inOffsets, inSources;
+
+  // Outputs of the last search.
+  private int[] dist, prev;
+  private int bottomUpSteps;
+
+  public DirectionOptimizingBfsCsr(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    n = graph.numNodes();
+    words = (n + 63) >>> 6;
+    offsets = graph.offsets();
+    targets = graph.targets();
+    CsrGraph transpose = graph.transpose();
+    inOffsets = transpose.offsets();
+    inSources = transpose.targets();
+  }
+
+  // Runs a BFS from 'start' using the common ForkJoinPool and returns the number of edges on the
+  // shortest path to every node, or -1 for the nodes which cannot be reached.
+  public int[] bfs(int start) {
+    return bfs(start, ForkJoinPool.commonPool());
+  }
+
+  // Runs a BFS from 'start' using a temporary pool of 'threads' threads.
+  public int[] bfs(int start, int threads) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return bfs(start, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // Runs a BFS from 'start', expanding every level in parallel on the given pool.
+  public int[] bfs(int start, ForkJoinPool pool) {
+    if (start < 0 || start >= n) throw new IllegalArgumentException("Invalid node index: " + start);
+    if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+    new Run(pool).solve(start);
+    return dist;
+  }
+
+  // The parent of every node in the BFS tree of the last search, or -1 for the start node and
+  // the nodes which cannot be reached.
+  public int[] getParents() {
+    if (prev == null) throw new IllegalStateException("Run a search first.");
+    return prev;
+  }
+
+  // The number of levels of the last search which were expanded bottom-up.
+  public int getBottomUpSteps() {
+    return bottomUpSteps;
+  }
+
+  // Reconstructs the path (of nodes) from 'start' to 'end' inclusive. If the
+  // nodes are not connected an empty list is returned.
+  public List<Integer> reconstructPath(int start, int end) {
+    if (end < 0 || end >= n) throw new IllegalArgumentException("Invalid node index: " + end);
+    bfs(start);
+    List<Integer> path = new ArrayList<>();
+    if (dist[end] == -1) return path;
+    for (int at = end; at != -1; at = prev[at]) path.add(at);
+    Collections.reverse(path);
+    return path;
+  }
+
+  // The state of a single search.
+  private class Run {
+
+    final ForkJoinPool pool;
+    final int[] dist = new int[n], prev = new int[n];
+    final AtomicLongArray visited = new AtomicLongArray(words);
+
+    // The frontier of the current level and the one being built, as node lists for top-down
+    // steps and as bitsets for bottom-up steps.
+    int[] queue = new int[n], nextQueue = new int[n];
+    long[] bits = new long[words], nextBits = new long[words];
+    int queueSize;
+
+    // Counters filled in by the tasks of a step: the size of the next frontier, the number of
+    // outgoing edges of the next frontier and the number of incoming edges of the nodes visited.
+    final AtomicInteger found = new AtomicInteger();
+    final AtomicLong foundOutEdges = new AtomicLong(), foundInEdges = new AtomicLong();
+
+    int level;
+
+    Run(ForkJoinPool pool) {
+      this.pool = pool;
+      Arrays.fill(dist, -1);
+      Arrays.fill(prev, -1);
+    }
+
+    void solve(int start) {
+      dist[start] = 0;
+      visited.set(start >>> 6, 1L << start);
+      queue[0] = start;
+      queueSize = 1;
+
+      long frontierOutEdges = outDegree(start);
+      long unvisitedInEdges = inOffsets[n] - inDegree(start);
+      int frontierSize = 1, previousSize = 0, steps = 0;
+      boolean bottomUp = false;
+
+      for (level = 0; frontierSize > 0; level++) {
+        if (!bottomUp && frontierOutEdges > unvisitedInEdges / ALPHA) {
+          bottomUp = true;
+          Arrays.fill(bits, 0);
+          for (int i = 0; i < queueSize; i++) bits[queue[i] >>> 6] |= 1L << queue[i];
+        } else if (bottomUp && frontierSize < previousSize && frontierSize < n / BETA) {
+          bottomUp = false;
+          toQueue();
+        }
+
+        found.set(0);
+        foundOutEdges.set(0);
+        foundInEdges.set(0);
+        if (bottomUp) {
+          steps++;
+          pool.invoke(new BottomUp(0, words));
+          long[] tmp = bits;
+          bits = nextBits;
+          nextBits = tmp;
+        } else {
+          pool.invoke(new TopDown(0, queueSize));
+          int[] tmp = queue;
+          queue = nextQueue;
+          nextQueue = tmp;
+          queueSize = found.get();
+        }
+        previousSize = frontierSize;
+        frontierSize = found.get();
+        frontierOutEdges = foundOutEdges.get();
+        unvisitedInEdges -= foundInEdges.get();
+      }
+
+      DirectionOptimizingBfsCsr.this.dist = dist;
+      DirectionOptimizingBfsCsr.this.prev = prev;
+      bottomUpSteps = steps;
+    }
+
+    // Turns the bitset frontier back into a node list.
+    void toQueue() {
+      found.set(0);
+      pool.invoke(new ToQueue(0, words));
+      int[] tmp = queue;
+      queue = nextQueue;
+      nextQueue = tmp;
+      queueSize = found.get();
+    }
+
+    // Atomically marks v as visited, returns false if it already was.
+    boolean claim(int v) {
+      int word = v >>> 6;
+      long bit = 1L << v, current = visited.get(word);
+      while ((current & bit) == 0) {
+        if (visited.compareAndSet(word, current, current | bit)) return true;
+        current = visited.get(word);
+      }
+      return false;
+    }
+
+    int outDegree(int u) {
+      return offsets[u + 1] - offsets[u];
+    }
+
+    int inDegree(int u) {
+      return inOffsets[u + 1] - inOffsets[u];
+    }
+
+    // Appends the nodes found by one task to the next frontier.
+    void addFound(int[] local, int size, long outEdges, long inEdges) {
+      int at = found.getAndAdd(size);
+      System.arraycopy(local, 0, nextQueue, at, size);
+      foundOutEdges.addAndGet(outEdges);
+      foundInEdges.addAndGet(inEdges);
+    }
+
+    // Expands queue[lo, hi) along the outgoing edges.
+    private class TopDown extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      final int lo, hi;
+
+      TopDown(int lo, int hi) {
+        this.lo = lo;
+        this.hi = hi;
+      }
+
+      @Override
+      protected void compute() {
+        if (hi - lo > NODE_CHUNK) {
+          int mid = (lo + hi) >>> 1;
+          invokeAll(new TopDown(lo, mid), new TopDown(mid, hi));
+          return;
+        }
+        int[] local = new int[64];
+        int size = 0;
+        long outEdges = 0, inEdges = 0;
+        for (int i = lo; i < hi; i++) {
+          int u = queue[i];
+          for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+            int v = targets[e];
+            if ((visited.get(v >>> 6) & 1L << v) != 0 || !claim(v)) continue;
+            dist[v] = level + 1;
+            prev[v] = u;
+            if (size == local.length) local = Arrays.copyOf(local, 2 * size);
+            local[size++] = v;
+            outEdges += outDegree(v);
+            inEdges += inDegree(v);
+          }
+        }
+        if (size > 0) addFound(local, size, outEdges, inEdges);
+      }
+    }
+
+    // Looks for a parent in the frontier for every unvisited node in the bitset words [lo, hi).
+    // Each task owns its words, so the visited bits can be set without compare-and-set.
+    private class BottomUp extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      final int lo, hi;
+
+      BottomUp(int lo, int hi) {
+        this.lo = lo;
+        this.hi = hi;
+      }
+
+      @Override
+      protected void compute() {
+        if (hi - lo > WORD_CHUNK) {
+          int mid = (lo + hi) >>> 1;
+          invokeAll(new BottomUp(lo, mid), new BottomUp(mid, hi));
+          return;
+        }
+        int size = 0;
+        long outEdges = 0, inEdges = 0;
+        for (int word = lo; word < hi; word++) {
+          long seen = visited.get(word), next = 0;
+          long unvisited = ~seen;
+          if (word == words - 1 && (n & 63) != 0) unvisited &= (1L << n) - 1;
+          while (unvisited != 0) {
+            int v = (word << 6) | Long.numberOfTrailingZeros(unvisited);
+            unvisited &= unvisited - 1;
+            for (int e = inOffsets[v], end = inOffsets[v + 1]; e < end; e++) {
+              int u = inSources[e];
+              if ((bits[u >>> 6] & 1L << u) == 0) continue;
+              dist[v] = level + 1;
+              prev[v] = u;
+              next |= 1L << v;
+              size++;
+              outEdges += outDegree(v);
+              inEdges += inDegree(v);
+              break;
+            }
+          }
+          nextBits[word] = next;
+          if (next != 0) visited.set(word, seen | next);
+        }
+        found.addAndGet(size);
+        foundOutEdges.addAndGet(outEdges);
+        foundInEdges.addAndGet(inEdges);
+      }
+    }
+
+    // Collects the nodes of the bitset frontier in the words [lo, hi) into the next queue.
+    private class ToQueue extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      final int lo, hi;
+
+      ToQueue(int lo, int hi) {
+        this.lo = lo;
+        this.hi = hi;
+      }
+
+      @Override
+      protected void compute() {
+        if (hi - lo > WORD_CHUNK) {
+          int mid = (lo + hi) >>> 1;
+          invokeAll(new ToQueue(lo, mid), new ToQueue(mid, hi));
+          return;
+        }
+        int size = 0;
+        for (int word = lo; word < hi; word++) size += Long.bitCount(bits[word]);
+        if (size == 0) return;
+        int at = found.getAndAdd(size);
+        for (int word = lo; word < hi; word++) {
+          for (long b = bits[word]; b != 0; b &= b - 1) {
+            nextQueue[at++] = (word << 6) | Long.numberOfTrailingZeros(b);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * An implementation of the eager version of Prim's algorithm on an undirected {@link CsrGraph},
+ * which must store every edge in both directions (see CsrGraph.Builder.addUndirectedEdge). The
+ * indexed priority queue holds, for every node next to the tree, the weight of the cheapest edge
+ * connecting it while the edge itself is tracked in a parallel array of edge indexes.
+ *
+ * <p>Time Complexity: O(ElogV)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import static java.lang.Math.max;
+
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedDoubleDHeap;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+
+public class EagerPrimsCsr {
+
+  private final int n;
+  private final int[] offsets, targets;
+  private final double[] weights;
+
+  private boolean solved, mstExists;
+  private double minCostSum;
+  private int[] mstEdges;
+
+  public EagerPrimsCsr(CsrGraph graph) {
+    if (graph == null || graph.numNodes() == 0) throw new IllegalArgumentException();
+    n = graph.numNodes();
+    offsets = graph.offsets();
+    targets = graph.targets();
+    weights = graph.weights();
+  }
+
+  // Returns the indexes of the edges in the minimum spanning tree, or null if no MST
+  // exists. Use CsrGraph.source(), target() and weight() to look the edges up.
+  public int[] getMst() {
+    solve();
+    return mstExists ? mstEdges : null;
+  }
+
+  public Double getMstCost() {
+    solve();
+    return mstExists ? minCostSum : null;
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+
+    int m = n - 1, edgeCount = 0;
+    boolean[] visited = new boolean[n];
+    int[] bestEdge = new int[n];
+    mstEdges = new int[m];
+
+    int degree = (int) Math.ceil(Math.log(n) / Math.log(2));
+    MinIndexedDoubleDHeap ipq = new MinIndexedDoubleDHeap(max(2, degree), n);
+
+    for (int at = 0; ; ) {
+      visited[at] = true;
+      for (int e = offsets[at], end = offsets[at + 1]; e < end; e++) {
+        int to = targets[e];
+        if (visited[to]) continue;
+        if (!ipq.contains(to)) {
+          ipq.insert(to, weights[e]);
+          bestEdge[to] = e;
+        } else if (weights[e] < ipq.valueOf(to)) {
+          ipq.decrease(to, weights[e]);
+          bestEdge[to] = e;
+        }
+      }
+      if (ipq.isEmpty() || edgeCount == m) break;
+
+      at = ipq.pollMinKeyIndex();
+      mstEdges[edgeCount++] = bestEdge[at];
+      minCostSum += weights[bestEdge[at]];
+    }
+
+    // Verify MST spans entire graph.
+    mstExists = (edgeCount == m);
+  }
+}
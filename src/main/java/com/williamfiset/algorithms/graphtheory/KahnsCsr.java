@@ -0,0 +1,41 @@
+/**
+ * Implementation of Kahn's algorithm to find a topological ordering of a {@link CsrGraph}, see
+ * {@link Kahns} for the list based version. The output array doubles as the queue of nodes with
+ * no incoming edges, since every node enters the queue exactly once.
+ *
+ * <p>Time complexity: O(V+E)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+
+public class KahnsCsr {
+
+  // Given an acyclic graph return a topological ordering on the nodes of the graph.
+  // Throws an IllegalArgumentException if the graph contains a cycle.
+  public int[] kahns(CsrGraph g) {
+    int n = g.numNodes();
+    int[] offsets = g.offsets(), targets = g.targets();
+
+    // Calculate the in-degree of each node.
+    int[] inDegree = new int[n];
+    for (int to : targets) inDegree[to]++;
+
+    // order[head..tail) holds the nodes with no incoming edges left to process.
+    int[] order = new int[n];
+    int head = 0, tail = 0;
+    for (int i = 0; i < n; i++) if (inDegree[i] == 0) order[tail++] = i;
+
+    while (head < tail) {
+      int at = order[head++];
+      for (int e = offsets[at], end = offsets[at + 1]; e < end; e++) {
+        if (--inDegree[targets[e]] == 0) order[tail++] = targets[e];
+      }
+    }
+
+    if (tail != n) throw new IllegalArgumentException("Graph is not acyclic! Detected a cycle.");
+    return order;
+  }
+}
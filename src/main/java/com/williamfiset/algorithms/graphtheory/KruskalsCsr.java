@@ -0,0 +1,124 @@
+/**
+ * An implementation of Kruskal's MST algorithm on an undirected {@link CsrGraph}, which must store
+ * every edge in both directions (see CsrGraph.Builder.addUndirectedEdge). Only one direction of
+ * every edge is considered, and the edges are sorted as an array of edge indexes keyed by their
+ * weights so no edge objects are created.
+ *
+ * <p>Time Complexity: O(ElogE)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+
+public class KruskalsCsr {
+
+  private final CsrGraph graph;
+
+  private boolean solved, mstExists;
+  private double minCostSum;
+  private int[] mstEdges;
+
+  public KruskalsCsr(CsrGraph graph) {
+    if (graph == null || graph.numNodes() == 0) throw new IllegalArgumentException();
+    this.graph = graph;
+  }
+
+  // Returns the indexes of the edges in the minimum spanning tree, or null if no MST
+  // exists. Use CsrGraph.source(), target() and weight() to look the edges up.
+  public int[] getMst() {
+    solve();
+    return mstExists ? mstEdges : null;
+  }
+
+  public Double getMstCost() {
+    solve();
+    return mstExists ? minCostSum : null;
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+
+    int n = graph.numNodes();
+    int[] offsets = graph.offsets(), targets = graph.targets();
+    double[] weights = graph.weights();
+
+    // Keep each undirected edge once, as the direction going from the smaller node
+    // (self loops can never be part of the MST).
+    int[] edges = new int[graph.numEdges()], sources = new int[graph.numEdges()];
+    int count = 0;
+    for (int u = 0; u < n; u++) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        if (u < targets[e]) {
+          sources[count] = u;
+          edges[count++] = e;
+        }
+      }
+    }
+
+    // Sort positions into 'edges' rather than the edge indexes themselves to keep track of
+    // the source of each edge without a binary search.
+    int[] order = new int[count];
+    double[] keys = new double[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+      keys[i] = weights[edges[i]];
+    }
+    sort(order, keys, 0, count - 1);
+
+    KruskalsEdgeList.UnionFind uf = new KruskalsEdgeList.UnionFind(n);
+    int m = n - 1, edgeCount = 0;
+    mstEdges = new int[m];
+    for (int i = 0; i < count && edgeCount < m; i++) {
+      int j = order[i], e = edges[j];
+      if (uf.connected(sources[j], targets[e])) continue;
+      uf.union(sources[j], targets[e]);
+      mstEdges[edgeCount++] = e;
+      minCostSum += weights[e];
+    }
+
+    mstExists = (edgeCount == m);
+  }
+
+  // Sorts order[lo..hi] by keys[order[i]], a quicksort with a median of three pivot
+  // falling back to insertion sort on small ranges.
+  private static void sort(int[] order, double[] keys, int lo, int hi) {
+    while (hi - lo > 16) {
+      int mid = (lo + hi) >>> 1;
+      if (keys[order[mid]] < keys[order[lo]]) swap(order, lo, mid);
+      if (keys[order[hi]] < keys[order[lo]]) swap(order, lo, hi);
+      if (keys[order[hi]] < keys[order[mid]]) swap(order, mid, hi);
+      double pivot = keys[order[mid]];
+
+      int i = lo, j = hi;
+      while (i <= j) {
+        while (keys[order[i]] < pivot) i++;
+        while (keys[order[j]] > pivot) j--;
+        if (i <= j) swap(order, i++, j--);
+      }
+
+      // Recurse into the smaller half to bound the recursion depth by O(log(E)).
+      if (j - lo < hi - i) {
+        sort(order, keys, lo, j);
+        lo = i;
+      } else {
+        sort(order, keys, i, hi);
+        hi = j;
+      }
+    }
+    for (int i = lo + 1; i <= hi; i++) {
+      int x = order[i];
+      int j = i - 1;
+      for (; j >= lo && keys[order[j]] > keys[x]; j--) order[j + 1] = order[j];
+      order[j + 1] = x;
+    }
+  }
+
+  private static void swap(int[] a, int i, int j) {
+    int tmp = a[i];
+    a[i] = a[j];
+    a[j] = tmp;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * An implementation of Tarjan's Strongly Connected Components algorithm on a {@link CsrGraph}.
+ *
+ * <p>Unlike {@link TarjanSccSolverAdjacencyList} the DFS is iterative: the call stack is replaced
+ * by an explicit stack of nodes and the next edge to explore at each of them. Graphs with millions
+ * of nodes can have paths far deeper than the JVM's thread stack allows for recursion.
+ *
+ * <p>Time complexity: O(V+E)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import static java.lang.Math.min;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+
+public class TarjanSccSolverCsr {
+
+  private final int n;
+  private final int[] offsets, targets;
+
+  private boolean solved;
+  private int sccCount;
+  private int[] sccs;
+
+  private static final int UNVISITED = -1;
+
+  public TarjanSccSolverCsr(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    n = graph.numNodes();
+    offsets = graph.offsets();
+    targets = graph.targets();
+  }
+
+  // Returns the number of strongly connected components in the graph.
+  public int sccCount() {
+    if (!solved) solve();
+    return sccCount;
+  }
+
+  // Get the connected components of this graph. If two indexes
+  // have the same value then they're in the same SCC.
+  public int[] getSccs() {
+    if (!solved) solve();
+    return sccs;
+  }
+
+  public void solve() {
+    if (solved) return;
+
+    int[] ids = new int[n], low = new int[n];
+    boolean[] onStack = new boolean[n];
+    sccs = new int[n];
+    Arrays.fill(ids, UNVISITED);
+
+    // 'stack' holds the nodes of the SCCs being built, 'callStack' and 'nextEdge' replace
+    // the recursion of the DFS.
+    int[] stack = new int[n], callStack = new int[n], nextEdge = new int[n];
+    int stackSize = 0, id = 0;
+
+    for (int i = 0; i < n; i++) {
+      if (ids[i] != UNVISITED) continue;
+
+      int depth = 0;
+      callStack[depth] = i;
+      nextEdge[depth++] = offsets[i];
+      ids[i] = low[i] = id++;
+      stack[stackSize++] = i;
+      onStack[i] = true;
+
+      while (depth > 0) {
+        int at = callStack[depth - 1];
+        int e = nextEdge[depth - 1];
+
+        if (e < offsets[at + 1]) {
+          nextEdge[depth - 1] = e + 1;
+          int to = targets[e];
+          if (ids[to] == UNVISITED) {
+            // "Recurse" into 'to'.
+            ids[to] = low[to] = id++;
+            stack[stackSize++] = to;
+            onStack[to] = true;
+            callStack[depth] = to;
+            nextEdge[depth++] = offsets[to];
+          } else if (onStack[to]) {
+            low[at] = min(low[at], ids[to]);
+          }
+          continue;
+        }
+
+        // All edges of 'at' are explored, if it's the root of an SCC pop the SCC off the stack.
+        if (ids[at] == low[at]) {
+          while (true) {
+            int node = stack[--stackSize];
+            onStack[node] = false;
+            sccs[node] = sccCount;
+            if (node == at) break;
+          }
+          sccCount++;
+        }
+
+        // "Return" to the parent and propagate the low-link value.
+        if (--depth > 0) {
+          int parent = callStack[depth - 1];
+          low[parent] = min(low[parent], low[at]);
+        }
+      }
+    }
+
+    solved = true;
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * A flow network solver base which stores the residual graph in arrays of primitives instead of
+ * {@link Edge} objects. Adding an edge only appends to a few arrays, and before solving the
+ * residual graph is built in compressed sparse row (CSR) form: the edges out of node u, including
+ * the residual edges, are the indexes start[u] to start[u + 1] - 1 of the arrays 'to', 'capacity',
+ * 'flow' and 'cost', and rev[e] is the index of the residual edge of e.
+ *
+ * <p>Solving allocates no objects per edge, which keeps the garbage collector out of the way on
+ * graphs with millions of edges, and the edges out of a node are read sequentially from memory
+ * instead of by following references.
+ *
+ * <p>{@link #getGraph()} still returns the graph as lists of {@link Edge} objects, built from the
+ * arrays when it is called.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+import java.util.List;
+
+public abstract class ArrayNetworkFlowSolverBase extends NetworkFlowSolverBase {
+
+  private static final int DEFAULT_EDGE_CAPACITY = 16;
+
+  // The edges in the order they were added, until the residual graph is built.
+  private int[] edgeFrom, edgeTo;
+  private long[] edgeCapacity, edgeCost;
+  private int numEdges;
+
+  // The residual graph in CSR form, see above. 'cost' is null if no edge has a cost.
+  protected int[] start, to, rev;
+  protected long[] capacity, flow, cost;
+
+  // The index in the residual graph of each edge, in the order the edges were added.
+  protected int[] edgeIndex;
+
+  // Whether the lists of 'graph' match the arrays.
+  private boolean graphBuilt;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public ArrayNetworkFlowSolverBase(int n, int s, int t) {
+    super(n, s, t);
+    edgeFrom = new int[DEFAULT_EDGE_CAPACITY];
+    edgeTo = new int[DEFAULT_EDGE_CAPACITY];
+    edgeCapacity = new long[DEFAULT_EDGE_CAPACITY];
+  }
+
+  // The edge lists are only built when getGraph() is called.
+  @Override
+  protected void initializeGraph() {}
+
+  @Override
+  public void addEdge(int from, int to, long capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity < 0");
+    add(from, to, capacity, 0);
+  }
+
+  @Override
+  public void addEdge(int from, int to, long capacity, long cost) {
+    if (start == null && edgeCost == null) edgeCost = new long[edgeCapacity.length];
+    add(from, to, capacity, cost);
+  }
+
+  // Returns the number of edges added, not counting the residual edges.
+  public int numEdges() {
+    return numEdges;
+  }
+
+  private void add(int from, int to, long capacity, long cost) {
+    if (start != null) throw new IllegalStateException("Edges cannot be added after solving");
+    if (numEdges == edgeFrom.length) {
+      int size = 2 * numEdges;
+      edgeFrom = Arrays.copyOf(edgeFrom, size);
+      edgeTo = Arrays.copyOf(edgeTo, size);
+      edgeCapacity = Arrays.copyOf(edgeCapacity, size);
+      if (edgeCost != null) edgeCost = Arrays.copyOf(edgeCost, size);
+    }
+    edgeFrom[numEdges] = from;
+    edgeTo[numEdges] = to;
+    edgeCapacity[numEdges] = capacity;
+    if (edgeCost != null) edgeCost[numEdges] = cost;
+    numEdges++;
+  }
+
+  // Builds the residual graph from the edges added, keeping the edges out of each node in the
+  // order they were added. Solvers call this first, it does nothing the second time.
+  protected void buildResidualGraph() {
+    if (start != null) return;
+    int m = 2 * numEdges;
+    start = new int[n + 1];
+    for (int k = 0; k < numEdges; k++) {
+      start[edgeFrom[k] + 1]++;
+      start[edgeTo[k] + 1]++;
+    }
+    for (int i = 0; i < n; i++) start[i + 1] += start[i];
+
+    int[] end = Arrays.copyOf(start, n);
+    to = new int[m];
+    rev = new int[m];
+    capacity = new long[m];
+    flow = new long[m];
+    if (edgeCost != null) cost = new long[m];
+    edgeIndex = new int[numEdges];
+    for (int k = 0; k < numEdges; k++) {
+      int e1 = end[edgeFrom[k]]++;
+      int e2 = end[edgeTo[k]]++;
+      to[e1] = edgeTo[k];
+      to[e2] = edgeFrom[k];
+      rev[e1] = e2;
+      rev[e2] = e1;
+      capacity[e1] = edgeCapacity[k];
+      if (cost != null) {
+        cost[e1] = edgeCost[k];
+        cost[e2] = -edgeCost[k];
+      }
+      edgeIndex[k] = e1;
+    }
+    edgeFrom = edgeTo = null;
+    edgeCapacity = edgeCost = null;
+  }
+
+  protected long remainingCapacity(int e) {
+    return capacity[e] - flow[e];
+  }
+
+  protected void augment(int e, long bottleNeck) {
+    flow[e] += bottleNeck;
+    flow[rev[e]] -= bottleNeck;
+  }
+
+  // Marks the edge lists as out of date after the flow or the capacities changed.
+  protected void invalidateGraph() {
+    graphBuilt = false;
+  }
+
+  // Changes the capacity of an edge, in the order the edges were added, before the residual graph
+  // is built.
+  protected void setAddedCapacity(int edge, long capacity) {
+    if (start != null) throw new IllegalStateException("The residual graph is already built");
+    edgeCapacity[edge] = capacity;
+  }
+
+  /**
+   * Returns the graph after the solver has been executed, as lists of {@link Edge} objects in the
+   * order the edges were added. The edges are copies: changing them does not affect the solver.
+   */
+  @Override
+  public List<Edge>[] getGraph() {
+    super.getGraph();
+    if (!graphBuilt) {
+      super.initializeGraph();
+      for (int k = 0; k < numEdges; k++) {
+        int e = edgeIndex[k], r = rev[e];
+        long c = cost == null ? 0 : cost[e];
+        Edge e1 = new Edge(to[r], to[e], capacity[e], c);
+        Edge e2 = new Edge(to[e], to[r], capacity[r], -c);
+        e1.flow = flow[e];
+        e2.flow = flow[r];
+        e1.residual = e2;
+        e2.residual = e1;
+        graph[to[r]].add(e1);
+        graph[to[e]].add(e2);
+      }
+      graphBuilt = true;
+    }
+    return graph;
+  }
+}
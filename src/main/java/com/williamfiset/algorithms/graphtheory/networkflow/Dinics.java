@@ -1,6 +1,8 @@
 /**
  * Implementation of Dinic's network flow algorithm. The algorithm works by first constructing a
  * level graph using a BFS and then finding augmenting paths on the level graph using multiple DFSs.
+ * The residual graph is stored in arrays, see {@link ArrayNetworkFlowSolverBase}, and the max flow
+ * can be updated after changing capacities, see {@link IncrementalMaxFlowSolverBase}.
  *
  * <p>Run script:
  *
@@ -16,7 +18,7 @@ import static java.lang.Math.min;
 
 import java.util.*;
 
-public class Dinics extends NetworkFlowSolverBase {
+public class Dinics extends IncrementalMaxFlowSolverBase {
 
   private int[] level;
 
@@ -35,14 +37,17 @@ public class Dinics extends NetworkFlowSolverBase {
 
   @Override
   public void solve() {
-    // next[i] indicates the next unused edge index in the adjacency list for node i. This is part
-    // of the Shimon Even and Alon Itai optimization of pruning deads ends as part of the DFS phase.
-    int[] next = new int[n];
+    buildResidualGraph();
 
-    while (bfs()) {
-      Arrays.fill(next, 0);
+    // current[i] indicates the next unused edge out of node i. This is part of the Shimon Even and
+    // Alon Itai optimization of pruning deads ends as part of the DFS phase.
+    int[] current = new int[n];
+    int[] queue = new int[n];
+
+    while (bfs(queue)) {
+      System.arraycopy(start, 0, current, 0, n);
       // Find max flow by adding all augmenting path flows.
-      for (long f = dfs(s, next, INF); f != 0; f = dfs(s, next, INF)) {
+      for (long f = dfs(s, current, INF); f != 0; f = dfs(s, current, INF)) {
         maxFlow += f;
       }
     }
@@ -52,36 +57,34 @@ public class Dinics extends NetworkFlowSolverBase {
 
   // Do a BFS from source to sink and compute the depth/level of each node
   // which is the minimum number of edges from that node to the source.
-  private boolean bfs() {
+  private boolean bfs(int[] queue) {
     Arrays.fill(level, -1);
     level[s] = 0;
-    Deque<Integer> q = new ArrayDeque<>(n);
-    q.offer(s);
-    while (!q.isEmpty()) {
-      int node = q.poll();
-      for (Edge edge : graph[node]) {
-        long cap = edge.remainingCapacity();
-        if (cap > 0 && level[edge.to] == -1) {
-          level[edge.to] = level[node] + 1;
-          q.offer(edge.to);
+    int front = 0, back = 0;
+    queue[back++] = s;
+    while (front < back) {
+      int node = queue[front++];
+      for (int e = start[node]; e < start[node + 1]; e++) {
+        if (remainingCapacity(e) > 0 && level[to[e]] == -1) {
+          level[to[e]] = level[node] + 1;
+          queue[back++] = to[e];
         }
       }
     }
     return level[t] != -1;
   }
 
-  private long dfs(int at, int[] next, long flow) {
+  private long dfs(int at, int[] current, long flow) {
     if (at == t) return flow;
-    final int numEdges = graph[at].size();
 
-    for (; next[at] < numEdges; next[at]++) {
-      Edge edge = graph[at].get(next[at]);
-      long cap = edge.remainingCapacity();
-      if (cap > 0 && level[edge.to] == level[at] + 1) {
+    for (; current[at] < start[at + 1]; current[at]++) {
+      int e = current[at];
+      long cap = remainingCapacity(e);
+      if (cap > 0 && level[to[e]] == level[at] + 1) {
 
-        long bottleNeck = dfs(edge.to, next, min(flow, cap));
+        long bottleNeck = dfs(to[e], current, min(flow, cap));
         if (bottleNeck > 0) {
-          edge.augment(bottleNeck);
+          augment(e, bottleNeck);
           return bottleNeck;
         }
       }
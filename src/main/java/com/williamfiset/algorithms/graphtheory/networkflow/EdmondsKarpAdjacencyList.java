@@ -1,7 +1,9 @@
 /**
  * An implementation of the Edmonds-Karp algorithm which is essentially Ford-Fulkerson with a BFS as
  * a method of finding augmenting paths. This Edmonds-Karp algorithm will allow you to find the max
- * flow through a directed graph and the min cut as a byproduct.
+ * flow through a directed graph and the min cut as a byproduct. The residual graph is stored in
+ * arrays, see {@link ArrayNetworkFlowSolverBase}, and the max flow can be updated after changing
+ * capacities, see {@link IncrementalMaxFlowSolverBase}.
  *
  * <p>Time Complexity: O(VE^2)
  *
@@ -13,7 +15,7 @@ import static java.lang.Math.min;
 
 import java.util.*;
 
-public class EdmondsKarpAdjacencyList extends NetworkFlowSolverBase {
+public class EdmondsKarpAdjacencyList extends IncrementalMaxFlowSolverBase {
 
   /**
    * Creates an instance of a flow network solver. Use the {@link #addEdge(int, int, int)} method to
@@ -30,50 +32,52 @@ public class EdmondsKarpAdjacencyList extends NetworkFlowSolverBase {
   // Run Edmonds-Karp and compute the max flow from the source to the sink node.
   @Override
   public void solve() {
+    buildResidualGraph();
+
+    // prev[i] is the edge used to reach node i in the last BFS, queue is the BFS queue.
+    int[] prev = new int[n];
+    int[] queue = new int[n];
     long flow;
     do {
       markAllNodesAsUnvisited();
-      flow = bfs();
+      flow = bfs(prev, queue);
       maxFlow += flow;
     } while (flow != 0);
 
     for (int i = 0; i < n; i++) if (visited(i)) minCut[i] = true;
   }
 
-  private long bfs() {
-    Edge[] prev = new Edge[n];
-
-    // The queue can be optimized to use a faster queue
-    Queue<Integer> q = new ArrayDeque<>(n);
+  private long bfs(int[] prev, int[] queue) {
+    Arrays.fill(prev, -1);
+    int front = 0, back = 0;
     visit(s);
-    q.offer(s);
+    queue[back++] = s;
 
     // Perform BFS from source to sink
-    while (!q.isEmpty()) {
-      int node = q.poll();
+    while (front < back) {
+      int node = queue[front++];
       if (node == t) break;
 
-      for (Edge edge : graph[node]) {
-        long cap = edge.remainingCapacity();
-        if (cap > 0 && !visited(edge.to)) {
-          visit(edge.to);
-          prev[edge.to] = edge;
-          q.offer(edge.to);
+      for (int e = start[node]; e < start[node + 1]; e++) {
+        if (remainingCapacity(e) > 0 && !visited(to[e])) {
+          visit(to[e]);
+          prev[to[e]] = e;
+          queue[back++] = to[e];
         }
       }
     }
 
     // Sink not reachable!
-    if (prev[t] == null) return 0;
+    if (prev[t] == -1) return 0;
 
     long bottleNeck = Long.MAX_VALUE;
 
-    // Find augmented path and bottle neck
-    for (Edge edge = prev[t]; edge != null; edge = prev[edge.from])
-      bottleNeck = min(bottleNeck, edge.remainingCapacity());
+    // Find augmented path and bottle neck, the residual edge rev[e] points back to where e starts.
+    for (int e = prev[t]; e != -1; e = prev[to[rev[e]]])
+      bottleNeck = min(bottleNeck, remainingCapacity(e));
 
     // Retrace augmented path and update flow values.
-    for (Edge edge = prev[t]; edge != null; edge = prev[edge.from]) edge.augment(bottleNeck);
+    for (int e = prev[t]; e != -1; e = prev[to[rev[e]]]) augment(e, bottleNeck);
 
     // Return bottleneck flow
     return bottleNeck;
@@ -0,0 +1,336 @@
+/**
+ * A max flow solver base on top of {@link ArrayNetworkFlowSolverBase} for the solvers whose flow
+ * can be updated incrementally. Min cost flow solvers share the same residual graph but cannot
+ * keep their flow optimal this way, so they extend {@link ArrayNetworkFlowSolverBase} directly.
+ *
+ * <p>After solving, capacities can be changed with {@link #updateCapacity} and the max flow found
+ * again with {@link #resolve()}, starting from the current flow instead of from zero. The nodes on
+ * the source side of the min cut are kept as a tree of residual edges rooted at the source (like
+ * the search trees of the Boykov-Kolmogorov algorithm), so that after a change only the nodes
+ * whose path to the source was cut and the nodes newly reachable are searched, not the whole
+ * graph.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+public abstract class IncrementalMaxFlowSolverBase extends ArrayNetworkFlowSolverBase {
+
+  // The state of incremental updates, created by the first update. parent[v] is the residual edge
+  // into v in the tree of nodes reachable from the source (the nodes of 'minCut'), -1 for the
+  // source and the nodes outside of the tree, or ORPHAN for a node whose parent edge was cut.
+  private static final int ORPHAN = -2;
+  private int[] parent;
+  // The flow into each node minus the flow out of it, other than the source and sink, left by
+  // lowering capacities below the flow.
+  private long[] excess;
+  // rooted[v] == round when v was found connected to the source in the current round of orphans.
+  private int[] rooted;
+  private int round;
+  private NodeQueue orphans, active, unbalanced;
+  // The edge used to reach each node in the last repair search.
+  private int[] searchEdge, searchQueue, seen;
+  private int searchToken;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public IncrementalMaxFlowSolverBase(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  /**
+   * Changes the capacity of an edge. If the network was already solved, the flow on the edge is
+   * lowered to the new capacity if needed and {@link #resolve()} finds the max flow again.
+   *
+   * @param edge - The index of the edge in the order the edges were added, starting at 0.
+   * @param capacity - The new capacity of the edge.
+   */
+  public void updateCapacity(int edge, long capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity < 0");
+    if (edge < 0 || edge >= numEdges()) throw new IllegalArgumentException("Invalid edge: " + edge);
+    if (start == null) {
+      setAddedCapacity(edge, capacity);
+      return;
+    }
+    startIncremental();
+    int e = edgeIndex[edge];
+    this.capacity[e] = capacity;
+    if (flow[e] > capacity) {
+      // Send the flow above the capacity back, it is routed elsewhere by resolve().
+      long over = flow[e] - capacity;
+      push(rev[e], over);
+      addExcess(to[rev[e]], over);
+      addExcess(to[e], -over);
+    }
+    residualChanged(e);
+    residualChanged(rev[e]);
+    invalidateGraph();
+  }
+
+  /**
+   * Finds the max flow after capacities were changed with {@link #updateCapacity}, keeping as much
+   * of the current flow as possible. The min cut and the graph are updated as well.
+   *
+   * @return the new max flow.
+   */
+  public long resolve() {
+    if (start == null) return getMaxFlow();
+    startIncremental();
+
+    // Route the excess of the nodes which receive more flow than they send to the sink, the
+    // source or a node which sends more than it receives, then fix the remaining nodes which send
+    // more than they receive with flow from the source or the sink. Both searches always succeed
+    // because the flow which has to be moved came from or goes to one of these nodes.
+    for (int i = unbalanced.size(); i > 0; i--) {
+      int u = unbalanced.poll();
+      while (excess[u] > 0) routeExcess(u);
+      if (excess[u] < 0) unbalanced.add(u);
+    }
+    while (!unbalanced.isEmpty()) {
+      int v = unbalanced.poll();
+      while (excess[v] < 0) routeDeficit(v);
+    }
+
+    processOrphans();
+    grow();
+    invalidateGraph();
+    return maxFlow;
+  }
+
+  // Builds the tree of nodes reachable from the source the first time the network is updated.
+  private void startIncremental() {
+    if (parent != null) return;
+    parent = new int[n];
+    excess = new long[n];
+    rooted = new int[n];
+    orphans = new NodeQueue(n);
+    active = new NodeQueue(n);
+    unbalanced = new NodeQueue(n);
+    searchEdge = new int[n];
+    searchQueue = new int[n];
+    seen = new int[n];
+
+    Arrays.fill(parent, -1);
+    Arrays.fill(minCut, false);
+    minCut[s] = true;
+    int head = 0, tail = 0;
+    searchQueue[tail++] = s;
+    while (head < tail) {
+      int u = searchQueue[head++];
+      for (int e = start[u]; e < start[u + 1]; e++) {
+        if (remainingCapacity(e) > 0 && !minCut[to[e]]) {
+          minCut[to[e]] = true;
+          parent[to[e]] = e;
+          searchQueue[tail++] = to[e];
+        }
+      }
+    }
+  }
+
+  private void addExcess(int u, long amount) {
+    if (u == s || u == t) return;
+    excess[u] += amount;
+    unbalanced.add(u);
+  }
+
+  // Moves 'amount' units of flow along the residual edge e, keeping the flow value and the tree up
+  // to date.
+  private void push(int e, long amount) {
+    augment(e, amount);
+    if (to[e] == t) maxFlow += amount;
+    if (to[rev[e]] == t) maxFlow -= amount;
+    residualChanged(e);
+    residualChanged(rev[e]);
+  }
+
+  // Updates the tree after the remaining capacity of edge e changed: a saturated tree edge cuts its
+  // node from the tree, and an edge leaving the tree may reach new nodes.
+  private void residualChanged(int e) {
+    int u = to[rev[e]], v = to[e];
+    if (remainingCapacity(e) == 0) {
+      if (parent[v] == e) orphan(v);
+    } else if (minCut[u] && !minCut[v]) {
+      active.add(u);
+    }
+  }
+
+  private void orphan(int v) {
+    parent[v] = ORPHAN;
+    orphans.add(v);
+  }
+
+  // Sends as much of the excess of u as possible along a shortest residual path to the source, the
+  // sink or a node missing flow.
+  private void routeExcess(int u) {
+    int w = search(u, true);
+    long amount = excess[u];
+    if (w != s && w != t) amount = min(amount, -excess[w]);
+    for (int v = w; v != u; v = to[rev[searchEdge[v]]]) {
+      amount = min(amount, remainingCapacity(searchEdge[v]));
+    }
+    for (int v = w; v != u; ) {
+      int e = searchEdge[v];
+      v = to[rev[e]];
+      push(e, amount);
+    }
+    excess[u] -= amount;
+    if (w != s && w != t) excess[w] += amount;
+  }
+
+  // Brings as much of the flow missing at v as possible along a shortest residual path from the
+  // source or the sink.
+  private void routeDeficit(int v) {
+    int w = search(v, false);
+    long amount = -excess[v];
+    for (int u = w; u != v; u = to[searchEdge[u]]) {
+      amount = min(amount, remainingCapacity(searchEdge[u]));
+    }
+    for (int u = w; u != v; ) {
+      int e = searchEdge[u];
+      u = to[e];
+      push(e, amount);
+    }
+    excess[v] += amount;
+  }
+
+  // Searches the residual graph from u, forwards for a node which can take flow or backwards for a
+  // node which can give flow, and returns it. searchEdge[] holds the path.
+  private int search(int u, boolean forward) {
+    searchToken++;
+    int head = 0, tail = 0;
+    searchQueue[tail++] = u;
+    seen[u] = searchToken;
+    while (head < tail) {
+      int v = searchQueue[head++];
+      for (int e = start[v]; e < start[v + 1]; e++) {
+        int w = to[e];
+        int edge = forward ? e : rev[e];
+        if (seen[w] == searchToken || remainingCapacity(edge) == 0) continue;
+        seen[w] = searchToken;
+        searchEdge[w] = edge;
+        if (w == s || w == t || (forward && excess[w] < 0)) return w;
+        searchQueue[tail++] = w;
+      }
+    }
+    throw new IllegalStateException("The flow cannot be repaired");
+  }
+
+  // Reconnects the orphans to the tree through other residual edges, or removes them from the tree
+  // along with their subtree.
+  private void processOrphans() {
+    round++;
+    while (!orphans.isEmpty()) {
+      int w = orphans.poll();
+      int newParent = -1;
+      for (int e = start[w]; e < start[w + 1] && newParent == -1; e++) {
+        int p = to[e];
+        if (minCut[p] && remainingCapacity(rev[e]) > 0 && connected(p)) newParent = rev[e];
+      }
+      if (newParent != -1) {
+        parent[w] = newParent;
+        rooted[w] = round;
+        continue;
+      }
+      minCut[w] = false;
+      parent[w] = -1;
+      for (int e = start[w]; e < start[w + 1]; e++) {
+        int p = to[e];
+        if (!minCut[p]) continue;
+        if (parent[p] == e) orphan(p);
+        // p may reach w again once it is reconnected.
+        if (remainingCapacity(rev[e]) > 0) active.add(p);
+      }
+    }
+  }
+
+  // Returns whether the path of tree edges from p reaches the source without going through an
+  // orphan, remembering the nodes found connected in this round.
+  private boolean connected(int p) {
+    for (int v = p; v != s && rooted[v] != round; v = to[rev[parent[v]]]) {
+      if (parent[v] == ORPHAN) return false;
+    }
+    for (int v = p; v != s && rooted[v] != round; v = to[rev[parent[v]]]) rooted[v] = round;
+    return true;
+  }
+
+  // Grows the tree from the active nodes. Reaching the sink gives an augmenting path, which is
+  // saturated before growing on.
+  private void grow() {
+    while (!active.isEmpty()) {
+      int u = active.poll();
+      int e = start[u];
+      while (minCut[u] && e < start[u + 1]) {
+        int v = to[e];
+        if (remainingCapacity(e) == 0 || (v != t && minCut[v])) {
+          e++;
+        } else if (v == t) {
+          augmentToSink(e);
+          processOrphans();
+        } else {
+          minCut[v] = true;
+          parent[v] = e;
+          active.add(v);
+          e++;
+        }
+      }
+    }
+  }
+
+  // Augments along the tree path from the source to the start of edge e, then e into the sink.
+  private void augmentToSink(int e) {
+    long bottleNeck = remainingCapacity(e);
+    for (int v = to[rev[e]]; v != s; v = to[rev[parent[v]]]) {
+      bottleNeck = min(bottleNeck, remainingCapacity(parent[v]));
+    }
+    push(e, bottleNeck);
+    for (int v = to[rev[e]]; v != s; ) {
+      int p = parent[v];
+      v = to[rev[p]];
+      push(p, bottleNeck);
+    }
+  }
+
+  // A FIFO queue of nodes which ignores nodes already in it.
+  private static class NodeQueue {
+    private final int[] nodes;
+    private final boolean[] queued;
+    private int head, size;
+
+    NodeQueue(int n) {
+      nodes = new int[n];
+      queued = new boolean[n];
+    }
+
+    int size() {
+      return size;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void add(int v) {
+      if (queued[v]) return;
+      queued[v] = true;
+      nodes[(head + size++) % nodes.length] = v;
+    }
+
+    int poll() {
+      int v = nodes[head];
+      head = (head + 1) % nodes.length;
+      size--;
+      queued[v] = false;
+      return v;
+    }
+  }
+}
@@ -0,0 +1,310 @@
+/**
+ * Implementation of the Hopcroft-Karp algorithm to find the Maximum Cardinality Bipartite Matching
+ * (MCBM) on a bipartite graph stored in a {@link CsrGraph}. Like {@link
+ * MaximumCardinalityBipartiteMatchingAugmentingPathAdjacencyList}, the nodes [0, n) are in the
+ * left set and [n, n + m) in the right set, and only the edges leaving the left nodes are used.
+ *
+ * <p>Instead of looking for one augmenting path at a time, every phase of the algorithm:
+ *
+ * <p>- Runs a BFS from all the free left nodes at once, which splits the left nodes into layers
+ * by the length of the shortest alternating path reaching them, and stops at the first layer
+ * where a free right node is found.
+ *
+ * <p>- Runs a DFS from every free left node along the layers, which augments the matching along
+ * a maximal set of node disjoint shortest augmenting paths. Nodes found not to lead to a free
+ * right node are removed from the layers, so every edge is followed at most once per phase.
+ *
+ * <p>Only O(sqrt(V)) phases are needed. The DFS is iterative, so paths through millions of nodes
+ * do not overflow the stack. The matching can be seeded with a greedy matching, which matches
+ * every left node to its free neighbour with the fewest edges. It usually matches most of the
+ * nodes in two passes over the edges and leaves fewer and shorter phases to run. The greedy pass
+ * can also run in parallel, with every right node claimed with compare-and-set.
+ *
+ * <p>Time Complexity: O(E * sqrt(V))
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class MaximumCardinalityBipartiteMatchingHopcroftKarpCsr {
+
+  // How the matching is seeded before the first phase.
+  public enum Initialization {
+    NONE,
+    GREEDY,
+    PARALLEL_GREEDY
+  }
+
+  private static final int FREE = -1, INF = Integer.MAX_VALUE;
+
+  // The parallel greedy pass splits the left nodes into chunks of this many nodes.
+  private static final int NODE_CHUNK = 4096;
+
+  private final int n, m;
+  private final int[] offsets, targets;
+  private final Initialization initialization;
+
+  // The right node (in [0, m)) matched to each left node and the left node matched to each right
+  // node, or FREE.
+  private int[] matchLeft, matchRight;
+  // The BFS layer of each left node, and the layer at which the first free right node was found.
+  private int[] layer;
+  private int freeLayer;
+  // The next edge to follow out of each left node in the DFS.
+  private int[] current;
+  private int[] queue, stack;
+
+  private boolean solved;
+  private int matches, initialMatches, phases;
+
+  /**
+   * Creates a matcher which seeds the matching with a greedy pass.
+   *
+   * @param graph - A graph with the edges from the left nodes to the right nodes.
+   * @param n - The number of nodes in the left set [0, n).
+   * @param m - The number of nodes in the right set [n, n + m).
+   */
+  public MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(CsrGraph graph, int n, int m) {
+    this(graph, n, m, Initialization.GREEDY);
+  }
+
+  /**
+   * Creates a matcher using the given way of seeding the matching.
+   *
+   * @param graph - A graph with the edges from the left nodes to the right nodes.
+   * @param n - The number of nodes in the left set [0, n).
+   * @param m - The number of nodes in the right set [n, n + m).
+   * @param initialization - NONE, GREEDY or PARALLEL_GREEDY.
+   */
+  public MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(
+      CsrGraph graph, int n, int m, Initialization initialization) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    if (initialization == null)
+      throw new IllegalArgumentException("initialization cannot be null");
+    if (n < 0 || m < 0 || graph.numNodes() != n + m)
+      throw new IllegalArgumentException(
+          "The graph must have n + m nodes; received n = " + n + ", m = " + m);
+    this.n = n;
+    this.m = m;
+    this.offsets = graph.offsets();
+    this.targets = graph.targets();
+    this.initialization = initialization;
+    for (int e = offsets[0]; e < offsets[n]; e++) {
+      if (targets[e] < n)
+        throw new IllegalArgumentException("Edge between two left nodes: " + graph.source(e));
+    }
+  }
+
+  // Returns the size of the maximum matching.
+  public int getMaxMatching() {
+    solve();
+    return matches;
+  }
+
+  // Returns the node in [n, n + m) matched to each left node, or -1 for the unmatched nodes.
+  public int[] getMatching() {
+    solve();
+    int[] matching = new int[n];
+    for (int u = 0; u < n; u++) matching[u] = matchLeft[u] == FREE ? FREE : n + matchLeft[u];
+    return matching;
+  }
+
+  // Returns the number of matches found by the greedy initialization.
+  public int getInitialMatches() {
+    solve();
+    return initialMatches;
+  }
+
+  // Returns the number of BFS/DFS phases which were run.
+  public int getPhases() {
+    solve();
+    return phases;
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+
+    matchLeft = new int[n];
+    matchRight = new int[m];
+    Arrays.fill(matchLeft, FREE);
+    Arrays.fill(matchRight, FREE);
+    if (initialization == Initialization.GREEDY) greedy();
+    else if (initialization == Initialization.PARALLEL_GREEDY) parallelGreedy();
+    matches = initialMatches;
+
+    layer = new int[n];
+    current = new int[n];
+    queue = new int[n];
+    stack = new int[n];
+    while (bfs()) {
+      phases++;
+      System.arraycopy(offsets, 0, current, 0, n);
+      for (int u = 0; u < n; u++) {
+        if (matchLeft[u] == FREE && dfs(u)) matches++;
+      }
+    }
+    layer = current = queue = stack = null;
+  }
+
+  // Matches every left node to its free neighbour with the fewest edges, which leaves the right
+  // nodes with more edges to the left nodes after it.
+  private void greedy() {
+    int[] degree = new int[m];
+    for (int e = offsets[0]; e < offsets[n]; e++) degree[targets[e] - n]++;
+    for (int u = 0; u < n; u++) {
+      int best = FREE;
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int v = targets[e] - n;
+        if (matchRight[v] == FREE && (best == FREE || degree[v] < degree[best])) best = v;
+      }
+      if (best != FREE) {
+        matchRight[best] = u;
+        matchLeft[u] = best;
+        initialMatches++;
+      }
+    }
+  }
+
+  // The greedy matching with the left nodes split between threads. A left node which loses the
+  // right node it picked to another thread tries its other neighbours in order of degree.
+  private void parallelGreedy() {
+    AtomicIntegerArray degree = new AtomicIntegerArray(m);
+    AtomicIntegerArray claimed = new AtomicIntegerArray(m);
+    for (int v = 0; v < m; v++) claimed.lazySet(v, FREE);
+    ForkJoinPool.commonPool().invoke(new GreedyTask(degree, claimed, 0, n, true));
+    ForkJoinPool.commonPool().invoke(new GreedyTask(degree, claimed, 0, n, false));
+    for (int v = 0; v < m; v++) matchRight[v] = claimed.get(v);
+    for (int u = 0; u < n; u++) if (matchLeft[u] != FREE) initialMatches++;
+  }
+
+  // Layers the left nodes by their distance to a free left node along alternating paths, and
+  // returns whether a free right node can be reached.
+  private boolean bfs() {
+    int head = 0, tail = 0;
+    for (int u = 0; u < n; u++) {
+      if (matchLeft[u] == FREE) {
+        layer[u] = 0;
+        queue[tail++] = u;
+      } else {
+        layer[u] = INF;
+      }
+    }
+    freeLayer = INF;
+    while (head < tail) {
+      int u = queue[head++];
+      // Nothing past the layer of the first free right node is needed.
+      if (layer[u] >= freeLayer) break;
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int w = matchRight[targets[e] - n];
+        if (w == FREE) {
+          if (freeLayer == INF) freeLayer = layer[u] + 1;
+        } else if (layer[w] == INF) {
+          layer[w] = layer[u] + 1;
+          queue[tail++] = w;
+        }
+      }
+    }
+    return freeLayer != INF;
+  }
+
+  // Looks for a shortest augmenting path from the free left node 'root' along the layers, and
+  // flips the matching along it if one is found. The stack holds the left nodes of the path, and
+  // current[u] is the edge taken out of each of them.
+  private boolean dfs(int root) {
+    int top = 0;
+    stack[0] = root;
+    while (top >= 0) {
+      int u = stack[top];
+      if (current[u] == offsets[u + 1]) {
+        // Dead end, remove u from the layers and try the next edge of its parent.
+        layer[u] = INF;
+        if (--top >= 0) current[stack[top]]++;
+        continue;
+      }
+      int w = matchRight[targets[current[u]] - n];
+      if (w == FREE) {
+        if (layer[u] + 1 == freeLayer) {
+          for (int i = top; i >= 0; i--) {
+            int x = stack[i], v = targets[current[x]] - n;
+            matchLeft[x] = v;
+            matchRight[v] = x;
+          }
+          return true;
+        }
+        current[u]++;
+      } else if (layer[w] == layer[u] + 1) {
+        stack[++top] = w;
+      } else {
+        current[u]++;
+      }
+    }
+    return false;
+  }
+
+  // Counts the degrees of the right nodes, or greedily matches the left nodes [lo, hi) to the
+  // right nodes they manage to claim first.
+  private class GreedyTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    final AtomicIntegerArray degree, claimed;
+    final int lo, hi;
+    final boolean countDegrees;
+
+    GreedyTask(
+        AtomicIntegerArray degree,
+        AtomicIntegerArray claimed,
+        int lo,
+        int hi,
+        boolean countDegrees) {
+      this.degree = degree;
+      this.claimed = claimed;
+      this.lo = lo;
+      this.hi = hi;
+      this.countDegrees = countDegrees;
+    }
+
+    @Override
+    protected void compute() {
+      if (hi - lo > NODE_CHUNK) {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(
+            new GreedyTask(degree, claimed, lo, mid, countDegrees),
+            new GreedyTask(degree, claimed, mid, hi, countDegrees));
+        return;
+      }
+      for (int u = lo; u < hi; u++) {
+        if (countDegrees) {
+          for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            degree.getAndIncrement(targets[e] - n);
+          }
+        } else {
+          claim(u);
+        }
+      }
+    }
+
+    void claim(int u) {
+      while (true) {
+        int best = FREE;
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+          int v = targets[e] - n;
+          if (claimed.get(v) == FREE && (best == FREE || degree.get(v) < degree.get(best))) {
+            best = v;
+          }
+        }
+        if (best == FREE) return;
+        if (claimed.compareAndSet(best, FREE, u)) {
+          matchLeft[u] = best;
+          return;
+        }
+      }
+    }
+  }
+}
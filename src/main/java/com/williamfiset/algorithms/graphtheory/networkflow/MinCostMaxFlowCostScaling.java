@@ -0,0 +1,221 @@
+/**
+ * Min cost max flow implementation using the cost scaling algorithm of Goldberg and Tarjan. A max
+ * flow is found first with {@link Dinics} on a copy of the network, then its cost is lowered
+ * without changing its value. The residual graph is stored in arrays, see {@link
+ * ArrayNetworkFlowSolverBase}.
+ *
+ * <p>Every node has a price p(u), and the reduced cost of an edge is c(u, v) + p(u) - p(v). A flow
+ * is ε-optimal if no edge with remaining capacity has a reduced cost below -ε. Each refine step
+ * divides ε and saturates every edge whose reduced cost is negative, which leaves some nodes with
+ * more flow coming in than going out. That excess is then pushed along edges with a negative
+ * reduced cost like in push-relabel max flow, and a node with excess but no such edge has its
+ * price lowered ("relabel"). With the costs multiplied by n + 1, the flow is optimal once ε = 1.
+ *
+ * <p>Like the global relabeling of push-relabel max flow, a global price update is done at the
+ * start of every refine step and after every n relabels: a Dijkstra search from the nodes missing
+ * flow finds how many multiples of ε each price can drop by while keeping the flow ε-optimal,
+ * which opens paths of admissible edges from the nodes with excess to them.
+ *
+ * <p>Unlike the augmenting path algorithms, the number of steps does not depend on the amount of
+ * flow, which makes it a good fit for transport problems with large capacities. All the arrays are
+ * allocated once and reused by every refine step.
+ *
+ * <p>Time Complexity: O(V^3 * log(VC)) where C is the largest edge cost
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedLongDHeap;
+
+public class MinCostMaxFlowCostScaling extends ArrayNetworkFlowSolverBase {
+
+  // How much ε is divided by in every refine step.
+  private static final int SCALE_FACTOR = 16;
+
+  private long[] price, excess;
+  // The next edge to try to push flow along out of each node.
+  private int[] current;
+  // The queue of nodes with excess.
+  private int[] queue;
+  private boolean[] inQueue;
+  private int queueHead, queueSize;
+  // The edge costs are multiplied by costScale = n + 1.
+  private long costScale;
+
+  // The distances in multiples of ε of the global price update, and the relabels since the last.
+  private long[] distance;
+  private boolean[] settled;
+  private MinIndexedLongDHeap pq;
+  private int relabels;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link NetworkFlowSolverBase#addEdge}
+   * method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public MinCostMaxFlowCostScaling(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  @Override
+  public void solve() {
+    buildResidualGraph();
+    findMaxFlow();
+    if (cost == null) return;
+
+    price = new long[n];
+    excess = new long[n];
+    current = new int[n];
+    queue = new int[n];
+    inQueue = new boolean[n];
+    costScale = n + 1;
+    distance = new long[n];
+    settled = new boolean[n];
+    pq = new MinIndexedLongDHeap(4, n);
+
+    long epsilon = 1;
+    for (long c : cost) epsilon = max(epsilon, Math.abs(c) * costScale);
+    do {
+      epsilon = max(1, epsilon / SCALE_FACTOR);
+      refine(epsilon);
+    } while (epsilon > 1);
+
+    for (int e : edgeIndex) minCost += flow[e] * cost[e];
+  }
+
+  // Finds a max flow and the min cut with Dinic's algorithm on a copy of the network without the
+  // costs, then applies its flow to this network. Both build their residual graph from the same
+  // edges in the same order.
+  private void findMaxFlow() {
+    Dinics dinics = new Dinics(n, s, t);
+    for (int e : edgeIndex) dinics.addEdge(to[rev[e]], to[e], capacity[e]);
+    maxFlow = dinics.getMaxFlow();
+    for (int k = 0; k < edgeIndex.length; k++) {
+      augment(edgeIndex[k], dinics.flow[dinics.edgeIndex[k]]);
+    }
+    System.arraycopy(dinics.getMinCut(), 0, minCut, 0, n);
+  }
+
+  private long reducedCost(int u, int e) {
+    return cost[e] * costScale + price[u] - price[to[e]];
+  }
+
+  // Turns the ε * SCALE_FACTOR optimal flow into an ε-optimal flow of the same value.
+  private void refine(long epsilon) {
+    for (int u = 0; u < n; u++) {
+      for (int e = start[u]; e < start[u + 1]; e++) {
+        long cap = remainingCapacity(e);
+        if (cap > 0 && reducedCost(u, e) < 0) {
+          augment(e, cap);
+          excess[u] -= cap;
+          excess[to[e]] += cap;
+        }
+      }
+    }
+    for (int u = 0; u < n; u++) if (excess[u] > 0) enqueue(u);
+    updatePrices(epsilon);
+    while (queueSize > 0) {
+      if (relabels > n) updatePrices(epsilon);
+      int u = queue[queueHead];
+      queueHead = (queueHead + 1) % n;
+      queueSize--;
+      inQueue[u] = false;
+      discharge(u, epsilon);
+    }
+  }
+
+  // Pushes the excess of u along edges with a negative reduced cost, lowering the price of u when
+  // there are none left.
+  private void discharge(int u, long epsilon) {
+    while (excess[u] > 0) {
+      if (current[u] == start[u + 1]) {
+        relabel(u, epsilon);
+        continue;
+      }
+      int e = current[u];
+      long cap = remainingCapacity(e);
+      if (cap > 0 && reducedCost(u, e) < 0) {
+        int v = to[e];
+        long pushed = min(excess[u], cap);
+        augment(e, pushed);
+        excess[u] -= pushed;
+        excess[v] += pushed;
+        if (excess[v] > 0) enqueue(v);
+      } else {
+        current[u]++;
+      }
+    }
+  }
+
+  // Lowers the price of u as much as possible while keeping every reduced cost out of u at least
+  // -ε, which makes the edges reaching the max admissible.
+  private void relabel(int u, long epsilon) {
+    relabels++;
+    long best = Long.MIN_VALUE;
+    int bestEdge = start[u];
+    for (int e = start[u]; e < start[u + 1]; e++) {
+      if (remainingCapacity(e) > 0) {
+        long p = price[to[e]] - cost[e] * costScale;
+        if (p > best) {
+          best = p;
+          bestEdge = e;
+        }
+      }
+    }
+    price[u] = best - epsilon;
+    current[u] = bestEdge;
+  }
+
+  // Lowers the price of every node by ε times its distance to the nearest node with a deficit, in
+  // the residual graph where an edge costs floor(reducedCost / ε) + 1 >= 0. The search stops once
+  // every node with excess is reached, and the nodes left get the last distance settled.
+  private void updatePrices(long epsilon) {
+    relabels = 0;
+    int remaining = 0;
+    for (int u = 0; u < n; u++) {
+      settled[u] = false;
+      distance[u] = Long.MAX_VALUE;
+      if (excess[u] > 0) remaining++;
+      if (excess[u] < 0) {
+        distance[u] = 0;
+        pq.insert(u, 0);
+      }
+    }
+    long d = 0;
+    while (remaining > 0 && !pq.isEmpty()) {
+      int v = pq.pollMinKeyIndex();
+      settled[v] = true;
+      d = distance[v];
+      if (excess[v] > 0) remaining--;
+      // Follow the edges into v which have remaining capacity.
+      for (int e = start[v]; e < start[v + 1]; e++) {
+        int u = to[e], r = rev[e];
+        if (settled[u] || remainingCapacity(r) == 0) continue;
+        long newDistance = d + Math.floorDiv(reducedCost(u, r), epsilon) + 1;
+        if (newDistance < distance[u]) {
+          if (distance[u] == Long.MAX_VALUE) pq.insert(u, newDistance);
+          else pq.decrease(u, newDistance);
+          distance[u] = newDistance;
+        }
+      }
+    }
+    pq.clear();
+    for (int u = 0; u < n; u++) {
+      price[u] -= epsilon * (settled[u] ? distance[u] : d);
+      current[u] = start[u];
+    }
+  }
+
+  private void enqueue(int u) {
+    if (inQueue[u]) return;
+    inQueue[u] = true;
+    queue[(queueHead + queueSize++) % n] = u;
+  }
+}
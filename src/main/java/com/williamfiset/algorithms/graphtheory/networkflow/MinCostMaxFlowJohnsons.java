@@ -1,6 +1,8 @@
 /**
  * Min cost max flow implementation using Johnson's algorithm (initial Bellman- Ford + subsequent
- * Dijkstra runs) as a method of finding augmenting paths.
+ * Dijkstra runs) as a method of finding augmenting paths. The residual graph is stored in arrays,
+ * see {@link ArrayNetworkFlowSolverBase}, and Dijkstra's algorithm uses an indexed heap of
+ * primitives.
  *
  * <p>Tested against: - https://open.kattis.com/problems/mincostmaxflow -
  * https://open.kattis.com/problems/jobpostings
@@ -13,9 +15,18 @@ package com.williamfiset.algorithms.graphtheory.networkflow;
 
 import static java.lang.Math.min;
 
+import com.williamfiset.algorithms.datastructures.priorityqueue.MinIndexedLongDHeap;
 import java.util.*;
 
-public class MinCostMaxFlowJohnsons extends NetworkFlowSolverBase {
+public class MinCostMaxFlowJohnsons extends ArrayNetworkFlowSolverBase {
+
+  // The cost of each edge adjusted to be non-negative, and the original cost of each edge.
+  private long[] adjustedCost, originalCost;
+
+  // The shortest path distances and the edge used to reach each node in the last Dijkstra run.
+  private long[] dist;
+  private int[] prev;
+  private MinIndexedLongDHeap pq;
 
   /**
    * Creates an instance of a flow network solver. Use the {@link NetworkFlowSolverBase#addEdge}
@@ -30,28 +41,34 @@ public class MinCostMaxFlowJohnsons extends NetworkFlowSolverBase {
   }
 
   private void init() {
-    long[] dist = new long[n];
+    buildResidualGraph();
+    originalCost = cost == null ? new long[to.length] : cost;
+    adjustedCost = originalCost.clone();
+    dist = new long[n];
+    prev = new int[n];
+    pq = new MinIndexedLongDHeap(4, n);
+
     Arrays.fill(dist, INF);
     dist[s] = 0;
 
     // Run Bellman-Ford algorithm to get the optimal distance to each node, O(VE)
     for (int i = 0; i < n - 1; i++)
-      for (List<Edge> edges : graph)
-        for (Edge edge : edges)
-          if (edge.remainingCapacity() > 0 && dist[edge.from] + edge.cost < dist[edge.to])
-            dist[edge.to] = dist[edge.from] + edge.cost;
+      for (int from = 0; from < n; from++)
+        for (int e = start[from]; e < start[from + 1]; e++)
+          if (remainingCapacity(e) > 0 && dist[from] + adjustedCost[e] < dist[to[e]])
+            dist[to[e]] = dist[from] + adjustedCost[e];
 
-    adjustEdgeCosts(dist);
+    adjustEdgeCosts();
   }
 
   // Adjust edge costs to be non-negative for Dijkstra's algorithm, O(E)
-  private void adjustEdgeCosts(long[] dist) {
+  private void adjustEdgeCosts() {
     for (int from = 0; from < n; from++) {
-      for (Edge edge : graph[from]) {
-        if (edge.remainingCapacity() > 0) {
-          edge.cost += dist[from] - dist[edge.to];
+      for (int e = start[from]; e < start[from + 1]; e++) {
+        if (remainingCapacity(e) > 0) {
+          adjustedCost[e] += dist[from] - dist[to[e]];
         } else {
-          edge.cost = 0;
+          adjustedCost[e] = 0;
         }
       }
     }
@@ -62,78 +79,56 @@ public class MinCostMaxFlowJohnsons extends NetworkFlowSolverBase {
     init();
 
     // Sum up the bottlenecks on each augmenting path to find the max flow and min cost.
-    List<Edge> path;
-    while ((path = getAugmentingPath()).size() != 0) {
+    while (findAugmentingPath()) {
 
-      // Find bottle neck edge value along path.
+      // Find bottle neck edge value along path, the residual edge rev[e] points back to where e
+      // starts.
       long bottleNeck = Long.MAX_VALUE;
-      for (Edge edge : path) bottleNeck = min(bottleNeck, edge.remainingCapacity());
+      for (int e = prev[t]; e != -1; e = prev[to[rev[e]]])
+        bottleNeck = min(bottleNeck, remainingCapacity(e));
 
       // Retrace path while augmenting the flow
-      for (Edge edge : path) {
-        edge.augment(bottleNeck);
-        minCost += bottleNeck * edge.originalCost;
+      for (int e = prev[t]; e != -1; e = prev[to[rev[e]]]) {
+        augment(e, bottleNeck);
+        minCost += bottleNeck * originalCost[e];
       }
       maxFlow += bottleNeck;
     }
   }
 
   // Finds an augmenting path from the source node to the sink using Johnson's
-  // shortest path algorithm. First, Bellman-Ford was ran to get the shortest
-  // path from the source to every node, and then the graph was cost adjusted
-  // to remove negative edge weights so that Dijkstra's can be used in
-  // subsequent runs for improved time complexity.
-  private List<Edge> getAugmentingPath() {
-
-    class Node implements Comparable<Node> {
-      int id;
-      long value;
-
-      public Node(int id, long value) {
-        this.id = id;
-        this.value = value;
-      }
-
-      @Override
-      public int compareTo(Node other) {
-        return (int) (value - other.value);
-      }
-    }
-
-    long[] dist = new long[n];
+  // shortest path algorithm, leaving it in 'prev'. First, Bellman-Ford was ran
+  // to get the shortest path from the source to every node, and then the graph
+  // was cost adjusted to remove negative edge weights so that Dijkstra's can be
+  // used in subsequent runs for improved time complexity.
+  private boolean findAugmentingPath() {
     Arrays.fill(dist, INF);
+    Arrays.fill(prev, -1);
     dist[s] = 0;
 
     markAllNodesAsUnvisited();
-    Edge[] prev = new Edge[n];
-
-    PriorityQueue<Node> pq = new PriorityQueue<>();
-    pq.offer(new Node(s, 0));
+    pq.insert(s, 0);
 
     // Run Dijkstra's to find augmenting path.
     while (!pq.isEmpty()) {
-      Node node = pq.poll();
-      visit(node.id);
-      if (dist[node.id] < node.value) continue;
-      List<Edge> edges = graph[node.id];
-      for (int i = 0; i < edges.size(); i++) {
-        Edge edge = edges.get(i);
-        if (visited(edge.to)) continue;
-        long newDist = dist[edge.from] + edge.cost;
-        if (edge.remainingCapacity() > 0 && newDist < dist[edge.to]) {
-          prev[edge.to] = edge;
-          dist[edge.to] = newDist;
-          pq.offer(new Node(edge.to, dist[edge.to]));
+      int node = pq.pollMinKeyIndex();
+      visit(node);
+      for (int e = start[node]; e < start[node + 1]; e++) {
+        int v = to[e];
+        if (visited(v)) continue;
+        long newDist = dist[node] + adjustedCost[e];
+        if (remainingCapacity(e) > 0 && newDist < dist[v]) {
+          prev[v] = e;
+          dist[v] = newDist;
+          if (pq.contains(v)) pq.decrease(v, newDist);
+          else pq.insert(v, newDist);
         }
       }
     }
 
-    LinkedList<Edge> path = new LinkedList<>();
-    if (dist[t] == INF) return path;
-
-    adjustEdgeCosts(dist);
+    if (dist[t] == INF) return false;
 
-    for (Edge edge = prev[t]; edge != null; edge = prev[edge.from]) path.addFirst(edge);
-    return path;
+    adjustEdgeCosts();
+    return true;
   }
 }
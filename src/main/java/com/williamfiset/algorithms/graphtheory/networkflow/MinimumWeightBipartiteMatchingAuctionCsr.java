@@ -0,0 +1,258 @@
+/**
+ * Implementation of the auction algorithm of Bertsekas for sparse assignment problems: given a
+ * bipartite graph stored in a {@link CsrGraph} with n left nodes [0, n) (persons) and n right nodes
+ * [n, 2n) (objects), and a cost on every edge, match every person to a different object
+ * minimizing the total cost. Like {@link MaximumCardinalityBipartiteMatchingHopcroftKarpCsr}, only
+ * the edges leaving the left nodes are used, and only the edges present can be matched, so the
+ * graph does not need to be anywhere near complete like the matrix of {@link
+ * MinimumWeightBipartiteMatchingHungarian}.
+ *
+ * <p>Every object has a price, and every unassigned person bids for the object with the lowest
+ * cost plus price, raising its price by the difference with the second best object plus ε. The
+ * object goes to the highest bidder, and the person it was assigned to becomes unassigned. A
+ * round lets all the unassigned persons bid at once (Jacobi auction), so their bids are computed
+ * in parallel on the common ForkJoinPool. The bids are then resolved sequentially in a fixed
+ * order, so the result does not depend on the number of threads. ε is scaled down from the cost
+ * range until it reaches the requested precision, keeping the prices between scaling phases.
+ *
+ * <p>Once every person is assigned, the total cost is within n * ε of the optimum, so integer
+ * costs give an optimal matching with the default ε = 1 / (n + 1). The graph must contain a
+ * perfect matching or the auction would never end, which is checked with Hopcroft-Karp.
+ *
+ * <p>Time Complexity: O(n * E * log(nC)) where C is the largest cost, usually much less.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MinimumWeightBipartiteMatchingAuctionCsr {
+
+  private static final int FREE = -1;
+
+  // How much ε is divided by in every scaling phase.
+  private static final int SCALE_FACTOR = 8;
+
+  // The bids are computed by tasks of this many persons, and a round with fewer bidders does not
+  // use the pool.
+  private static final int NODE_CHUNK = 1024;
+
+  // Inputs
+  private final int n;
+  private final int[] offsets, targets;
+  private final double[] cost;
+  private final double finalEpsilon;
+
+  // Internal
+  private boolean solved;
+  private double[] price;
+  // The edge each person is assigned along, and the person each object is assigned to.
+  private int[] assigned, owner;
+  // The unassigned persons, and the edge and price of the bid of each of them this round.
+  private int[] unassigned, nextUnassigned;
+  private int numUnassigned;
+  private int[] bidEdge;
+  private double[] bidPrice;
+  // The highest bid for each object this round, and the round it was made in.
+  private double[] highestBid;
+  private int[] highestBidder, bidRound;
+  private double epsilon, costRange;
+
+  // Outputs
+  private double minWeightCost;
+  private int[] matching;
+  private int rounds;
+
+  /**
+   * Creates a solver which finds an optimal matching for integer costs.
+   *
+   * @param graph - A graph with 2n nodes and a weight on every edge from a left node to a right
+   *     node.
+   * @param n - The number of persons [0, n) and of objects [n, 2n).
+   */
+  public MinimumWeightBipartiteMatchingAuctionCsr(CsrGraph graph, int n) {
+    this(graph, n, 1.0 / (n + 1));
+  }
+
+  /**
+   * Creates a solver which finds a matching within n * epsilon of the minimum cost.
+   *
+   * @param graph - A graph with 2n nodes and a weight on every edge from a left node to a right
+   *     node.
+   * @param n - The number of persons [0, n) and of objects [n, 2n).
+   * @param epsilon - The final value of ε, epsilon > 0.
+   */
+  public MinimumWeightBipartiteMatchingAuctionCsr(CsrGraph graph, int n, double epsilon) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null.");
+    if (n < 0 || graph.numNodes() != 2 * n)
+      throw new IllegalArgumentException("The graph must have 2n nodes; received n = " + n);
+    if (!(epsilon > 0)) throw new IllegalArgumentException("epsilon must be positive: " + epsilon);
+    this.n = n;
+    this.offsets = graph.offsets();
+    this.targets = graph.targets();
+    this.cost = graph.weights();
+    this.finalEpsilon = epsilon;
+    for (int e = offsets[0]; e < offsets[n]; e++) {
+      if (Double.isNaN(cost[e]) || Double.isInfinite(cost[e]))
+        throw new IllegalArgumentException("Costs must be finite: " + cost[e]);
+    }
+    // Also rejects the edges between two left nodes.
+    if (new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(graph, n, n).getMaxMatching() < n)
+      throw new IllegalArgumentException("The graph has no perfect matching");
+  }
+
+  public double getMinWeightCost() {
+    solve();
+    return minWeightCost;
+  }
+
+  // Returns the node in [n, 2n) matched to each left node.
+  public int[] getMatching() {
+    solve();
+    return matching;
+  }
+
+  // Returns the number of bidding rounds of all the scaling phases.
+  public int getRounds() {
+    solve();
+    return rounds;
+  }
+
+  public void solve() {
+    if (solved) return;
+
+    price = new double[n];
+    assigned = new int[n];
+    owner = new int[n];
+    unassigned = new int[n];
+    nextUnassigned = new int[n];
+    bidEdge = new int[n];
+    bidPrice = new double[n];
+    highestBid = new double[n];
+    highestBidder = new int[n];
+    bidRound = new int[n];
+    Arrays.fill(bidRound, -1);
+
+    double minCost = 0, maxCost = 0;
+    for (int e = offsets[0]; e < offsets[n]; e++) {
+      minCost = Math.min(minCost, cost[e]);
+      maxCost = Math.max(maxCost, cost[e]);
+    }
+    costRange = maxCost - minCost;
+
+    epsilon = Math.max(costRange, finalEpsilon);
+    do {
+      epsilon = Math.max(finalEpsilon, epsilon / SCALE_FACTOR);
+      auction();
+    } while (epsilon > finalEpsilon);
+
+    matching = new int[n];
+    minWeightCost = 0;
+    for (int u = 0; u < n; u++) {
+      matching[u] = targets[assigned[u]];
+      minWeightCost += cost[assigned[u]];
+    }
+    price = highestBid = bidPrice = null;
+    owner = unassigned = nextUnassigned = bidEdge = highestBidder = bidRound = null;
+    solved = true;
+  }
+
+  // Runs bidding rounds from an empty assignment until every person is assigned, which leaves an
+  // ε-optimal matching.
+  private void auction() {
+    Arrays.fill(assigned, FREE);
+    Arrays.fill(owner, FREE);
+    for (int u = 0; u < n; u++) unassigned[u] = u;
+    numUnassigned = n;
+
+    while (numUnassigned > 0) {
+      if (numUnassigned > NODE_CHUNK) {
+        ForkJoinPool.commonPool().invoke(new BidTask(0, numUnassigned));
+      } else {
+        bid(0, numUnassigned);
+      }
+
+      // Find the highest bid for every object, the first bidder in the list winning ties.
+      for (int i = 0; i < numUnassigned; i++) {
+        int u = unassigned[i], v = targets[bidEdge[u]] - n;
+        if (bidRound[v] != rounds || bidPrice[u] > highestBid[v]) {
+          bidRound[v] = rounds;
+          highestBid[v] = bidPrice[u];
+          highestBidder[v] = u;
+        }
+      }
+
+      // Assign the objects to their highest bidders, and collect the persons left unassigned.
+      int next = 0;
+      for (int i = 0; i < numUnassigned; i++) {
+        int u = unassigned[i], v = targets[bidEdge[u]] - n;
+        if (highestBidder[v] != u) {
+          nextUnassigned[next++] = u;
+          continue;
+        }
+        if (owner[v] != FREE) {
+          assigned[owner[v]] = FREE;
+          nextUnassigned[next++] = owner[v];
+        }
+        owner[v] = u;
+        assigned[u] = bidEdge[u];
+        price[v] = highestBid[v];
+      }
+      int[] tmp = unassigned;
+      unassigned = nextUnassigned;
+      nextUnassigned = tmp;
+      numUnassigned = next;
+      rounds++;
+    }
+  }
+
+  // Computes the bids of the unassigned persons [lo, hi).
+  private void bid(int lo, int hi) {
+    for (int i = lo; i < hi; i++) {
+      int u = unassigned[i];
+      // The lowest and second lowest cost plus price over the objects of u.
+      double best = Double.POSITIVE_INFINITY, second = Double.POSITIVE_INFINITY;
+      int bestEdge = FREE;
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int v = targets[e] - n;
+        double w = cost[e] + price[v];
+        if (w < best) {
+          if (bestEdge == FREE || targets[bestEdge] != targets[e]) second = best;
+          best = w;
+          bestEdge = e;
+        } else if (w < second && targets[e] != targets[bestEdge]) {
+          second = w;
+        }
+      }
+      // With a single object, any raise keeps u happy with it.
+      if (second == Double.POSITIVE_INFINITY) second = best + costRange;
+      bidEdge[u] = bestEdge;
+      bidPrice[u] = price[targets[bestEdge] - n] + second - best + epsilon;
+    }
+  }
+
+  private class BidTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    final int lo, hi;
+
+    BidTask(int lo, int hi) {
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    @Override
+    protected void compute() {
+      if (hi - lo > NODE_CHUNK) {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new BidTask(lo, mid), new BidTask(mid, hi));
+        return;
+      }
+      bid(lo, hi);
+    }
+  }
+}
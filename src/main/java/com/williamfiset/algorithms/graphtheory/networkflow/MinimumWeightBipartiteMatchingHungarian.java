@@ -0,0 +1,178 @@
+/**
+ * Implementation of the Hungarian algorithm (Kuhn-Munkres, in its shortest augmenting path form)
+ * for the assignment problem: given a dense n x m cost matrix with n <= m, assign every row
+ * (worker) to a different column (task) minimizing the total cost. Unlike {@link
+ * com.williamfiset.algorithms.dp.MinimumWeightPerfectMatching}, which pairs up the nodes of a
+ * general graph with a bitmask DP and stops at about 20 nodes, this only handles bipartite
+ * matchings but runs in polynomial time and handles thousands of rows.
+ *
+ * <p>The rows are added one at a time. Every row added runs a Dijkstra search over the columns
+ * using the reduced costs cost[i][j] - u[i] - v[j], which the row potentials u and column
+ * potentials v keep non negative, until it reaches a free column. The matching is flipped along
+ * the shortest alternating path found, and the potentials are moved so the edges of the path have
+ * a reduced cost of 0. The search keeps a single array of distances indexed by column and reads
+ * one row of the matrix per column reached, so no graph is built. For square matrices, the
+ * column reduction of Jonker and Volgenant first matches many rows without a search.
+ *
+ * <p>Time Complexity: O(n^2 * m), O(n^3) for a square matrix
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+
+public class MinimumWeightBipartiteMatchingHungarian {
+
+  // Inputs
+  private final int n, m;
+  private final double[][] cost;
+
+  // Internal
+  private boolean solved;
+
+  // Outputs
+  private double minWeightCost;
+  private int[] matching;
+
+  /**
+   * Creates a solver for the assignment problem with the given cost matrix.
+   *
+   * @param cost - An n x m matrix, n <= m, where cost[i][j] is the cost of assigning row i to
+   *     column j.
+   */
+  public MinimumWeightBipartiteMatchingHungarian(double[][] cost) {
+    if (cost == null) throw new IllegalArgumentException("Input cannot be null");
+    n = cost.length;
+    m = n == 0 ? 0 : cost[0].length;
+    if (n > m)
+      throw new IllegalArgumentException("Matrix has more rows than columns: " + n + " > " + m);
+    for (double[] row : cost) {
+      if (row == null || row.length != m)
+        throw new IllegalArgumentException("All the rows must have the same length");
+      for (double c : row) {
+        if (Double.isNaN(c) || Double.isInfinite(c))
+          throw new IllegalArgumentException("Costs must be finite: " + c);
+      }
+    }
+    this.cost = cost;
+  }
+
+  public double getMinWeightCost() {
+    solve();
+    return minWeightCost;
+  }
+
+  // Returns the column assigned to each row.
+  public int[] getMatching() {
+    solve();
+    return matching;
+  }
+
+  public void solve() {
+    if (solved) return;
+
+    // The potentials of the rows and columns. Column m is a virtual column holding the row being
+    // added, so that a search starts from it.
+    double[] u = new double[n], v = new double[m + 1];
+    // The row matched to each column or -1, and the column before each column on the shortest
+    // alternating path to it.
+    int[] rowOf = new int[m + 1], previous = new int[m + 1];
+    // The shortest distance from the row being added to every column.
+    double[] minDist = new double[m + 1];
+    // The columns reached by the search, then the others.
+    int[] columns = new int[m + 1];
+    Arrays.fill(rowOf, -1);
+
+    boolean[] matched = new boolean[n];
+    if (n == m) reduceColumns(v, rowOf, matched);
+
+    for (int row = 0; row < n; row++) {
+      if (matched[row]) continue;
+      rowOf[m] = row;
+      for (int j = 0; j <= m; j++) columns[j] = j;
+      Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+
+      // Swap the virtual column to the front, as the first column reached.
+      columns[0] = m;
+      columns[m] = 0;
+      minDist[m] = 0;
+      int reached = 1, j0 = m;
+      double dist = 0;
+      while (rowOf[j0] != -1) {
+        // Relax the edges of the row matched to the last column reached, and reach the closest
+        // column.
+        int i0 = rowOf[j0];
+        double[] costs = cost[i0];
+        double base = dist - u[i0];
+        dist = Double.POSITIVE_INFINITY;
+        int best = -1;
+        for (int k = reached; k <= m; k++) {
+          int j = columns[k];
+          double d = base + costs[j] - v[j];
+          if (d < minDist[j]) {
+            minDist[j] = d;
+            previous[j] = j0;
+          }
+          if (minDist[j] < dist) {
+            dist = minDist[j];
+            best = k;
+          }
+        }
+        j0 = columns[best];
+        columns[best] = columns[reached];
+        columns[reached++] = j0;
+      }
+
+      // Move the potentials of the columns reached before the free column j0 (and of their rows)
+      // so every edge on a shortest path has a reduced cost of 0.
+      for (int k = 0; k < reached - 1; k++) {
+        int j = columns[k];
+        double d = dist - minDist[j];
+        u[rowOf[j]] += d;
+        v[j] -= d;
+      }
+
+      // Flip the matching along the path to j0.
+      while (j0 != m) {
+        int j1 = previous[j0];
+        rowOf[j0] = rowOf[j1];
+        j0 = j1;
+      }
+    }
+
+    matching = new int[n];
+    minWeightCost = 0;
+    for (int j = 0; j < m; j++) {
+      if (rowOf[j] != -1) {
+        matching[rowOf[j]] = j;
+        minWeightCost += cost[rowOf[j]][j];
+      }
+    }
+    solved = true;
+  }
+
+  // Sets the potential of every column of a square matrix to its smallest cost, and matches each
+  // column to the row of its smallest cost if that row is still free. Those edges have a reduced
+  // cost of 0, so the rows matched this way do not need a search. With a rectangular matrix the
+  // columns left free must keep a potential of 0, so this is skipped.
+  private void reduceColumns(double[] v, int[] rowOf, boolean[] matched) {
+    int[] argMin = new int[m];
+    Arrays.fill(v, 0, m, Double.POSITIVE_INFINITY);
+    for (int i = 0; i < n; i++) {
+      double[] costs = cost[i];
+      for (int j = 0; j < m; j++) {
+        if (costs[j] < v[j]) {
+          v[j] = costs[j];
+          argMin[j] = i;
+        }
+      }
+    }
+    for (int j = 0; j < m; j++) {
+      if (!matched[argMin[j]]) {
+        matched[argMin[j]] = true;
+        rowOf[j] = argMin[j];
+      }
+    }
+  }
+}
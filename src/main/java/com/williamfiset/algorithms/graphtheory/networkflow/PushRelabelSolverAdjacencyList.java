@@ -0,0 +1,305 @@
+/**
+ * Implementation of the push-relabel (preflow-push) max flow algorithm of Goldberg and Tarjan.
+ * Instead of finding augmenting paths from the source to the sink, it floods the network: every
+ * edge out of the source is saturated, and nodes with an excess of incoming flow push it along
+ * admissible edges towards the sink, guided by a distance label which estimates each node's
+ * distance to the sink. A node with excess but no admissible edge is relabeled (its label is
+ * raised). Active nodes are processed in FIFO order or highest label first.
+ *
+ * <p>Two heuristics make push-relabel fast in practice:
+ *
+ * <p>- Global relabeling: the labels are periodically reset to the exact distances to the sink
+ * with a backwards BFS in the residual graph.
+ *
+ * <p>- Gap heuristic: when no node is left with some label k < n, the nodes with labels above k
+ * can no longer reach the sink, so they are lifted to n at once.
+ *
+ * <p>The solver runs in two phases. The first phase only moves flow towards the sink and finds
+ * the max flow and the min cut. The excess stuck at nodes which cannot reach the sink is then
+ * returned to the source by running the same algorithm with the source as the target, so that
+ * {@link #getGraph()} holds a valid flow.
+ *
+ * <p>Time Complexity: O(V^2 * sqrt(E)) highest label, O(V^3) FIFO
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+public class PushRelabelSolverAdjacencyList extends NetworkFlowSolverBase {
+
+  // The order in which active nodes (nodes with excess) are discharged.
+  public enum Selection {
+    FIFO,
+    HIGHEST_LABEL
+  }
+
+  // A global relabel is done after relabels have scanned about ALPHA * n + m edges.
+  private static final int ALPHA = 6;
+
+  private final Selection selection;
+
+  // The edges of each node, copied out of the adjacency lists for faster access.
+  private Edge[][] edges;
+  private int m;
+
+  // The node flow is being moved towards in the current phase and the node which is excluded.
+  private int target, excluded;
+
+  private long[] excess;
+  private int[] label;
+  // The index of the next edge of each node to try to push along.
+  private int[] current;
+
+  // The nodes with each label below n, in doubly linked lists, for the gap heuristic.
+  private int[] allHead, allNext, allPrev;
+  // The active nodes with each label below n, in singly linked lists (highest label).
+  private int[] activeHead, activeNext;
+  // The queue of active nodes (FIFO).
+  private int[] queue;
+  private boolean[] inQueue;
+  private int queueHead, queueSize;
+
+  // The largest label below n in use, and the largest label of an active node.
+  private int maxLabel, maxActive;
+  private long work;
+
+  /**
+   * Creates an instance of a flow network solver which discharges the node with the highest label
+   * first. Use the {@link #addEdge(int, int, long)} method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public PushRelabelSolverAdjacencyList(int n, int s, int t) {
+    this(n, s, t, Selection.HIGHEST_LABEL);
+  }
+
+  /**
+   * Creates an instance of a flow network solver using the given order of discharging nodes.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   * @param selection - FIFO or HIGHEST_LABEL.
+   */
+  public PushRelabelSolverAdjacencyList(int n, int s, int t, Selection selection) {
+    super(n, s, t);
+    if (selection == null) throw new IllegalArgumentException("selection cannot be null");
+    this.selection = selection;
+  }
+
+  @Override
+  public void solve() {
+    edges = new Edge[n][];
+    for (int i = 0; i < n; i++) {
+      edges[i] = graph[i].toArray(new Edge[0]);
+      m += edges[i].length;
+    }
+    excess = new long[n];
+    label = new int[n];
+    current = new int[n];
+    allHead = new int[n];
+    allNext = new int[n];
+    allPrev = new int[n];
+    activeHead = new int[n];
+    activeNext = new int[n];
+    queue = new int[n];
+    inQueue = new boolean[n];
+
+    // Saturate every edge leaving the source.
+    for (Edge edge : edges[s]) {
+      long cap = edge.remainingCapacity();
+      if (cap > 0 && edge.to != s) {
+        edge.augment(cap);
+        excess[edge.to] += cap;
+        excess[s] -= cap;
+      }
+    }
+
+    // Phase 1: move as much flow as possible to the sink.
+    run(t, s);
+    maxFlow = excess[t];
+
+    // Phase 2: return the excess which cannot reach the sink to the source.
+    run(s, t);
+
+    // The min cut is the set of nodes still reachable from the source in the residual graph.
+    int[] bfsQueue = new int[n];
+    int head = 0, tail = 0;
+    bfsQueue[tail++] = s;
+    minCut[s] = true;
+    while (head < tail) {
+      int at = bfsQueue[head++];
+      for (Edge edge : edges[at]) {
+        if (edge.remainingCapacity() > 0 && !minCut[edge.to]) {
+          minCut[edge.to] = true;
+          bfsQueue[tail++] = edge.to;
+        }
+      }
+    }
+  }
+
+  // Discharges active nodes towards 'target' until every node other than the source and sink
+  // with a label below n has no excess. The 'excluded' node never receives flow.
+  private void run(int target, int excluded) {
+    this.target = target;
+    this.excluded = excluded;
+    globalRelabel();
+    while (true) {
+      int u = nextActive();
+      if (u == -1) break;
+      discharge(u);
+      if (work > (long) ALPHA * n + m) globalRelabel();
+    }
+  }
+
+  // Pushes the excess of u along admissible edges, relabeling u when it has none left, until u
+  // has no excess or cannot reach the target anymore.
+  private void discharge(int u) {
+    Edge[] out = edges[u];
+    while (excess[u] > 0) {
+      if (current[u] == out.length) {
+        relabel(u);
+        if (label[u] >= n) return;
+        continue;
+      }
+      Edge edge = out[current[u]];
+      long cap = edge.remainingCapacity();
+      int v = edge.to;
+      if (cap > 0 && label[u] == label[v] + 1) {
+        long pushed = min(excess[u], cap);
+        edge.augment(pushed);
+        excess[u] -= pushed;
+        if (excess[v] == 0 && v != target && v != excluded) activate(v);
+        excess[v] += pushed;
+      } else {
+        current[u]++;
+      }
+    }
+  }
+
+  // Raises the label of u to one more than its lowest residual neighbour, or applies the gap
+  // heuristic if u was the last node with its label.
+  private void relabel(int u) {
+    int oldLabel = label[u];
+    Edge[] out = edges[u];
+    work += out.length + 12;
+    removeFromLabel(u);
+
+    if (allHead[oldLabel] == -1) {
+      // Gap: nothing is left at oldLabel, so nothing above it can reach the target.
+      for (int l = oldLabel + 1; l <= maxLabel; l++) {
+        for (int v = allHead[l]; v != -1; v = allNext[v]) label[v] = n;
+        allHead[l] = -1;
+        activeHead[l] = -1;
+      }
+      maxLabel = oldLabel - 1;
+      label[u] = n;
+      return;
+    }
+
+    int newLabel = n, newCurrent = 0;
+    for (int i = 0; i < out.length; i++) {
+      Edge edge = out[i];
+      if (edge.remainingCapacity() > 0 && label[edge.to] + 1 < newLabel) {
+        newLabel = label[edge.to] + 1;
+        newCurrent = i;
+      }
+    }
+    label[u] = newLabel;
+    current[u] = newCurrent;
+    if (newLabel < n) addToLabel(u);
+  }
+
+  // Sets every label to the exact distance to the target in the residual graph, or to n for
+  // the nodes which cannot reach it, and rebuilds the lists of nodes.
+  private void globalRelabel() {
+    work = 0;
+    Arrays.fill(label, n);
+    Arrays.fill(allHead, -1);
+    Arrays.fill(activeHead, -1);
+    Arrays.fill(inQueue, false);
+    Arrays.fill(current, 0);
+    queueHead = queueSize = maxLabel = maxActive = 0;
+
+    int[] bfsQueue = new int[n];
+    int head = 0, tail = 0;
+    bfsQueue[tail++] = target;
+    label[target] = 0;
+    while (head < tail) {
+      int v = bfsQueue[head++];
+      // Follow the edges into v which have residual capacity.
+      for (Edge edge : edges[v]) {
+        int u = edge.to;
+        if (label[u] == n && u != excluded && edge.residual.remainingCapacity() > 0) {
+          label[u] = label[v] + 1;
+          bfsQueue[tail++] = u;
+        }
+      }
+    }
+
+    for (int i = 1; i < tail; i++) {
+      int u = bfsQueue[i];
+      addToLabel(u);
+      if (excess[u] > 0) activate(u);
+    }
+  }
+
+  private void addToLabel(int u) {
+    int l = label[u];
+    allPrev[u] = -1;
+    allNext[u] = allHead[l];
+    if (allHead[l] != -1) allPrev[allHead[l]] = u;
+    allHead[l] = u;
+    if (l > maxLabel) maxLabel = l;
+  }
+
+  private void removeFromLabel(int u) {
+    if (allPrev[u] != -1) allNext[allPrev[u]] = allNext[u];
+    else allHead[label[u]] = allNext[u];
+    if (allNext[u] != -1) allPrev[allNext[u]] = allPrev[u];
+  }
+
+  // Marks u, which just received excess, as active.
+  private void activate(int u) {
+    if (label[u] >= n) return;
+    if (selection == Selection.FIFO) {
+      if (inQueue[u]) return;
+      inQueue[u] = true;
+      queue[(queueHead + queueSize++) % n] = u;
+    } else {
+      activeNext[u] = activeHead[label[u]];
+      activeHead[label[u]] = u;
+      if (label[u] > maxActive) maxActive = label[u];
+    }
+  }
+
+  // Returns the next node to discharge, or -1 if there is none.
+  private int nextActive() {
+    if (selection == Selection.FIFO) {
+      while (queueSize > 0) {
+        int u = queue[queueHead];
+        queueHead = (queueHead + 1) % n;
+        queueSize--;
+        inQueue[u] = false;
+        if (excess[u] > 0 && label[u] < n) return u;
+      }
+      return -1;
+    }
+    for (; maxActive >= 0; maxActive--) {
+      while (activeHead[maxActive] != -1) {
+        int u = activeHead[maxActive];
+        activeHead[maxActive] = activeNext[u];
+        // Skip the nodes lifted by a gap, or already discharged.
+        if (excess[u] > 0 && label[u] == maxActive) return u;
+      }
+    }
+    maxActive = 0;
+    return -1;
+  }
+}
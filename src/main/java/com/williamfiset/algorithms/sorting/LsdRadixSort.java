@@ -0,0 +1,272 @@
+/**
+ * A byte-wise least significant digit (LSD) radix sort for int, long, float and double keys.
+ *
+ * <p>Unlike {@link RadixSort}, which works on decimal digits and only handles non-negative ints,
+ * this sort processes keys one byte (256 buckets) at a time and supports the full signed range of
+ * every primitive type. Signed integers have the sign bit of their most significant byte flipped,
+ * and floating point values are mapped onto integers whose unsigned order matches the numeric order
+ * (the same total order used by {@link Arrays#sort(double[])}, NaNs last).
+ *
+ * <p>All histograms are computed in a single pass before any elements move. A pass is skipped
+ * entirely when every key has the same byte in that position, which is very common for things
+ * like timestamps where the high order bytes rarely change.
+ *
+ * <p>The sorts can also carry an int payload (for instance a record index) alongside each key,
+ * which is moved together with its key. Since the sort is stable, records with equal keys keep
+ * their original relative order.
+ *
+ * <p>Methods taking scratch buffers do not allocate, so an instance can be reused in a hot loop.
+ * Scratch buffers must be at least as long as the input. An instance reuses its internal
+ * histograms between calls and so it is not thread safe, use one instance per thread.
+ *
+ * <p>Time Complexity: O(n*w) where w is the number of bytes in a key
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew run -Palgorithm=sorting.LsdRadixSort
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.Arrays;
+
+public class LsdRadixSort implements InplaceSort {
+
+  private static final int RADIX = 256;
+  private static final int MASK = RADIX - 1;
+
+  // Histograms for each byte position of the widest key (a long has 8 bytes).
+  private final int[] counts = new int[Long.BYTES * RADIX];
+
+  @Override
+  public void sort(int[] values) {
+    if (values == null) return;
+    sort(values, new int[values.length]);
+  }
+
+  // Sorts signed int values using the given scratch buffer.
+  public void sort(int[] values, int[] scratch) {
+    sortInts(values, null, scratch, null, true);
+  }
+
+  // Sorts signed int keys and applies the same permutation to the payload.
+  public void sort(int[] keys, int[] payload, int[] keyScratch, int[] payloadScratch) {
+    requirePayload(keys.length, payload, payloadScratch);
+    sortInts(keys, payload, keyScratch, payloadScratch, true);
+  }
+
+  // Sorts signed long values using the given scratch buffer.
+  public void sort(long[] values, long[] scratch) {
+    sortLongs(values, null, scratch, null, true);
+  }
+
+  // Sorts signed long keys and applies the same permutation to the payload.
+  public void sort(long[] keys, int[] payload, long[] keyScratch, int[] payloadScratch) {
+    requirePayload(keys.length, payload, payloadScratch);
+    sortLongs(keys, payload, keyScratch, payloadScratch, true);
+  }
+
+  // Sorts float values. The bit patterns of the values are sorted in the keys
+  // buffer, using scratch as the second buffer, and then written back.
+  public void sort(float[] values, int[] keys, int[] scratch) {
+    int n = values.length;
+    requireScratch(n, keys);
+    for (int i = 0; i < n; i++) {
+      int bits = Float.floatToIntBits(values[i]);
+      keys[i] = bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+    sortInts(keys, n, null, scratch, null, false);
+    for (int i = 0; i < n; i++) {
+      int key = keys[i];
+      values[i] = Float.intBitsToFloat(key ^ ((~key >> 31) | Integer.MIN_VALUE));
+    }
+  }
+
+  // Sorts double values. The bit patterns of the values are sorted in the keys
+  // buffer, using scratch as the second buffer, and then written back.
+  public void sort(double[] values, long[] keys, long[] scratch) {
+    int n = values.length;
+    requireScratch(n, keys);
+    for (int i = 0; i < n; i++) {
+      long bits = Double.doubleToLongBits(values[i]);
+      keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+    sortLongs(keys, n, null, scratch, null, false);
+    for (int i = 0; i < n; i++) {
+      long key = keys[i];
+      values[i] = Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+    }
+  }
+
+  private void sortInts(
+      int[] keys, int[] payload, int[] keyScratch, int[] payloadScratch, boolean signed) {
+    sortInts(keys, keys.length, payload, keyScratch, payloadScratch, signed);
+  }
+
+  // Sorts the first n keys. When signed is false the keys are ordered as unsigned ints.
+  private void sortInts(
+      int[] keys, int n, int[] payload, int[] keyScratch, int[] payloadScratch, boolean signed) {
+    requireScratch(n, keyScratch);
+    if (n <= 1) return;
+
+    final int passes = Integer.BYTES;
+    Arrays.fill(counts, 0, passes * RADIX, 0);
+    for (int i = 0; i < n; i++) {
+      int key = keys[i];
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass * RADIX + digit(key, pass, signed)]++;
+      }
+    }
+
+    int[] src = keys, dst = keyScratch, psrc = payload, pdst = payloadScratch;
+    for (int pass = 0; pass < passes; pass++) {
+      int offset = pass * RADIX;
+      // Every key has the same digit in this position so the pass would not move anything.
+      if (counts[offset + digit(keys[0], pass, signed)] == n) continue;
+
+      toStartPositions(offset);
+      if (payload == null) {
+        for (int i = 0; i < n; i++) {
+          int key = src[i];
+          dst[counts[offset + digit(key, pass, signed)]++] = key;
+        }
+      } else {
+        for (int i = 0; i < n; i++) {
+          int key = src[i];
+          int pos = counts[offset + digit(key, pass, signed)]++;
+          dst[pos] = key;
+          pdst[pos] = psrc[i];
+        }
+        int[] ptmp = psrc;
+        psrc = pdst;
+        pdst = ptmp;
+      }
+      int[] tmp = src;
+      src = dst;
+      dst = tmp;
+    }
+
+    // An odd number of passes ran, so the sorted data ended up in the scratch buffers.
+    if (src != keys) {
+      System.arraycopy(src, 0, keys, 0, n);
+      if (payload != null) System.arraycopy(psrc, 0, payload, 0, n);
+    }
+  }
+
+  private void sortLongs(
+      long[] keys, int[] payload, long[] keyScratch, int[] payloadScratch, boolean signed) {
+    sortLongs(keys, keys.length, payload, keyScratch, payloadScratch, signed);
+  }
+
+  // Sorts the first n keys. When signed is false the keys are ordered as unsigned longs.
+  private void sortLongs(
+      long[] keys, int n, int[] payload, long[] keyScratch, int[] payloadScratch, boolean signed) {
+    requireScratch(n, keyScratch);
+    if (n <= 1) return;
+
+    final int passes = Long.BYTES;
+    Arrays.fill(counts, 0, passes * RADIX, 0);
+    for (int i = 0; i < n; i++) {
+      long key = keys[i];
+      for (int pass = 0; pass < passes; pass++) {
+        counts[pass * RADIX + digit(key, pass, signed)]++;
+      }
+    }
+
+    long[] src = keys, dst = keyScratch;
+    int[] psrc = payload, pdst = payloadScratch;
+    for (int pass = 0; pass < passes; pass++) {
+      int offset = pass * RADIX;
+      // Every key has the same digit in this position so the pass would not move anything.
+      if (counts[offset + digit(keys[0], pass, signed)] == n) continue;
+
+      toStartPositions(offset);
+      if (payload == null) {
+        for (int i = 0; i < n; i++) {
+          long key = src[i];
+          dst[counts[offset + digit(key, pass, signed)]++] = key;
+        }
+      } else {
+        for (int i = 0; i < n; i++) {
+          long key = src[i];
+          int pos = counts[offset + digit(key, pass, signed)]++;
+          dst[pos] = key;
+          pdst[pos] = psrc[i];
+        }
+        int[] ptmp = psrc;
+        psrc = pdst;
+        pdst = ptmp;
+      }
+      long[] tmp = src;
+      src = dst;
+      dst = tmp;
+    }
+
+    // An odd number of passes ran, so the sorted data ended up in the scratch buffers.
+    if (src != keys) {
+      System.arraycopy(src, 0, keys, 0, n);
+      if (payload != null) System.arraycopy(psrc, 0, payload, 0, n);
+    }
+  }
+
+  // Turns the histogram at the given offset into the index of the first slot of each bucket.
+  private void toStartPositions(int offset) {
+    for (int i = offset, sum = 0; i < offset + RADIX; i++) {
+      int count = counts[i];
+      counts[i] = sum;
+      sum += count;
+    }
+  }
+
+  // Returns the given byte of the key. The sign bit of the most significant
+  // byte is flipped for signed keys so that negative values sort first.
+  private static int digit(int key, int pass, boolean signed) {
+    int d = (key >>> (pass << 3)) & MASK;
+    return (signed && pass == Integer.BYTES - 1) ? d ^ 0x80 : d;
+  }
+
+  private static int digit(long key, int pass, boolean signed) {
+    int d = (int) (key >>> (pass << 3)) & MASK;
+    return (signed && pass == Long.BYTES - 1) ? d ^ 0x80 : d;
+  }
+
+  private static void requireScratch(int n, int[] scratch) {
+    if (scratch == null || scratch.length < n)
+      throw new IllegalArgumentException("scratch buffer must hold at least " + n + " elements");
+  }
+
+  private static void requireScratch(int n, long[] scratch) {
+    if (scratch == null || scratch.length < n)
+      throw new IllegalArgumentException("scratch buffer must hold at least " + n + " elements");
+  }
+
+  private static void requirePayload(int n, int[] payload, int[] payloadScratch) {
+    if (payload == null || payload.length != n)
+      throw new IllegalArgumentException("payload must have the same length as the keys");
+    requireScratch(n, payloadScratch);
+  }
+
+  public static void main(String[] args) {
+    LsdRadixSort sorter = new LsdRadixSort();
+
+    int[] numbers = {387, -468, 134, 123, -68, 221, 769, 37, 7, -890, 1, 587};
+    sorter.sort(numbers);
+    // Prints:
+    // [-890, -468, -68, 1, 7, 37, 123, 134, 221, 387, 587, 769]
+    System.out.println(Arrays.toString(numbers));
+
+    double[] doubles = {3.5, -0.0, -2.25, 0.0, Double.NaN, -1e9, Double.POSITIVE_INFINITY};
+    sorter.sort(doubles, new long[doubles.length], new long[doubles.length]);
+    // Prints:
+    // [-1.0E9, -2.25, -0.0, 0.0, 3.5, Infinity, NaN]
+    System.out.println(Arrays.toString(doubles));
+
+    long[] timestamps = {1600000000300L, 1600000000100L, 1600000000200L};
+    int[] recordIndexes = {0, 1, 2};
+    sorter.sort(timestamps, recordIndexes, new long[3], new int[3]);
+    // Prints:
+    // [1600000000100, 1600000000200, 1600000000300] [1, 2, 0]
+    System.out.println(Arrays.toString(timestamps) + " " + Arrays.toString(recordIndexes));
+  }
+}
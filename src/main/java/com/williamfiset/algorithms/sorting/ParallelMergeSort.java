@@ -0,0 +1,130 @@
+/**
+ * A parallel mergesort which splits the work across a {@link ForkJoinPool}. Unlike {@link
+ * MergeSort}, which allocates new arrays at every level of the recursion, this implementation sorts
+ * the values truly inplace apart from a single scratch buffer allocated once per sort.
+ *
+ * <p>Subarrays smaller than the sequential cutoff are sorted on the current thread since forking
+ * more tasks for them costs more than it saves.
+ *
+ * <p>Time Complexity: O(nlog(n)) work, O(n) extra memory
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew run -Palgorithm=sorting.ParallelMergeSort
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelMergeSort implements InplaceSort {
+
+  public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+  // Subarrays of at most this size are sorted with insertion sort.
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private final ForkJoinPool pool;
+  private final int sequentialCutoff;
+
+  public ParallelMergeSort() {
+    this(DEFAULT_SEQUENTIAL_CUTOFF);
+  }
+
+  public ParallelMergeSort(int sequentialCutoff) {
+    this(ForkJoinPool.commonPool(), sequentialCutoff);
+  }
+
+  public ParallelMergeSort(ForkJoinPool pool, int sequentialCutoff) {
+    if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+    if (sequentialCutoff < 1) throw new IllegalArgumentException("sequentialCutoff < 1");
+    this.pool = pool;
+    this.sequentialCutoff = sequentialCutoff;
+  }
+
+  @Override
+  public void sort(int[] values) {
+    if (values == null || values.length <= 1) return;
+    // The scratch buffer only ever holds the left half of a merge.
+    int[] scratch = new int[(values.length + 1) / 2];
+    pool.invoke(new SortTask(values, scratch, 0, values.length, sequentialCutoff));
+  }
+
+  private static class SortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] ar, scratch;
+    private final int lo, hi, cutoff;
+
+    // Sorts the interval [lo, hi)
+    SortTask(int[] ar, int[] scratch, int lo, int hi, int cutoff) {
+      this.ar = ar;
+      this.scratch = scratch;
+      this.lo = lo;
+      this.hi = hi;
+      this.cutoff = cutoff;
+    }
+
+    @Override
+    protected void compute() {
+      if (hi - lo <= cutoff) {
+        mergesort(ar, scratch, lo, hi);
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      invokeAll(
+          new SortTask(ar, scratch, lo, mid, cutoff), new SortTask(ar, scratch, mid, hi, cutoff));
+      merge(ar, scratch, lo, mid, hi);
+    }
+  }
+
+  // Sequentially sorts the interval [lo, hi)
+  private static void mergesort(int[] ar, int[] scratch, int lo, int hi) {
+    if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+      insertionSort(ar, lo, hi);
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    mergesort(ar, scratch, lo, mid);
+    mergesort(ar, scratch, mid, hi);
+    merge(ar, scratch, lo, mid, hi);
+  }
+
+  // Merges the sorted intervals [lo, mid) and [mid, hi) together. Only the left
+  // interval is copied out; the merged output is written back over the input which
+  // can never overtake the unread part of the right interval. Each task owns the
+  // scratch region starting at lo/2 which is disjoint from that of any concurrent task.
+  private static void merge(int[] ar, int[] scratch, int lo, int mid, int hi) {
+    // Already in order, which is common for nearly sorted inputs.
+    if (ar[mid - 1] <= ar[mid]) return;
+
+    int n1 = mid - lo, offset = lo / 2;
+    System.arraycopy(ar, lo, scratch, offset, n1);
+
+    int i1 = offset, end1 = offset + n1, i2 = mid, k = lo;
+    while (i1 < end1 && i2 < hi) {
+      if (ar[i2] < scratch[i1]) ar[k++] = ar[i2++];
+      else ar[k++] = scratch[i1++];
+    }
+    while (i1 < end1) ar[k++] = scratch[i1++];
+  }
+
+  private static void insertionSort(int[] ar, int lo, int hi) {
+    for (int i = lo + 1; i < hi; i++) {
+      int value = ar[i], j = i;
+      for (; j > lo && ar[j - 1] > value; j--) ar[j] = ar[j - 1];
+      ar[j] = value;
+    }
+  }
+
+  public static void main(String[] args) {
+    InplaceSort sorter = new ParallelMergeSort();
+    int[] array = {10, 4, 6, 4, 8, -13, 2, 3};
+    sorter.sort(array);
+    // Prints:
+    // [-13, 2, 3, 4, 4, 6, 8, 10]
+    System.out.println(java.util.Arrays.toString(array));
+  }
+}
@@ -0,0 +1,107 @@
+/**
+ * A parallel version of {@link QuickSort3} which uses the same three way (Dutch National Flag)
+ * partitioning but sorts the two sides of every partition concurrently on a {@link ForkJoinPool}.
+ * Because all the elements equal to the pivot are excluded from both sides, inputs with many
+ * duplicates partition into rapidly shrinking subproblems.
+ *
+ * <p>Subarrays smaller than the sequential cutoff are sorted on the current thread since forking
+ * more tasks for them costs more than it saves.
+ *
+ * <p>Time Complexity: expected O(nlog(n)) work, O(log(n)) extra memory
+ *
+ * <p>Run with:
+ *
+ * <p>$ ./gradlew run -Palgorithm=sorting.ParallelQuickSort3
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ParallelQuickSort3 implements InplaceSort {
+
+  public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+  private final ForkJoinPool pool;
+  private final int sequentialCutoff;
+
+  public ParallelQuickSort3() {
+    this(DEFAULT_SEQUENTIAL_CUTOFF);
+  }
+
+  public ParallelQuickSort3(int sequentialCutoff) {
+    this(ForkJoinPool.commonPool(), sequentialCutoff);
+  }
+
+  public ParallelQuickSort3(ForkJoinPool pool, int sequentialCutoff) {
+    if (pool == null) throw new IllegalArgumentException("pool cannot be null");
+    if (sequentialCutoff < 1) throw new IllegalArgumentException("sequentialCutoff < 1");
+    this.pool = pool;
+    this.sequentialCutoff = sequentialCutoff;
+  }
+
+  @Override
+  public void sort(int[] values) {
+    if (values == null || values.length <= 1) return;
+    pool.invoke(new SortTask(values, 0, values.length - 1, sequentialCutoff));
+  }
+
+  private static class SortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] ar;
+    private final int l, r, cutoff;
+
+    // Sorts the interval [l, r]
+    SortTask(int[] ar, int l, int r, int cutoff) {
+      this.ar = ar;
+      this.l = l;
+      this.r = r;
+      this.cutoff = cutoff;
+    }
+
+    @Override
+    protected void compute() {
+      if (r - l + 1 <= cutoff) {
+        quickSort3(ar, l, r);
+        return;
+      }
+      int[] m = randomizedPartition(ar, l, r);
+      invokeAll(new SortTask(ar, l, m[0], cutoff), new SortTask(ar, m[1], r, cutoff));
+    }
+  }
+
+  // Sequentially sorts the interval [l, r]. Recurses on the smaller side and loops
+  // on the larger one so the stack depth stays logarithmic.
+  private static void quickSort3(int[] ar, int l, int r) {
+    while (l < r) {
+      int[] m = randomizedPartition(ar, l, r);
+      if (m[0] - l < r - m[1]) {
+        quickSort3(ar, l, m[0]);
+        l = m[1];
+      } else {
+        quickSort3(ar, m[1], r);
+        r = m[0];
+      }
+    }
+  }
+
+  // Moves a random pivot into position r, which is where QuickSort3.partition3 expects it.
+  private static int[] randomizedPartition(int[] ar, int l, int r) {
+    int k = l + ThreadLocalRandom.current().nextInt(r - l + 1);
+    QuickSort3.swap(ar, k, r);
+    return QuickSort3.partition3(ar, l, r);
+  }
+
+  public static void main(String[] args) {
+    InplaceSort sorter = new ParallelQuickSort3();
+    int[] array = {10, 4, 6, 4, 8, -13, 2, 3};
+    sorter.sort(array);
+    // Prints:
+    // [-13, 2, 3, 4, 4, 6, 8, 10]
+    System.out.println(java.util.Arrays.toString(array));
+  }
+}
@@ -27,8 +27,9 @@ public class QuickSort3 implements InplaceSort {
   }
 
   // partiton array in such a way that all the elements whose value is equal to
-  // pivot are grouped together
-  private static int[] partition3(int[] a, int l, int r) {
+  // pivot are grouped together. The pivot is the last element a[r]. Returns {j, k}
+  // such that a[l..j] < pivot and a[k..r] > pivot.
+  static int[] partition3(int[] a, int l, int r) {
     int j, k;
     if (r - l <= 1) {
       if (a[r] < a[l]) {
@@ -76,7 +77,7 @@ public class QuickSort3 implements InplaceSort {
   }
 
   // Swap two elements
-  private static void swap(int[] ar, int i, int j) {
+  static void swap(int[] ar, int i, int j) {
     int tmp = ar[i];
     ar[i] = ar[j];
     ar[j] = tmp;
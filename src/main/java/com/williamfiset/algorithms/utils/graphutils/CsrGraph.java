@@ -0,0 +1,344 @@
+/**
+ * An immutable directed graph stored in compressed sparse row (CSR) form. Instead of one list of
+ * edge objects per node, all the edges live in a few flat arrays:
+ *
+ * <p>- targets[offsets[u]] ... targets[offsets[u + 1] - 1] are the nodes reached by the edges
+ * leaving node u, so the outgoing edges of a node are numbered offsets[u] to offsets[u + 1] - 1.
+ *
+ * <p>- weights[e] (or longWeights[e]) is the weight of edge e, stored parallel to 'targets'.
+ *
+ * <p>A graph with n nodes and m edges takes 4(n + 1) + 4m bytes plus 8m bytes for the weights,
+ * compared to roughly 40 bytes or more per edge for an adjacency list of edge objects, and
+ * iterating over the edges of a node reads consecutive memory instead of chasing pointers.
+ *
+ * <p>Graphs are created with a {@link Builder}, or converted from the adjacency lists used by the
+ * other solvers with {@link #fromAdjacencyList(List)}. Edges keep the order in which they were
+ * added to each node, so solvers visit neighbors in the same order as with an adjacency list.
+ * Undirected graphs are stored with an edge in each direction.
+ *
+ * <p>A graph has either no weights (every edge weighs 1), double weights or long weights,
+ * depending on which addEdge() methods were used to build it.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+public final class CsrGraph {
+
+  private final int n;
+  private final int[] offsets, targets;
+
+  // At most one of these is set, both are null for an unweighted graph.
+  private final double[] weights;
+  private final long[] longWeights;
+
+  // The weights converted to the other type, computed on first use.
+  private volatile double[] doubleWeightsView;
+  private volatile long[] longWeightsView;
+
+  private CsrGraph(int n, int[] offsets, int[] targets, double[] weights, long[] longWeights) {
+    this.n = n;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.longWeights = longWeights;
+  }
+
+  // Returns the number of nodes in the graph.
+  public int numNodes() {
+    return n;
+  }
+
+  // Returns the number of directed edges in the graph.
+  public int numEdges() {
+    return targets.length;
+  }
+
+  // Returns the number of edges leaving node u.
+  public int outDegree(int u) {
+    return offsets[u + 1] - offsets[u];
+  }
+
+  // The raw arrays are returned without copying so that solvers can iterate over them
+  // directly, they must not be modified.
+
+  // Returns the array of n + 1 offsets, the edges of node u are offsets[u] to offsets[u + 1] - 1.
+  public int[] offsets() {
+    return offsets;
+  }
+
+  // Returns the array of edge targets, indexed by edge.
+  public int[] targets() {
+    return targets;
+  }
+
+  // Returns the weights of the edges as doubles, indexed by edge.
+  public double[] weights() {
+    if (weights != null) return weights;
+    double[] view = doubleWeightsView;
+    if (view == null) {
+      view = new double[targets.length];
+      if (longWeights == null) Arrays.fill(view, 1);
+      else for (int e = 0; e < view.length; e++) view[e] = longWeights[e];
+      doubleWeightsView = view;
+    }
+    return view;
+  }
+
+  // Returns the weights of the edges as longs, indexed by edge. Throws an IllegalStateException
+  // if the graph was built with double weights, which cannot be converted without loss.
+  public long[] longWeights() {
+    if (longWeights != null) return longWeights;
+    if (weights != null) throw new IllegalStateException("Graph has double weights");
+    long[] view = longWeightsView;
+    if (view == null) {
+      view = new long[targets.length];
+      Arrays.fill(view, 1);
+      longWeightsView = view;
+    }
+    return view;
+  }
+
+  public boolean hasDoubleWeights() {
+    return weights != null;
+  }
+
+  public boolean hasLongWeights() {
+    return longWeights != null;
+  }
+
+  // Returns the node edge e points to.
+  public int target(int e) {
+    return targets[e];
+  }
+
+  // Returns the node edge e starts from, O(log(n))
+  public int source(int e) {
+    if (e < 0 || e >= targets.length) throw new IllegalArgumentException("Invalid edge: " + e);
+
+    // Find the last node whose first edge is at or before e.
+    int lo = 0, hi = n - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (offsets[mid] <= e) lo = mid;
+      else hi = mid - 1;
+    }
+    return lo;
+  }
+
+  // Returns the weight of edge e as a double.
+  public double weight(int e) {
+    if (weights != null) return weights[e];
+    if (longWeights != null) return longWeights[e];
+    return 1;
+  }
+
+  // Returns the weight of edge e as a long.
+  public long longWeight(int e) {
+    if (longWeights != null) return longWeights[e];
+    if (weights != null) throw new IllegalStateException("Graph has double weights");
+    return 1;
+  }
+
+  // Returns the graph with the direction of every edge reversed. The edges entering each
+  // node appear in the order of their source nodes.
+  public CsrGraph transpose() {
+    int m = targets.length;
+    int[] tOffsets = new int[n + 1];
+    for (int e = 0; e < m; e++) tOffsets[targets[e] + 1]++;
+    for (int u = 0; u < n; u++) tOffsets[u + 1] += tOffsets[u];
+
+    int[] next = Arrays.copyOf(tOffsets, n);
+    int[] tTargets = new int[m];
+    double[] tWeights = weights == null ? null : new double[m];
+    long[] tLongWeights = longWeights == null ? null : new long[m];
+    for (int u = 0; u < n; u++) {
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        int i = next[targets[e]]++;
+        tTargets[i] = u;
+        if (tWeights != null) tWeights[i] = weights[e];
+        if (tLongWeights != null) tLongWeights[i] = longWeights[e];
+      }
+    }
+    return new CsrGraph(n, tOffsets, tTargets, tWeights, tLongWeights);
+  }
+
+  // Returns an estimate of the memory used by the arrays of the graph, in bytes.
+  public long memoryFootprint() {
+    long bytes = 4L * offsets.length + 4L * targets.length;
+    if (weights != null) bytes += 8L * weights.length;
+    if (longWeights != null) bytes += 8L * longWeights.length;
+    return bytes;
+  }
+
+  // Converts an unweighted graph stored as an adjacency list of node indexes, as created by
+  // Utils.createEmptyAdjacencyList.
+  public static CsrGraph fromAdjacencyList(List<List<Integer>> graph) {
+    if (graph == null) throw new IllegalArgumentException("graph cannot be null");
+    Builder builder = new Builder(graph.size(), countEdges(graph));
+    for (int u = 0; u < graph.size(); u++) for (int v : graph.get(u)) builder.addEdge(u, v);
+    return builder.build();
+  }
+
+  // Converts a graph stored as an adjacency list of edge objects, such as the Edge classes of
+  // the various solvers, given how to get the target node and the weight of an edge.
+  public static <E> CsrGraph fromAdjacencyList(
+      List<List<E>> graph, ToIntFunction<E> target, ToDoubleFunction<E> weight) {
+    if (graph == null) throw new IllegalArgumentException("graph cannot be null");
+    Builder builder = new Builder(graph.size(), countEdges(graph));
+    for (int u = 0; u < graph.size(); u++) {
+      for (E edge : graph.get(u)) {
+        builder.addEdge(u, target.applyAsInt(edge), weight.applyAsDouble(edge));
+      }
+    }
+    return builder.build();
+  }
+
+  private static int countEdges(List<? extends List<?>> graph) {
+    long m = 0;
+    for (List<?> edges : graph) m += edges.size();
+    if (m > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many edges: " + m);
+    return (int) m;
+  }
+
+  @Override
+  public String toString() {
+    boolean weighted = weights != null || longWeights != null;
+    StringBuilder sb = new StringBuilder();
+    for (int u = 0; u < n; u++) {
+      sb.append(u).append(" ->");
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        sb.append(' ').append(targets[e]);
+        if (weighted) sb.append('(').append(weightString(e)).append(')');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  private String weightString(int e) {
+    return weights != null ? String.valueOf(weights[e]) : String.valueOf(longWeights[e]);
+  }
+
+  /**
+   * Collects the edges of a graph and sorts them into CSR form. Edges can be added in any order,
+   * the edges of each node keep the order in which they were added.
+   */
+  public static class Builder {
+
+    private final int n;
+    private int m;
+    private int[] from, to;
+    private double[] weights;
+    private long[] longWeights;
+
+    public Builder(int n) {
+      this(n, 16);
+    }
+
+    // Creates a builder which does not need to grow its buffers until 'expectedEdges' edges
+    // have been added.
+    public Builder(int n, int expectedEdges) {
+      if (n < 0) throw new IllegalArgumentException("n cannot be negative; received: " + n);
+      if (expectedEdges < 0)
+        throw new IllegalArgumentException("Illegal expectedEdges: " + expectedEdges);
+      this.n = n;
+      from = new int[Math.max(1, expectedEdges)];
+      to = new int[from.length];
+    }
+
+    // Adds an unweighted directed edge, or an edge of weight 1 in a weighted graph.
+    public Builder addEdge(int u, int v) {
+      int i = add(u, v);
+      if (weights != null) weights[i] = 1;
+      if (longWeights != null) longWeights[i] = 1;
+      return this;
+    }
+
+    // Adds a directed edge with a double weight.
+    public Builder addEdge(int u, int v, double weight) {
+      if (longWeights != null) throw new IllegalStateException("Graph already has long weights");
+      int i = add(u, v);
+      if (weights == null) {
+        weights = new double[from.length];
+        Arrays.fill(weights, 0, i, 1);
+      }
+      weights[i] = weight;
+      return this;
+    }
+
+    // Adds a directed edge with a long weight.
+    public Builder addEdge(int u, int v, long weight) {
+      if (weights != null) throw new IllegalStateException("Graph already has double weights");
+      int i = add(u, v);
+      if (longWeights == null) {
+        longWeights = new long[from.length];
+        Arrays.fill(longWeights, 0, i, 1);
+      }
+      longWeights[i] = weight;
+      return this;
+    }
+
+    public Builder addUndirectedEdge(int u, int v) {
+      return addEdge(u, v).addEdge(v, u);
+    }
+
+    public Builder addUndirectedEdge(int u, int v, double weight) {
+      return addEdge(u, v, weight).addEdge(v, u, weight);
+    }
+
+    public Builder addUndirectedEdge(int u, int v, long weight) {
+      return addEdge(u, v, weight).addEdge(v, u, weight);
+    }
+
+    // Returns the number of edges added so far.
+    public int numEdges() {
+      return m;
+    }
+
+    // Builds the graph with a counting sort of the edges by their source node, O(n + m).
+    public CsrGraph build() {
+      int[] offsets = new int[n + 1];
+      for (int i = 0; i < m; i++) offsets[from[i] + 1]++;
+      for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+      int[] next = Arrays.copyOf(offsets, n);
+      int[] targets = new int[m];
+      double[] w = weights == null ? null : new double[m];
+      long[] lw = longWeights == null ? null : new long[m];
+      for (int i = 0; i < m; i++) {
+        int e = next[from[i]]++;
+        targets[e] = to[i];
+        if (w != null) w[e] = weights[i];
+        if (lw != null) lw[e] = longWeights[i];
+      }
+      return new CsrGraph(n, offsets, targets, w, lw);
+    }
+
+    // Appends the edge (u, v) and returns its index, growing the buffers when full.
+    private int add(int u, int v) {
+      if (u < 0 || u >= n)
+        throw new IllegalArgumentException("'from' node index out of bounds; received: " + u);
+      if (v < 0 || v >= n)
+        throw new IllegalArgumentException("'to' node index out of bounds; received: " + v);
+      if (m == from.length) grow();
+      from[m] = u;
+      to[m] = v;
+      return m++;
+    }
+
+    private void grow() {
+      if (m == Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many edges");
+      int capacity = (int) Math.min(Integer.MAX_VALUE - 8, 2L * from.length);
+      from = Arrays.copyOf(from, capacity);
+      to = Arrays.copyOf(to, capacity);
+      if (weights != null) weights = Arrays.copyOf(weights, capacity);
+      if (longWeights != null) longWeights = Arrays.copyOf(longWeights, capacity);
+    }
+  }
+}
@@ -1,9 +1,572 @@
+/**
+ * Generators for synthetic graphs.
+ *
+ * <p>Besides the small {@link DagGenerator}, the generators extending {@link EdgeGenerator}
+ * produce the large graphs used to test and benchmark the graph theory algorithms: R-MAT
+ * (Kronecker) graphs, grids and road-like grids, random geometric graphs and Erdos-Renyi G(n, p)
+ * and G(n, m) graphs. They are seeded so every run produces the same graph, and they stream
+ * their edges one at a time into an {@link EdgeSink}, so a graph can be fed straight into any
+ * graph builder (or written to disk) without first being stored in a list of edges.
+ *
+ * <p>Example:
+ *
+ * <p>CsrGraph g = new GraphGenerator.RMatGenerator(20, 16).seed(7).weights(1, 10).toCsrGraph();
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
 package com.williamfiset.algorithms.utils.graphutils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 public class GraphGenerator {
 
+  // Receives the edges of a generated graph one at a time. Unweighted graphs pass a weight of 1.
+  @FunctionalInterface
+  public interface EdgeSink {
+    void addEdge(int from, int to, double weight);
+  }
+
+  /**
+   * The common options of the streaming generators. The weights are uniform random doubles in
+   * [min, max) after calling weights(), or uniform random integers in [min, max] after calling
+   * capacities(), which can be passed on as long weights or flow capacities. Otherwise the graph is
+   * unweighted, except for the spatial generators whose edges weigh their length.
+   *
+   * <p>An undirected graph emits every edge in both directions, one right after the other.
+   */
+  public abstract static class EdgeGenerator<G extends EdgeGenerator<G>> {
+
+    long seed;
+    boolean undirected;
+    boolean weighted, integral;
+    double minWeight = 1, maxWeight = 1;
+
+    EdgeGenerator(boolean undirected) {
+      this.undirected = undirected;
+    }
+
+    // Sets the seed of the random generator, the same seed always produces the same graph.
+    public G seed(long seed) {
+      this.seed = seed;
+      return self();
+    }
+
+    public G undirected(boolean undirected) {
+      this.undirected = undirected;
+      return self();
+    }
+
+    // Gives every edge a uniform random weight in [min, max).
+    public G weights(double min, double max) {
+      if (!(0 <= min && min <= max)) throw new IllegalArgumentException("Bad weights: " + min);
+      weighted = true;
+      integral = false;
+      minWeight = min;
+      maxWeight = max;
+      return self();
+    }
+
+    // Gives every edge a uniform random integer weight (or capacity) in [min, max].
+    public G capacities(long min, long max) {
+      if (!(0 <= min && min <= max)) throw new IllegalArgumentException("Bad capacities: " + min);
+      weighted = true;
+      integral = true;
+      minWeight = min;
+      maxWeight = max;
+      return self();
+    }
+
+    public abstract int numNodes();
+
+    // The expected number of directed edges, used to size the buffers of graph builders.
+    public abstract long expectedEdges();
+
+    // Streams every edge of the graph into the sink.
+    public void generate(EdgeSink sink) {
+      EdgeSink out = !undirected ? sink : (u, v, w) -> {
+        sink.addEdge(u, v, w);
+        sink.addEdge(v, u, w);
+      };
+      emit(new SplittableRandom(seed), out);
+    }
+
+    // Emits every edge once. Undirected graphs only emit one direction of each edge here.
+    abstract void emit(SplittableRandom random, EdgeSink sink);
+
+    // Draws the weight of the next edge.
+    double weight(SplittableRandom random) {
+      if (!weighted) return 1;
+      if (integral) return minWeight + random.nextLong((long) maxWeight - (long) minWeight + 1);
+      return minWeight + (maxWeight - minWeight) * random.nextDouble();
+    }
+
+    // Generates the graph into a CsrGraph, with long weights if capacities() was called.
+    public CsrGraph toCsrGraph() {
+      int expected = (int) Math.min(Integer.MAX_VALUE - 8, expectedEdges());
+      CsrGraph.Builder builder = new CsrGraph.Builder(numNodes(), expected);
+      if (!weighted && !spatial()) generate((u, v, w) -> builder.addEdge(u, v));
+      else if (integral) generate((u, v, w) -> builder.addEdge(u, v, (long) w));
+      else generate(builder::addEdge);
+      return builder.build();
+    }
+
+    // Writes the graph as a text edge list in the format read by
+    // MappedCsrGraph.convertEdgeList(): one 'from to' or 'from to weight' line per edge.
+    public void writeEdgeList(Writer writer) throws IOException {
+      boolean withWeights = weighted || spatial();
+      StringBuilder line = new StringBuilder();
+      try {
+        generate(
+            (u, v, w) -> {
+              line.setLength(0);
+              line.append(u).append(' ').append(v);
+              if (withWeights) {
+                line.append(' ');
+                if (integral) line.append((long) w);
+                else line.append(w);
+              }
+              line.append('\n');
+              try {
+                writer.append(line);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+
+    public void writeEdgeList(Path edgeList) throws IOException {
+      try (BufferedWriter writer = Files.newBufferedWriter(edgeList, StandardCharsets.UTF_8)) {
+        writeEdgeList(writer);
+      }
+    }
+
+    // Generates the graph straight into a graph file which can be opened with
+    // MappedCsrGraph.open(), going through a temporary edge list next to the file. The file
+    // has numNodes() nodes, including the nodes without any edge.
+    public void writeGraphFile(Path file) throws IOException {
+      Path dir = file.toAbsolutePath().getParent();
+      Path edgeList = Files.createTempFile(dir, "edges", ".txt");
+      try {
+        writeEdgeList(edgeList);
+        MappedCsrGraph.convertEdgeList(edgeList, file, false, numNodes());
+      } finally {
+        Files.deleteIfExists(edgeList);
+      }
+    }
+
+    // Whether the edges weigh their length when no weights are given.
+    boolean spatial() {
+      return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private G self() {
+      return (G) this;
+    }
+  }
+
+  /**
+   * An R-MAT graph (Chakrabarti, Zhan and Faloutsos), the Kronecker graph model of the Graph500
+   * benchmark. Each edge picks its endpoints one bit at a time by recursively choosing one of the
+   * four quadrants of the adjacency matrix with probabilities a, b, c and 1 - a - b - c. This gives
+   * the skewed degrees and small diameter of social and web graphs. Self loops and duplicate edges
+   * are kept, like in the Graph500.
+   */
+  public static class RMatGenerator extends EdgeGenerator<RMatGenerator> {
+
+    final int scale;
+    final long edges;
+    double a = 0.57, b = 0.19, c = 0.19;
+    boolean scramble;
+
+    // A graph with 2^scale nodes and edgeFactor * 2^scale edges (in each direction if
+    // undirected), with the Graph500 probabilities a = 0.57, b = c = 0.19.
+    public RMatGenerator(int scale, int edgeFactor) {
+      super(false);
+      if (scale < 0 || scale > 30) throw new IllegalArgumentException("Bad scale: " + scale);
+      if (edgeFactor < 0) throw new IllegalArgumentException("Bad edge factor: " + edgeFactor);
+      this.scale = scale;
+      this.edges = (long) edgeFactor << scale;
+    }
+
+    public RMatGenerator probabilities(double a, double b, double c) {
+      if (a < 0 || b < 0 || c < 0 || a + b + c > 1)
+        throw new IllegalArgumentException("Bad probabilities: " + a + ", " + b + ", " + c);
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      return this;
+    }
+
+    // Randomly relabels the nodes, so the high degree nodes are not all at the small indexes.
+    public RMatGenerator scramble(boolean scramble) {
+      this.scramble = scramble;
+      return this;
+    }
+
+    @Override
+    public int numNodes() {
+      return 1 << scale;
+    }
+
+    @Override
+    public long expectedEdges() {
+      return undirected ? 2 * edges : edges;
+    }
+
+    @Override
+    void emit(SplittableRandom random, EdgeSink sink) {
+      // The labels come from their own stream so scrambling only relabels the same graph.
+      SplittableRandom labelRandom = random.split();
+      int[] label = scramble ? permutation(numNodes(), labelRandom) : null;
+      double ab = a + b, abc = a + b + c;
+      for (long i = 0; i < edges; i++) {
+        int u = 0, v = 0;
+        for (int bit = 0; bit < scale; bit++) {
+          // The quadrant is picked without branches, which would be mispredicted half the time.
+          double r = random.nextDouble();
+          int aboveAb = above(r, ab);
+          u |= aboveAb << bit;
+          v |= (above(r, a) ^ aboveAb ^ above(r, abc)) << bit;
+        }
+        if (label != null) {
+          u = label[u];
+          v = label[v];
+        }
+        sink.addEdge(u, v, weight(random));
+      }
+    }
+  }
+
+  // 1 if r > threshold, 0 otherwise, from the sign bit of threshold - r.
+  private static int above(double r, double threshold) {
+    return (int) (Double.doubleToRawLongBits(threshold - r) >>> 63);
+  }
+
+  /**
+   * A rows x cols grid where node r * cols + c sits at (c, r) and is joined to its horizontal and
+   * vertical neighbours. Edges weigh their length (1) times a random factor from weights(), which
+   * defaults to 1. Grids are undirected by default.
+   *
+   * <p>roadLike() turns the grid into a road network: 20% of the local roads are missing, every
+   * 8th row and column is an arterial road 3 times faster and every 40th a highway 8 times faster,
+   * so edges on them weigh 3 and 8 times less, or with capacities() carry 3 and 8 times more.
+   * This gives the hierarchy of real road networks that speed up techniques like contraction
+   * hierarchies, and the wide main roads and narrow side streets of traffic flow networks.
+   */
+  public static class GridGenerator extends EdgeGenerator<GridGenerator> {
+
+    final int rows, cols;
+    double removeProbability;
+    boolean roadLike;
+
+    public GridGenerator(int rows, int cols) {
+      super(true);
+      if (rows < 1 || cols < 1 || (long) rows * cols > Integer.MAX_VALUE)
+        throw new IllegalArgumentException("Bad grid size: " + rows + " x " + cols);
+      this.rows = rows;
+      this.cols = cols;
+    }
+
+    // Leaves out each edge with the given probability, except along arterials and highways.
+    public GridGenerator removeProbability(double p) {
+      if (!(0 <= p && p <= 1)) throw new IllegalArgumentException("Bad probability: " + p);
+      removeProbability = p;
+      return this;
+    }
+
+    public GridGenerator roadLike() {
+      roadLike = true;
+      removeProbability = 0.2;
+      return this;
+    }
+
+    @Override
+    public int numNodes() {
+      return rows * cols;
+    }
+
+    @Override
+    public long expectedEdges() {
+      long edges = (long) rows * (cols - 1) + (long) (rows - 1) * cols;
+      return undirected ? 2 * edges : edges;
+    }
+
+    @Override
+    boolean spatial() {
+      return true;
+    }
+
+    @Override
+    void emit(SplittableRandom random, EdgeSink sink) {
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < cols; c++) {
+          int u = r * cols + c;
+          if (c + 1 < cols) road(random, sink, u, u + 1, r);
+          if (r + 1 < rows) road(random, sink, u, u + cols, c);
+        }
+      }
+    }
+
+    // Emits the edge (u, v) along the given row or column, unless it is removed. Faster roads
+    // take less time to drive through and carry more traffic.
+    private void road(SplittableRandom random, EdgeSink sink, int u, int v, int line) {
+      double speed = speed(line);
+      if (speed == 1 && random.nextDouble() < removeProbability) return;
+      double w = weight(random);
+      sink.addEdge(u, v, integral ? w * speed : w / speed);
+    }
+
+    private double speed(int line) {
+      if (!roadLike) return 1;
+      if (line % 40 == 0) return 8;
+      if (line % 8 == 0) return 3;
+      return 1;
+    }
+  }
+
+  /**
+   * A random geometric graph: n points placed uniformly at random in the unit square, with an edge
+   * between every two points at most 'radius' apart. Edges weigh their Euclidean length times a
+   * random factor from weights(), which defaults to 1. Geometric graphs are undirected by default
+   * and have large diameters, like meshes and sensor networks.
+   *
+   * <p>The points are sorted into square cells of side at least 'radius', so only the points of
+   * neighbouring cells are compared. This takes O(n + m) time and O(n) memory.
+   */
+  public static class GeometricGenerator extends EdgeGenerator<GeometricGenerator> {
+
+    final int n;
+    final double radius;
+
+    public GeometricGenerator(int n, double radius) {
+      super(true);
+      if (n < 0) throw new IllegalArgumentException("Bad number of nodes: " + n);
+      if (!(radius > 0)) throw new IllegalArgumentException("Bad radius: " + radius);
+      this.n = n;
+      this.radius = radius;
+    }
+
+    // The coordinates of the points as {x, y}, the same as used when generating the edges.
+    public double[][] coordinates() {
+      SplittableRandom random = new SplittableRandom(seed).split();
+      double[] x = new double[n], y = new double[n];
+      for (int i = 0; i < n; i++) {
+        x[i] = random.nextDouble();
+        y[i] = random.nextDouble();
+      }
+      return new double[][] {x, y};
+    }
+
+    @Override
+    public int numNodes() {
+      return n;
+    }
+
+    @Override
+    public long expectedEdges() {
+      double pairs = n * (n - 1.0) / 2 * Math.min(1, Math.PI * radius * radius);
+      return (long) (undirected ? 2 * pairs : pairs);
+    }
+
+    @Override
+    boolean spatial() {
+      return true;
+    }
+
+    @Override
+    void emit(SplittableRandom random, EdgeSink sink) {
+      random.split(); // The stream of the coordinates.
+      double[][] points = coordinates();
+      double[] x = points[0], y = points[1];
+
+      // Counting sort of the points into cells.
+      int side = (int) Math.max(1, Math.min(1 / radius, Math.sqrt(n) + 1));
+      int[] start = new int[side * side + 1], cell = new int[n], order = new int[n];
+      for (int i = 0; i < n; i++) {
+        cell[i] = cellOf(y[i], side) * side + cellOf(x[i], side);
+        start[cell[i] + 1]++;
+      }
+      for (int k = 0; k < side * side; k++) start[k + 1] += start[k];
+      int[] next = Arrays.copyOf(start, side * side);
+      for (int i = 0; i < n; i++) order[next[cell[i]]++] = i;
+
+      // Every pair is compared once, from the point with the smaller index.
+      for (int u = 0; u < n; u++) {
+        int cx = cell[u] % side, cy = cell[u] / side;
+        for (int dy = -1; dy <= 1; dy++) {
+          for (int dx = -1; dx <= 1; dx++) {
+            int nx = cx + dx, ny = cy + dy;
+            if (nx < 0 || ny < 0 || nx >= side || ny >= side) continue;
+            int k = ny * side + nx;
+            for (int i = start[k]; i < start[k + 1]; i++) {
+              int v = order[i];
+              if (v <= u) continue;
+              double length = Math.hypot(x[u] - x[v], y[u] - y[v]);
+              if (length > radius) continue;
+              double w = weight(random);
+              sink.addEdge(u, v, integral ? w : w * length);
+            }
+          }
+        }
+      }
+    }
+
+    private static int cellOf(double coordinate, int side) {
+      return Math.min(side - 1, (int) (coordinate * side));
+    }
+  }
+
+  /**
+   * Erdos-Renyi random graphs without self loops or duplicate edges, directed by default:
+   *
+   * <p>- gnp(n, p) includes each of the possible edges independently with probability p. Only the
+   * gaps between the included edges are drawn (Batagelj and Brandes), so this takes O(n + m) time
+   * and O(1) memory.
+   *
+   * <p>- gnm(n, m) picks exactly m distinct edges uniformly at random with Floyd's sampling
+   * algorithm, which takes O(m) time and memory for the set of picked edges (up to 2^29 edges).
+   */
+  public static class ErdosRenyiGenerator extends EdgeGenerator<ErdosRenyiGenerator> {
+
+    final int n;
+    final double p;
+    final long m;
+
+    private ErdosRenyiGenerator(int n, double p, long m) {
+      super(false);
+      if (n < 0) throw new IllegalArgumentException("Bad number of nodes: " + n);
+      this.n = n;
+      this.p = p;
+      this.m = m;
+    }
+
+    public static ErdosRenyiGenerator gnp(int n, double p) {
+      if (!(0 <= p && p <= 1)) throw new IllegalArgumentException("Bad probability: " + p);
+      return new ErdosRenyiGenerator(n, p, -1);
+    }
+
+    public static ErdosRenyiGenerator gnm(int n, long m) {
+      if (m < 0 || m > 1 << 29) throw new IllegalArgumentException("Bad number of edges: " + m);
+      return new ErdosRenyiGenerator(n, 0, m);
+    }
+
+    @Override
+    public int numNodes() {
+      return n;
+    }
+
+    // The number of possible edges, one per unordered pair when undirected.
+    private long pairs() {
+      long ordered = (long) n * (n - 1);
+      return undirected ? ordered / 2 : ordered;
+    }
+
+    @Override
+    public long expectedEdges() {
+      long edges = m >= 0 ? m : (long) (p * pairs());
+      return undirected ? 2 * edges : edges;
+    }
+
+    @Override
+    void emit(SplittableRandom random, EdgeSink sink) {
+      long pairs = pairs();
+      if (m > pairs) throw new IllegalStateException(m + " edges do not fit in " + n + " nodes");
+      if (m >= 0) emitGnm(random, sink, pairs);
+      else emitGnp(random, sink, pairs);
+    }
+
+    private void emitGnp(SplittableRandom random, EdgeSink sink, long pairs) {
+      if (p == 0) return;
+      double logQ = Math.log(1 - p);
+      for (long k = -1; ; ) {
+        // The gap to the next included pair follows a geometric distribution.
+        k += p == 1 ? 1 : 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / logQ);
+        if (k >= pairs || k < 0) return;
+        emitPair(random, sink, k);
+      }
+    }
+
+    // Floyd's algorithm: for each j in [pairs - m, pairs) pick a random pair up to j, taking j
+    // itself if that pair was already picked.
+    private void emitGnm(SplittableRandom random, EdgeSink sink, long pairs) {
+      LongSet picked = new LongSet(m);
+      for (long j = pairs - m; j < pairs; j++) {
+        long k = random.nextLong(j + 1);
+        if (!picked.add(k)) {
+          picked.add(j);
+          k = j;
+        }
+        emitPair(random, sink, k);
+      }
+    }
+
+    // Emits the k-th possible edge.
+    private void emitPair(SplittableRandom random, EdgeSink sink, long k) {
+      int u, v;
+      if (undirected) {
+        // The k-th pair (u, v) with v < u in row major order.
+        u = (int) ((1 + Math.sqrt(1 + 8.0 * k)) / 2);
+        while ((long) u * (u - 1) / 2 > k) u--;
+        while ((long) (u + 1) * u / 2 <= k) u++;
+        v = (int) (k - (long) u * (u - 1) / 2);
+      } else {
+        u = (int) (k / (n - 1));
+        v = (int) (k % (n - 1));
+        if (v >= u) v++;
+      }
+      sink.addEdge(u, v, weight(random));
+    }
+  }
+
+  // A random permutation of 0 to n - 1.
+  private static int[] permutation(int n, SplittableRandom random) {
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) p[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1), tmp = p[i];
+      p[i] = p[j];
+      p[j] = tmp;
+    }
+    return p;
+  }
+
+  // A set of at most 2^29 non-negative longs with open addressing, at most half full.
+  private static class LongSet {
+    private final long[] table;
+    private final int mask, shift;
+
+    LongSet(long maxSize) {
+      int bits = 1;
+      while ((1L << bits) < 2 * maxSize) bits++;
+      table = new long[1 << bits];
+      Arrays.fill(table, -1);
+      mask = table.length - 1;
+      shift = 64 - bits;
+    }
+
+    // Adds the value, returns false if it was already in the set.
+    boolean add(long value) {
+      int i = (int) (value * 0x9E3779B97F4A7C15L >>> shift);
+      while (table[i] != -1) {
+        if (table[i] == value) return false;
+        i = (i + 1) & mask;
+      }
+      table[i] = value;
+      return true;
+    }
+  }
+
   public static class DagGenerator {
     double edgeProbability;
     int minLevels, maxLevels, minNodesPerLevel, maxNodesPerLevel;
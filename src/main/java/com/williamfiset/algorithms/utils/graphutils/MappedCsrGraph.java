@@ -0,0 +1,460 @@
+/**
+ * A read only graph in compressed sparse row form (see {@link CsrGraph}) which lives inside a
+ * memory mapped file. Opening a graph only maps the file, which takes constant time no matter how
+ * large the graph is. The pages holding the edges are loaded by the operating system as a
+ * traversal touches them and stay in the page cache between runs, so no time is spent parsing
+ * edges or creating edge objects when a job starts.
+ *
+ * <p>Graph files are created with {@link #write(CsrGraph, Path)} or converted from a text edge
+ * list with {@link #convertEdgeList(Path, Path, boolean)}.
+ *
+ * <p>File layout, all numbers are little endian:
+ *
+ * <p>- a 64 byte header holding a magic number, the format version, the type of the weights (none,
+ * double or long), the number of nodes n and the number of edges m.
+ *
+ * <p>- n + 1 offsets of 8 bytes each, the edges of node u are offsets[u] to offsets[u + 1] - 1.
+ *
+ * <p>- m targets of 4 bytes each, followed by padding to a multiple of 8 bytes.
+ *
+ * <p>- m weights of 8 bytes each, if the graph is weighted.
+ *
+ * <p>Edge indexes are longs so that graphs with more than 2^31 edges can be stored. A single
+ * MappedByteBuffer cannot be larger than 2GB, so the file is mapped in segments of 1GB. Every
+ * section starts at a multiple of 8 bytes, so no number ever straddles two segments.
+ *
+ * <p>Instances are immutable and safe to share between threads.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class MappedCsrGraph implements Closeable {
+
+  // Header layout, all offsets are in bytes from the start of the file.
+  private static final int MAGIC = 0x47525343;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 4;
+  private static final int WEIGHT_TYPE_OFFSET = 8;
+  private static final int NODES_OFFSET = 16;
+  private static final int EDGES_OFFSET = 24;
+
+  // The possible types of the weights.
+  static final int UNWEIGHTED = 0, DOUBLE_WEIGHTS = 1, LONG_WEIGHTS = 2;
+
+  private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  // log2 of the number of bytes mapped by each segment.
+  static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+  private final Path file;
+  private final int n;
+  private final long m;
+  private final int weightType;
+  private final long targetsPosition, weightsPosition;
+  private final int segmentShift, segmentMask;
+  private ByteBuffer[] segments;
+
+  private MappedCsrGraph(
+      Path file, int n, long m, int weightType, ByteBuffer[] segments, int shift) {
+    this.file = file;
+    this.n = n;
+    this.m = m;
+    this.weightType = weightType;
+    this.targetsPosition = targetsPosition(n);
+    this.weightsPosition = weightsPosition(n, m);
+    this.segments = segments;
+    this.segmentShift = shift;
+    this.segmentMask = (1 << shift) - 1;
+  }
+
+  // Maps a graph file previously written by write() or convertEdgeList(). No edge is read
+  // until it is used.
+  public static MappedCsrGraph open(Path file) throws IOException {
+    return open(file, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  // Smaller segments let the tests exercise the mapping of multiple segments.
+  static MappedCsrGraph open(Path file, int segmentShift) throws IOException {
+    long fileBytes = Files.size(file);
+    if (fileBytes < HEADER_BYTES) throw new IOException("Not a graph file: " + file);
+
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(BYTE_ORDER);
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0) throw new IOException("Truncated header: " + file);
+      }
+      if (header.getInt(MAGIC_OFFSET) != MAGIC) throw new IOException("Not a graph file: " + file);
+      if (header.getInt(VERSION_OFFSET) != VERSION)
+        throw new IOException("Unsupported version: " + header.getInt(VERSION_OFFSET));
+
+      int weightType = header.getInt(WEIGHT_TYPE_OFFSET);
+      long n = header.getLong(NODES_OFFSET), m = header.getLong(EDGES_OFFSET);
+      if (weightType < UNWEIGHTED || weightType > LONG_WEIGHTS || n < 0 || n >= Integer.MAX_VALUE)
+        throw new IOException("Corrupt graph header: " + file);
+      if (m < 0 || fileBytes < fileSize((int) n, m, weightType))
+        throw new IOException("Truncated file: " + file);
+
+      long size = fileSize((int) n, m, weightType);
+      ByteBuffer[] segments = map(channel, READ_ONLY, size, segmentShift);
+      return new MappedCsrGraph(file, (int) n, m, weightType, segments, segmentShift);
+    }
+  }
+
+  // Returns the number of nodes in the graph.
+  public int numNodes() {
+    return n;
+  }
+
+  // Returns the number of directed edges in the graph.
+  public long numEdges() {
+    return m;
+  }
+
+  // Returns the index of the first edge leaving node u.
+  public long firstEdge(int u) {
+    return getLong(HEADER_BYTES + 8L * u);
+  }
+
+  // Returns one past the index of the last edge leaving node u.
+  public long endEdge(int u) {
+    return firstEdge(u + 1);
+  }
+
+  // Returns the number of edges leaving node u.
+  public int outDegree(int u) {
+    return (int) (endEdge(u) - firstEdge(u));
+  }
+
+  // Returns the node edge e points to.
+  public int target(long e) {
+    return getInt(targetsPosition + 4 * e);
+  }
+
+  public boolean hasDoubleWeights() {
+    return weightType == DOUBLE_WEIGHTS;
+  }
+
+  public boolean hasLongWeights() {
+    return weightType == LONG_WEIGHTS;
+  }
+
+  // Returns the weight of edge e as a double, unweighted edges weigh 1.
+  public double weight(long e) {
+    if (weightType == DOUBLE_WEIGHTS) return Double.longBitsToDouble(getLong(weightPosition(e)));
+    if (weightType == LONG_WEIGHTS) return getLong(weightPosition(e));
+    return 1;
+  }
+
+  // Returns the weight of edge e as a long, unweighted edges weigh 1.
+  public long longWeight(long e) {
+    if (weightType == LONG_WEIGHTS) return getLong(weightPosition(e));
+    if (weightType == DOUBLE_WEIGHTS) throw new IllegalStateException("Graph has double weights");
+    return 1;
+  }
+
+  // Copies the graph onto the heap, for the solvers which need a CsrGraph. This reads the
+  // whole file, but is still much faster than parsing the graph from text.
+  public CsrGraph toCsrGraph() {
+    if (m > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many edges: " + m);
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, (int) m);
+    for (int u = 0; u < n; u++) {
+      for (long e = firstEdge(u), end = endEdge(u); e < end; e++) {
+        if (weightType == DOUBLE_WEIGHTS) builder.addEdge(u, target(e), weight(e));
+        else if (weightType == LONG_WEIGHTS) builder.addEdge(u, target(e), longWeight(e));
+        else builder.addEdge(u, target(e));
+      }
+    }
+    return builder.build();
+  }
+
+  // Returns the file the graph is mapped from.
+  public Path getFile() {
+    return file;
+  }
+
+  // Releases the mapping. The memory is unmapped once the buffers are garbage collected,
+  // the graph must not be used afterwards.
+  @Override
+  public void close() {
+    segments = null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MappedCsrGraph(file=%s, nodes=%d, edges=%d)", file, n, m);
+  }
+
+  /* Writing graph files. */
+
+  // Writes the graph to a file which can then be mapped with open(). Replaces the file if it
+  // already exists.
+  public static void write(CsrGraph graph, Path file) throws IOException {
+    int n = graph.numNodes(), m = graph.numEdges();
+    int weightType = UNWEIGHTED;
+    if (graph.hasDoubleWeights()) weightType = DOUBLE_WEIGHTS;
+    if (graph.hasLongWeights()) weightType = LONG_WEIGHTS;
+    Writer writer = new Writer(file, n, m, weightType);
+
+    int[] offsets = graph.offsets(), targets = graph.targets();
+    for (int u = 0; u <= n; u++) writer.putOffset(u, offsets[u]);
+    for (int e = 0; e < m; e++) writer.putTarget(e, targets[e]);
+    if (weightType == DOUBLE_WEIGHTS) {
+      double[] weights = graph.weights();
+      for (int e = 0; e < m; e++) writer.putDoubleWeight(e, weights[e]);
+    } else if (weightType == LONG_WEIGHTS) {
+      long[] weights = graph.longWeights();
+      for (int e = 0; e < m; e++) writer.putLongWeight(e, weights[e]);
+    }
+    writer.finish();
+  }
+
+  // Converts a text edge list into a graph file. Every line holds an edge as 'from to' or
+  // 'from to weight' separated by spaces or tabs, nodes are numbered from 0 and the number of
+  // nodes is one more than the largest node index. Empty lines and lines starting with '#' or
+  // '%' are skipped. Weights are stored as longs if they are all integers, as doubles
+  // otherwise, and edges without a weight weigh 1. If 'undirected' is true every line adds an
+  // edge in each direction.
+  //
+  // The edge list is read twice, once to count the edges of every node and once to write
+  // them in place, so the memory used is proportional to the number of nodes only.
+  public static void convertEdgeList(Path edgeList, Path file, boolean undirected)
+      throws IOException {
+    convertEdgeList(edgeList, file, undirected, -1);
+  }
+
+  // Converts a text edge list into a graph file with exactly 'numNodes' nodes, so the nodes
+  // after the last one with an edge are kept. Throws an IOException if an edge has a node index
+  // of 'numNodes' or more. A negative 'numNodes' takes one more than the largest node index.
+  public static void convertEdgeList(Path edgeList, Path file, boolean undirected, int numNodes)
+      throws IOException {
+    // First pass: find the number of nodes, the degree of every node and the weight type.
+    long[] degree = new long[Math.max(16, numNodes)];
+    int n = Math.max(0, numNodes), weightType = UNWEIGHTED;
+    try (BufferedReader reader = Files.newBufferedReader(edgeList, StandardCharsets.UTF_8)) {
+      EdgeLine edge = new EdgeLine();
+      while (edge.next(reader)) {
+        int maxNode = Math.max(edge.from, edge.to);
+        if (numNodes >= 0 && maxNode >= numNodes)
+          throw edge.error("Node index out of range for " + numNodes + " nodes");
+        n = Math.max(n, maxNode + 1);
+        if (n > degree.length) degree = Arrays.copyOf(degree, Math.max(n, 2 * degree.length));
+        degree[edge.from]++;
+        if (undirected) degree[edge.to]++;
+        // A single weight which is not an integer makes all the weights doubles.
+        if (edge.weight != null && weightType != DOUBLE_WEIGHTS) {
+          weightType = isInteger(edge.weight) ? LONG_WEIGHTS : DOUBLE_WEIGHTS;
+        }
+      }
+    }
+
+    long m = 0;
+    long[] next = new long[n];
+    for (int u = 0; u < n; u++) {
+      next[u] = m;
+      m += degree[u];
+    }
+    degree = null;
+
+    // Second pass: write every edge at the next free position of its source node.
+    Writer writer = new Writer(file, n, m, weightType);
+    for (int u = 0; u < n; u++) writer.putOffset(u, next[u]);
+    writer.putOffset(n, m);
+    try (BufferedReader reader = Files.newBufferedReader(edgeList, StandardCharsets.UTF_8)) {
+      EdgeLine edge = new EdgeLine();
+      while (edge.next(reader)) {
+        writer.putEdge(next[edge.from]++, edge.to, edge.weight);
+        if (undirected) writer.putEdge(next[edge.to]++, edge.from, edge.weight);
+      }
+    }
+    writer.finish();
+  }
+
+  private static boolean isInteger(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if ((c < '0' || c > '9') && !(i == 0 && (c == '-' || c == '+'))) return false;
+    }
+    return s.length() > (s.charAt(0) == '-' || s.charAt(0) == '+' ? 1 : 0);
+  }
+
+  // Parses the lines of a text edge list. The node indexes are parsed by hand rather than
+  // with String.split() and Integer.parseInt() which would create several objects per edge.
+  private static class EdgeLine {
+    int from, to;
+    String weight;
+    private int lineNumber;
+    private String line;
+    private int pos;
+
+    // Reads the next edge, returns false at the end of the input.
+    boolean next(BufferedReader reader) throws IOException {
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        pos = 0;
+        skipSpaces();
+        if (pos == line.length() || line.charAt(pos) == '#' || line.charAt(pos) == '%') continue;
+
+        from = parseNode();
+        to = parseNode();
+        skipSpaces();
+        int start = pos;
+        while (pos < line.length() && !isSpace(line.charAt(pos))) pos++;
+        weight = start == pos ? null : line.substring(start, pos);
+        skipSpaces();
+        if (pos != line.length()) throw error("Unexpected text");
+        return true;
+      }
+      return false;
+    }
+
+    private int parseNode() throws IOException {
+      skipSpaces();
+      long value = 0;
+      int start = pos;
+      for (; pos < line.length() && !isSpace(line.charAt(pos)); pos++) {
+        char c = line.charAt(pos);
+        if (c < '0' || c > '9') throw error("Invalid node index");
+        value = value * 10 + (c - '0');
+        if (value >= Integer.MAX_VALUE) throw error("Node index too large");
+      }
+      if (start == pos) throw error("Missing node index");
+      return (int) value;
+    }
+
+    private void skipSpaces() {
+      while (pos < line.length() && isSpace(line.charAt(pos))) pos++;
+    }
+
+    private static boolean isSpace(char c) {
+      return c == ' ' || c == '\t';
+    }
+
+    IOException error(String message) {
+      return new IOException(message + " on line " + lineNumber + ": " + line);
+    }
+  }
+
+  // Creates a graph file of the right size and fills in its sections.
+  private static class Writer {
+    private final int weightType, segmentShift, segmentMask;
+    private final long targetsPosition, weightsPosition;
+    private final ByteBuffer[] segments;
+
+    Writer(Path file, int n, long m, int weightType) throws IOException {
+      this.weightType = weightType;
+      this.targetsPosition = targetsPosition(n);
+      this.weightsPosition = weightsPosition(n, m);
+      this.segmentShift = DEFAULT_SEGMENT_SHIFT;
+      this.segmentMask = (1 << segmentShift) - 1;
+      long size = fileSize(n, m, weightType);
+      try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+        segments = map(channel, READ_WRITE, size, segmentShift);
+      }
+      ByteBuffer header = segments[0];
+      header.putInt(MAGIC_OFFSET, MAGIC);
+      header.putInt(VERSION_OFFSET, VERSION);
+      header.putInt(WEIGHT_TYPE_OFFSET, weightType);
+      header.putLong(NODES_OFFSET, n);
+      header.putLong(EDGES_OFFSET, m);
+    }
+
+    void putOffset(int u, long offset) {
+      putLong(HEADER_BYTES + 8L * u, offset);
+    }
+
+    void putTarget(long e, int v) {
+      long position = targetsPosition + 4 * e;
+      segments[(int) (position >>> segmentShift)].putInt((int) position & segmentMask, v);
+    }
+
+    void putDoubleWeight(long e, double weight) {
+      putLong(weightsPosition + 8 * e, Double.doubleToRawLongBits(weight));
+    }
+
+    void putLongWeight(long e, long weight) {
+      putLong(weightsPosition + 8 * e, weight);
+    }
+
+    // Writes edge e given the weight as it appeared in the edge list.
+    void putEdge(long e, int v, String weight) throws IOException {
+      putTarget(e, v);
+      try {
+        if (weightType == DOUBLE_WEIGHTS)
+          putDoubleWeight(e, weight == null ? 1 : Double.parseDouble(weight));
+        else if (weightType == LONG_WEIGHTS)
+          putLongWeight(e, weight == null ? 1 : Long.parseLong(weight));
+      } catch (NumberFormatException ex) {
+        throw new IOException("Invalid weight: " + weight, ex);
+      }
+    }
+
+    void finish() {
+      for (ByteBuffer segment : segments) ((MappedByteBuffer) segment).force();
+    }
+
+    private void putLong(long position, long value) {
+      segments[(int) (position >>> segmentShift)].putLong((int) position & segmentMask, value);
+    }
+  }
+
+  /* File layout helpers. */
+
+  private static long targetsPosition(int n) {
+    return HEADER_BYTES + 8L * (n + 1);
+  }
+
+  private static long weightsPosition(int n, long m) {
+    return targetsPosition(n) + ((4 * m + 7) & ~7L);
+  }
+
+  private long weightPosition(long e) {
+    return weightsPosition + 8 * e;
+  }
+
+  private static long fileSize(int n, long m, int weightType) {
+    return weightsPosition(n, m) + (weightType == UNWEIGHTED ? 0 : 8 * m);
+  }
+
+  private static ByteBuffer[] map(
+      FileChannel channel, FileChannel.MapMode mode, long size, int shift) throws IOException {
+    long segmentBytes = 1L << shift;
+    int count = (int) ((size + segmentBytes - 1) >> shift);
+    ByteBuffer[] result = new ByteBuffer[count];
+    for (int s = 0; s < count; s++) {
+      long position = (long) s << shift;
+      result[s] = channel.map(mode, position, Math.min(segmentBytes, size - position));
+      result[s].order(BYTE_ORDER);
+    }
+    return result;
+  }
+
+  private int getInt(long position) {
+    return segments[(int) (position >>> segmentShift)].getInt((int) position & segmentMask);
+  }
+
+  private long getLong(long position) {
+    return segments[(int) (position >>> segmentShift)].getLong((int) position & segmentMask);
+  }
+}
@@ -0,0 +1,112 @@
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+
+public class BlockedBloomFilterTest {
+
+  static final Random random = new Random();
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalFalsePositiveRate() {
+    new BlockedBloomFilter(1000, 1.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalExpectedInsertions() {
+    new BlockedBloomFilter(-1, 0.01);
+  }
+
+  @Test
+  public void testNoFalseNegatives() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(10000, 0.01);
+    long[] hashes = new long[10000];
+    for (int i = 0; i < hashes.length; i++) hashes[i] = random.nextLong();
+    for (long hash : hashes) filter.add(hash);
+    for (long hash : hashes) assertThat(filter.contains(hash)).isTrue();
+    assertThat(filter.containsAll(hashes)).isTrue();
+  }
+
+  @Test
+  public void testFalsePositiveRate() {
+    final int n = 100000, queries = 1000000;
+    for (double rate : new double[] {0.1, 0.01, 0.001}) {
+      BlockedBloomFilter filter = new BlockedBloomFilter(n, rate);
+
+      // Sequential keys are a worst case for weak hashing.
+      for (long key = 0; key < n; key++) filter.add(key);
+
+      int falsePositives = 0;
+      for (long key = n; key < n + queries; key++) if (filter.contains(key)) falsePositives++;
+
+      double measured = (double) falsePositives / queries;
+      assertThat(measured).isLessThan(rate * 1.2);
+      assertThat(filter.expectedFalsePositiveRate(n)).isAtMost(rate);
+    }
+  }
+
+  @Test
+  public void testSizing() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(1000000, 0.01);
+    double bitsPerKey = filter.getNumBits() / 1e6;
+
+    // A standard bloom filter needs 9.59 bits per key for a 1% false positive rate,
+    // blocking should only cost a little more than that.
+    assertThat(bitsPerKey).isAtLeast(9.5);
+    assertThat(bitsPerKey).isAtMost(11.0);
+    assertThat(filter.getNumHashes()).isAtLeast(5);
+    assertThat(filter.getNumHashes()).isAtMost(8);
+  }
+
+  @Test
+  public void testBatchContains() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(5000, 0.05);
+    long[] added = new long[5000];
+    for (int i = 0; i < added.length; i++) added[i] = random.nextLong();
+    filter.addAll(added);
+
+    long[] queries = new long[20000];
+    for (int i = 0; i < queries.length; i++) {
+      queries[i] = i < added.length ? added[i] : random.nextLong();
+    }
+
+    boolean[] results = new boolean[queries.length];
+    int count = filter.containsAll(queries, results);
+
+    int expectedCount = 0;
+    for (int i = 0; i < queries.length; i++) {
+      assertThat(results[i]).isEqualTo(filter.contains(queries[i]));
+      if (results[i]) expectedCount++;
+    }
+    assertThat(count).isEqualTo(expectedCount);
+    assertThat(filter.containsAll(queries)).isEqualTo(count == queries.length);
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    BlockedBloomFilter filter = new BlockedBloomFilter(50000, 0.02);
+    for (int i = 0; i < 50000; i++) filter.add(random.nextLong());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    BlockedBloomFilter copy = BlockedBloomFilter.readFrom(in);
+
+    assertThat(copy.getNumBits()).isEqualTo(filter.getNumBits());
+    assertThat(copy.getNumHashes()).isEqualTo(filter.getNumHashes());
+    for (int i = 0; i < 100000; i++) {
+      long hash = random.nextLong();
+      assertThat(copy.contains(hash)).isEqualTo(filter.contains(hash));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadCorruptStream() throws IOException {
+    BlockedBloomFilter.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+  }
+}
@@ -0,0 +1,153 @@
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.Test;
+
+public class ConcurrentBlockedBloomFilterTest {
+
+  static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors());
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalFalsePositiveRate() {
+    new ConcurrentBlockedBloomFilter(1000, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentShapes() {
+    new ConcurrentBlockedBloomFilter(1000, 0.01).merge(new ConcurrentBlockedBloomFilter(10, 0.01));
+  }
+
+  @Test
+  public void testSameShapeAsBlockedBloomFilter() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(123456, 0.003);
+    ConcurrentBlockedBloomFilter concurrentFilter = new ConcurrentBlockedBloomFilter(123456, 0.003);
+    assertThat(concurrentFilter.getNumBits()).isEqualTo(filter.getNumBits());
+    assertThat(concurrentFilter.getNumHashes()).isEqualTo(filter.getNumHashes());
+
+    Random random = new Random();
+    for (int i = 0; i < 100000; i++) {
+      long hash = random.nextLong();
+      filter.add(hash);
+      concurrentFilter.add(hash);
+    }
+    for (int i = 0; i < 100000; i++) {
+      long hash = random.nextLong();
+      assertThat(concurrentFilter.contains(hash)).isEqualTo(filter.contains(hash));
+    }
+  }
+
+  // Many threads adding keys to a small filter, so that they constantly race to update
+  // the same words. Not a single key may go missing.
+  @Test
+  public void testNoFalseNegativesUnderContention() throws Exception {
+    final int keysPerThread = 20000;
+    for (int expectedInsertions : new int[] {100, 1000000}) {
+      final ConcurrentBlockedBloomFilter filter =
+          new ConcurrentBlockedBloomFilter(expectedInsertions, 0.01);
+      runConcurrently(t -> filter.addAll(keys(t, keysPerThread)));
+      for (int t = 0; t < THREADS; t++) {
+        assertThat(filter.containsAll(keys(t, keysPerThread))).isTrue();
+      }
+    }
+  }
+
+  // Readers run alongside the writers and check every key a writer has finished adding.
+  @Test
+  public void testConcurrentReadersSeeCompletedAdds() throws Exception {
+    final int keysPerThread = 50000;
+    final ConcurrentBlockedBloomFilter filter =
+        new ConcurrentBlockedBloomFilter(THREADS * keysPerThread, 0.01);
+    final AtomicLongArray added = new AtomicLongArray(THREADS);
+    final AtomicBoolean failed = new AtomicBoolean();
+
+    runConcurrently(
+        t -> {
+          long[] keys = keys(t, keysPerThread);
+          if (t % 2 == 0) {
+            for (int i = 0; i < keys.length; i++) {
+              filter.add(keys[i]);
+              added.set(t, i + 1);
+            }
+          } else {
+            // Check the keys of the writer thread t - 1 as they are added.
+            long[] writerKeys = keys(t - 1, keysPerThread);
+            int checked = 0;
+            while (checked < writerKeys.length) {
+              long upTo = added.get(t - 1);
+              for (; checked < upTo; checked++) {
+                if (!filter.contains(writerKeys[checked])) failed.set(true);
+              }
+            }
+          }
+        });
+    assertThat(failed.get()).isFalse();
+  }
+
+  @Test
+  public void testMergePerThreadFilters() throws Exception {
+    final int keysPerThread = 20000;
+    final List<ConcurrentBlockedBloomFilter> filters = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      filters.add(new ConcurrentBlockedBloomFilter(THREADS * keysPerThread, 0.01));
+    }
+    runConcurrently(t -> filters.get(t).addAll(keys(t, keysPerThread)));
+
+    // Merge all filters into the first one, concurrently.
+    final ConcurrentBlockedBloomFilter merged = filters.get(0);
+    runConcurrently(
+        t -> {
+          if (t > 0) merged.merge(filters.get(t));
+        });
+    for (int t = 0; t < THREADS; t++) {
+      assertThat(merged.containsAll(keys(t, keysPerThread))).isTrue();
+    }
+
+    // Merging must not make the filter report many more false positives than expected.
+    int falsePositives = 0;
+    Random random = new Random();
+    for (int i = 0; i < 100000; i++) if (merged.contains(random.nextLong())) falsePositives++;
+    assertThat(falsePositives).isLessThan(1500);
+  }
+
+  // Deterministic but well spread out keys for thread t.
+  static long[] keys(int t, int n) {
+    long[] keys = new long[n];
+    Random random = new Random(t);
+    for (int i = 0; i < n; i++) keys[i] = random.nextLong();
+    return keys;
+  }
+
+  interface ThreadTask {
+    void run(int thread);
+  }
+
+  // Runs the task on THREADS threads, released at the same time to maximize contention.
+  static void runConcurrently(ThreadTask task) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int thread = t;
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                task.run(thread);
+                return null;
+              }));
+    }
+    start.countDown();
+    try {
+      for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -5,7 +5,12 @@
  */
 package com.williamfiset.algorithms.datastructures.hashtable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.IntConsumer;
 
 public class Benchmark {
 
@@ -31,6 +36,18 @@ public class Benchmark {
     testQuadraticProbing();
     testDoubleHashing();
     testHashMapSpeed();
+    for (ProbingStrategy probing : ProbingStrategy.values()) testIntIntMap(probing);
+    testMemoryFootprint();
+    testProbeLengthsUnderChurn(new HashTableLinearProbing<>());
+    testProbeLengthsUnderChurn(new HashTableRobinHood<>());
+    testMappedLongLongMapStartup();
+    testWorstCaseInsertLatency(false);
+    testWorstCaseInsertLatency(true);
+    int processors = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= processors; threads++) {
+      testSynchronizedSeparateChaining(threads);
+      testConcurrentSeparateChaining(threads);
+    }
   }
 
   public static void testLinearProbing() {
@@ -90,4 +107,200 @@ public class Benchmark {
     long end = System.nanoTime();
     System.out.println("HashMap: " + (end - start) / 1e9);
   }
+
+  public static void testIntIntMap(ProbingStrategy probing) {
+
+    IntIntMap map = new IntIntMap(probing);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      map.put(keys[i], values[i]);
+      int val = map.get(keys[i]);
+      if (val != values[i]) System.out.println("Not good..");
+    }
+    long end = System.nanoTime();
+    System.out.println("IntIntMap (" + probing + "): " + (end - start) / 1e9);
+  }
+
+  // Measures the memory retained by each table holding N entries. The keys and
+  // values themselves are counted since boxing them is part of the cost.
+  public static void testMemoryFootprint() {
+    System.out.println();
+    System.out.println("Retained memory for " + N + " entries:");
+
+    long before = usedMemory();
+    HashTableLinearProbing<Integer, Integer> generic = new HashTableLinearProbing<>();
+    for (int i = 0; i < N; i++) generic.put(keys[i], values[i]);
+    System.out.println("HashTableLinearProbing: " + (usedMemory() - before) / N + " bytes/entry");
+    generic = null;
+
+    before = usedMemory();
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+    for (int i = 0; i < N; i++) jmap.put(keys[i], values[i]);
+    System.out.println("HashMap: " + (usedMemory() - before) / N + " bytes/entry");
+    jmap = null;
+
+    before = usedMemory();
+    IntIntMap intIntMap = new IntIntMap();
+    for (int i = 0; i < N; i++) intIntMap.put(keys[i], values[i]);
+    System.out.println("IntIntMap: " + (usedMemory() - before) / N + " bytes/entry");
+    intIntMap = null;
+
+    before = usedMemory();
+    LongLongMap longLongMap = new LongLongMap();
+    for (int i = 0; i < N; i++) longLongMap.put(keys[i], values[i]);
+    System.out.println("LongLongMap: " + (usedMemory() - before) / N + " bytes/entry");
+    longLongMap = null;
+  }
+
+  // Returns the heap memory in use after trying hard to collect all garbage.
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  // Keeps N / 10 keys alive while repeatedly removing the oldest key and inserting
+  // a new one, then reports the probe lengths needed to find the remaining keys.
+  public static void testProbeLengthsUnderChurn(HashTableOpenAddressingBase<Integer, Integer> map) {
+    final int liveKeys = N / 10;
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      if (i >= liveKeys) map.remove(keys[i - liveKeys]);
+      map.put(keys[i], values[i]);
+    }
+    long end = System.nanoTime();
+
+    int[] histogram = map.probeLengthHistogram();
+    long total = 0, count = 0;
+    for (int length = 0; length < histogram.length; length++) {
+      total += (long) length * histogram[length];
+      count += histogram[length];
+    }
+    System.out.printf(
+        "%s churn: %.3fs, mean probe length %.2f, max probe length %d, capacity %d%n",
+        map.getClass().getSimpleName(),
+        (end - start) / 1e9,
+        (double) total / count,
+        histogram.length - 1,
+        map.getCapacity());
+  }
+
+  // Compares rebuilding an on-heap LongLongMap with reopening a MappedLongLongMap that was
+  // persisted earlier, along with the heap each of them occupies once it is ready to use.
+  public static void testMappedLongLongMapStartup() {
+    try {
+      long before = usedMemory();
+      long start = System.nanoTime();
+      LongLongMap heapMap = new LongLongMap();
+      for (int i = 0; i < N; i++) heapMap.put(keys[i], values[i]);
+      long end = System.nanoTime();
+      System.out.printf(
+          "LongLongMap rebuild: %.3fs, heap %d bytes%n",
+          (end - start) / 1e9, usedMemory() - before);
+      heapMap = null;
+
+      Path file = Files.createTempFile("mapped-long-long-map", ".bin");
+      try (MappedLongLongMap map = MappedLongLongMap.create(file)) {
+        for (int i = 0; i < N; i++) map.put(keys[i], values[i]);
+      }
+
+      before = usedMemory();
+      start = System.nanoTime();
+      MappedLongLongMap map = MappedLongLongMap.open(file);
+      end = System.nanoTime();
+      System.out.printf(
+          "MappedLongLongMap reopen: %.6fs, heap %d bytes, file %d bytes%n",
+          (end - start) / 1e9, usedMemory() - before, Files.size(file));
+
+      start = System.nanoTime();
+      for (int i = 0; i < N; i++) {
+        if (!map.containsKey(keys[i])) System.out.println("Not good..");
+      }
+      end = System.nanoTime();
+      System.out.printf("MappedLongLongMap first lookups: %.3fs%n", (end - start) / 1e9);
+      map.close();
+      Files.delete(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Reports the slowest single insertion, which without incremental resizing is
+  // dominated by the insertion that triggers the rehash of the whole table.
+  public static void testWorstCaseInsertLatency(boolean incrementalResizing) {
+    HashTableLinearProbing<Integer, Integer> map = new HashTableLinearProbing<>();
+    map.setIncrementalResizing(incrementalResizing);
+    long worst = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      long before = System.nanoTime();
+      map.put(keys[i], values[i]);
+      worst = Math.max(worst, System.nanoTime() - before);
+    }
+    long end = System.nanoTime();
+    System.out.printf(
+        "Linear probing (incremental resizing %s): %.3fs, worst insert %.3fms%n",
+        incrementalResizing ? "on" : "off", (end - start) / 1e9, worst / 1e6);
+  }
+
+  // A single HashTableSeparateChaining guarded by one global lock, the baseline the
+  // lock striped table is compared against.
+  public static void testSynchronizedSeparateChaining(int threads) {
+    final HashTableSeparateChaining<Integer, Integer> map = new HashTableSeparateChaining<>();
+    double seconds =
+        runConcurrently(
+            threads,
+            i -> {
+              synchronized (map) {
+                map.put(keys[i], values[i]);
+                map.get(keys[i]);
+                if ((i & 3) == 0) map.remove(keys[i]);
+              }
+            });
+    printThroughput("Synchronized separate chaining", threads, seconds);
+  }
+
+  public static void testConcurrentSeparateChaining(int threads) {
+    final ConcurrentHashTableSeparateChaining<Integer, Integer> map =
+        new ConcurrentHashTableSeparateChaining<>();
+    double seconds =
+        runConcurrently(
+            threads,
+            i -> {
+              map.put(keys[i], values[i]);
+              map.get(keys[i]);
+              if ((i & 3) == 0) map.remove(keys[i]);
+            });
+    printThroughput("Concurrent separate chaining", threads, seconds);
+  }
+
+  // Splits the indexes [0, N) evenly between the threads and returns the wall
+  // clock time in seconds it took all of them to run the operation on their share.
+  private static double runConcurrently(int threads, IntConsumer operation) {
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      final int lo = (int) ((long) N * t / threads), hi = (int) ((long) N * (t + 1) / threads);
+      workers[t] =
+          new Thread(
+              () -> {
+                for (int i = lo; i < hi; i++) operation.accept(i);
+              });
+    }
+    long start = System.nanoTime();
+    for (Thread worker : workers) worker.start();
+    try {
+      for (Thread worker : workers) worker.join();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+    return (System.nanoTime() - start) / 1e9;
+  }
+
+  // Every index does a put and a get, and every fourth index also does a remove.
+  private static void printThroughput(String name, int threads, double seconds) {
+    System.out.printf(
+        "%s, %d thread(s): %.3fs, %.2f million ops/s%n",
+        name, threads, seconds, 2.25 * N / seconds / 1e6);
+  }
 }
@@ -0,0 +1,186 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.*;
+
+public class ConcurrentHashTableSeparateChainingTest {
+
+  static final Random RANDOM = new Random();
+  static final int LOOPS = 200, MAX_SIZE = 750, MAX_RAND_NUM = 350;
+  static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+  ConcurrentHashTableSeparateChaining<Integer, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new ConcurrentHashTableSeparateChaining<>();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey() {
+    map.put(null, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation1() {
+    new ConcurrentHashTableSeparateChaining<>(-3, 0.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation2() {
+    new ConcurrentHashTableSeparateChaining<>(5, Double.POSITIVE_INFINITY);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation3() {
+    new ConcurrentHashTableSeparateChaining<>(5, 0.75, 0);
+  }
+
+  @Test
+  public void testUpdatingValue() {
+    map.add(1, 1);
+    assertThat(map.get(1)).isEqualTo(1);
+
+    map.add(1, 5);
+    assertThat(map.get(1)).isEqualTo(5);
+
+    map.add(1, -7);
+    assertThat(map.get(1)).isEqualTo(-7);
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+
+    for (int loop = 0; loop < LOOPS; loop++) {
+      map = new ConcurrentHashTableSeparateChaining<>(1, 0.75, 4);
+      jmap.clear();
+
+      final double probability1 = Math.random();
+      final double probability2 = Math.random();
+
+      for (int i = 0; i < MAX_SIZE; i++) {
+        double r = Math.random();
+        int key = RANDOM.nextInt(2 * MAX_RAND_NUM + 1) - MAX_RAND_NUM;
+
+        if (r < probability1) assertThat(map.put(key, i)).isEqualTo(jmap.put(key, i));
+
+        assertThat(map.get(key)).isEqualTo(jmap.get(key));
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+
+        if (r > probability2) assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+
+        assertThat(map.get(key)).isEqualTo(jmap.get(key));
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+      }
+
+      assertThat(new HashSet<>(map.keys())).isEqualTo(jmap.keySet());
+    }
+  }
+
+  @Test
+  public void testClear() {
+    for (int i = 0; i < 10000; i++) map.put(i, i);
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.keys()).isEmpty();
+    for (int i = 0; i < 10000; i++) assertThat(map.containsKey(i)).isFalse();
+  }
+
+  // Each writer thread inserts its own range of keys, checks they can be read back
+  // while other threads keep growing (and therefore resizing) the table, and then
+  // removes half of them again. Reader threads check that keys never disappear.
+  @Test
+  public void testConcurrentWritersAndReaders() throws Exception {
+    for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+      final int keysPerThread = 20000;
+      final ConcurrentHashTableSeparateChaining<Integer, Integer> m =
+          new ConcurrentHashTableSeparateChaining<>();
+      final AtomicBoolean failed = new AtomicBoolean();
+      final AtomicBoolean done = new AtomicBoolean();
+      ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+      List<Future<?>> futures = new ArrayList<>();
+
+      // The reader only looks at the keys of the first writer, which are never removed
+      // once the first half of them has been inserted.
+      final int permanentKeys = keysPerThread / 2;
+      futures.add(
+          pool.submit(
+              () -> {
+                while (!done.get()) {
+                  int inserted = 0;
+                  while (inserted < permanentKeys && m.containsKey(inserted)) inserted++;
+                  for (int k = 0; k < inserted; k++) {
+                    Integer value = m.get(k);
+                    if (value == null || value != k) failed.set(true);
+                  }
+                  if (inserted == permanentKeys) return;
+                }
+              }));
+
+      for (int t = 0; t < threads; t++) {
+        final int base = t * keysPerThread;
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int k = base; k < base + keysPerThread; k++) m.put(k, k);
+                  for (int k = base; k < base + keysPerThread; k++) {
+                    Integer value = m.get(k);
+                    if (value == null || value != k) failed.set(true);
+                  }
+                  for (int k = base + permanentKeys; k < base + keysPerThread; k++) {
+                    if (m.remove(k) == null) failed.set(true);
+                  }
+                }));
+      }
+
+      for (int i = 1; i < futures.size(); i++) futures.get(i).get(60, TimeUnit.SECONDS);
+      done.set(true);
+      futures.get(0).get(60, TimeUnit.SECONDS);
+      pool.shutdown();
+
+      assertThat(failed.get()).isFalse();
+      assertThat(m.size()).isEqualTo(threads * permanentKeys);
+      assertThat(m.keys()).hasSize(threads * permanentKeys);
+      for (int t = 0; t < threads; t++) {
+        for (int k = t * keysPerThread; k < t * keysPerThread + permanentKeys; k++) {
+          assertThat(m.get(k)).isEqualTo(k);
+        }
+      }
+    }
+  }
+
+  // Threads racing to update the same keys must leave the size consistent.
+  @Test
+  public void testConcurrentUpdatesOfSameKeys() throws Exception {
+    final int threads = MAX_THREADS, keys = 1000, rounds = 200;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                Random random = new Random();
+                for (int r = 0; r < rounds; r++) {
+                  for (int k = 0; k < keys; k++) {
+                    if (random.nextBoolean()) map.put(k, k);
+                    else map.remove(k);
+                  }
+                }
+              }));
+    }
+    for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+    pool.shutdown();
+
+    int present = 0;
+    for (int k = 0; k < keys; k++) if (map.containsKey(k)) present++;
+    assertThat(map.size()).isEqualTo(present);
+    assertThat(map.keys()).hasSize(present);
+  }
+}
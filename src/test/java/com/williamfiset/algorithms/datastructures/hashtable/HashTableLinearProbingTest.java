@@ -250,6 +250,72 @@ public class HashTableLinearProbingTest {
       }
     }
   }
+  @Test
+  public void testRandomMapOperationsIncrementalResizing() {
+
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+
+    for (int loop = 0; loop < LOOPS; loop++) {
+
+      double loadFactor = 0.1 + 0.8 * RANDOM.nextDouble();
+      map = new HashTableLinearProbing<>(1, loadFactor);
+      map.setIncrementalResizing(true);
+      jmap.clear();
+
+      final double probability1 = Math.random();
+      final double probability2 = Math.random();
+
+      List<Integer> nums = genRandList(MAX_SIZE);
+      for (int i = 0; i < MAX_SIZE; i++) {
+
+        double r = Math.random();
+
+        Integer key = nums.get(i);
+        int val = i;
+
+        if (r < probability1) assertThat(jmap.put(key, val)).isEqualTo(map.put(key, val));
+
+        assertThat(jmap.get(key)).isEqualTo(map.get(key));
+        assertThat(jmap.containsKey(key)).isEqualTo(map.containsKey(key));
+        assertThat(jmap.size()).isEqualTo(map.size());
+
+        if (r > probability2) assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+
+        assertThat(jmap.get(key)).isEqualTo(map.get(key));
+        assertThat(jmap.containsKey(key)).isEqualTo(map.containsKey(key));
+        assertThat(jmap.size()).isEqualTo(map.size());
+      }
+
+      assertThat(new HashSet<>(map.keys())).isEqualTo(jmap.keySet());
+    }
+  }
+
+  @Test
+  public void testIncrementalResizing() {
+    final int n = 100000;
+    map.setIncrementalResizing(true);
+
+    boolean migrated = false;
+    for (int i = 0; i < n; i++) {
+      map.put(i, i);
+      migrated |= map.isMigrating();
+      int j = RANDOM.nextInt(i + 1);
+      assertThat(map.get(j)).isEqualTo(j);
+    }
+    assertThat(migrated).isTrue();
+    assertThat(map.size()).isEqualTo(n);
+
+    for (int i = 0; i < n; i += 2) assertThat(map.remove(i)).isEqualTo(i);
+    for (int i = 0; i < n; i++) assertThat(map.containsKey(i)).isEqualTo(i % 2 == 1);
+    assertThat(map.keys()).hasSize(n / 2);
+    assertThat(map.isMigrating()).isFalse();
+
+    map.setIncrementalResizing(false);
+    for (int i = 0; i < n; i++) map.put(i, -i);
+    assertThat(map.isMigrating()).isFalse();
+    for (int i = 0; i < n; i++) assertThat(map.get(i)).isEqualTo(-i);
+  }
+
 
   @Test
   public void randomIteratorTests() {
@@ -0,0 +1,134 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import org.junit.*;
+
+public class IntIntMapTest {
+
+  static final Random RANDOM = new Random();
+  static final int LOOPS = 100, MAX_SIZE = 750, MAX_RAND_NUM = 350;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation1() {
+    new IntIntMap(ProbingStrategy.LINEAR, -3, 0.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation2() {
+    new IntIntMap(ProbingStrategy.LINEAR, 5, 1.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation3() {
+    new IntIntMap(null, 5, 0.5);
+  }
+
+  @Test
+  public void testUpdatingValue() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      IntIntMap map = new IntIntMap(probing);
+      assertThat(map.put(1, 1)).isEqualTo(0);
+      assertThat(map.get(1)).isEqualTo(1);
+      assertThat(map.put(1, 5)).isEqualTo(1);
+      assertThat(map.get(1)).isEqualTo(5);
+      assertThat(map.size()).isEqualTo(1);
+    }
+  }
+
+  // The sentinel keys are stored outside of the table but must behave like any other key.
+  @Test
+  public void testSentinelKeys() {
+    IntIntMap map = new IntIntMap();
+    int[] sentinels = {0, Integer.MIN_VALUE};
+    for (int key : sentinels) {
+      assertThat(map.containsKey(key)).isFalse();
+      assertThat(map.get(key, -1)).isEqualTo(-1);
+      assertThat(map.put(key, 7)).isEqualTo(0);
+      assertThat(map.put(key, 8)).isEqualTo(7);
+      assertThat(map.containsKey(key)).isTrue();
+      assertThat(map.get(key)).isEqualTo(8);
+    }
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.keys()).isEqualTo(new int[] {0, Integer.MIN_VALUE});
+    for (int key : sentinels) assertThat(map.remove(key)).isEqualTo(8);
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testGetMissingKey() {
+    IntIntMap map = new IntIntMap();
+    map.put(3, 4);
+    assertThat(map.get(5)).isEqualTo(0);
+    assertThat(map.get(5, -1)).isEqualTo(-1);
+    assertThat(map.containsKey(5)).isFalse();
+  }
+
+  // Repeatedly inserting and removing keys fills the table with deleted buckets
+  // which must be reclaimed on resize rather than growing the table forever.
+  @Test
+  public void testChurnDoesNotGrowTable() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      IntIntMap map = new IntIntMap(probing);
+      for (int i = 1; i <= 100000; i++) {
+        map.put(i, i);
+        map.remove(i);
+      }
+      assertThat(map.isEmpty()).isTrue();
+      assertThat(map.getCapacity()).isLessThan(64);
+    }
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      HashMap<Integer, Integer> jmap = new HashMap<>();
+      for (int loop = 0; loop < LOOPS; loop++) {
+        IntIntMap map = new IntIntMap(probing);
+        jmap.clear();
+
+        final double probability1 = Math.random();
+        final double probability2 = Math.random();
+
+        for (int i = 0; i < MAX_SIZE; i++) {
+          double r = Math.random();
+          int key = randInt(-MAX_RAND_NUM, MAX_RAND_NUM);
+
+          if (r < probability1) assertThat(map.put(key, i)).isEqualTo(orZero(jmap.put(key, i)));
+
+          assertThat(map.get(key)).isEqualTo(orZero(jmap.get(key)));
+          assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+          assertThat(map.size()).isEqualTo(jmap.size());
+
+          if (r > probability2) assertThat(map.remove(key)).isEqualTo(orZero(jmap.remove(key)));
+
+          assertThat(map.get(key)).isEqualTo(orZero(jmap.get(key)));
+          assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+          assertThat(map.size()).isEqualTo(jmap.size());
+        }
+
+        int[] keys = map.keys(), values = map.values();
+        assertThat(keys.length).isEqualTo(jmap.size());
+        for (int i = 0; i < keys.length; i++) assertThat(values[i]).isEqualTo(jmap.get(keys[i]));
+      }
+    }
+  }
+
+  @Test
+  public void testClear() {
+    IntIntMap map = new IntIntMap(ProbingStrategy.QUADRATIC);
+    for (int i = -100; i < 100; i++) map.put(i, i);
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+    for (int i = -100; i < 100; i++) assertThat(map.containsKey(i)).isFalse();
+  }
+
+  static int orZero(Integer value) {
+    return value == null ? 0 : value;
+  }
+
+  static int randInt(int min, int max) {
+    return RANDOM.nextInt((max - min) + 1) + min;
+  }
+}
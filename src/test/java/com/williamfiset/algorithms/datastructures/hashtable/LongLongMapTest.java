@@ -0,0 +1,72 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import org.junit.*;
+
+public class LongLongMapTest {
+
+  static final Random RANDOM = new Random();
+  static final int LOOPS = 100, MAX_SIZE = 750;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation() {
+    new LongLongMap(ProbingStrategy.DOUBLE_HASHING, 5, 0);
+  }
+
+  @Test
+  public void testSentinelKeys() {
+    LongLongMap map = new LongLongMap();
+    map.put(0L, 1L);
+    map.put(Long.MIN_VALUE, 2L);
+    map.put(Long.MAX_VALUE, 3L);
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(0L)).isEqualTo(1L);
+    assertThat(map.get(Long.MIN_VALUE)).isEqualTo(2L);
+    assertThat(map.get(Long.MAX_VALUE)).isEqualTo(3L);
+    assertThat(map.remove(Long.MIN_VALUE)).isEqualTo(2L);
+    assertThat(map.containsKey(Long.MIN_VALUE)).isFalse();
+    assertThat(map.size()).isEqualTo(2);
+  }
+
+  // Keys which only differ in their upper 32 bits must not all collide.
+  @Test
+  public void testKeysDifferingInHighBits() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      LongLongMap map = new LongLongMap(probing);
+      for (long i = 1; i <= 10000; i++) map.put(i << 32, i);
+      assertThat(map.size()).isEqualTo(10000);
+      for (long i = 1; i <= 10000; i++) assertThat(map.get(i << 32)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      HashMap<Long, Long> jmap = new HashMap<>();
+      for (int loop = 0; loop < LOOPS; loop++) {
+        LongLongMap map = new LongLongMap(probing);
+        jmap.clear();
+
+        for (int i = 0; i < MAX_SIZE; i++) {
+          long key = RANDOM.nextInt(2 * MAX_SIZE) * 0x100000001L;
+          long value = RANDOM.nextLong();
+          if (RANDOM.nextBoolean()) {
+            Long old = jmap.put(key, value);
+            assertThat(map.put(key, value)).isEqualTo(old == null ? 0L : old);
+          } else {
+            Long old = jmap.remove(key);
+            assertThat(map.remove(key)).isEqualTo(old == null ? 0L : old);
+          }
+          assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+          assertThat(map.size()).isEqualTo(jmap.size());
+        }
+
+        long[] keys = map.keys(), values = map.values();
+        assertThat(keys.length).isEqualTo(jmap.size());
+        for (int i = 0; i < keys.length; i++) assertThat(values[i]).isEqualTo(jmap.get(keys[i]));
+      }
+    }
+  }
+}
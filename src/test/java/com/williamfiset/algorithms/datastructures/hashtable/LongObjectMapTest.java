@@ -0,0 +1,61 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import org.junit.*;
+
+public class LongObjectMapTest {
+
+  static final Random RANDOM = new Random();
+  static final int LOOPS = 100, MAX_SIZE = 750;
+
+  @Test
+  public void testNullValues() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    assertThat(map.put(5L, null)).isNull();
+    assertThat(map.containsKey(5L)).isTrue();
+    assertThat(map.get(5L)).isNull();
+    assertThat(map.get(5L, "default")).isNull();
+    assertThat(map.get(6L, "default")).isEqualTo("default");
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSentinelKeys() {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    map.put(0L, "zero");
+    map.put(Long.MIN_VALUE, "min");
+    assertThat(map.get(0L)).isEqualTo("zero");
+    assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+    assertThat(map.values()).containsExactly("zero", "min");
+    assertThat(map.remove(0L)).isEqualTo("zero");
+    assertThat(map.get(0L)).isNull();
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      HashMap<Long, String> jmap = new HashMap<>();
+      for (int loop = 0; loop < LOOPS; loop++) {
+        LongObjectMap<String> map = new LongObjectMap<>(probing);
+        jmap.clear();
+
+        for (int i = 0; i < MAX_SIZE; i++) {
+          long key = RANDOM.nextInt(2 * MAX_SIZE) - MAX_SIZE;
+          String value = String.valueOf(i);
+          if (RANDOM.nextBoolean()) assertThat(map.put(key, value)).isEqualTo(jmap.put(key, value));
+          else assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+          assertThat(map.get(key)).isEqualTo(jmap.get(key));
+          assertThat(map.size()).isEqualTo(jmap.size());
+        }
+
+        long[] keys = map.keys();
+        List<String> values = map.values();
+        for (int i = 0; i < keys.length; i++)
+          assertThat(values.get(i)).isEqualTo(jmap.get(keys[i]));
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.*;
+
+public class MappedLongLongMapTest {
+
+  static final Random RANDOM = new Random();
+  static final int LOOPS = 20, MAX_SIZE = 750;
+
+  Path dir, file;
+
+  @Before
+  public void setup() throws IOException {
+    dir = Files.createTempDirectory("mapped-long-long-map");
+    file = dir.resolve("map.bin");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+      for (Path path : files) Files.delete(path);
+    }
+    Files.delete(dir);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation() throws IOException {
+    MappedLongLongMap.create(file, 5, 1.0);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenInvalidFile() throws IOException {
+    Files.write(file, new byte[100]);
+    MappedLongLongMap.open(file);
+  }
+
+  @Test
+  public void testSentinelKeysArePersisted() throws IOException {
+    try (MappedLongLongMap map = MappedLongLongMap.create(file)) {
+      map.put(0L, 1L);
+      map.put(Long.MIN_VALUE, 2L);
+      map.put(Long.MAX_VALUE, 3L);
+    }
+    try (MappedLongLongMap map = MappedLongLongMap.open(file)) {
+      assertThat(map.size()).isEqualTo(3);
+      assertThat(map.get(0L)).isEqualTo(1L);
+      assertThat(map.get(Long.MIN_VALUE)).isEqualTo(2L);
+      assertThat(map.get(Long.MAX_VALUE)).isEqualTo(3L);
+      assertThat(map.remove(Long.MIN_VALUE)).isEqualTo(2L);
+      assertThat(map.containsKey(Long.MIN_VALUE)).isFalse();
+      assertThat(map.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void testReopenAfterResizes() throws IOException {
+    final int n = 50000;
+    int capacity;
+    try (MappedLongLongMap map = MappedLongLongMap.create(file)) {
+      for (long i = 1; i <= n; i++) map.put(i << 32, i);
+      for (long i = 1; i <= n; i += 2) map.remove(i << 32);
+      capacity = map.getCapacity();
+    }
+    assertThat(Files.exists(dir.resolve("map.bin.resize"))).isFalse();
+    assertThat(Files.size(file)).isAtLeast(16L * capacity);
+
+    try (MappedLongLongMap map = MappedLongLongMap.open(file)) {
+      assertThat(map.size()).isEqualTo(n / 2);
+      assertThat(map.getCapacity()).isEqualTo(capacity);
+      for (long i = 1; i <= n; i++) {
+        assertThat(map.get(i << 32, -1)).isEqualTo(i % 2 == 0 ? i : -1);
+      }
+      // Keep on inserting into the reopened map.
+      for (long i = 1; i <= n; i += 2) map.put(i << 32, -i);
+      assertThat(map.size()).isEqualTo(n);
+    }
+  }
+
+  // Tiny segments to make sure records are addressed correctly across many mappings.
+  @Test
+  public void testManySegments() throws IOException {
+    final int n = 10000;
+    try (MappedLongLongMap map = MappedLongLongMap.create(file, 1, 0.5, 4)) {
+      for (long i = 0; i < n; i++) map.put(i * 31, i);
+    }
+    try (MappedLongLongMap map = MappedLongLongMap.open(file, 3)) {
+      assertThat(map.size()).isEqualTo(n);
+      for (long i = 0; i < n; i++) assertThat(map.get(i * 31)).isEqualTo(i);
+      assertThat(map.containsKey(7)).isFalse();
+    }
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    try (MappedLongLongMap map = MappedLongLongMap.create(file)) {
+      for (long i = 0; i < 1000; i++) map.put(i, i);
+      map.clear();
+      assertThat(map.isEmpty()).isTrue();
+      assertThat(map.keys()).isEmpty();
+    }
+    try (MappedLongLongMap map = MappedLongLongMap.open(file)) {
+      assertThat(map.isEmpty()).isTrue();
+      for (long i = 0; i < 1000; i++) assertThat(map.containsKey(i)).isFalse();
+    }
+  }
+
+  @Test
+  public void testRandomMapOperations() throws IOException {
+    HashMap<Long, Long> jmap = new HashMap<>();
+    for (int loop = 0; loop < LOOPS; loop++) {
+      MappedLongLongMap map = MappedLongLongMap.create(file);
+      jmap.clear();
+
+      for (int i = 0; i < MAX_SIZE; i++) {
+        long key = RANDOM.nextInt(2 * MAX_SIZE) * 0x100000001L;
+        long value = RANDOM.nextLong();
+        if (RANDOM.nextBoolean()) {
+          Long old = jmap.put(key, value);
+          assertThat(map.put(key, value)).isEqualTo(old == null ? 0L : old);
+        } else {
+          Long old = jmap.remove(key);
+          assertThat(map.remove(key)).isEqualTo(old == null ? 0L : old);
+        }
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+
+        // Every so often reopen the map from its file.
+        if (RANDOM.nextInt(100) == 0) {
+          map.close();
+          map = MappedLongLongMap.open(file);
+        }
+      }
+      map.close();
+
+      map = MappedLongLongMap.open(file);
+      assertThat(map.size()).isEqualTo(jmap.size());
+      for (Map.Entry<Long, Long> entry : jmap.entrySet()) {
+        assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+      }
+      map.close();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.williamfiset.algorithms.datastructures.priorityqueue;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.*;
+
+public class MinIndexedDoubleDHeapTest {
+
+  static final int[] DEGREES = {2, 3, 4, 8};
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSizeOfNegativeOne() {
+    new MinIndexedDoubleDHeap(4, -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSizeOfZero() {
+    new MinIndexedDoubleDHeap(4, 0);
+  }
+
+  @Test
+  public void testLegalSize() {
+    new MinIndexedDoubleDHeap(4, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateKeys() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    pq.insert(5, 1.5);
+    pq.insert(5, 2.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyOutOfBounds() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    pq.insert(10, 1.5);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testPollEmpty() {
+    new MinIndexedDoubleDHeap(4, 10).pollMinKeyIndex();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testValueOfMissingKey() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    pq.insert(5, 1.5);
+    pq.valueOf(3);
+  }
+
+  @Test
+  public void testContains() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    pq.insert(5, 1.5);
+    assertThat(pq.contains(5)).isTrue();
+    assertThat(pq.contains(3)).isFalse();
+  }
+
+  @Test
+  public void testDecreaseAndIncrease() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    pq.insert(3, 5.0);
+    pq.decrease(3, 6.0);
+    assertThat(pq.valueOf(3)).isEqualTo(5.0);
+    pq.decrease(3, 4.0);
+    assertThat(pq.valueOf(3)).isEqualTo(4.0);
+    pq.increase(3, 3.0);
+    assertThat(pq.valueOf(3)).isEqualTo(4.0);
+    pq.increase(3, 7.0);
+    assertThat(pq.valueOf(3)).isEqualTo(7.0);
+    assertThat(pq.update(3, 1.0)).isEqualTo(7.0);
+    assertThat(pq.valueOf(3)).isEqualTo(1.0);
+  }
+
+  @Test
+  public void testOperations() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(3, 7);
+
+    pq.insert(4, 4);
+    assertThat(pq.peekMinValue()).isEqualTo(4.0);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(4);
+    pq.update(4, 8);
+    assertThat(pq.peekMinValue()).isEqualTo(8.0);
+    assertThat(pq.pollMinKeyIndex()).isEqualTo(4);
+    assertThat(pq.contains(4)).isFalse();
+    pq.insert(3, 99);
+    pq.insert(1, 101);
+    pq.insert(2, 60);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(2);
+    pq.increase(2, 150);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(3);
+    pq.increase(3, 250);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(1);
+    pq.decrease(3, -500);
+    assertThat(pq.peekMinValue()).isEqualTo(-500.0);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(3);
+    assertThat(pq.delete(3)).isEqualTo(-500.0);
+    assertThat(pq.contains(3)).isFalse();
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(1);
+    assertThat(pq.pollMinValue()).isEqualTo(101.0);
+    assertThat(pq.pollMinValue()).isEqualTo(150.0);
+    assertThat(pq.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testClear() {
+    MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(4, 10);
+    for (int i = 0; i < 10; i++) pq.insert(i, 10 - i);
+    pq.clear();
+    assertThat(pq.isEmpty()).isTrue();
+    for (int i = 0; i < 10; i++) assertThat(pq.contains(i)).isFalse();
+    pq.insert(7, 1.0);
+    assertThat(pq.pollMinKeyIndex()).isEqualTo(7);
+  }
+
+  @Test
+  public void testRandomInsertionsAndPolls() {
+    Random random = new Random(0);
+    for (int d : DEGREES) {
+      for (int n = 1; n < 300; n++) {
+        MinIndexedDoubleDHeap pq1 = new MinIndexedDoubleDHeap(d, n);
+        PriorityQueue<Double> pq2 = new PriorityQueue<>(n);
+        double p = random.nextDouble();
+        for (int i = 0; i < n; i++) {
+          double value = random.nextGaussian();
+          pq1.insert(i, value);
+          pq2.add(value);
+          if (random.nextDouble() < p) assertThat(pq1.pollMinValue()).isEqualTo(pq2.poll());
+          assertThat(pq1.size()).isEqualTo(pq2.size());
+          if (!pq2.isEmpty()) assertThat(pq1.peekMinValue()).isEqualTo(pq2.peek());
+        }
+        assertThat(pq1.isMinHeap()).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testRandomUpdatesAndRemovals() {
+    Random random = new Random(1);
+    for (int d : DEGREES) {
+      for (int n = 1; n < 200; n++) {
+        MinIndexedDoubleDHeap pq = new MinIndexedDoubleDHeap(d, n);
+        double[] values = new double[n];
+        boolean[] present = new boolean[n];
+        for (int op = 0; op < 4 * n; op++) {
+          int ki = random.nextInt(n);
+          double value = random.nextInt(50);
+          if (!present[ki]) {
+            pq.insert(ki, value);
+            values[ki] = value;
+            present[ki] = true;
+          } else if (random.nextInt(4) == 0) {
+            assertThat(pq.delete(ki)).isEqualTo(values[ki]);
+            present[ki] = false;
+          } else if (random.nextBoolean()) {
+            pq.decrease(ki, value);
+            values[ki] = Math.min(values[ki], value);
+          } else {
+            pq.update(ki, value);
+            values[ki] = value;
+          }
+          assertThat(pq.isMinHeap()).isTrue();
+          if (!pq.isEmpty()) assertThat(pq.peekMinValue()).isEqualTo(min(values, present));
+        }
+
+        // Polling everything must yield the values in sorted order.
+        List<Double> polled = new ArrayList<>();
+        while (!pq.isEmpty()) {
+          int ki = pq.peekMinKeyIndex();
+          assertThat(pq.valueOf(ki)).isEqualTo(values[ki]);
+          polled.add(pq.pollMinValue());
+        }
+        for (int i = 1; i < polled.size(); i++) {
+          assertThat(polled.get(i - 1)).isAtMost(polled.get(i));
+        }
+      }
+    }
+  }
+
+  static double min(double[] values, boolean[] present) {
+    double min = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < values.length; i++) if (present[i]) min = Math.min(min, values[i]);
+    return min;
+  }
+}
@@ -0,0 +1,71 @@
+package com.williamfiset.algorithms.datastructures.priorityqueue;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.*;
+
+public class MinIndexedLongDHeapTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSizeOfZero() {
+    new MinIndexedLongDHeap(4, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateKeys() {
+    MinIndexedLongDHeap pq = new MinIndexedLongDHeap(4, 10);
+    pq.insert(5, 1);
+    pq.insert(5, 2);
+  }
+
+  @Test
+  public void testOperations() {
+    MinIndexedLongDHeap pq = new MinIndexedLongDHeap(2, 7);
+    pq.insert(3, 99);
+    pq.insert(1, 101);
+    pq.insert(2, 60);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(2);
+    pq.increase(2, 150);
+    assertThat(pq.peekMinKeyIndex()).isEqualTo(3);
+    pq.decrease(1, 10);
+    assertThat(pq.peekMinValue()).isEqualTo(10L);
+    assertThat(pq.delete(1)).isEqualTo(10L);
+    assertThat(pq.pollMinKeyIndex()).isEqualTo(3);
+    assertThat(pq.pollMinValue()).isEqualTo(150L);
+    assertThat(pq.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testLargeValues() {
+    MinIndexedLongDHeap pq = new MinIndexedLongDHeap(4, 3);
+    pq.insert(0, Long.MAX_VALUE);
+    pq.insert(1, Long.MIN_VALUE);
+    pq.insert(2, (1L << 53) + 1);
+    assertThat(pq.pollMinValue()).isEqualTo(Long.MIN_VALUE);
+    assertThat(pq.pollMinValue()).isEqualTo((1L << 53) + 1);
+    assertThat(pq.pollMinValue()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testRandomInsertionsAndPolls() {
+    Random random = new Random(0);
+    for (int d = 2; d <= 8; d++) {
+      for (int n = 1; n < 300; n++) {
+        MinIndexedLongDHeap pq1 = new MinIndexedLongDHeap(d, n);
+        PriorityQueue<Long> pq2 = new PriorityQueue<>(n);
+        double p = random.nextDouble();
+        for (int i = 0; i < n; i++) {
+          long value = random.nextLong();
+          pq1.insert(i, value);
+          pq2.add(value);
+          if (random.nextDouble() < p) assertThat(pq1.pollMinValue()).isEqualTo(pq2.poll());
+          assertThat(pq1.size()).isEqualTo(pq2.size());
+          if (!pq2.isEmpty()) assertThat(pq1.peekMinValue()).isEqualTo(pq2.peek());
+        }
+        assertThat(pq1.isMinHeap()).isTrue();
+      }
+    }
+  }
+}
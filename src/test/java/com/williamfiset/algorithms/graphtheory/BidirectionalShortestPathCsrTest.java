@@ -0,0 +1,189 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.geometry.LongitudeLatitudeGeographicDistance;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class BidirectionalShortestPathCsrTest {
+
+  static final double EPS = 1e-9;
+
+  @Test
+  public void testSmallGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(6)
+            .addEdge(0, 1, 4L)
+            .addEdge(0, 2, 1L)
+            .addEdge(2, 1, 2L)
+            .addEdge(1, 3, 1L)
+            .addEdge(2, 3, 5L)
+            .addEdge(5, 0, 1L)
+            .build();
+
+    BidirectionalShortestPathCsr solver = new BidirectionalShortestPathCsr(g);
+    assertThat(solver.shortestPath(0, 3)).isEqualTo(4.0);
+    assertThat(solver.reconstructPath(0, 3)).isEqualTo(new int[] {0, 2, 1, 3});
+    assertThat(solver.reconstructPath(5, 3)).isEqualTo(new int[] {5, 0, 2, 1, 3});
+    assertThat(solver.reconstructPath(2, 2)).isEqualTo(new int[] {2});
+    assertThat(solver.shortestPath(3, 0)).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(solver.reconstructPath(0, 4)).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNode() {
+    new BidirectionalShortestPathCsr(new CsrGraph.Builder(3).build()).shortestPath(0, 3);
+  }
+
+  @Test
+  public void testRandomGraphsDijkstraAndLandmarks() {
+    Random random = new Random(7);
+    for (int loop = 0; loop < 100; loop++) {
+      int n = 1 + random.nextInt(60);
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        builder.addEdge(random.nextInt(n), random.nextInt(n), (long) random.nextInt(100));
+      }
+      CsrGraph g = builder.build();
+
+      DijkstrasShortestPathCsr dijkstra = new DijkstrasShortestPathCsr(g);
+      BidirectionalShortestPathCsr bidirectional = new BidirectionalShortestPathCsr(g);
+      BidirectionalShortestPathCsr alt =
+          new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.landmarks(g, 3));
+      for (int q = 0; q < 20; q++) {
+        int s = random.nextInt(n), t = random.nextInt(n);
+        double expected = dijkstra.dijkstra(s, t);
+        assertThat(bidirectional.shortestPath(s, t)).isEqualTo(expected);
+        assertThat(alt.shortestPath(s, t)).isEqualTo(expected);
+        assertPath(g, alt.reconstructPath(s, t), s, t, expected);
+        assertPath(g, bidirectional.reconstructPath(s, t), s, t, expected);
+      }
+    }
+  }
+
+  @Test
+  public void testEuclideanOnGeometricGraphs() {
+    Random random = new Random(11);
+    for (int loop = 0; loop < 50; loop++) {
+      int n = 2 + random.nextInt(200);
+      double[] x = new double[n], y = new double[n];
+      for (int i = 0; i < n; i++) {
+        x[i] = random.nextDouble() * 100;
+        y[i] = random.nextDouble() * 100;
+      }
+      // Roads are never shorter than the straight line between their endpoints.
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = 3 * n; i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        double length = Math.hypot(x[u] - x[v], y[u] - y[v]) * (1 + random.nextDouble());
+        builder.addUndirectedEdge(u, v, length);
+      }
+      CsrGraph g = builder.build();
+
+      DijkstrasShortestPathCsr dijkstra = new DijkstrasShortestPathCsr(g);
+      BidirectionalShortestPathCsr astar =
+          new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.euclidean(x, y, 1));
+      for (int q = 0; q < 20; q++) {
+        int s = random.nextInt(n), t = random.nextInt(n);
+        double expected = dijkstra.dijkstra(s, t);
+        if (expected == Double.POSITIVE_INFINITY) {
+          assertThat(astar.shortestPath(s, t)).isEqualTo(expected);
+        } else {
+          assertThat(astar.shortestPath(s, t)).isWithin(EPS).of(expected);
+        }
+        assertPath(g, astar.reconstructPath(s, t), s, t, expected);
+      }
+    }
+  }
+
+  @Test
+  public void testHaversine() {
+    Random random = new Random(13);
+    int n = 300;
+    double radius = 6371;
+    double[] lat = new double[n], lon = new double[n];
+    for (int i = 0; i < n; i++) {
+      lat[i] = 45 + random.nextDouble() * 2;
+      lon[i] = -75 + random.nextDouble() * 2;
+    }
+    CsrGraph.Builder builder = new CsrGraph.Builder(n);
+    for (int i = 4 * n; i > 0; i--) {
+      int u = random.nextInt(n), v = random.nextInt(n);
+      double km = radius * LongitudeLatitudeGeographicDistance.dist(lat[u], lon[u], lat[v], lon[v]);
+      builder.addEdge(u, v, km * (1 + random.nextDouble()));
+    }
+    CsrGraph g = builder.build();
+
+    DijkstrasShortestPathCsr dijkstra = new DijkstrasShortestPathCsr(g);
+    BidirectionalShortestPathCsr astar =
+        new BidirectionalShortestPathCsr(
+            g, BidirectionalShortestPathCsr.haversine(lat, lon, radius));
+    for (int q = 0; q < 200; q++) {
+      int s = random.nextInt(n), t = random.nextInt(n);
+      double expected = dijkstra.dijkstra(s, t);
+      assertThat(astar.shortestPath(s, t)).isWithin(EPS).of(expected);
+    }
+  }
+
+  // On a grid the heuristics should let the search settle far fewer nodes than Dijkstra.
+  @Test
+  public void testSearchSpaceOnGrid() {
+    int side = 60, n = side * side;
+    Random random = new Random(17);
+    double[] x = new double[n], y = new double[n];
+    CsrGraph.Builder builder = new CsrGraph.Builder(n);
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int u = r * side + c;
+        x[u] = c;
+        y[u] = r;
+        if (c + 1 < side) builder.addUndirectedEdge(u, u + 1, 1 + random.nextInt(3));
+        if (r + 1 < side) builder.addUndirectedEdge(u, u + side, 1 + random.nextInt(3));
+      }
+    }
+    CsrGraph g = builder.build();
+
+    BidirectionalShortestPathCsr bidirectional = new BidirectionalShortestPathCsr(g);
+    BidirectionalShortestPathCsr astar =
+        new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.euclidean(x, y, 1));
+    BidirectionalShortestPathCsr alt =
+        new BidirectionalShortestPathCsr(g, BidirectionalShortestPathCsr.landmarks(g, 4));
+    DijkstrasShortestPathCsr dijkstra = new DijkstrasShortestPathCsr(g);
+
+    long settledBidirectional = 0, settledAstar = 0, settledAlt = 0;
+    for (int q = 0; q < 50; q++) {
+      int s = random.nextInt(n), t = random.nextInt(n);
+      double expected = dijkstra.dijkstra(s, t);
+      assertThat(bidirectional.shortestPath(s, t)).isEqualTo(expected);
+      settledBidirectional += bidirectional.getNodesSettled();
+      assertThat(astar.shortestPath(s, t)).isWithin(EPS).of(expected);
+      settledAstar += astar.getNodesSettled();
+      assertThat(alt.shortestPath(s, t)).isEqualTo(expected);
+      settledAlt += alt.getNodesSettled();
+    }
+    assertThat(settledAstar).isLessThan(settledBidirectional);
+    assertThat(settledAlt).isLessThan(settledAstar);
+  }
+
+  // Checks that 'path' is a path from s to t in g of the given length.
+  static void assertPath(CsrGraph g, int[] path, int s, int t, double length) {
+    if (length == Double.POSITIVE_INFINITY) {
+      assertThat(path).isEmpty();
+      return;
+    }
+    assertThat(path[0]).isEqualTo(s);
+    assertThat(path[path.length - 1]).isEqualTo(t);
+    double sum = 0;
+    for (int i = 0; i + 1 < path.length; i++) {
+      double cheapest = Double.POSITIVE_INFINITY;
+      for (int e = g.offsets()[path[i]]; e < g.offsets()[path[i] + 1]; e++) {
+        if (g.target(e) == path[i + 1]) cheapest = Math.min(cheapest, g.weight(e));
+      }
+      assertThat(cheapest).isLessThan(Double.POSITIVE_INFINITY);
+      sum += cheapest;
+    }
+    assertThat(sum).isWithin(EPS).of(length);
+  }
+}
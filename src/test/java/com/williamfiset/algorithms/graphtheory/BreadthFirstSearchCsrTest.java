@@ -0,0 +1,68 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.graphtheory.BreadthFirstSearchAdjacencyListIterative.Edge;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class BreadthFirstSearchCsrTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGraphInput() {
+    new BreadthFirstSearchCsr(null);
+  }
+
+  @Test
+  public void testSingletonGraph() {
+    BreadthFirstSearchCsr solver = new BreadthFirstSearchCsr(new CsrGraph.Builder(1).build());
+    assertThat(solver.bfs(0)).isEqualTo(new int[] {0});
+    assertThat(solver.reconstructPath(0, 0)).isEqualTo(Arrays.asList(0));
+  }
+
+  @Test
+  public void testUnreachableNodes() {
+    // 3 only has an edge into the component of 0, and 4 is isolated.
+    CsrGraph g =
+        new CsrGraph.Builder(5)
+            .addUndirectedEdge(0, 1)
+            .addUndirectedEdge(1, 2)
+            .addEdge(3, 2)
+            .build();
+    BreadthFirstSearchCsr solver = new BreadthFirstSearchCsr(g);
+    assertThat(solver.bfs(0)).isEqualTo(new int[] {0, 1, 2, -1, -1});
+    assertThat(solver.reconstructPath(0, 2)).isEqualTo(Arrays.asList(0, 1, 2));
+    assertThat(solver.reconstructPath(0, 3)).isEmpty();
+    assertThat(solver.reconstructPath(0, 4)).isEmpty();
+    assertThat(solver.reconstructPath(3, 0)).isEqualTo(Arrays.asList(3, 2, 1, 0));
+  }
+
+  // Random graphs with several components, the paths must be the same as with the adjacency list
+  // since both visit the edges of a node in the order they were added.
+  @Test
+  public void testRandomGraphsAgainstAdjacencyList() {
+    Random random = new Random(17);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(60);
+      List<List<Edge>> list = BreadthFirstSearchAdjacencyListIterative.createEmptyGraph(n);
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(2 * n); i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        BreadthFirstSearchAdjacencyListIterative.addDirectedEdge(list, u, v, 1);
+        builder.addEdge(u, v);
+      }
+
+      BreadthFirstSearchAdjacencyListIterative listSolver =
+          new BreadthFirstSearchAdjacencyListIterative(list);
+      BreadthFirstSearchCsr solver = new BreadthFirstSearchCsr(builder.build());
+      int s = random.nextInt(n);
+      int[] dist = solver.bfs(s);
+      for (int e = 0; e < n; e++) {
+        List<Integer> expected = listSolver.reconstructPath(s, e);
+        assertThat(solver.reconstructPath(s, e)).isEqualTo(expected);
+        assertThat(dist[e]).isEqualTo(expected.size() - 1);
+      }
+    }
+  }
+}
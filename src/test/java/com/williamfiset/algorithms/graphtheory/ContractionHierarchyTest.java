@@ -0,0 +1,145 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import org.junit.*;
+
+public class ContractionHierarchyTest {
+
+  @Test
+  public void testSmallGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(6)
+            .addEdge(0, 1, 4L)
+            .addEdge(0, 2, 1L)
+            .addEdge(2, 1, 2L)
+            .addEdge(1, 3, 1L)
+            .addEdge(2, 3, 5L)
+            .addEdge(5, 0, 1L)
+            .build();
+
+    ContractionHierarchy ch = ContractionHierarchy.build(g, 1);
+    assertThat(ch.shortestPath(0, 3)).isEqualTo(4.0);
+    assertThat(ch.reconstructPath(0, 3)).isEqualTo(new int[] {0, 2, 1, 3});
+    assertThat(ch.reconstructPath(5, 3)).isEqualTo(new int[] {5, 0, 2, 1, 3});
+    assertThat(ch.reconstructPath(2, 2)).isEqualTo(new int[] {2});
+    assertThat(ch.shortestPath(3, 0)).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(ch.reconstructPath(0, 4)).isEmpty();
+  }
+
+  @Test
+  public void testRanksArePermutation() {
+    CsrGraph g = grid(10, new Random(1));
+    ContractionHierarchy ch = ContractionHierarchy.build(g, 2);
+    boolean[] used = new boolean[g.numNodes()];
+    for (int v = 0; v < g.numNodes(); v++) {
+      int rank = ch.getRank(v);
+      assertThat(used[rank]).isFalse();
+      used[rank] = true;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    ContractionHierarchy.build(new CsrGraph.Builder(2).addEdge(0, 1, -1L).build(), 1);
+  }
+
+  @Test
+  public void testRandomGraphsAgainstDijkstra() {
+    Random random = new Random(5);
+    for (int loop = 0; loop < 60; loop++) {
+      int n = 1 + random.nextInt(80);
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        builder.addEdge(random.nextInt(n), random.nextInt(n), (long) random.nextInt(20));
+      }
+      CsrGraph g = builder.build();
+      ContractionHierarchy ch = ContractionHierarchy.build(g, 1 + loop % 3);
+      assertAgreesWithDijkstra(g, ch, random, 40);
+    }
+  }
+
+  @Test
+  public void testGridAgainstDijkstra() {
+    Random random = new Random(9);
+    CsrGraph g = grid(40, random);
+    ContractionHierarchy ch = ContractionHierarchy.build(g, 4);
+    assertAgreesWithDijkstra(g, ch, random, 300);
+
+    // Queries should only explore a small part of the graph.
+    long settled = 0;
+    for (int q = 0; q < 100; q++) {
+      ch.shortestPath(random.nextInt(g.numNodes()), random.nextInt(g.numNodes()));
+      settled += ch.getNodesSettled();
+    }
+    assertThat(settled / 100).isLessThan(g.numNodes() / 4);
+  }
+
+  @Test
+  public void testDijkstraEdgeModel() {
+    DijkstrasShortestPathAdjacencyList solver = new DijkstrasShortestPathAdjacencyList(5);
+    solver.addEdge(0, 1, 5);
+    solver.addEdge(0, 2, 1);
+    solver.addEdge(2, 3, 1);
+    solver.addEdge(3, 1, 1);
+    solver.addEdge(1, 4, 2);
+    ContractionHierarchy ch = ContractionHierarchy.build(solver.getGraph(), 1);
+    assertThat(ch.shortestPath(0, 4)).isEqualTo(solver.dijkstra(0, 4));
+    assertThat(ch.reconstructPath(0, 4)).isEqualTo(new int[] {0, 2, 3, 1, 4});
+  }
+
+  @Test
+  public void testWriteAndReadBack() throws IOException {
+    Random random = new Random(3);
+    CsrGraph g = grid(15, random);
+    ContractionHierarchy ch = ContractionHierarchy.build(g, 2);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ch.writeTo(out);
+    ContractionHierarchy loaded =
+        ContractionHierarchy.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(loaded.numNodes()).isEqualTo(ch.numNodes());
+    assertThat(loaded.numEdges()).isEqualTo(ch.numEdges());
+    assertThat(loaded.numShortcuts()).isEqualTo(ch.numShortcuts());
+    for (int q = 0; q < 100; q++) {
+      int s = random.nextInt(g.numNodes()), t = random.nextInt(g.numNodes());
+      assertThat(loaded.shortestPath(s, t)).isEqualTo(ch.shortestPath(s, t));
+      assertThat(loaded.reconstructPath(s, t)).isEqualTo(ch.reconstructPath(s, t));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadGarbage() throws IOException {
+    ContractionHierarchy.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+  }
+
+  static void assertAgreesWithDijkstra(
+      CsrGraph g, ContractionHierarchy ch, Random random, int queries) {
+    DijkstrasShortestPathCsr dijkstra = new DijkstrasShortestPathCsr(g);
+    for (int q = 0; q < queries; q++) {
+      int s = random.nextInt(g.numNodes()), t = random.nextInt(g.numNodes());
+      double expected = dijkstra.dijkstra(s, t);
+      assertThat(ch.shortestPath(s, t)).isEqualTo(expected);
+      BidirectionalShortestPathCsrTest.assertPath(g, ch.reconstructPath(s, t), s, t, expected);
+    }
+  }
+
+  // A grid with roads in both directions of random integer length.
+  static CsrGraph grid(int side, Random random) {
+    CsrGraph.Builder builder = new CsrGraph.Builder(side * side);
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int u = r * side + c;
+        if (c + 1 < side) builder.addUndirectedEdge(u, u + 1, (long) (1 + random.nextInt(9)));
+        if (r + 1 < side) builder.addUndirectedEdge(u, u + side, (long) (1 + random.nextInt(9)));
+      }
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Measures the heap retained by the same random graph stored as a list of edge objects, as a list
+ * of node indexes and as a {@link CsrGraph}. The traversal throughput of the representations is
+ * compared by the CsrGraphBenchmark JMH benchmark.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.Utils;
+import java.util.List;
+import java.util.Random;
+
+public class CsrGraphMemoryBenchmark {
+
+  static final int N = 1000000;
+  static final int M = 8 * N;
+
+  static int[] from = new int[M], to = new int[M], cost = new int[M];
+
+  static {
+    Random random = new Random();
+    for (int i = 0; i < M; i++) {
+      from[i] = random.nextInt(N);
+      to[i] = random.nextInt(N);
+      cost[i] = random.nextInt(100);
+    }
+  }
+
+  public static void main(String[] args) {
+    System.out.println("Retained memory for " + N + " nodes and " + M + " edges:");
+
+    long before = usedMemory();
+    List<List<BreadthFirstSearchAdjacencyListIterative.Edge>> edgeList =
+        BreadthFirstSearchAdjacencyListIterative.createEmptyGraph(N);
+    for (int i = 0; i < M; i++) {
+      BreadthFirstSearchAdjacencyListIterative.addDirectedEdge(edgeList, from[i], to[i], cost[i]);
+    }
+    print("List<List<Edge>>", usedMemory() - before);
+    edgeList = null;
+
+    before = usedMemory();
+    List<List<Integer>> intList = Utils.createEmptyAdjacencyList(N);
+    for (int i = 0; i < M; i++) Utils.addDirectedEdge(intList, from[i], to[i]);
+    print("List<List<Integer>>", usedMemory() - before);
+    intList = null;
+
+    before = usedMemory();
+    CsrGraph.Builder unweighted = new CsrGraph.Builder(N, M);
+    for (int i = 0; i < M; i++) unweighted.addEdge(from[i], to[i]);
+    CsrGraph graph = unweighted.build();
+    unweighted = null;
+    print("CsrGraph (unweighted)", usedMemory() - before);
+    graph = null;
+
+    before = usedMemory();
+    CsrGraph.Builder weighted = new CsrGraph.Builder(N, M);
+    for (int i = 0; i < M; i++) weighted.addEdge(from[i], to[i], (long) cost[i]);
+    graph = weighted.build();
+    weighted = null;
+    print("CsrGraph (long weights)", usedMemory() - before);
+    graph = null;
+  }
+
+  private static void print(String name, long bytes) {
+    System.out.printf("%s: %.1f bytes/edge (%d MB)%n", name, (double) bytes / M, bytes >> 20);
+  }
+
+  // Returns the heap memory in use after trying hard to collect all garbage.
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
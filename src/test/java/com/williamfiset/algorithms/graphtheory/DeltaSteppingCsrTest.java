@@ -0,0 +1,122 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.*;
+
+public class DeltaSteppingCsrTest {
+
+  @Test
+  public void testSmallGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(5)
+            .addEdge(0, 1, 4L)
+            .addEdge(0, 2, 1L)
+            .addEdge(2, 1, 2L)
+            .addEdge(1, 3, 1L)
+            .addEdge(2, 3, 5L)
+            .build();
+
+    double[] expected = {0, 3, 1, 4, Double.POSITIVE_INFINITY};
+    for (double delta : new double[] {0.5, 1, 2, 3, 100}) {
+      DeltaSteppingCsr solver = new DeltaSteppingCsr(g, delta);
+      assertThat(solver.shortestPaths(0, 2)).isEqualTo(expected);
+    }
+    assertThat(new DeltaSteppingCsr(g).shortestPaths(0)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testSingleNode() {
+    CsrGraph g = new CsrGraph.Builder(1).build();
+    assertThat(new DeltaSteppingCsr(g).shortestPaths(0, 1)).isEqualTo(new double[] {0});
+  }
+
+  @Test
+  public void testZeroWeightEdges() {
+    CsrGraph g =
+        new CsrGraph.Builder(4).addEdge(0, 1, 0L).addEdge(1, 2, 0L).addEdge(2, 3, 5L).build();
+    assertThat(new DeltaSteppingCsr(g).shortestPaths(0, 2)).isEqualTo(new double[] {0, 0, 0, 5});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    new DeltaSteppingCsr(new CsrGraph.Builder(2).addEdge(0, 1, -1L).build());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDelta() {
+    new DeltaSteppingCsr(new CsrGraph.Builder(2).addEdge(0, 1, 1L).build(), 0);
+  }
+
+  // The buckets are reused cyclically, so a delta a hundred thousand times smaller than the
+  // weights still only needs a bounded number of slots, even though the distances span many
+  // more buckets than that.
+  @Test
+  public void testSmallDeltaWithLargeWeights() {
+    Random random = new Random(5);
+    int n = 300;
+    CsrGraph.Builder builder = new CsrGraph.Builder(n);
+    for (int i = 0; i < 4 * n; i++) {
+      long weight = 1_000_000_000L + random.nextInt(1_000_000);
+      builder.addEdge(random.nextInt(n), random.nextInt(n), weight);
+    }
+    CsrGraph g = builder.build();
+    double[] expected = new DijkstrasShortestPathCsr(g).dijkstra(0);
+    assertThat(new DeltaSteppingCsr(g, 10_000).shortestPaths(0, 2)).isEqualTo(expected);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTinyDeltaWithLargeWeights() {
+    CsrGraph g = new CsrGraph.Builder(2).addEdge(0, 1, 1_000_000_000L).build();
+    new DeltaSteppingCsr(g, 1e-3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidStart() {
+    new DeltaSteppingCsr(new CsrGraph.Builder(2).build()).shortestPaths(2, 1);
+  }
+
+  @Test
+  public void testRandomGraphsAgainstDijkstra() {
+    Random random = new Random(17);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int loop = 0; loop < 200; loop++) {
+        int n = 1 + random.nextInt(100);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int i = random.nextInt(5 * n); i > 0; i--) {
+          builder.addEdge(random.nextInt(n), random.nextInt(n), (long) random.nextInt(50));
+        }
+        CsrGraph g = builder.build();
+        int s = random.nextInt(n);
+        double[] expected = new DijkstrasShortestPathCsr(g).dijkstra(s);
+
+        double delta = 0.5 + random.nextInt(60);
+        assertThat(new DeltaSteppingCsr(g, delta).shortestPaths(s, pool)).isEqualTo(expected);
+        assertThat(new DeltaSteppingCsr(g).shortestPaths(s, 1 + loop % 3)).isEqualTo(expected);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // A graph large enough to be split into many parallel chunks, with real valued weights.
+  @Test
+  public void testLargeGraphAgainstDijkstra() {
+    Random random = new Random(23);
+    int n = 20000;
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, 8 * n);
+    for (int i = 0; i < 8 * n; i++) {
+      builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextDouble());
+    }
+    CsrGraph g = builder.build();
+    double[] expected = new DijkstrasShortestPathCsr(g).dijkstra(0);
+    for (int threads = 1; threads <= 4; threads *= 2) {
+      assertThat(new DeltaSteppingCsr(g).shortestPaths(0, threads)).isEqualTo(expected);
+      assertThat(new DeltaSteppingCsr(g, 0.01).shortestPaths(0, threads)).isEqualTo(expected);
+    }
+  }
+}
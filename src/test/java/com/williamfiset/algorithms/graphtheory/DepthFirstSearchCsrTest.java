@@ -0,0 +1,86 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class DepthFirstSearchCsrTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGraphInput() {
+    new DepthFirstSearchCsr(null);
+  }
+
+  @Test
+  public void testSingletonGraph() {
+    DepthFirstSearchCsr solver = new DepthFirstSearchCsr(new CsrGraph.Builder(1).build());
+    assertThat(solver.dfsOrder(0)).isEqualTo(new int[] {0});
+    assertThat(solver.countReachable(0)).isEqualTo(1);
+  }
+
+  @Test
+  public void testDisconnectedGraph() {
+    // Two components {0, 1, 2, 3} and {4, 5}, and 6 is isolated.
+    CsrGraph g =
+        new CsrGraph.Builder(7)
+            .addUndirectedEdge(0, 2)
+            .addUndirectedEdge(0, 1)
+            .addUndirectedEdge(2, 3)
+            .addUndirectedEdge(4, 5)
+            .build();
+    DepthFirstSearchCsr solver = new DepthFirstSearchCsr(g);
+    assertThat(solver.dfsOrder(0)).isEqualTo(new int[] {0, 2, 3, 1});
+    assertThat(solver.dfsOrder(5)).isEqualTo(new int[] {5, 4});
+    assertThat(solver.dfsOrder(6)).isEqualTo(new int[] {6});
+    assertThat(solver.countReachable(1)).isEqualTo(4);
+  }
+
+  // Random directed graphs with several components. The counts must match both adjacency list
+  // implementations, and the order must be the one of a recursive DFS.
+  @Test
+  public void testRandomGraphsAgainstAdjacencyList() {
+    Random random = new Random(31);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(60);
+      Map<Integer, List<DepthFirstSearchAdjacencyListRecursive.Edge>> recursiveGraph =
+          new HashMap<>();
+      Map<Integer, List<DepthFirstSearchAdjacencyListIterative.Edge>> iterativeGraph =
+          new HashMap<>();
+      List<List<Integer>> graph = new ArrayList<>();
+      for (int i = 0; i < n; i++) graph.add(new ArrayList<>());
+      for (int i = random.nextInt(2 * n); i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        recursiveGraph
+            .computeIfAbsent(u, k -> new ArrayList<>())
+            .add(new DepthFirstSearchAdjacencyListRecursive.Edge(u, v, 1));
+        iterativeGraph
+            .computeIfAbsent(u, k -> new ArrayList<>())
+            .add(new DepthFirstSearchAdjacencyListIterative.Edge(u, v, 1));
+        graph.get(u).add(v);
+      }
+
+      DepthFirstSearchCsr solver = new DepthFirstSearchCsr(CsrGraph.fromAdjacencyList(graph));
+      int s = random.nextInt(n);
+      long expected = DepthFirstSearchAdjacencyListRecursive.dfs(s, new boolean[n], recursiveGraph);
+      assertThat(DepthFirstSearchAdjacencyListIterative.dfs(iterativeGraph, s, n))
+          .isEqualTo((int) expected);
+      assertThat(solver.countReachable(s)).isEqualTo((int) expected);
+
+      List<Integer> order = new ArrayList<>();
+      recursiveOrder(graph, s, new boolean[n], order);
+      int[] actual = solver.dfsOrder(s);
+      assertThat(actual.length).isEqualTo(order.size());
+      for (int i = 0; i < actual.length; i++) assertThat(actual[i]).isEqualTo(order.get(i));
+    }
+  }
+
+  private static void recursiveOrder(
+      List<List<Integer>> graph, int at, boolean[] visited, List<Integer> order) {
+    if (visited[at]) return;
+    visited[at] = true;
+    order.add(at);
+    for (int to : graph.get(at)) recursiveOrder(graph, to, visited, order);
+  }
+}
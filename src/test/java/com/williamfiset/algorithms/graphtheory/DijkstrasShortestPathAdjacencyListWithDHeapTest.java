@@ -0,0 +1,114 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.*;
+
+public class DijkstrasShortestPathAdjacencyListWithDHeapTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+  }
+
+  private static DijkstrasShortestPathAdjacencyListWithDHeap randomGraph(Random random, int n) {
+    DijkstrasShortestPathAdjacencyListWithDHeap solver =
+        new DijkstrasShortestPathAdjacencyListWithDHeap(n);
+    for (int i = random.nextInt(4 * n) + n; i > 0; i--) {
+      solver.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(50));
+    }
+    return solver;
+  }
+
+  @Test
+  public void testBatchQueriesMatchSingleQueries() {
+    Random random = new Random(17);
+    for (int loop = 0; loop < 30; loop++) {
+      int n = 1 + random.nextInt(80);
+      DijkstrasShortestPathAdjacencyListWithDHeap solver = randomGraph(random, n);
+
+      int queries = random.nextInt(500);
+      int[] starts = new int[queries], ends = new int[queries];
+      for (int i = 0; i < queries; i++) {
+        starts[i] = random.nextInt(n);
+        ends[i] = random.nextInt(n);
+      }
+
+      // Run the batch twice so that the second run reuses the state of the first.
+      for (int run = 0; run < 2; run++) {
+        double[] actual = solver.dijkstra(starts, ends, executor);
+        for (int i = 0; i < queries; i++) {
+          assertThat(actual[i]).isEqualTo(solver.dijkstra(starts[i], ends[i]));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAllSourcesShortestPaths() {
+    Random random = new Random(23);
+    for (int loop = 0; loop < 20; loop++) {
+      int n = 1 + random.nextInt(60);
+      DijkstrasShortestPathAdjacencyListWithDHeap solver = randomGraph(random, n);
+
+      // Prefill the matrix with garbage, every entry must be overwritten.
+      double[][] dist = new double[n][n];
+      for (double[] row : dist) Arrays.fill(row, -1);
+      solver.allSourcesShortestPaths(dist, executor);
+
+      for (int i = 0; i < n; i++) {
+        for (int j = 0; j < n; j++) {
+          assertThat(dist[i][j]).isEqualTo(solver.dijkstra(i, j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTemporaryThreadPool() {
+    DijkstrasShortestPathAdjacencyListWithDHeap solver =
+        new DijkstrasShortestPathAdjacencyListWithDHeap(4);
+    solver.addEdge(0, 1, 3);
+    solver.addEdge(1, 2, 4);
+    solver.addEdge(0, 2, 10);
+
+    double[] dist = solver.dijkstra(new int[] {0, 0, 2, 1}, new int[] {2, 3, 0, 1}, 2);
+    double inf = Double.POSITIVE_INFINITY;
+    assertThat(dist).isEqualTo(new double[] {7, inf, inf, 0});
+
+    double[][] matrix = new double[4][4];
+    solver.allSourcesShortestPaths(matrix, 2);
+    assertThat(matrix[0]).isEqualTo(new double[] {0, 3, 7, inf});
+  }
+
+  @Test
+  public void testQueriesAfterAddingEdges() {
+    DijkstrasShortestPathAdjacencyListWithDHeap solver =
+        new DijkstrasShortestPathAdjacencyListWithDHeap(3);
+    solver.addEdge(0, 1, 5);
+    assertThat(solver.dijkstra(new int[] {0}, new int[] {1}, executor)).isEqualTo(new double[] {5});
+    solver.addEdge(0, 2, 1);
+    solver.addEdge(2, 1, 1);
+    assertThat(solver.dijkstra(new int[] {0}, new int[] {1}, executor)).isEqualTo(new double[] {2});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNodeInBatch() {
+    new DijkstrasShortestPathAdjacencyListWithDHeap(3).dijkstra(new int[] {0}, new int[] {3}, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMatrixTooSmall() {
+    new DijkstrasShortestPathAdjacencyListWithDHeap(3).allSourcesShortestPaths(new double[3][2], 1);
+  }
+}
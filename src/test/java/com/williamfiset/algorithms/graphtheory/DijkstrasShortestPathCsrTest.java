@@ -0,0 +1,50 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class DijkstrasShortestPathCsrTest {
+
+  @Test
+  public void testSmallGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(5)
+            .addEdge(0, 1, 4L)
+            .addEdge(0, 2, 1L)
+            .addEdge(2, 1, 2L)
+            .addEdge(1, 3, 1L)
+            .addEdge(2, 3, 5L)
+            .build();
+
+    DijkstrasShortestPathCsr solver = new DijkstrasShortestPathCsr(g);
+    assertThat(solver.dijkstra(0)).isEqualTo(new double[] {0, 3, 1, 4, Double.POSITIVE_INFINITY});
+    assertThat(solver.reconstructPath(0, 3)).isEqualTo(Arrays.asList(0, 2, 1, 3));
+    assertThat(solver.reconstructPath(0, 4)).isEmpty();
+  }
+
+  @Test
+  public void testRandomGraphsAgainstAdjacencyList() {
+    Random random = new Random(42);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(60);
+      DijkstrasShortestPathAdjacencyList listSolver = new DijkstrasShortestPathAdjacencyList(n);
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(5 * n); i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n), cost = random.nextInt(100);
+        listSolver.addEdge(u, v, cost);
+        builder.addEdge(u, v, (long) cost);
+      }
+
+      DijkstrasShortestPathCsr solver = new DijkstrasShortestPathCsr(builder.build());
+      int s = random.nextInt(n);
+      double[] dist = solver.dijkstra(s);
+      for (int e = 0; e < n; e++) {
+        assertThat(dist[e]).isEqualTo(listSolver.dijkstra(s, e));
+        assertThat(solver.dijkstra(s, e)).isEqualTo(dist[e]);
+      }
+    }
+  }
+}
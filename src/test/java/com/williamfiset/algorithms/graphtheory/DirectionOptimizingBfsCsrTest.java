@@ -0,0 +1,108 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.*;
+
+public class DirectionOptimizingBfsCsrTest {
+
+  @Test
+  public void testSmallGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(6)
+            .addEdge(0, 1)
+            .addEdge(0, 2)
+            .addEdge(1, 3)
+            .addEdge(2, 3)
+            .addEdge(3, 4)
+            .addEdge(5, 0)
+            .build();
+
+    DirectionOptimizingBfsCsr solver = new DirectionOptimizingBfsCsr(g);
+    assertThat(solver.bfs(0, 2)).isEqualTo(new int[] {0, 1, 1, 2, 3, -1});
+    assertThat(solver.getParents()[0]).isEqualTo(-1);
+    assertThat(solver.getParents()[5]).isEqualTo(-1);
+    assertThat(solver.reconstructPath(0, 4)).hasSize(4);
+    assertThat(solver.reconstructPath(0, 5)).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidStart() {
+    new DirectionOptimizingBfsCsr(new CsrGraph.Builder(2).build()).bfs(-1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPathEnd() {
+    new DirectionOptimizingBfsCsr(new CsrGraph.Builder(2).build()).reconstructPath(0, 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testParentsBeforeSearch() {
+    new DirectionOptimizingBfsCsr(new CsrGraph.Builder(2).build()).getParents();
+  }
+
+  @Test
+  public void testRandomGraphsAgainstBfs() {
+    Random random = new Random(31);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int loop = 0; loop < 300; loop++) {
+        int n = 1 + random.nextInt(200);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        int m = random.nextInt(1 + n * (1 + loop % 8));
+        for (int i = 0; i < m; i++) builder.addEdge(random.nextInt(n), random.nextInt(n));
+        CsrGraph g = builder.build();
+        int s = random.nextInt(n);
+
+        DirectionOptimizingBfsCsr solver = new DirectionOptimizingBfsCsr(g);
+        int[] dist = solver.bfs(s, pool);
+        assertThat(dist).isEqualTo(new BreadthFirstSearchCsr(g).bfs(s));
+        assertParents(g, s, dist, solver.getParents());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // A dense undirected graph with a few hubs has a large middle level, which should be expanded
+  // bottom-up.
+  @Test
+  public void testSwitchesToBottomUp() {
+    Random random = new Random(37);
+    int n = 50000;
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, 40 * n);
+    for (int i = 0; i < 20 * n; i++) {
+      int hub = random.nextInt(50), v = random.nextDouble() < 0.3 ? hub : random.nextInt(n);
+      builder.addUndirectedEdge(random.nextInt(n), v);
+    }
+    CsrGraph g = builder.build();
+    int[] expected = new BreadthFirstSearchCsr(g).bfs(7);
+
+    DirectionOptimizingBfsCsr solver = new DirectionOptimizingBfsCsr(g);
+    for (int threads = 1; threads <= 4; threads *= 2) {
+      int[] dist = solver.bfs(7, threads);
+      assertThat(dist).isEqualTo(expected);
+      assertParents(g, 7, dist, solver.getParents());
+      assertThat(solver.getBottomUpSteps()).isGreaterThan(0);
+    }
+  }
+
+  // Every reached node other than the start must have a parent one level closer with an edge
+  // to it.
+  private static void assertParents(CsrGraph g, int start, int[] dist, int[] parents) {
+    for (int v = 0; v < g.numNodes(); v++) {
+      int p = parents[v];
+      if (v == start || dist[v] == -1) {
+        assertThat(p).isEqualTo(-1);
+        continue;
+      }
+      assertThat(dist[p]).isEqualTo(dist[v] - 1);
+      boolean hasEdge = false;
+      for (int e = g.offsets()[p]; e < g.offsets()[p + 1]; e++) hasEdge |= g.target(e) == v;
+      assertThat(hasEdge).isTrue();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class EagerPrimsCsrTest {
+
+  @Test
+  public void testExampleFromSlides() {
+    CsrGraph g =
+        new CsrGraph.Builder(7)
+            .addUndirectedEdge(0, 1, 9L)
+            .addUndirectedEdge(0, 2, 0L)
+            .addUndirectedEdge(0, 3, 5L)
+            .addUndirectedEdge(0, 5, 7L)
+            .addUndirectedEdge(1, 3, -2L)
+            .addUndirectedEdge(1, 4, 3L)
+            .addUndirectedEdge(1, 6, 4L)
+            .addUndirectedEdge(2, 5, 6L)
+            .addUndirectedEdge(3, 5, 2L)
+            .addUndirectedEdge(3, 6, 3L)
+            .addUndirectedEdge(4, 6, 6L)
+            .addUndirectedEdge(5, 6, 1L)
+            .build();
+
+    EagerPrimsCsr prims = new EagerPrimsCsr(g);
+    assertThat(prims.getMstCost()).isEqualTo(9.0);
+    assertThat(prims.getMst().length).isEqualTo(6);
+  }
+
+  @Test
+  public void testDisjointGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(4).addUndirectedEdge(0, 1, 1.0).addUndirectedEdge(2, 3, 1.0).build();
+    assertThat(new EagerPrimsCsr(g).getMst()).isNull();
+    assertThat(new EagerPrimsCsr(g).getMstCost()).isNull();
+  }
+
+  @Test
+  public void testRandomGraphsAgainstAdjacencyList() {
+    Random random = new Random(2024);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(60);
+      List<List<EagerPrimsAdjacencyList.Edge>> list = EagerPrimsAdjacencyList.createEmptyGraph(n);
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n), cost = random.nextInt(200) - 50;
+        EagerPrimsAdjacencyList.addUndirectedEdge(list, u, v, cost);
+        builder.addUndirectedEdge(u, v, (long) cost);
+      }
+      CsrGraph g = builder.build();
+
+      Long expected = new EagerPrimsAdjacencyList(list).getMstCost();
+      EagerPrimsCsr prims = new EagerPrimsCsr(g);
+      if (expected == null) {
+        assertThat(prims.getMstCost()).isNull();
+        continue;
+      }
+      assertThat(prims.getMstCost()).isEqualTo(expected.doubleValue());
+      assertThat(spansGraph(g, prims.getMst())).isTrue();
+    }
+  }
+
+  // Checks that the n - 1 edges connect all the nodes of the graph.
+  private static boolean spansGraph(CsrGraph g, int[] edges) {
+    KruskalsEdgeList.UnionFind uf = new KruskalsEdgeList.UnionFind(g.numNodes());
+    for (int e : edges) uf.union(g.source(e), g.target(e));
+    return uf.size(0) == g.numNodes();
+  }
+}
@@ -0,0 +1,130 @@
+/**
+ * Measures how long it takes before a solver can start working on a graph stored on disk: parsing
+ * a text edge list into an adjacency list of edge objects, mapping the binary graph file of a
+ * {@link MappedCsrGraph}, and copying that file into a {@link CsrGraph}. Each is followed by a
+ * BFS over the whole graph to include the cost of touching the edges.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.MappedCsrGraph;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public class GraphLoadingBenchmark {
+
+  static final int N = 1000000;
+  static final int M = 8 * N;
+
+  public static void main(String[] args) throws IOException {
+    Path dir = Files.createTempDirectory("graph-loading");
+    Path text = dir.resolve("edges.txt"), binary = dir.resolve("graph.bin");
+    try {
+      writeRandomEdgeList(text);
+
+      long start = System.nanoTime();
+      MappedCsrGraph.convertEdgeList(text, binary, false);
+      System.out.printf("Converting the edge list (once): %.2fs%n", seconds(start));
+      System.out.println();
+
+      for (int run = 1; run <= 3; run++) {
+        System.out.println("Run " + run + ":");
+        testParseTextEdgeList(text);
+        testMappedGraph(binary);
+        testCopyMappedGraph(binary);
+        System.out.println();
+      }
+    } finally {
+      Files.deleteIfExists(text);
+      Files.deleteIfExists(binary);
+      Files.delete(dir);
+    }
+  }
+
+  private static void writeRandomEdgeList(Path file) throws IOException {
+    Random random = new Random();
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (int i = 0; i < M; i++) {
+        int u = random.nextInt(N), v = random.nextInt(N), cost = random.nextInt(100);
+        writer.write(u + " " + v + " " + cost + "\n");
+      }
+    }
+  }
+
+  // The way most jobs load a graph: split every line and create an Edge object per edge.
+  private static void testParseTextEdgeList(Path file) throws IOException {
+    long start = System.nanoTime();
+    List<List<BreadthFirstSearchAdjacencyListIterative.Edge>> graph =
+        BreadthFirstSearchAdjacencyListIterative.createEmptyGraph(N);
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      for (String line; (line = reader.readLine()) != null; ) {
+        String[] parts = line.split(" ");
+        int u = Integer.parseInt(parts[0]), v = Integer.parseInt(parts[1]);
+        int cost = Integer.parseInt(parts[2]);
+        BreadthFirstSearchAdjacencyListIterative.addDirectedEdge(graph, u, v, cost);
+      }
+    }
+    double load = seconds(start);
+    start = System.nanoTime();
+    new BreadthFirstSearchAdjacencyListIterative(graph).reconstructPath(0, N - 1);
+    System.out.printf("  Text -> List<List<Edge>>: load %.3fs, bfs %.3fs%n", load, seconds(start));
+  }
+
+  private static void testMappedGraph(Path file) throws IOException {
+    long start = System.nanoTime();
+    try (MappedCsrGraph graph = MappedCsrGraph.open(file)) {
+      double load = seconds(start);
+      start = System.nanoTime();
+      int reached = bfs(graph, 0);
+      System.out.printf(
+          "  MappedCsrGraph: load %.4fs, bfs %.3fs (%d nodes reached)%n",
+          load, seconds(start), reached);
+    }
+  }
+
+  private static void testCopyMappedGraph(Path file) throws IOException {
+    long start = System.nanoTime();
+    CsrGraph graph;
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      graph = mapped.toCsrGraph();
+    }
+    double load = seconds(start);
+    start = System.nanoTime();
+    new BreadthFirstSearchCsr(graph).bfs(0);
+    System.out.printf(
+        "  MappedCsrGraph -> CsrGraph: load %.3fs, bfs %.3fs%n", load, seconds(start));
+  }
+
+  // A BFS reading the edges straight out of the mapped file.
+  private static int bfs(MappedCsrGraph graph, int start) {
+    int n = graph.numNodes();
+    boolean[] visited = new boolean[n];
+    int[] queue = new int[n];
+    int head = 0, tail = 0;
+    queue[tail++] = start;
+    visited[start] = true;
+    while (head < tail) {
+      int at = queue[head++];
+      for (long e = graph.firstEdge(at), end = graph.endEdge(at); e < end; e++) {
+        int to = graph.target(e);
+        if (!visited[to]) {
+          visited[to] = true;
+          queue[tail++] = to;
+        }
+      }
+    }
+    return tail;
+  }
+
+  private static double seconds(long start) {
+    return (System.nanoTime() - start) / 1e9;
+  }
+}
@@ -2,6 +2,7 @@ package com.williamfiset.algorithms.graphtheory;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
 import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
 import com.williamfiset.algorithms.utils.graphutils.Utils;
 import java.util.*;
@@ -79,4 +80,21 @@ public class KahnsTest {
       assertThat(isTopsortOrdering(g, order)).isEqualTo(true);
     }
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cycleInCsrGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(4).addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).addEdge(3, 0).build();
+    new KahnsCsr().kahns(g);
+  }
+
+  @Test
+  public void randomTestsCsr() {
+    for (double p = 0.7; p <= 1.0; p += 0.02) {
+      GraphGenerator.DagGenerator dagGen = new GraphGenerator.DagGenerator(2, 20, 4, 15, p);
+      List<List<Integer>> g = dagGen.createDag();
+      int[] order = new KahnsCsr().kahns(CsrGraph.fromAdjacencyList(g));
+      assertThat(isTopsortOrdering(g, order)).isEqualTo(true);
+    }
+  }
 }
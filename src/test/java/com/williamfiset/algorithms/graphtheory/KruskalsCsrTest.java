@@ -0,0 +1,93 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class KruskalsCsrTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGraphInput() {
+    new KruskalsCsr(null);
+  }
+
+  @Test
+  public void testSingletonGraph() {
+    KruskalsCsr solver = new KruskalsCsr(new CsrGraph.Builder(1).build());
+    assertThat(solver.getMstCost()).isEqualTo(0.0);
+    assertThat(solver.getMst()).isEmpty();
+  }
+
+  @Test
+  public void testExampleFromSlides() {
+    CsrGraph g =
+        new CsrGraph.Builder(7)
+            .addUndirectedEdge(0, 1, 9L)
+            .addUndirectedEdge(0, 2, 0L)
+            .addUndirectedEdge(0, 3, 5L)
+            .addUndirectedEdge(0, 5, 7L)
+            .addUndirectedEdge(1, 3, -2L)
+            .addUndirectedEdge(1, 4, 3L)
+            .addUndirectedEdge(1, 6, 4L)
+            .addUndirectedEdge(2, 5, 6L)
+            .addUndirectedEdge(3, 5, 2L)
+            .addUndirectedEdge(3, 6, 3L)
+            .addUndirectedEdge(4, 6, 6L)
+            .addUndirectedEdge(5, 6, 1L)
+            .build();
+    KruskalsCsr solver = new KruskalsCsr(g);
+    assertThat(solver.getMstCost()).isEqualTo(9.0);
+    assertThat(solver.getMst().length).isEqualTo(6);
+  }
+
+  @Test
+  public void testDisconnectedGraph() {
+    CsrGraph g =
+        new CsrGraph.Builder(5)
+            .addUndirectedEdge(0, 1, 1.0)
+            .addUndirectedEdge(1, 2, 2.0)
+            .addUndirectedEdge(3, 4, 1.0)
+            .build();
+    assertThat(new KruskalsCsr(g).getMst()).isNull();
+    assertThat(new KruskalsCsr(g).getMstCost()).isNull();
+  }
+
+  // Random graphs, some of them disconnected, against the edge list implementation.
+  @Test
+  public void testRandomGraphsAgainstEdgeList() {
+    Random random = new Random(7);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(60);
+      List<KruskalsEdgeList.Edge> edges = new ArrayList<>();
+      CsrGraph.Builder builder = new CsrGraph.Builder(n);
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        int u = random.nextInt(n), v = random.nextInt(n), cost = random.nextInt(200) - 50;
+        edges.add(new KruskalsEdgeList.Edge(u, v, cost));
+        builder.addUndirectedEdge(u, v, (long) cost);
+      }
+      CsrGraph g = builder.build();
+
+      Long expected = KruskalsEdgeList.kruskals(edges.toArray(new KruskalsEdgeList.Edge[0]), n);
+      KruskalsCsr solver = new KruskalsCsr(g);
+      if (expected == null) {
+        assertThat(solver.getMstCost()).isNull();
+        assertThat(solver.getMst()).isNull();
+        continue;
+      }
+      assertThat(solver.getMstCost()).isEqualTo(expected.doubleValue());
+
+      int[] mst = solver.getMst();
+      assertThat(mst.length).isEqualTo(n - 1);
+      KruskalsEdgeList.UnionFind uf = new KruskalsEdgeList.UnionFind(n);
+      double cost = 0;
+      for (int e : mst) {
+        uf.union(g.source(e), g.target(e));
+        cost += g.weight(e);
+      }
+      assertThat(uf.size(0)).isEqualTo(n);
+      assertThat(cost).isEqualTo(expected.doubleValue());
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.Utils;
+import java.util.*;
+import org.junit.*;
+
+public class TarjanSccSolverCsrTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullGraphConstructor() {
+    new TarjanSccSolverCsr(null);
+  }
+
+  @Test
+  public void singletonCase() {
+    TarjanSccSolverCsr solver = new TarjanSccSolverCsr(new CsrGraph.Builder(1).build());
+    assertThat(solver.getSccs()).isEqualTo(new int[1]);
+    assertThat(solver.sccCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testTwoDisjointComponents() {
+    CsrGraph g =
+        new CsrGraph.Builder(5)
+            .addEdge(0, 1)
+            .addEdge(1, 0)
+            .addEdge(2, 3)
+            .addEdge(3, 4)
+            .addEdge(4, 2)
+            .build();
+
+    TarjanSccSolverCsr solver = new TarjanSccSolverCsr(g);
+    int[] sccs = solver.getSccs();
+    assertThat(solver.sccCount()).isEqualTo(2);
+    assertThat(sccs[0]).isEqualTo(sccs[1]);
+    assertThat(sccs[2]).isEqualTo(sccs[3]);
+    assertThat(sccs[2]).isEqualTo(sccs[4]);
+    assertThat(sccs[0]).isNotEqualTo(sccs[2]);
+  }
+
+  // A path this long overflows the default thread stack with a recursive DFS.
+  @Test
+  public void testLongCycleDoesNotOverflowStack() {
+    int n = 1_000_000;
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, n);
+    for (int i = 0; i < n; i++) builder.addEdge(i, (i + 1) % n);
+
+    TarjanSccSolverCsr solver = new TarjanSccSolverCsr(builder.build());
+    assertThat(solver.sccCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRandomGraphsAgainstAdjacencyList() {
+    Random random = new Random(1234);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(50);
+      List<List<Integer>> list = Utils.createEmptyAdjacencyList(n);
+      for (int i = random.nextInt(3 * n); i > 0; i--) {
+        Utils.addDirectedEdge(list, random.nextInt(n), random.nextInt(n));
+      }
+
+      TarjanSccSolverAdjacencyList expected = new TarjanSccSolverAdjacencyList(list);
+      TarjanSccSolverCsr actual = new TarjanSccSolverCsr(CsrGraph.fromAdjacencyList(list));
+      assertThat(actual.sccCount()).isEqualTo(expected.sccCount());
+      assertThat(samePartition(actual.getSccs(), expected.getSccs())).isTrue();
+    }
+  }
+
+  // Checks that the two labelings group the nodes into the same components.
+  private static boolean samePartition(int[] a, int[] b) {
+    Map<Integer, Integer> ab = new HashMap<>(), ba = new HashMap<>();
+    for (int i = 0; i < a.length; i++) {
+      ab.putIfAbsent(a[i], b[i]);
+      ba.putIfAbsent(b[i], a[i]);
+      if (ab.get(a[i]) != b[i] || ba.get(b[i]) != a[i]) return false;
+    }
+    return true;
+  }
+}
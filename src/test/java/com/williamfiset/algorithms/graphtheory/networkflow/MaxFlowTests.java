@@ -22,6 +22,10 @@ public class MaxFlowTests {
     solvers.add(new FordFulkersonDfsSolverAdjacencyList(n, s, t));
     solvers.add(new MinCostMaxFlowWithBellmanFord(n, s, t));
     solvers.add(new MinCostMaxFlowJohnsons(n, s, t));
+    solvers.add(new MinCostMaxFlowCostScaling(n, s, t));
+    solvers.add(new PushRelabelSolverAdjacencyList(n, s, t));
+    solvers.add(
+        new PushRelabelSolverAdjacencyList(n, s, t, PushRelabelSolverAdjacencyList.Selection.FIFO));
   }
 
   void addEdge(int f, int t, int c) {
@@ -190,4 +194,179 @@ public class MaxFlowTests {
       }
     }
   }
+
+  @Test
+  public void testArraySolverGraphKeepsEdgeOrder() {
+    int n = 4, s = 0, t = 3;
+    Dinics solver = new Dinics(n, s, t);
+    solver.addEdge(s, 1, 5);
+    solver.addEdge(1, 2, 3);
+    solver.addEdge(s, 2, 4);
+    solver.addEdge(2, t, 6);
+    assertThat(solver.numEdges()).isEqualTo(4);
+    assertThat(solver.getMaxFlow()).isEqualTo(6L);
+
+    List<Edge>[] g = solver.getGraph();
+    assertThat(g[s].size()).isEqualTo(2);
+    assertThat(g[s].get(0).to).isEqualTo(1);
+    assertThat(g[s].get(1).to).isEqualTo(2);
+    // Node 2 has the residual edges of (1, 2) and (s, 2), then the edge to the sink.
+    assertThat(g[2].size()).isEqualTo(3);
+    assertThat(g[2].get(0).isResidual()).isTrue();
+    assertThat(g[2].get(0).to).isEqualTo(1);
+    assertThat(g[2].get(0).residual.flow).isEqualTo(2L);
+    assertThat(g[2].get(1).to).isEqualTo(s);
+    assertThat(g[2].get(2).flow).isEqualTo(6L);
+    assertThat(g[2].get(2).capacity).isEqualTo(6L);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testArraySolverAddEdgeAfterSolving() {
+    Dinics solver = new Dinics(2, 0, 1);
+    solver.addEdge(0, 1, 1);
+    solver.getMaxFlow();
+    solver.addEdge(0, 1, 1);
+  }
+
+  @Test
+  public void testUpdateCapacity() {
+    int n = 4, s = 0, t = 3;
+    Dinics solver = new Dinics(n, s, t);
+    solver.addEdge(s, 1, 5);
+    solver.addEdge(s, 2, 5);
+    solver.addEdge(1, t, 4);
+    solver.addEdge(2, t, 4);
+    solver.addEdge(1, 2, 3);
+    assertThat(solver.getMaxFlow()).isEqualTo(8L);
+
+    // Lowering the capacity below the flow reroutes what it can through 1 -> 2 -> t.
+    solver.updateCapacity(2, 1);
+    assertThat(solver.resolve()).isEqualTo(5L);
+    assertThat(solver.getMaxFlow()).isEqualTo(5L);
+    assertThat(solver.getMinCut()).isEqualTo(new boolean[] {true, true, true, false});
+
+    solver.updateCapacity(1, 0);
+    assertThat(solver.resolve()).isEqualTo(4L);
+    assertThat(solver.getMinCut()).isEqualTo(new boolean[] {true, true, false, false});
+
+    solver.updateCapacity(1, 5);
+    solver.updateCapacity(2, 4);
+    assertThat(solver.resolve()).isEqualTo(8L);
+  }
+
+  @Test
+  public void testUpdateCapacityBeforeSolving() {
+    EdmondsKarpAdjacencyList solver = new EdmondsKarpAdjacencyList(3, 0, 2);
+    solver.addEdge(0, 1, 5);
+    solver.addEdge(1, 2, 5);
+    solver.updateCapacity(0, 2);
+    assertThat(solver.resolve()).isEqualTo(2L);
+  }
+
+  // Random capacity changes, checking that the flow found again from the previous flow is a valid
+  // max flow and that the min cut is the set of nodes reachable from the source.
+  @Test
+  public void testResolveRandomNetworks() {
+    Random random = new Random(22);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 + random.nextInt(20), s = random.nextInt(n);
+      int t = (s + 1 + random.nextInt(n - 1)) % n;
+      int m = 1 + random.nextInt(5 * n);
+      int[] from = new int[m], to = new int[m];
+      long[] capacity = new long[m];
+      IncrementalMaxFlowSolverBase solver =
+          loop % 2 == 0 ? new Dinics(n, s, t) : new EdmondsKarpAdjacencyList(n, s, t);
+      for (int i = 0; i < m; i++) {
+        from[i] = random.nextInt(n);
+        to[i] = random.nextInt(n);
+        capacity[i] = random.nextInt(10);
+        solver.addEdge(from[i], to[i], capacity[i]);
+      }
+      solver.getMaxFlow();
+
+      for (int round = 0; round < 5; round++) {
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+          int edge = random.nextInt(m);
+          capacity[edge] = random.nextInt(12);
+          solver.updateCapacity(edge, capacity[edge]);
+        }
+        Dinics fromScratch = new Dinics(n, s, t);
+        for (int i = 0; i < m; i++) fromScratch.addEdge(from[i], to[i], capacity[i]);
+        long expected = fromScratch.getMaxFlow();
+        assertThat(solver.resolve()).isEqualTo(expected);
+
+        List<Edge>[] g = solver.getGraph();
+        long[] balance = new long[n];
+        for (List<Edge> edges : g) {
+          for (Edge e : edges) {
+            if (e.isResidual()) continue;
+            assertThat(e.flow).isAtLeast(0L);
+            assertThat(e.flow).isAtMost(e.capacity);
+            balance[e.from] -= e.flow;
+            balance[e.to] += e.flow;
+          }
+        }
+        for (int i = 0; i < n; i++) {
+          if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+        }
+        assertThat(balance[t]).isEqualTo(expected);
+
+        boolean[] reachable = new boolean[n];
+        Deque<Integer> queue = new ArrayDeque<>();
+        reachable[s] = true;
+        queue.add(s);
+        while (!queue.isEmpty()) {
+          for (Edge e : g[queue.poll()]) {
+            if (e.remainingCapacity() > 0 && !reachable[e.to]) {
+              reachable[e.to] = true;
+              queue.add(e.to);
+            }
+          }
+        }
+        assertThat(solver.getMinCut()).isEqualTo(reachable);
+      }
+    }
+  }
+
+  // Random networks, checking that every solver finds the same flow, that the flow is valid and
+  // that the capacity of the min cut equals the max flow.
+  @Test
+  public void testRandomNetworks() {
+    Random random = new Random(13);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 + random.nextInt(30), s = random.nextInt(n);
+      int t = (s + 1 + random.nextInt(n - 1)) % n;
+      solvers.clear();
+      createAllSolvers(n, s, t);
+      for (int i = random.nextInt(6 * n); i > 0; i--) {
+        addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20));
+      }
+
+      long expected = solvers.get(1).getMaxFlow();
+      for (NetworkFlowSolverBase solver : solvers) {
+        assertThat(solver.getMaxFlow()).isEqualTo(expected);
+
+        long[] balance = new long[n];
+        long cut = 0;
+        boolean[] minCut = solver.getMinCut();
+        // The min cost solvers do not fill in the min cut.
+        boolean hasMinCut = minCut[s];
+        for (List<Edge> edges : solver.getGraph()) {
+          for (Edge e : edges) {
+            if (e.isResidual()) continue;
+            assertThat(e.flow).isAtLeast(0L);
+            assertThat(e.flow).isAtMost(e.capacity);
+            balance[e.from] -= e.flow;
+            balance[e.to] += e.flow;
+            if (minCut[e.from] && !minCut[e.to]) cut += e.capacity;
+          }
+        }
+        if (hasMinCut) assertThat(cut).isEqualTo(expected);
+        for (int i = 0; i < n; i++) {
+          if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+        }
+        assertThat(balance[t]).isEqualTo(expected);
+      }
+    }
+  }
 }
@@ -0,0 +1,111 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.graphtheory.networkflow.MaximumCardinalityBipartiteMatchingHopcroftKarpCsr.Initialization;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class MaximumCardinalityBipartiteMatchingHopcroftKarpCsrTest {
+
+  @Test
+  public void testSmallGraph() {
+    // Left set {0, 1, 2, 3} and right set {4, 5, 6, 7}, the edges out of the right set are
+    // ignored.
+    CsrGraph g =
+        new CsrGraph.Builder(8)
+            .addEdge(0, 4)
+            .addEdge(1, 5)
+            .addEdge(2, 7)
+            .addEdge(3, 6)
+            .addEdge(4, 1)
+            .addEdge(5, 1)
+            .addEdge(6, 1)
+            .build();
+    for (Initialization init : Initialization.values()) {
+      MaximumCardinalityBipartiteMatchingHopcroftKarpCsr solver =
+          new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, 4, 4, init);
+      assertThat(solver.getMaxMatching()).isEqualTo(4);
+      assertThat(solver.getMatching()).isEqualTo(new int[] {4, 5, 7, 6});
+    }
+  }
+
+  @Test
+  public void testGreedyIsImproved() {
+    // 3 and 4 both have two edges, so the greedy pass matches 0 with 3 and 2 with 5, which leaves
+    // 1 unmatched until the path 1 -> 3 -> 0 -> 4 is found.
+    CsrGraph g =
+        new CsrGraph.Builder(6)
+            .addEdge(0, 3)
+            .addEdge(0, 4)
+            .addEdge(1, 3)
+            .addEdge(2, 4)
+            .addEdge(2, 5)
+            .build();
+    MaximumCardinalityBipartiteMatchingHopcroftKarpCsr solver =
+        new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, 3, 3);
+    assertThat(solver.getMaxMatching()).isEqualTo(3);
+    assertThat(solver.getInitialMatches()).isEqualTo(2);
+    assertThat(solver.getPhases()).isEqualTo(1);
+    assertThat(solver.getMatching()).isEqualTo(new int[] {4, 3, 5});
+  }
+
+  @Test
+  public void testEmptySets() {
+    CsrGraph g = new CsrGraph.Builder(3).build();
+    assertThat(new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, 3, 0).getMaxMatching())
+        .isEqualTo(0);
+    assertThat(new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, 0, 3).getMaxMatching())
+        .isEqualTo(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfNodes() {
+    new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(new CsrGraph.Builder(4).build(), 2, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEdgeInsideLeftSet() {
+    CsrGraph g = new CsrGraph.Builder(4).addEdge(0, 1).build();
+    new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, 2, 2);
+  }
+
+  // Random graphs, checking the size of the matching against the augmenting path implementation
+  // and that the matching is valid.
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(24);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = random.nextInt(40), m = random.nextInt(40);
+      List<List<Integer>> graph = new ArrayList<>();
+      for (int i = 0; i < n + m; i++) graph.add(new ArrayList<>());
+      if (m > 0) {
+        for (int i = random.nextInt(4 * (n + m) + 1); i > 0 && n > 0; i--) {
+          graph.get(random.nextInt(n)).add(n + random.nextInt(m));
+        }
+      }
+      int expected =
+          MaximumCardinalityBipartiteMatchingAugmentingPathAdjacencyList.mcbm(graph, n, m);
+
+      CsrGraph g = CsrGraph.fromAdjacencyList(graph);
+      for (Initialization init : Initialization.values()) {
+        MaximumCardinalityBipartiteMatchingHopcroftKarpCsr solver =
+            new MaximumCardinalityBipartiteMatchingHopcroftKarpCsr(g, n, m, init);
+        assertThat(solver.getMaxMatching()).isEqualTo(expected);
+
+        int[] matching = solver.getMatching();
+        boolean[] used = new boolean[n + m];
+        int matches = 0;
+        for (int u = 0; u < n; u++) {
+          if (matching[u] == -1) continue;
+          assertThat(graph.get(u)).contains(matching[u]);
+          assertThat(used[matching[u]]).isFalse();
+          used[matching[u]] = true;
+          matches++;
+        }
+        assertThat(matches).isEqualTo(expected);
+      }
+    }
+  }
+}
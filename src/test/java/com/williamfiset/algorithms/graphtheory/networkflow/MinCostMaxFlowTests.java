@@ -18,6 +18,7 @@ public class MinCostMaxFlowTests {
     // TODO(issue/67): Fix Bellman Ford mincost maxflow
     // solvers.add(new MinCostMaxFlowWithBellmanFord(n, s, t));
     solvers.add(new MinCostMaxFlowJohnsons(n, s, t));
+    solvers.add(new MinCostMaxFlowCostScaling(n, s, t));
   }
 
   void addEdge(int f, int t, int cap, int cost) {
@@ -48,4 +49,22 @@ public class MinCostMaxFlowTests {
 
     assertFlowAndCost(10, -10);
   }
+
+  // Random networks, checking that the cost scaling solver finds the same flow and cost as
+  // Johnson's successive shortest paths.
+  @Test
+  public void testRandomNetworks() {
+    Random random = new Random(23);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 2 + random.nextInt(25), s = random.nextInt(n);
+      int t = (s + 1 + random.nextInt(n - 1)) % n;
+      solvers.clear();
+      createAllSolvers(n, s, t);
+      for (int i = random.nextInt(6 * n); i > 0; i--) {
+        addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20), random.nextInt(1000));
+      }
+      NetworkFlowSolverBase johnsons = solvers.get(0);
+      assertFlowAndCost(johnsons.getMaxFlow(), johnsons.getMinCost());
+    }
+  }
 }
@@ -0,0 +1,130 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.*;
+import org.junit.*;
+
+public class MinimumWeightBipartiteMatchingAuctionCsrTest {
+
+  @Test
+  public void testSmallGraph() {
+    // Persons {0, 1, 2} and objects {3, 4, 5}.
+    CsrGraph g =
+        new CsrGraph.Builder(6)
+            .addEdge(0, 3, 4.0)
+            .addEdge(0, 4, 1.0)
+            .addEdge(1, 3, 2.0)
+            .addEdge(1, 4, 0.0)
+            .addEdge(2, 4, 2.0)
+            .addEdge(2, 5, 2.0)
+            .build();
+    MinimumWeightBipartiteMatchingAuctionCsr solver =
+        new MinimumWeightBipartiteMatchingAuctionCsr(g, 3);
+    assertThat(solver.getMinWeightCost()).isWithin(1e-9).of(5.0);
+    assertThat(solver.getMatching()).isEqualTo(new int[] {4, 3, 5});
+  }
+
+  @Test
+  public void testParallelEdges() {
+    // The cheaper of the two edges between 0 and 2 is used.
+    CsrGraph g =
+        new CsrGraph.Builder(4)
+            .addEdge(0, 2, 5.0)
+            .addEdge(0, 2, 1.0)
+            .addEdge(0, 3, 4.0)
+            .addEdge(1, 2, 3.0)
+            .build();
+    MinimumWeightBipartiteMatchingAuctionCsr solver =
+        new MinimumWeightBipartiteMatchingAuctionCsr(g, 2);
+    assertThat(solver.getMinWeightCost()).isWithin(1e-9).of(7.0);
+    assertThat(solver.getMatching()).isEqualTo(new int[] {3, 2});
+  }
+
+  // Enough persons that the first rounds of every phase bid in parallel on the pool.
+  @Test
+  public void testLargeRandomGraph() {
+    Random random = new Random(1024);
+    int n = 2500;
+    List<Integer> hidden = new ArrayList<>();
+    for (int i = 0; i < n; i++) hidden.add(i);
+    Collections.shuffle(hidden, random);
+
+    double[][] matrix = new double[n][n];
+    for (double[] row : matrix) Arrays.fill(row, 1e12);
+    CsrGraph.Builder builder = new CsrGraph.Builder(2 * n);
+    for (int u = 0; u < n; u++) {
+      for (int k = 0; k < 8; k++) {
+        int v = k == 0 ? hidden.get(u) : random.nextInt(n);
+        int cost = random.nextInt(1000);
+        builder.addEdge(u, n + v, (double) cost);
+        matrix[u][v] = Math.min(matrix[u][v], cost);
+      }
+    }
+    double expected = new MinimumWeightBipartiteMatchingHungarian(matrix).getMinWeightCost();
+
+    MinimumWeightBipartiteMatchingAuctionCsr solver =
+        new MinimumWeightBipartiteMatchingAuctionCsr(builder.build(), n);
+    assertThat(solver.getMinWeightCost()).isWithin(1e-6).of(expected);
+
+    int[] matching = solver.getMatching();
+    Set<Integer> objects = new HashSet<>();
+    for (int u = 0; u < n; u++) objects.add(matching[u]);
+    assertThat(objects).hasSize(n);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoPerfectMatching() {
+    CsrGraph g = new CsrGraph.Builder(4).addEdge(0, 2, 1.0).addEdge(1, 2, 1.0).build();
+    new MinimumWeightBipartiteMatchingAuctionCsr(g, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfNodes() {
+    new MinimumWeightBipartiteMatchingAuctionCsr(new CsrGraph.Builder(3).build(), 1);
+  }
+
+  // Random sparse graphs with a perfect matching and integer costs, checking the cost against the
+  // Hungarian algorithm on the matrix of the graph and that the matching is valid.
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(25);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(40), range = loop % 3 == 0 ? 5 : 100000;
+      List<Integer> hidden = new ArrayList<>();
+      for (int i = 0; i < n; i++) hidden.add(i);
+      Collections.shuffle(hidden, random);
+
+      // The missing edges cost more than any perfect matching using the edges of the graph.
+      double[][] matrix = new double[n][n];
+      for (double[] row : matrix) Arrays.fill(row, 1e12);
+      CsrGraph.Builder builder = new CsrGraph.Builder(2 * n);
+      for (int u = 0; u < n; u++) {
+        for (int k = random.nextInt(5); k >= 0; k--) {
+          int v = k == 0 ? hidden.get(u) : random.nextInt(n);
+          int cost = random.nextInt(range) - range / 4;
+          builder.addEdge(u, n + v, (double) cost);
+          matrix[u][v] = Math.min(matrix[u][v], cost);
+        }
+      }
+      CsrGraph g = builder.build();
+      double expected = new MinimumWeightBipartiteMatchingHungarian(matrix).getMinWeightCost();
+
+      MinimumWeightBipartiteMatchingAuctionCsr solver =
+          new MinimumWeightBipartiteMatchingAuctionCsr(g, n);
+      assertThat(solver.getMinWeightCost()).isWithin(1e-6).of(expected);
+
+      int[] matching = solver.getMatching();
+      Set<Integer> objects = new HashSet<>();
+      double total = 0;
+      for (int u = 0; u < n; u++) {
+        assertThat(matching[u]).isAtLeast(n);
+        objects.add(matching[u]);
+        total += matrix[u][matching[u] - n];
+      }
+      assertThat(objects).hasSize(n);
+      assertThat(total).isWithin(1e-6).of(expected);
+    }
+  }
+}
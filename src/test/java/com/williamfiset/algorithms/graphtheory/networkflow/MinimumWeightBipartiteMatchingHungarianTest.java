@@ -0,0 +1,99 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.*;
+import org.junit.*;
+
+public class MinimumWeightBipartiteMatchingHungarianTest {
+
+  @Test
+  public void testSmallMatrix() {
+    double[][] cost = {
+      {4, 1, 3},
+      {2, 0, 5},
+      {3, 2, 2}
+    };
+    MinimumWeightBipartiteMatchingHungarian solver =
+        new MinimumWeightBipartiteMatchingHungarian(cost);
+    assertThat(solver.getMinWeightCost()).isWithin(1e-9).of(5.0);
+    assertThat(solver.getMatching()).isEqualTo(new int[] {1, 0, 2});
+  }
+
+  @Test
+  public void testRectangularMatrix() {
+    // The cheapest column of both rows is 0, so one of them has to take its second best.
+    double[][] cost = {
+      {1, 9, 4, 8},
+      {2, 7, 9, 3}
+    };
+    MinimumWeightBipartiteMatchingHungarian solver =
+        new MinimumWeightBipartiteMatchingHungarian(cost);
+    assertThat(solver.getMinWeightCost()).isWithin(1e-9).of(4.0);
+    assertThat(solver.getMatching()).isEqualTo(new int[] {0, 3});
+  }
+
+  @Test
+  public void testEmptyMatrix() {
+    assertThat(new MinimumWeightBipartiteMatchingHungarian(new double[0][0]).getMinWeightCost())
+        .isWithin(1e-9)
+        .of(0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoreRowsThanColumns() {
+    new MinimumWeightBipartiteMatchingHungarian(new double[3][2]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testJaggedMatrix() {
+    new MinimumWeightBipartiteMatchingHungarian(new double[][] {{1, 2}, {3}});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInfiniteCost() {
+    new MinimumWeightBipartiteMatchingHungarian(new double[][] {{Double.POSITIVE_INFINITY}});
+  }
+
+  // Random square and rectangular matrices, checking the cost against trying every assignment
+  // and that the matching is valid and has that cost.
+  @Test
+  public void testRandomMatrices() {
+    Random random = new Random(25);
+    for (int loop = 0; loop < 500; loop++) {
+      int n = 1 + random.nextInt(6), m = n + random.nextInt(3);
+      double[][] cost = new double[n][m];
+      for (double[] row : cost) {
+        for (int j = 0; j < m; j++) {
+          row[j] = loop % 2 == 0 ? random.nextInt(20) - 5 : random.nextDouble() * 100;
+        }
+      }
+      MinimumWeightBipartiteMatchingHungarian solver =
+          new MinimumWeightBipartiteMatchingHungarian(cost);
+      double expected = bruteForce(cost, 0, new boolean[m]);
+      assertThat(solver.getMinWeightCost()).isWithin(1e-6).of(expected);
+
+      int[] matching = solver.getMatching();
+      Set<Integer> columns = new HashSet<>();
+      double total = 0;
+      for (int i = 0; i < n; i++) {
+        columns.add(matching[i]);
+        total += cost[i][matching[i]];
+      }
+      assertThat(columns).hasSize(n);
+      assertThat(total).isWithin(1e-6).of(expected);
+    }
+  }
+
+  private static double bruteForce(double[][] cost, int row, boolean[] used) {
+    if (row == cost.length) return 0;
+    double best = Double.POSITIVE_INFINITY;
+    for (int j = 0; j < used.length; j++) {
+      if (used[j]) continue;
+      used[j] = true;
+      best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+      used[j] = false;
+    }
+    return best;
+  }
+}
@@ -0,0 +1,152 @@
+package com.williamfiset.algorithms.sorting;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LsdRadixSortTest {
+  static Random random = new Random();
+
+  LsdRadixSort sorter;
+
+  @Before
+  public void setup() {
+    sorter = new LsdRadixSort();
+  }
+
+  @Test
+  public void randomInts_fullRange() {
+    for (int size = 0; size < 1000; size++) {
+      int[] values = new int[size];
+      for (int i = 0; i < size; i++) values[i] = random.nextInt();
+      int[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy, new int[size]);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
+
+  @Test
+  public void randomLongs_fullRange() {
+    for (int size = 0; size < 1000; size++) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) values[i] = random.nextLong();
+      long[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy, new long[size]);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
+
+  // Timestamps only differ in their low order bytes, so most passes get skipped.
+  @Test
+  public void timestamps_skippedPasses() {
+    long base = 1600000000000L;
+    for (int size = 0; size < 1000; size++) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) values[i] = base + random.nextInt(1 << 16);
+      long[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy, new long[size]);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
+
+  @Test
+  public void sameValues() {
+    long[] values = new long[100];
+    Arrays.fill(values, -7L);
+    long[] copy = values.clone();
+    sorter.sort(copy, new long[copy.length]);
+    assertThat(values).isEqualTo(copy);
+  }
+
+  @Test
+  public void randomDoubles_withSpecialValues() {
+    double[] special = {
+      Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE
+    };
+    for (int size = 0; size < 1000; size++) {
+      double[] values = new double[size];
+      for (int i = 0; i < size; i++) {
+        if (random.nextInt(10) == 0) values[i] = special[random.nextInt(special.length)];
+        else values[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20));
+      }
+      double[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy, new long[size], new long[size]);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
+
+  @Test
+  public void randomFloats() {
+    for (int size = 0; size < 1000; size++) {
+      float[] values = new float[size];
+      for (int i = 0; i < size; i++) values[i] = (random.nextFloat() - 0.5f) * 1e6f;
+      float[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy, new int[size], new int[size]);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
+
+  @Test
+  public void keysWithPayload_isStable() {
+    int size = 10000;
+    long[] keys = new long[size];
+    int[] payload = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = random.nextInt(100) - 50;
+      payload[i] = i;
+    }
+    long[] original = keys.clone();
+
+    sorter.sort(keys, payload, new long[size], new int[size]);
+
+    for (int i = 0; i < size; i++) {
+      assertThat(original[payload[i]]).isEqualTo(keys[i]);
+      if (i > 0) {
+        assertThat(keys[i - 1]).isAtMost(keys[i]);
+        if (keys[i - 1] == keys[i]) assertThat(payload[i - 1]).isLessThan(payload[i]);
+      }
+    }
+  }
+
+  @Test
+  public void intKeysWithPayload() {
+    int size = 10000;
+    int[] keys = new int[size];
+    int[] payload = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = random.nextInt();
+      payload[i] = i;
+    }
+    int[] original = keys.clone();
+    int[] expected = keys.clone();
+    Arrays.sort(expected);
+
+    sorter.sort(keys, payload, new int[size], new int[size]);
+
+    assertThat(keys).isEqualTo(expected);
+    for (int i = 0; i < size; i++) assertThat(original[payload[i]]).isEqualTo(keys[i]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void scratchTooSmall() {
+    sorter.sort(new long[10], new long[9]);
+  }
+}
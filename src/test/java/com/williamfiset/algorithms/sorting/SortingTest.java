@@ -21,7 +21,12 @@ public class SortingTest {
     COUNTING_SORT(new CountingSort()),
     HEAP_SORT(new Heapsort()),
     INSERTION_SORT(new InsertionSort()),
+    LSD_RADIX_SORT(new LsdRadixSort()),
     MERGE_SORT(new MergeSort()),
+    // The parallel sorts use a tiny sequential cutoff so that the small arrays
+    // generated by these tests still get split across multiple tasks.
+    PARALLEL_MERGE_SORT(new ParallelMergeSort(16)),
+    PARALLEL_QUICK_SORT3(new ParallelQuickSort3(16)),
     QUICK_SORT(new QuickSort()),
     QUICK_SORT3(new QuickSort3()),
     RADIX_SORT(new RadixSort()),
@@ -45,7 +50,10 @@ public class SortingTest {
           SortingAlgorithm.COUNTING_SORT,
           SortingAlgorithm.HEAP_SORT,
           SortingAlgorithm.INSERTION_SORT,
+          SortingAlgorithm.LSD_RADIX_SORT,
           SortingAlgorithm.MERGE_SORT,
+          SortingAlgorithm.PARALLEL_MERGE_SORT,
+          SortingAlgorithm.PARALLEL_QUICK_SORT3,
           SortingAlgorithm.QUICK_SORT,
           SortingAlgorithm.QUICK_SORT3,
           SortingAlgorithm.RADIX_SORT,
@@ -87,4 +95,18 @@ public class SortingTest {
       }
     }
   }
+
+  @Test
+  public void verifyParallelSortingAlgorithms_largeArrays() {
+    InplaceSort[] sorters = {new ParallelMergeSort(), new ParallelQuickSort3()};
+    for (InplaceSort sorter : sorters) {
+      int[] values = TestUtils.randomIntegerArray(1 << 18, -1000000, 1000000);
+      int[] copy = values.clone();
+
+      Arrays.sort(values);
+      sorter.sort(copy);
+
+      assertThat(values).isEqualTo(copy);
+    }
+  }
 }
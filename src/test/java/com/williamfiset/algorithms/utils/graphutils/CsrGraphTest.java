@@ -0,0 +1,148 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeNodeCount() {
+    new CsrGraph.Builder(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEdgeOutOfBounds() {
+    new CsrGraph.Builder(3).addEdge(0, 3);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testMixedWeightTypes() {
+    new CsrGraph.Builder(3).addEdge(0, 1, 2.5).addEdge(1, 2, 3L);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDoubleWeightsAsLongs() {
+    new CsrGraph.Builder(2).addEdge(0, 1, 2.5).build().longWeights();
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    CsrGraph g = new CsrGraph.Builder(0).build();
+    assertThat(g.numNodes()).isEqualTo(0);
+    assertThat(g.numEdges()).isEqualTo(0);
+    assertThat(g.offsets()).isEqualTo(new int[] {0});
+  }
+
+  @Test
+  public void testEdgesKeepInsertionOrderPerNode() {
+    CsrGraph g =
+        new CsrGraph.Builder(4)
+            .addEdge(2, 3, 1.5)
+            .addEdge(0, 2, 2.5)
+            .addEdge(2, 0, 3.5)
+            .addEdge(0, 1, 4.5)
+            .addEdge(2, 1, 5.5)
+            .build();
+
+    assertThat(g.offsets()).isEqualTo(new int[] {0, 2, 2, 5, 5});
+    assertThat(g.targets()).isEqualTo(new int[] {2, 1, 3, 0, 1});
+    assertThat(g.weights()).isEqualTo(new double[] {2.5, 4.5, 1.5, 3.5, 5.5});
+    assertThat(g.outDegree(0)).isEqualTo(2);
+    assertThat(g.outDegree(1)).isEqualTo(0);
+    assertThat(g.outDegree(3)).isEqualTo(0);
+  }
+
+  @Test
+  public void testWeightConversions() {
+    CsrGraph unweighted = new CsrGraph.Builder(3).addUndirectedEdge(0, 1).build();
+    assertThat(unweighted.weights()).isEqualTo(new double[] {1, 1});
+    assertThat(unweighted.longWeights()).isEqualTo(new long[] {1, 1});
+    assertThat(unweighted.hasDoubleWeights()).isFalse();
+    assertThat(unweighted.hasLongWeights()).isFalse();
+
+    // Edges added without a weight before or after weighted ones weigh 1.
+    CsrGraph longs =
+        new CsrGraph.Builder(3).addEdge(0, 1).addEdge(1, 2, 7L).addEdge(2, 0).build();
+    assertThat(longs.hasLongWeights()).isTrue();
+    assertThat(longs.longWeights()).isEqualTo(new long[] {1, 7, 1});
+    assertThat(longs.weights()).isEqualTo(new double[] {1, 7, 1});
+    assertThat(longs.weight(1)).isEqualTo(7.0);
+    assertThat(longs.longWeight(1)).isEqualTo(7L);
+  }
+
+  @Test
+  public void testSourceOfEdge() {
+    CsrGraph g =
+        new CsrGraph.Builder(6).addEdge(1, 2).addEdge(1, 3).addEdge(4, 0).addEdge(5, 5).build();
+    assertThat(g.source(0)).isEqualTo(1);
+    assertThat(g.source(1)).isEqualTo(1);
+    assertThat(g.source(2)).isEqualTo(4);
+    assertThat(g.source(3)).isEqualTo(5);
+  }
+
+  @Test
+  public void testTranspose() {
+    CsrGraph g =
+        new CsrGraph.Builder(3)
+            .addEdge(0, 1, 1L)
+            .addEdge(0, 2, 2L)
+            .addEdge(1, 2, 3L)
+            .addEdge(2, 0, 4L)
+            .build();
+    CsrGraph t = g.transpose();
+    assertThat(t.offsets()).isEqualTo(new int[] {0, 1, 2, 4});
+    assertThat(t.targets()).isEqualTo(new int[] {2, 0, 0, 1});
+    assertThat(t.longWeights()).isEqualTo(new long[] {4, 1, 2, 3});
+  }
+
+  @Test
+  public void testBuilderGrowsPastExpectedEdges() {
+    CsrGraph.Builder builder = new CsrGraph.Builder(10, 1);
+    for (int i = 0; i < 100; i++) builder.addEdge(i % 10, (i * 7) % 10, (double) i);
+    CsrGraph g = builder.build();
+    assertThat(g.numEdges()).isEqualTo(100);
+    for (int e = 0; e < 100; e++) {
+      int i = (int) g.weight(e);
+      assertThat(g.source(e)).isEqualTo(i % 10);
+      assertThat(g.target(e)).isEqualTo((i * 7) % 10);
+    }
+  }
+
+  @Test
+  public void testFromAdjacencyListMatchesList() {
+    Random random = new Random(7);
+    for (int loop = 0; loop < 50; loop++) {
+      int n = 1 + random.nextInt(30);
+      List<List<Integer>> list = Utils.createEmptyAdjacencyList(n);
+      for (int i = random.nextInt(4 * n); i > 0; i--) {
+        Utils.addDirectedEdge(list, random.nextInt(n), random.nextInt(n));
+      }
+
+      CsrGraph g = CsrGraph.fromAdjacencyList(list);
+      assertThat(g.numNodes()).isEqualTo(n);
+      for (int u = 0; u < n; u++) {
+        List<Integer> edges = new ArrayList<>();
+        for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) edges.add(g.target(e));
+        assertThat(edges).isEqualTo(list.get(u));
+      }
+    }
+  }
+
+  @Test
+  public void testFromAdjacencyListOfEdgeObjects() {
+    List<List<double[]>> list = new ArrayList<>();
+    for (int i = 0; i < 3; i++) list.add(new ArrayList<>());
+    list.get(0).add(new double[] {2, 0.5});
+    list.get(2).add(new double[] {1, 1.5});
+    list.get(2).add(new double[] {0, 2.5});
+
+    CsrGraph g = CsrGraph.fromAdjacencyList(list, edge -> (int) edge[0], edge -> edge[1]);
+    assertThat(g.targets()).isEqualTo(new int[] {2, 1, 0});
+    assertThat(g.weights()).isEqualTo(new double[] {0.5, 1.5, 2.5});
+    assertThat(g.offsets()).isEqualTo(new int[] {0, 1, 1, 3});
+  }
+}
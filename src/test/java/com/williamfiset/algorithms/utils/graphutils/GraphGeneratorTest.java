@@ -0,0 +1,250 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator.ErdosRenyiGenerator;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator.GeometricGenerator;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator.GridGenerator;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator.RMatGenerator;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class GraphGeneratorTest {
+
+  @Test
+  public void testRMat() {
+    CsrGraph g = new RMatGenerator(10, 8).seed(1).toCsrGraph();
+    assertThat(g.numNodes()).isEqualTo(1024);
+    assertThat(g.numEdges()).isEqualTo(8 * 1024);
+    assertThat(g.hasDoubleWeights() || g.hasLongWeights()).isFalse();
+
+    // The degrees are skewed: node 0 gets far more than its share of the edges.
+    assertThat(g.outDegree(0)).isGreaterThan(100);
+
+    CsrGraph undirected = new RMatGenerator(10, 8).undirected(true).seed(1).toCsrGraph();
+    assertThat(undirected.numEdges()).isEqualTo(2 * 8 * 1024);
+    assertSymmetric(undirected);
+  }
+
+  @Test
+  public void testScrambledRMatKeepsDegrees() {
+    CsrGraph g = new RMatGenerator(8, 4).seed(3).toCsrGraph();
+    CsrGraph scrambled = new RMatGenerator(8, 4).seed(3).scramble(true).toCsrGraph();
+    int maxDegree = 0, scrambledMaxDegree = 0;
+    for (int u = 0; u < g.numNodes(); u++) {
+      maxDegree = Math.max(maxDegree, g.outDegree(u));
+      scrambledMaxDegree = Math.max(scrambledMaxDegree, scrambled.outDegree(u));
+    }
+    assertThat(scrambled.numEdges()).isEqualTo(g.numEdges());
+    assertThat(scrambledMaxDegree).isEqualTo(maxDegree);
+  }
+
+  @Test
+  public void testSameSeedSameGraph() {
+    assertThat(new RMatGenerator(8, 4).seed(5).weights(1, 2).toCsrGraph().toString())
+        .isEqualTo(new RMatGenerator(8, 4).seed(5).weights(1, 2).toCsrGraph().toString());
+    assertThat(new RMatGenerator(8, 4).seed(5).toCsrGraph().toString())
+        .isNotEqualTo(new RMatGenerator(8, 4).seed(6).toCsrGraph().toString());
+  }
+
+  @Test
+  public void testGrid() {
+    CsrGraph g = new GridGenerator(3, 4).toCsrGraph();
+    assertThat(g.numNodes()).isEqualTo(12);
+    assertThat(g.numEdges()).isEqualTo(2 * (3 * 3 + 2 * 4));
+    assertThat(g.hasDoubleWeights()).isTrue();
+    for (int e = 0; e < g.numEdges(); e++) assertThat(g.weight(e)).isEqualTo(1.0);
+    assertSymmetric(g);
+
+    // Node 5 is at row 1, column 1.
+    Set<Integer> neighbours = new HashSet<>();
+    for (int e = g.offsets()[5]; e < g.offsets()[6]; e++) neighbours.add(g.target(e));
+    assertThat(neighbours).containsExactly(1, 4, 6, 9);
+  }
+
+  @Test
+  public void testRoadLikeGrid() {
+    CsrGraph g = new GridGenerator(81, 81).roadLike().weights(1, 2).seed(2).toCsrGraph();
+    long full = 2L * (81 * 80 + 80 * 81);
+    assertThat((long) g.numEdges()).isLessThan(full);
+    assertThat((long) g.numEdges()).isGreaterThan(full * 7 / 10);
+
+    // Highways along row 0 are never removed and are 8 times faster.
+    for (int c = 0; c + 1 < 81; c++) {
+      boolean found = false;
+      for (int e = g.offsets()[c]; e < g.offsets()[c + 1]; e++) {
+        if (g.target(e) != c + 1) continue;
+        found = true;
+        assertThat(g.weight(e)).isAtLeast(1.0 / 8);
+        assertThat(g.weight(e)).isLessThan(2.0 / 8);
+      }
+      assertThat(found).isTrue();
+    }
+  }
+
+  @Test
+  public void testRoadLikeGridCapacities() {
+    CsrGraph g = new GridGenerator(81, 81).roadLike().capacities(1, 10).seed(2).toCsrGraph();
+    assertThat(g.hasLongWeights()).isTrue();
+
+    // Row 0 is a highway, row 8 an arterial road and row 1 a local street, whose capacities are
+    // scaled by 8, 3 and 1.
+    long[] total = new long[3];
+    int[] rows = {0, 8, 1}, speeds = {8, 3, 1};
+    for (int i = 0; i < 3; i++) {
+      for (int c = 0; c + 1 < 81; c++) {
+        int u = rows[i] * 81 + c;
+        for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) {
+          if (g.target(e) != u + 1) continue;
+          long capacity = g.longWeight(e);
+          assertThat(capacity % speeds[i]).isEqualTo(0);
+          assertThat(capacity).isAtLeast(speeds[i]);
+          assertThat(capacity).isAtMost(10L * speeds[i]);
+          total[i] += capacity;
+        }
+      }
+    }
+    assertThat(total[0]).isGreaterThan(total[1]);
+    assertThat(total[1]).isGreaterThan(total[2]);
+  }
+
+  @Test
+  public void testGeometricAgainstAllPairs() {
+    GeometricGenerator generator = new GeometricGenerator(500, 0.08).seed(4);
+    CsrGraph g = generator.toCsrGraph();
+    double[][] points = generator.coordinates();
+    double[] x = points[0], y = points[1];
+
+    Set<Long> expected = new HashSet<>();
+    for (int u = 0; u < 500; u++) {
+      for (int v = 0; v < 500; v++) {
+        if (u != v && Math.hypot(x[u] - x[v], y[u] - y[v]) <= 0.08) expected.add(key(u, v));
+      }
+    }
+    Set<Long> actual = new HashSet<>();
+    for (int u = 0; u < 500; u++) {
+      for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) {
+        int v = g.target(e);
+        actual.add(key(u, v));
+        assertThat(g.weight(e)).isEqualTo(Math.hypot(x[u] - x[v], y[u] - y[v]));
+      }
+    }
+    assertThat(g.numEdges()).isEqualTo(expected.size());
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void testGnm() {
+    for (boolean undirected : new boolean[] {false, true}) {
+      int n = 30;
+      long pairs = undirected ? n * (n - 1) / 2 : n * (n - 1);
+      for (long m : new long[] {0, 1, 100, pairs}) {
+        CsrGraph g = ErdosRenyiGenerator.gnm(n, m).undirected(undirected).seed(m).toCsrGraph();
+        assertThat((long) g.numEdges()).isEqualTo(undirected ? 2 * m : m);
+        assertSimple(g);
+        if (undirected) assertSymmetric(g);
+      }
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGnmTooManyEdges() {
+    ErdosRenyiGenerator.gnm(3, 7).toCsrGraph();
+  }
+
+  @Test
+  public void testGnp() {
+    assertThat(ErdosRenyiGenerator.gnp(20, 0).toCsrGraph().numEdges()).isEqualTo(0);
+    assertThat(ErdosRenyiGenerator.gnp(20, 1).toCsrGraph().numEdges()).isEqualTo(20 * 19);
+    assertThat(ErdosRenyiGenerator.gnp(20, 1).undirected(true).toCsrGraph().numEdges())
+        .isEqualTo(20 * 19);
+
+    CsrGraph g = ErdosRenyiGenerator.gnp(2000, 0.01).seed(8).toCsrGraph();
+    assertSimple(g);
+    // 39980 edges are expected, with a standard deviation of about 200.
+    assertThat(g.numEdges()).isGreaterThan(38980);
+    assertThat(g.numEdges()).isLessThan(40980);
+
+    CsrGraph undirected = ErdosRenyiGenerator.gnp(1000, 0.02).undirected(true).toCsrGraph();
+    assertSimple(undirected);
+    assertSymmetric(undirected);
+  }
+
+  @Test
+  public void testCapacities() {
+    CsrGraph g = ErdosRenyiGenerator.gnp(100, 0.1).capacities(5, 9).seed(1).toCsrGraph();
+    assertThat(g.hasLongWeights()).isTrue();
+    Set<Long> seen = new HashSet<>();
+    for (int e = 0; e < g.numEdges(); e++) seen.add(g.longWeight(e));
+    assertThat(seen).containsExactly(5L, 6L, 7L, 8L, 9L);
+  }
+
+  @Test
+  public void testEdgeList() throws IOException {
+    StringWriter writer = new StringWriter();
+    new GridGenerator(1, 3).undirected(false).capacities(4, 4).writeEdgeList(writer);
+    assertThat(writer.toString()).isEqualTo("0 1 4\n1 2 4\n");
+
+    writer = new StringWriter();
+    ErdosRenyiGenerator.gnm(2, 2).writeEdgeList(writer);
+    assertThat(writer.toString().split("\n").length).isEqualTo(2);
+  }
+
+  @Test
+  public void testWriteGraphFile() throws IOException {
+    Path dir = Files.createTempDirectory("graph-generator");
+    Path file = dir.resolve("graph.bin");
+    try {
+      // The R-MAT graph leaves the last nodes without any edge, they must still be in the file.
+      RMatGenerator generator = new RMatGenerator(10, 8).weights(0, 10).seed(1);
+      generator.writeGraphFile(file);
+      CsrGraph expected = generator.toCsrGraph();
+      try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+        assertThat(mapped.numNodes()).isEqualTo(expected.numNodes());
+        assertThat(mapped.numEdges()).isEqualTo((long) expected.numEdges());
+        for (int u = 0; u < expected.numNodes(); u++) {
+          assertThat(mapped.outDegree(u)).isEqualTo(expected.outDegree(u));
+          for (long e = mapped.firstEdge(u), f = expected.offsets()[u]; e < mapped.endEdge(u); ) {
+            assertThat(mapped.target(e)).isEqualTo(expected.target((int) f));
+            assertThat(mapped.weight(e++)).isEqualTo(expected.weight((int) f++));
+          }
+        }
+      }
+      try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+        assertThat(files.count()).isEqualTo(1);
+      }
+    } finally {
+      Files.deleteIfExists(file);
+      Files.delete(dir);
+    }
+  }
+
+  private static long key(int u, int v) {
+    return (long) u << 32 | v;
+  }
+
+  // No self loops and no duplicate edges.
+  private static void assertSimple(CsrGraph g) {
+    Set<Long> edges = new HashSet<>();
+    for (int u = 0; u < g.numNodes(); u++) {
+      for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) {
+        assertThat(g.target(e)).isNotEqualTo(u);
+        assertThat(edges.add(key(u, g.target(e)))).isTrue();
+      }
+    }
+  }
+
+  // Every edge (u, v) has a matching edge (v, u).
+  private static void assertSymmetric(CsrGraph g) {
+    Set<Long> edges = new HashSet<>();
+    for (int u = 0; u < g.numNodes(); u++) {
+      for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) edges.add(key(u, g.target(e)));
+    }
+    for (long edge : edges) assertThat(edges).contains(key((int) edge, (int) (edge >>> 32)));
+  }
+}
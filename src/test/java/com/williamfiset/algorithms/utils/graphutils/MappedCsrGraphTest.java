@@ -0,0 +1,208 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedCsrGraphTest {
+
+  private Path dir, file;
+
+  @Before
+  public void setup() throws IOException {
+    dir = Files.createTempDirectory("mapped-csr-graph");
+    file = dir.resolve("graph.bin");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path path : (Iterable<Path>) files::iterator) Files.delete(path);
+    }
+    Files.delete(dir);
+  }
+
+  private static CsrGraph randomGraph(Random random, int n, int m, int weightType) {
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, m);
+    for (int i = 0; i < m; i++) {
+      int u = random.nextInt(n), v = random.nextInt(n);
+      if (weightType == MappedCsrGraph.DOUBLE_WEIGHTS) builder.addEdge(u, v, random.nextDouble());
+      else if (weightType == MappedCsrGraph.LONG_WEIGHTS) builder.addEdge(u, v, random.nextLong());
+      else builder.addEdge(u, v);
+    }
+    return builder.build();
+  }
+
+  private static void assertSameGraph(MappedCsrGraph mapped, CsrGraph graph) {
+    assertThat(mapped.numNodes()).isEqualTo(graph.numNodes());
+    assertThat(mapped.numEdges()).isEqualTo((long) graph.numEdges());
+    assertThat(mapped.hasDoubleWeights()).isEqualTo(graph.hasDoubleWeights());
+    assertThat(mapped.hasLongWeights()).isEqualTo(graph.hasLongWeights());
+    for (int u = 0; u < graph.numNodes(); u++) {
+      assertThat(mapped.firstEdge(u)).isEqualTo((long) graph.offsets()[u]);
+      assertThat(mapped.outDegree(u)).isEqualTo(graph.outDegree(u));
+    }
+    for (int e = 0; e < graph.numEdges(); e++) {
+      assertThat(mapped.target(e)).isEqualTo(graph.target(e));
+      assertThat(mapped.weight(e)).isEqualTo(graph.weight(e));
+    }
+  }
+
+  @Test
+  public void testWriteAndOpen() throws IOException {
+    Random random = new Random(3);
+    for (int weightType = 0; weightType <= 2; weightType++) {
+      CsrGraph graph = randomGraph(random, 100, 1000, weightType);
+      MappedCsrGraph.write(graph, file);
+      try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+        assertSameGraph(mapped, graph);
+        CsrGraph copy = mapped.toCsrGraph();
+        assertThat(copy.offsets()).isEqualTo(graph.offsets());
+        assertThat(copy.targets()).isEqualTo(graph.targets());
+        assertThat(copy.weights()).isEqualTo(graph.weights());
+      }
+    }
+  }
+
+  @Test
+  public void testManySegments() throws IOException {
+    // Segments of 256 bytes, so every section spans several segments.
+    CsrGraph graph = randomGraph(new Random(5), 500, 3001, MappedCsrGraph.LONG_WEIGHTS);
+    MappedCsrGraph.write(graph, file);
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file, 8)) {
+      assertSameGraph(mapped, graph);
+      assertThat(mapped.longWeight(3000)).isEqualTo(graph.longWeight(3000));
+    }
+  }
+
+  @Test
+  public void testEmptyGraph() throws IOException {
+    MappedCsrGraph.write(new CsrGraph.Builder(0).build(), file);
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      assertThat(mapped.numNodes()).isEqualTo(0);
+      assertThat(mapped.numEdges()).isEqualTo(0L);
+    }
+  }
+
+  @Test
+  public void testConvertEdgeList() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(
+        text,
+        Arrays.asList("# comment", "0 1 5", "", "2\t0 7", "  1 2  ", "% another comment", "0 3 2"),
+        StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, false);
+
+    CsrGraph expected =
+        new CsrGraph.Builder(4)
+            .addEdge(0, 1, 5L)
+            .addEdge(2, 0, 7L)
+            .addEdge(1, 2)
+            .addEdge(0, 3, 2L)
+            .build();
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      assertSameGraph(mapped, expected);
+      assertThat(mapped.hasLongWeights()).isTrue();
+    }
+  }
+
+  @Test
+  public void testConvertUndirectedEdgeListWithDoubleWeights() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, Arrays.asList("0 1 3", "1 2 0.5", "3 3"), StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, true);
+
+    CsrGraph expected =
+        new CsrGraph.Builder(4)
+            .addUndirectedEdge(0, 1, 3.0)
+            .addUndirectedEdge(1, 2, 0.5)
+            .addUndirectedEdge(3, 3, 1.0)
+            .build();
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      assertSameGraph(mapped, expected);
+      assertThat(mapped.hasDoubleWeights()).isTrue();
+    }
+  }
+
+  @Test
+  public void testConvertMatchesWrite() throws IOException {
+    Random random = new Random(11);
+    CsrGraph graph = randomGraph(random, 1000, 20000, MappedCsrGraph.UNWEIGHTED);
+    StringBuilder sb = new StringBuilder();
+    for (int u = 0; u < graph.numNodes(); u++) {
+      for (int e = graph.offsets()[u]; e < graph.offsets()[u + 1]; e++) {
+        sb.append(u).append(' ').append(graph.target(e)).append('\n');
+      }
+    }
+    // Node 999 may have no edges at all, an edge list cannot express that.
+    sb.append("999 999\n");
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, sb.toString().getBytes(StandardCharsets.UTF_8));
+    MappedCsrGraph.convertEdgeList(text, file, false);
+
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      assertThat(mapped.numNodes()).isEqualTo(1000);
+      assertThat(mapped.numEdges()).isEqualTo(20001L);
+      for (int e = 0; e < graph.numEdges(); e++) {
+        assertThat(mapped.target(e)).isEqualTo(graph.target(e));
+      }
+    }
+  }
+
+  @Test
+  public void testConvertWithNumberOfNodes() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, Arrays.asList("0 1", "2 1"), StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, false, 6);
+
+    CsrGraph expected = new CsrGraph.Builder(6).addEdge(0, 1).addEdge(2, 1).build();
+    try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+      assertSameGraph(mapped, expected);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testConvertNodeOutOfRange() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, Arrays.asList("0 1", "1 3"), StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, false, 3);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidEdgeList() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, Arrays.asList("0 1", "1 x"), StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, false);
+  }
+
+  // Only spaces and tabs separate the fields, so a comma is part of the node index.
+  @Test(expected = IOException.class)
+  public void testCommaSeparatedEdgeList() throws IOException {
+    Path text = dir.resolve("edges.txt");
+    Files.write(text, Arrays.asList("0,1"), StandardCharsets.UTF_8);
+    MappedCsrGraph.convertEdgeList(text, file, false);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenInvalidFile() throws IOException {
+    Files.write(file, new byte[100]);
+    MappedCsrGraph.open(file);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenTruncatedFile() throws IOException {
+    MappedCsrGraph.write(randomGraph(new Random(1), 10, 100, 0), file);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+    MappedCsrGraph.open(file);
+  }
+}